@@ -6,6 +6,8 @@ package noesis;
 // Author:      Fernando Berzal
 // E-mail:      berzal@acm.org
 
+import java.util.Arrays;
+
 import ikor.collection.CollectionFactory;
 import ikor.collection.List;
 import ikor.collection.Dictionary;
@@ -77,21 +79,46 @@ public class ArrayNetwork<V,E> extends Network<V, E>
 	@Override
 	public final boolean add(int source, int destination) 
 	{
-		return net.add(source,destination);
+		boolean ok = net.add(source,destination);
+		
+		// Link values, if any, kept in step with link indices
+		
+		if (ok && (content!=null) && (source<content.length) && (content[source]!=null))
+			content[source].add(null);
+		
+		return ok;
+	}
+
+	@Override
+	public final int addLinks (int[] sources, int[] destinations)
+	{
+		if (content==null)
+			return net.addLinks(sources,destinations);
+		else
+			return super.addLinks(sources,destinations);
 	}
 
 	@Override
 	public final boolean add(int sourceIndex, int destinationIndex, E value) 
 	{
-		boolean ok = add(sourceIndex,destinationIndex);
+		boolean ok = net.add(sourceIndex,destinationIndex);
 		
 		if (ok) {
 			
 			if (content==null)
 				content = new List[size()];
+			else if (sourceIndex>=content.length)
+				content = Arrays.copyOf(content, size());
 			
-			if (content[sourceIndex]==null)
+			if (content[sourceIndex]==null) {
+				
 				content[sourceIndex] = CollectionFactory.createList();
+
+				// Previous links without values
+				
+				for (int i=1; i<net.outDegree(sourceIndex); i++)
+					content[sourceIndex].add(null);
+			}
 			
 			content[sourceIndex].add(value);			
 		}
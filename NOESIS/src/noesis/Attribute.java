@@ -43,12 +43,12 @@ public class Attribute<T> extends DynamicList<T>
 	}	
 	
 	
-	public final void set (int index, String value)
+	public void set (int index, String value)
 	{
 		if (type!=null)
-			super.set( index, (T) type.fromString(value) );
+			set( index, (T) type.fromString(value) );
 		else
-			super.set( index, (T) value );
+			set( index, (T) value );
 	}
 	
 	
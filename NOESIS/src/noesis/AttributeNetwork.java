@@ -59,6 +59,39 @@ public class AttributeNetwork extends BasicNetwork implements LinkIndexer
 		return super.add(source,destination);
 	}
 	
+	/**
+	 * Add a batch of links to the network.
+	 * Links are added one at a time, since each new link must be indexed for link attributes.
+	 * Links between nonexistent nodes are ignored.
+	 * @param sources Source node indices
+	 * @param destinations Destination node indices
+	 * @return Number of links added to the network
+	 */
+	@Override
+	public int addLinks (int[] sources, int[] destinations)
+	{
+		int added = 0;
+		int links = Math.min(sources.length, destinations.length);
+		
+		for (int i=0; i<links; i++) {
+			
+			int source = sources[i];
+			int destination = destinations[i];
+			
+			// Duplicate links must not reach the link index
+			
+			if (  (source>=0) 
+			   && (source<size())
+			   && (destination>=0)
+			   && (destination<size())
+			   && !contains(source,destination)
+			   && add(source,destination) )
+				added++;
+		}
+		
+		return added;
+	}
+	
 	/**
 	 * Index of a given link, O(1).
 	 * @param source Source node index.
@@ -6,10 +6,14 @@ package noesis;
 // Author:      Fernando Berzal
 // E-mail:      berzal@acm.org
 
+import java.util.Arrays;
 
 /**
  * Basic network ADT implementation using arrays
  * 
+ * Adjacency arrays can optionally be kept sorted, so that link lookups 
+ * (i.e. contains, get & getLinkIndex) take O(log d) instead of O(d) time.
+ * 
  * @author Fernando Berzal
  */
 public class BasicNetwork extends Network<Integer,Integer> 
@@ -20,6 +24,61 @@ public class BasicNetwork extends Network<Integer,Integer>
 	private int[][] inLinks;
 	private int[][] outLinks;
 
+	private boolean sorted;
+	
+	
+	// Constructors
+	
+	public BasicNetwork ()
+	{
+		this(false);
+	}
+	
+	/**
+	 * Constructor
+	 * @param sorted true if adjacency arrays are to be kept sorted
+	 */
+	public BasicNetwork (boolean sorted)
+	{
+		this.sorted = sorted;
+	}
+	
+	
+	// Sorted adjacency arrays
+
+	/**
+	 * Are adjacency arrays kept sorted?
+	 * @return true when link lookups are performed using binary search
+	 */
+	public final boolean isSorted ()
+	{
+		return sorted;
+	}
+	
+	/**
+	 * Keep adjacency arrays sorted, O(m log d) when switching to sorted arrays.
+	 * NOTE: Link indices (as returned by getLinkIndex) change when existing arrays get sorted.
+	 * @param sorted true if adjacency arrays are to be kept sorted
+	 */
+	public final void setSorted (boolean sorted)
+	{
+		if (sorted && !this.sorted) {
+			
+			for (int i=0; i<size; i++) {
+				sort(outLinks[i]);
+				sort(inLinks[i]);
+			}
+		}
+		
+		this.sorted = sorted;
+	}
+	
+	private final void sort (int[] array)
+	{
+		if (array!=null)
+			Arrays.sort(array, START_INDEX, START_INDEX+array[0]);
+	}
+
 	
 	@Override
 	public int nodes() 
@@ -29,6 +88,22 @@ public class BasicNetwork extends Network<Integer,Integer>
 
 	@Override
 	public final void setSize(int size) 
+	{
+		if ( (inLinks==null) || (size>inLinks.length) ) {
+			setCapacity(size);
+		} else {
+			Arrays.fill(inLinks, size, inLinks.length, null);
+			Arrays.fill(outLinks, size, outLinks.length, null);
+		}
+		
+		this.size = size;
+	}
+
+	/**
+	 * Reallocate node adjacency arrays.
+	 * @param capacity Maximum number of nodes before the next reallocation
+	 */
+	private final void setCapacity (int capacity)
 	{
 		int[][] oldInLinks;
 		int[][] oldOutLinks;
@@ -36,15 +111,14 @@ public class BasicNetwork extends Network<Integer,Integer>
 		oldInLinks  = this.inLinks;
 		oldOutLinks = this.outLinks;
 
-		this.size  = size;
-		this.inLinks  = new int[size][]; 
-		this.outLinks = new int[size][]; 
+		this.inLinks  = new int[capacity][]; 
+		this.outLinks = new int[capacity][]; 
 		
 		if (oldInLinks!=null)
-			System.arraycopy(oldInLinks,0,inLinks,0,oldInLinks.length);
+			System.arraycopy(oldInLinks,0,inLinks,0,Math.min(size,capacity));
 		
 		if (oldOutLinks!=null)
-			System.arraycopy(oldOutLinks,0,outLinks,0,oldOutLinks.length);
+			System.arraycopy(oldOutLinks,0,outLinks,0,Math.min(size,capacity));
 	}
 
 	@Override
@@ -55,13 +129,22 @@ public class BasicNetwork extends Network<Integer,Integer>
 
 
 
+	/**
+	 * Add a node, amortized O(1) when nodes are added one at a time
+	 * (node arrays grow geometrically, as in dynamic arrays).
+	 */
 	@Override
 	public final int add(Integer node) 
 	{
 		int pos = node;
 					
-		if (pos>=size)
-			setSize(pos+1);
+		if (pos>=size) {
+			
+			if ( (inLinks==null) || (pos>=inLinks.length) )
+				setCapacity( Math.max(pos+1, 2*size) );
+			
+			size = pos+1;
+		}
 
 		return pos;
 	}
@@ -107,6 +190,24 @@ public class BasicNetwork extends Network<Integer,Integer>
 		return newArray;
 	}
 
+	private final int[] insert (int[] array, int value)
+	{
+		int[] newArray = extend(array, value);
+		int   dim = newArray[0];
+		int   pos = dim;
+		
+		// Insertion sort step: shift greater values one position to the right
+		
+		while ((pos>START_INDEX) && (newArray[pos-1]>value)) {
+			newArray[pos] = newArray[pos-1];
+			pos--;
+		}
+		
+		newArray[pos] = value;
+		
+		return newArray;
+	}
+	
 	@Override
 	public boolean add(int source, int destination) 
 	{
@@ -117,8 +218,15 @@ public class BasicNetwork extends Network<Integer,Integer>
 		   && !contains(source,destination) ) {
 			
 			nlinks++;
-			outLinks[source] = extend(outLinks[source], destination);
-			inLinks[destination] = extend(inLinks[destination], source);
+			
+			if (sorted) {
+				outLinks[source] = insert(outLinks[source], destination);
+				inLinks[destination] = insert(inLinks[destination], source);
+			} else {
+				outLinks[source] = extend(outLinks[source], destination);
+				inLinks[destination] = extend(inLinks[destination], source);
+			}
+			
 			return true;
 			
 		} else {
@@ -127,6 +235,130 @@ public class BasicNetwork extends Network<Integer,Integer>
 		}
 	}
 
+	/**
+	 * Add a batch of links to the network, O(n+m) (+ O(m log d) for sorted networks).
+	 * 
+	 * Links are appended without per-link duplicate checks and duplicates are
+	 * removed once all the links have been added.
+	 * Links between nonexistent nodes are ignored.
+	 * 
+	 * @param sources Source node indices
+	 * @param destinations Destination node indices
+	 * @return Number of links added to the network
+	 */
+	@Override
+	public int addLinks (int[] sources, int[] destinations)
+	{
+		int previous = nlinks;
+		int links = Math.min(sources.length, destinations.length);
+		
+		// Degree counts, so that adjacency arrays are resized once per node
+		
+		int[] outCount = new int[size];
+		int[] inCount = new int[size];
+		
+		for (int i=0; i<links; i++) {
+			
+			int source = sources[i];
+			int destination = destinations[i];
+
+			if (  (source>=0) 
+			   && (source<size())
+			   && (destination>=0)
+			   && (destination<size()) ) {
+				outCount[source]++;
+				inCount[destination]++;
+			}
+		}
+		
+		for (int i=0; i<size; i++) {
+			outLinks[i] = reserve(outLinks[i], outCount[i]);
+			inLinks[i] = reserve(inLinks[i], inCount[i]);
+		}
+		
+		for (int i=0; i<links; i++) {
+			
+			int source = sources[i];
+			int destination = destinations[i];
+
+			if (  (source>=0) 
+			   && (source<size())
+			   && (destination>=0)
+			   && (destination<size()) ) {
+				outLinks[source][++outLinks[source][0]] = destination;
+				inLinks[destination][++inLinks[destination][0]] = source;
+			}
+		}
+		
+		// Remove duplicates
+		
+		int[] mark = new int[size];
+
+		Arrays.fill(mark, -1);
+		
+		nlinks = 0;
+		
+		for (int i=0; i<size; i++) {
+			nlinks += unique(outLinks[i], i, mark);
+		}
+
+		Arrays.fill(mark, -1);
+
+		for (int i=0; i<size; i++) {
+			unique(inLinks[i], i, mark);
+		}
+		
+		return nlinks - previous;
+	}
+	
+	// Make room for additional values in an adjacency array
+	
+	private final int[] reserve (int[] array, int count)
+	{
+		int[] newArray = array;
+		
+		if (count>0) {
+			
+			int dim = (array!=null)? array[0]: 0;
+			
+			if ( (array==null) || (START_INDEX+dim+count>array.length) ) {
+				newArray = new int[Math.max(INITIAL_ARRAY_SIZE, START_INDEX+dim+count)];
+				
+				if (array!=null)
+					System.arraycopy(array,0,newArray,0,START_INDEX+dim);
+			}
+		}
+		
+		return newArray;
+	}
+	
+	// Remove duplicate values from an adjacency array, O(d) (+ O(d log d) for sorted networks).
+	// The relative order of values is preserved in unsorted networks.
+	
+	private final int unique (int[] array, int node, int[] mark)
+	{
+		int dim = 0;
+		
+		if (array!=null) {
+			
+			if (sorted)
+				sort(array);
+			
+			for (int i=START_INDEX; i<START_INDEX+array[0]; i++) {
+				
+				if (mark[array[i]]!=node) {
+					mark[array[i]] = node;
+					array[START_INDEX+dim] = array[i];
+					dim++;
+				}
+			}
+			
+			array[0] = dim;
+		}
+		
+		return dim;
+	}
+	
 	@Override
 	public final boolean add(int sourceIndex, int destinationIndex, Integer value) 
 	{
@@ -146,24 +378,41 @@ public class BasicNetwork extends Network<Integer,Integer>
 	}
 	
 	
-	public int getLinkIndex(int source, int destination)
+	// Position of a value within an adjacency array: O(log d) if sorted, O(d) otherwise.
+	
+	private final int find (int[] array, int value)
 	{
-		if (outLinks[source]!=null)
-			for (int i=0; i<outLinks[source][0]; i++)
-				if (outLinks[source][START_INDEX+i] == destination)
-					return i;
+		if (array!=null) {
+			
+			if (sorted) {
+				
+				int pos = Arrays.binarySearch(array, START_INDEX, START_INDEX+array[0], value);
+				
+				if (pos>=0)
+					return pos-START_INDEX;
+				
+			} else {
+				
+				for (int i=0; i<array[0]; i++)
+					if (array[START_INDEX+i] == value)
+						return i;
+			}
+		}
 		
 		return -1;
 	}
 	
+	public int getLinkIndex(int source, int destination)
+	{
+		return find(outLinks[source], destination);
+	}
+	
 
 	@Override
 	public Integer get (int source, int destination) 
 	{
-		if (outLinks[source]!=null)
-			for (int i=0; i<outLinks[source][0]; i++)
-				if (outLinks[source][START_INDEX+i] == destination)
-					return destination;
+		if (find(outLinks[source],destination)!=-1)
+			return destination;
 		
 		return null;
 	}
@@ -171,12 +420,7 @@ public class BasicNetwork extends Network<Integer,Integer>
 	@Override
 	public boolean contains (int source, int destination) 
 	{
-		if (outLinks[source]!=null)
-			for (int i=0; i<outLinks[source][0]; i++)
-				if (outLinks[source][START_INDEX+i] == destination)
-					return true;
-		
-		return false;
+		return find(outLinks[source],destination)!=-1;
 	}
 	
 
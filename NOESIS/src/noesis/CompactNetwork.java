@@ -0,0 +1,378 @@
+package noesis;
+
+// Title:       Compact network ADT
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import noesis.network.LinkIndexer;
+
+/**
+ * Immutable network ADT implementation using compressed sparse rows (CSR).
+ *
+ * Out-links and in-links are stored in two arrays per direction:
+ * - offsets[i]..offsets[i+1]-1 delimit the links of node i.
+ * - targets[offsets[i]+j] is the j-th neighbor of node i.
+ *
+ * Neighbors are kept sorted, hence link lookups take O(log d) time.
+ * Link indices follow the CSR order (i.e. the same order used by LinkIndex).
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class CompactNetwork extends Network<Integer,Integer> implements LinkIndexer
+{
+	private int   size;
+
+	private int[] outOffsets;
+	private int[] outTargets;
+
+	private int[] inOffsets;
+	private int[] inSources;
+
+
+	// Constructors
+
+	/**
+	 * Build a compact copy of an existing network, O(n+m log d).
+	 * @param net Source network
+	 */
+	public CompactNetwork (Network net)
+	{
+		int   nodes = net.size();
+		int   links = 0;
+		int[] sources;
+		int[] targets;
+
+		for (int i=0; i<nodes; i++)
+			links += net.outDegree(i);
+
+		sources = new int[links];
+		targets = new int[links];
+		links   = 0;
+
+		for (int i=0; i<nodes; i++) {
+			int degree = net.outDegree(i);
+
+			for (int j=0; j<degree; j++) {
+				sources[links] = i;
+				targets[links] = net.outLink(i,j);
+				links++;
+			}
+		}
+
+		build(nodes, sources, targets, links);
+
+		setID(net.getID());
+		setDirected(net.isDirected());
+	}
+
+	/**
+	 * Build a compact network from a link list (e.g. from a network reader), O(n+m log d).
+	 * Duplicate links are removed.
+	 * @param nodes Number of nodes
+	 * @param sources Link sources
+	 * @param targets Link targets
+	 * @param links Number of links in the link list
+	 */
+	public CompactNetwork (int nodes, int[] sources, int[] targets, int links)
+	{
+		build(nodes, sources, targets, links);
+	}
+
+	/**
+	 * Build a compact network from a link list, O(n+m log d).
+	 * Duplicate links are removed.
+	 * @param nodes Number of nodes
+	 * @param sources Link sources
+	 * @param targets Link targets
+	 */
+	public CompactNetwork (int nodes, int[] sources, int[] targets)
+	{
+		this(nodes, sources, targets, sources.length);
+	}
+
+
+	// CSR construction (counting sort + per-node sort & deduplication)
+
+	private void build (int nodes, int[] sources, int[] targets, int links)
+	{
+		this.size = nodes;
+
+		for (int i=0; i<links; i++) {
+			if ( (sources[i]<0) || (sources[i]>=nodes) || (targets[i]<0) || (targets[i]>=nodes) )
+				throw new IllegalArgumentException("Invalid link "+sources[i]+" -> "+targets[i]);
+		}
+
+		outOffsets = new int[nodes+1];
+		outTargets = group(nodes, sources, targets, links, outOffsets);
+
+		int m = outTargets.length;
+		int[] linkSources = new int[m];
+
+		for (int i=0; i<nodes; i++)
+			for (int j=outOffsets[i]; j<outOffsets[i+1]; j++)
+				linkSources[j] = i;
+
+		inOffsets = new int[nodes+1];
+		inSources = group(nodes, outTargets, linkSources, m, inOffsets);
+	}
+
+	private static int[] group (int nodes, int[] keys, int[] values, int links, int[] offsets)
+	{
+		int[] result = new int[links];
+		int[] next   = new int[nodes];
+
+		// Counting sort by key
+
+		for (int i=0; i<links; i++)
+			offsets[keys[i]+1]++;
+
+		for (int i=0; i<nodes; i++)
+			offsets[i+1] += offsets[i];
+
+		System.arraycopy(offsets, 0, next, 0, nodes);
+
+		for (int i=0; i<links; i++)
+			result[next[keys[i]]++] = values[i];
+
+		// Sort & remove duplicates (in place)
+
+		int current = 0;
+
+		for (int i=0; i<nodes; i++) {
+			int start = offsets[i];
+			int end   = offsets[i+1];
+
+			offsets[i] = current;
+
+			java.util.Arrays.sort(result, start, end);
+
+			for (int j=start; j<end; j++) {
+				if ( (j==start) || (result[j]!=result[j-1]) ) {
+					result[current] = result[j];
+					current++;
+				}
+			}
+		}
+
+		offsets[nodes] = current;
+
+		if (current<links) {
+			int[] compact = new int[current];
+			System.arraycopy(result, 0, compact, 0, current);
+			result = compact;
+		}
+
+		return result;
+	}
+
+
+	// Network size
+
+	@Override
+	public final int nodes()
+	{
+		return size;
+	}
+
+	@Override
+	public final void setSize(int nodes)
+	{
+		throw new UnsupportedOperationException("Compact networks are immutable.");
+	}
+
+	@Override
+	public final int links()
+	{
+		return outTargets.length;
+	}
+
+
+	// Nodes
+
+	@Override
+	public final int index(Integer node)
+	{
+		if ( (node!=null) && (node>=0) && (node<size) )
+			return node;
+		else
+			return -1;
+	}
+
+	@Override
+	public final Integer get(int index)
+	{
+		return index;
+	}
+
+	@Override
+	public final boolean contains(Integer node)
+	{
+		return index(node)!=-1;
+	}
+
+	@Override
+	public final int add(Integer node)
+	{
+		throw new UnsupportedOperationException("Compact networks are immutable.");
+	}
+
+	@Override
+	public final void set(int node, Integer value)
+	{
+		throw new UnsupportedOperationException("Compact networks are immutable.");
+	}
+
+
+	// Links
+
+	@Override
+	public final boolean add(int sourceIndex, int destinationIndex)
+	{
+		throw new UnsupportedOperationException("Compact networks are immutable.");
+	}
+
+	@Override
+	public final boolean add(int sourceIndex, int destinationIndex, Integer content)
+	{
+		throw new UnsupportedOperationException("Compact networks are immutable.");
+	}
+
+	/**
+	 * Position of a link in the CSR arrays, O(log d).
+	 * @param source Source node index
+	 * @param destination Destination node index
+	 * @return Link position, -1 if the link does not exist.
+	 */
+	private int position (int source, int destination)
+	{
+		int left  = outOffsets[source];
+		int right = outOffsets[source+1]-1;
+
+		while (left<=right) {
+
+			int middle = (left+right)>>>1;
+			int value  = outTargets[middle];
+
+			if (value<destination)
+				left = middle+1;
+			else if (value>destination)
+				right = middle-1;
+			else
+				return middle;
+		}
+
+		return -1;
+	}
+
+	@Override
+	public final Integer get(int source, int destination)
+	{
+		if (position(source,destination)!=-1)
+			return destination;
+		else
+			return null;
+	}
+
+	@Override
+	public final boolean contains(int source, int destination)
+	{
+		return position(source,destination)!=-1;
+	}
+
+
+	// Node degrees
+
+	@Override
+	public final int inDegree(int node)
+	{
+		return inOffsets[node+1]-inOffsets[node];
+	}
+
+	@Override
+	public final int outDegree(int node)
+	{
+		return outOffsets[node+1]-outOffsets[node];
+	}
+
+	@Override
+	public final int outLink(int node, int link)
+	{
+		return outTargets[outOffsets[node]+link];
+	}
+
+	@Override
+	public final int inLink(int node, int link)
+	{
+		return inSources[inOffsets[node]+link];
+	}
+
+
+	// Link index
+
+	/**
+	 * Index of a given link, O(log d).
+	 * @param source Source node index.
+	 * @param destination Destination node index.
+	 * @return Link index (0..m-1), -1 if link does not exist.
+	 * @see noesis.network.LinkIndexer#index(int, int)
+	 */
+	@Override
+	public final int index(int source, int destination)
+	{
+		return position(source,destination);
+	}
+
+	/**
+	 * Source node of a given link, O(log n).
+	 * @param link Link index
+	 * @return Source node index of the corresponding link
+	 * @see noesis.network.LinkIndexer#source(int)
+	 */
+	@Override
+	public final int source(int link)
+	{
+		if ( (link<0) || (link>=links()) )
+			return -1;
+
+		// Last node whose offset is not greater than the link index
+
+		int left  = 0;
+		int right = size-1;
+
+		while (left<right) {
+
+			int middle = (left+right+1)>>>1;
+
+			if (outOffsets[middle]<=link)
+				left = middle;
+			else
+				right = middle-1;
+		}
+
+		return left;
+	}
+
+	/**
+	 * Destination node of a given link, O(1).
+	 * @param link Link index
+	 * @return Destination node index
+	 * @see noesis.network.LinkIndexer#destination(int)
+	 */
+	@Override
+	public final int destination(int link)
+	{
+		if ( (link<0) || (link>=links()) )
+			return -1;
+
+		return outTargets[link];
+	}
+
+
+	@Override
+	public String toString ()
+	{
+		return "["+super.toString()+"] "+size()+" nodes, "+links()+" links.";
+	}
+}
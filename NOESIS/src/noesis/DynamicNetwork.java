@@ -5,6 +5,7 @@ import ikor.collection.CollectionFactory;
 import ikor.collection.Dictionary;
 import ikor.collection.List;
 import ikor.collection.index.Index;
+import ikor.collection.primitive.IntList;
 
 public class DynamicNetwork<V,E> extends Network<V,E> 
 {
@@ -15,8 +16,8 @@ public class DynamicNetwork<V,E> extends Network<V,E>
 	private List<List<E>> 		  content;
 	
 	private Index         skip;
-	private List<Index>   in;
-	private List<Index>   out;
+	private List<IntList> in;
+	private List<IntList> out;
 	
 	private int                   links;
 	
@@ -149,7 +150,7 @@ public class DynamicNetwork<V,E> extends Network<V,E>
 	public int inDegree(int node) 
 	{
 		int   index = skip.get(node);
-		Index inlinks = in.get(index);
+		IntList inlinks = in.get(index);
 		
 		if (inlinks!=null)
 			return inlinks.size();
@@ -161,7 +162,7 @@ public class DynamicNetwork<V,E> extends Network<V,E>
 	public int outDegree(int node) 
 	{
 		int   index = skip.get(node);
-		Index outlinks = out.get(index);
+		IntList outlinks = out.get(index);
 		
 		if (outlinks!=null)
 			return outlinks.size();
@@ -199,8 +200,8 @@ public class DynamicNetwork<V,E> extends Network<V,E>
 		nodes.add(node);
 		index.set(node, currentNode);
 		skip.add(currentNode);
-		in.add(CollectionFactory.createIndex());
-		out.add(CollectionFactory.createIndex());
+		in.add(new IntList());
+		out.add(new IntList());
 		currentNode++;
 		
 		return size()-1;
@@ -254,6 +254,25 @@ public abstract class Network<V, E> implements Graph<V,E>
 		else
 			return false;
 	}
+
+	/**
+	 * Add a batch of links to the network.
+	 * Links between nonexistent nodes and duplicate links are ignored.
+	 * @param sources Source node indices
+	 * @param destinations Destination node indices
+	 * @return Number of links added to the network
+	 */
+	public int addLinks (int[] sources, int[] destinations)
+	{
+		int added = 0;
+		int links = Math.min(sources.length, destinations.length);
+		
+		for (int i=0; i<links; i++)
+			if (add(sources[i],destinations[i]))
+				added++;
+		
+		return added;
+	}
 	
 
 	/**
@@ -637,4 +656,4 @@ public abstract class Network<V, E> implements Graph<V,E>
 	}
 
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -6,15 +6,21 @@ import ikor.collection.EvaluatorComparator;
 import ikor.collection.PriorityQueue;
 import ikor.collection.DynamicPriorityQueue;
 import ikor.collection.util.UnionFind;
+import ikor.collection.primitive.IndexedIntHeap;
 
 import noesis.Network;
 import noesis.Link;
 import noesis.ArrayNetwork;
+import noesis.network.LinkWeights;
 
 /**
  * Minimum Spanning Trees (for undirected networks): Kruskal's algorithm. 
  *  
  * Efficient implementation using union-find data structure, O(m log m).
+ * 
+ * When link weights are provided as a primitive column (LinkWeights) for the same network, 
+ * links are queued by their index in a primitive heap, without boxing link contents.
+ * Weights for a different network are looked up for each link, as any other link evaluator.
  *  
  * @author Fernando Berzal
  */
@@ -22,6 +28,7 @@ public class KruskalMinimumSpanningTree<V,E>
 {
 	private Network<V,E> network;
 	private Evaluator<E> evaluator;
+	private LinkWeights  weights;
 	private Network<V,E> mst;
 	private double       weight;
 	
@@ -31,6 +38,12 @@ public class KruskalMinimumSpanningTree<V,E>
 		this.evaluator = linkEvaluator;
 	}
 	
+	public KruskalMinimumSpanningTree (Network<V,E> net, LinkWeights weights)
+	{
+		this.network   = net;
+		this.weights   = weights;
+	}
+	
 	public void run()
 	{
 		PriorityQueue<Link<E>> queue;
@@ -47,14 +60,19 @@ public class KruskalMinimumSpanningTree<V,E>
 		for (int i=0; i<network.size(); i++)
 			mst.add ( network.get(i) );
 	
+		uf = new UnionFind(network.size());
+		
+		if ( (weights!=null) && (weights.network()==network) ) {
+			run(uf);
+			return;
+		}
+		
 		// Links
 		
 		queue = createPriorityQueue();
 		
 		// Greedy algorithm
 		
-		uf = new UnionFind(network.size());
-		
         while ((queue.size()>0) && (mst.links() < network.size()-1) ) {
             
         	link = queue.get();
@@ -71,14 +89,59 @@ public class KruskalMinimumSpanningTree<V,E>
                 
                 mst.add(link.getSource(), link.getDestination(), link.getContent() );
                 
-                weight += evaluator.evaluate(link.getContent());
+                weight += evaluate(link);
             }
         }		
 	}
 	
+	/**
+	 * Greedy algorithm using primitive link weights, O(m log m).
+	 * @param uf Union-find data structure
+	 */
+	private void run (UnionFind uf)
+	{
+		IndexedIntHeap queue = new IndexedIntHeap(weights.links());
+		int[]          source = new int[weights.links()];
+		
+		// Links, by link index
+		
+		for (int i=0; i<network.size(); i++) {
+			
+			int degree = network.outDegree(i);
+			
+			for (int j=0; j<degree; j++) {
+				
+				int link = weights.offset(i)+j;
+				
+				source[link] = i;
+				
+				if (i<network.outLink(i,j)) // Add links ONLY in one direction (no loops)
+					queue.add(link, weights.get(link));
+			}
+		}
+		
+		// Greedy algorithm
+		
+		while (!queue.isEmpty() && (mst.links() < network.size()-1) ) {
+			
+			int link = queue.poll();
+			int linkSource = source[link];
+			int linkDestination = network.outLink(linkSource, link-weights.offset(linkSource));
+			
+			if (!uf.inSameSet(linkSource, linkDestination)) {
+				
+				uf.union(linkSource, linkDestination);
+				
+				mst.add(linkSource, linkDestination, network.get(linkSource,linkDestination));
+				
+				weight += weights.get(link);
+			}
+		}
+	}
+	
 	private PriorityQueue<Link<E>> createPriorityQueue ()
 	{
-		LinkEvaluator linkEvaluator = new LinkEvaluator(evaluator);    
+		LinkEvaluator linkEvaluator = new LinkEvaluator();    
 		EvaluatorComparator<E> comparator = new EvaluatorComparator(linkEvaluator);
 		PriorityQueue<Link<E>> queue = new DynamicPriorityQueue<Link<E>>(comparator);
 	
@@ -113,19 +176,20 @@ public class KruskalMinimumSpanningTree<V,E>
 	
 	// Ancillary class
 	
+	private double evaluate (Link<E> link)
+	{
+		if (evaluator!=null)
+			return evaluator.evaluate(link.getContent());
+		else
+			return weights.evaluate(link.getSource(), link.getDestination());
+	}
+	
 	class LinkEvaluator implements Evaluator<Link<E>>
 	{
-		private Evaluator<E> evaluator;
-		
-		public LinkEvaluator(Evaluator<E> evaluator)
-		{
-			this.evaluator = evaluator;
-		}
-
 		@Override
 		public double evaluate(Link<E> object) 
 		{
-			return evaluator.evaluate(object.getContent());
+			return KruskalMinimumSpanningTree.this.evaluate(object);
 		}
 	}
 }
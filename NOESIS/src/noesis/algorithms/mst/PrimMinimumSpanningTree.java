@@ -1,10 +1,7 @@
 package noesis.algorithms.mst;
 
 import ikor.collection.Evaluator;
-import ikor.collection.EvaluatorComparator;
-import ikor.collection.Indexer;
-import ikor.collection.PriorityQueue;
-import ikor.collection.IndexedPriorityQueue;
+import ikor.collection.primitive.IndexedIntHeap;
 
 import noesis.ArrayNetwork;
 import noesis.Network;
@@ -13,6 +10,8 @@ import noesis.Network;
  * Minimum Spanning Trees (for undirected networks): Prim's algorithm. 
  *  
  * Efficient implementation using an indexed priority queue, O(m log n).
+ * Nodes enter the queue when they are first reached; in disconnected networks, 
+ * a new tree is started (from an unreached node, at infinite cost) when the queue becomes empty.
  *  
  * @author Fernando Berzal
  */
@@ -34,51 +33,58 @@ public class PrimMinimumSpanningTree<V,E>
 	
 	public void run()
 	{
-		PriorityQueue<Integer> queue;
-		boolean[]              visited;  
-		double[]               cost;		
-		double                 linkValue;
-		int                    size = network.size();
+		IndexedIntHeap queue;
+		boolean[]      visited;  
+		double[]       cost;		
+		double         linkValue;
+		int            size = network.size();
 		
 		// Initialization
 		
 		parent = new int[size];
 		cost = new double[size];
 		visited = new boolean[size];
-		queue = createPriorityQueue(size,cost);
+		queue = new IndexedIntHeap(size);
 		
 		for (int i=0; i<size; i++) {
 			parent[i] = -1;
 			cost[i] = Double.POSITIVE_INFINITY;
-			queue.add(i);
 		}
 		
-		updateCost(queue, cost, 0, 0);
+		if (size>0)
+			cost[0] = 0;
 	
 		// Greedy algorithm
 		
-        while (queue.size()>0) {
-            
-        	int vertex = queue.get();
-        	
-        	visited[vertex] = true;
-        	
-        	int[] links = network.outLinks(vertex);
-        	
-        	if (links!=null)
-        		for (int j=0; j<links.length; j++) {
-        			
-        			if (!visited[links[j]]) {
-        				
-            			linkValue = linkEvaluator.evaluate( network.get(vertex, links[j]) );
-        				
-        				if (linkValue<cost[links[j]]) {
-        					parent[links[j]] = vertex;
-        					updateCost(queue, cost, links[j], linkValue);
-        				}
-        			}
-        		}
-        }		
+		for (int root=0; root<size; root++) {
+			
+			if (!visited[root])
+				queue.add(root, cost[root]);
+		
+			while (!queue.isEmpty()) {
+
+				int vertex = queue.poll();
+
+				visited[vertex] = true;
+
+				int[] links = network.outLinks(vertex);
+
+				if (links!=null)
+					for (int j=0; j<links.length; j++) {
+
+						if (!visited[links[j]]) {
+
+							linkValue = linkEvaluator.evaluate( network.get(vertex, links[j]) );
+
+							if (linkValue<cost[links[j]]) {
+								parent[links[j]] = vertex;
+								cost[links[j]] = linkValue;
+								queue.decreaseKey(links[j], linkValue);
+							}
+						}
+					}
+			}
+		}
 		
 		
 		// Result
@@ -97,30 +103,6 @@ public class PrimMinimumSpanningTree<V,E>
 		}
 	}
 	
-	private void updateCost (PriorityQueue queue, double cost[], int node, double newCost)
-	{
-		queue.remove(node);
-		
-		cost[node] = newCost;
-
-		queue.add(node);
-	}
-	
-	private PriorityQueue<Integer> createPriorityQueue (int size, double cost[])
-	{
-		Indexer<Integer>             nodeIndexer;
-		Evaluator<Integer>           nodeEvaluator;
-		EvaluatorComparator<Integer> nodeComparator;
-		PriorityQueue<Integer>       queue;
-
-		nodeIndexer = new PrimNodeIndexer();
-		nodeEvaluator = new PrimNodeEvaluator(cost);
-		nodeComparator = new EvaluatorComparator(nodeEvaluator);
-		queue = new IndexedPriorityQueue<Integer>(size,nodeComparator,nodeIndexer);
-		
-		return queue;
-	}
-	
 	// Minimum spanning tree
 	
 	public Network<V,E> MST ()
@@ -151,35 +133,4 @@ public class PrimMinimumSpanningTree<V,E>
 	{
 		return weight;
 	}
-	
-	
-	
-	
-	// Ancillary classes
-	
-	class PrimNodeEvaluator implements Evaluator<Integer>
-	{
-		double[] cost;
-		
-		public PrimNodeEvaluator (double[] cost)
-		{
-			this.cost = cost;
-		}
-		
-		@Override
-		public double evaluate(Integer object) 
-		{
-			return cost[object];
-		}
-	}
-	
-	class PrimNodeIndexer implements Indexer<Integer>
-	{
-		@Override
-		public int index(Integer object) 
-		{
-			return object;
-		}
-		
-	}
 }
@@ -2,9 +2,7 @@ package noesis.algorithms.paths;
 
 import noesis.Network;
 import ikor.collection.Evaluator;
-import ikor.collection.IndexedPriorityQueue;
-import ikor.collection.Indexer;
-import ikor.collection.PriorityQueue;
+import ikor.collection.primitive.IndexedIntHeap;
 
 public class AStarPathFinder<V, E> extends SingleSourcePathFinder<V,E> implements PathFinder<V, E>
 {
@@ -28,11 +26,11 @@ public class AStarPathFinder<V, E> extends SingleSourcePathFinder<V,E> implement
 	@Override
 	public void run()
 	{
-		PriorityQueue<Integer> open;
-		boolean[]              closed;
-		double                 linkValue;
-		double                 nodeValue;
-		int                    size = network.size();
+		IndexedIntHeap open;
+		boolean[]      closed;
+		double         linkValue;
+		double         nodeValue;
+		int            size = network.size();
 		
 		// Initialization
 		
@@ -40,7 +38,7 @@ public class AStarPathFinder<V, E> extends SingleSourcePathFinder<V,E> implement
 		g = new double[size];
 		h = new double[size];
 		
-		open = createPriorityQueue(size);
+		open = new IndexedIntHeap(size);
 		closed = new boolean[network.size()];
 		
 		for (int i=0; i<size; i++) {
@@ -52,13 +50,13 @@ public class AStarPathFinder<V, E> extends SingleSourcePathFinder<V,E> implement
 		
 		g[origin] = 0;
 		h[origin] = heuristicEvaluator.evaluate(network.get(origin));
-		open.add(origin);
+		open.add(origin, g[origin]+h[origin]);
 	
 		// Search
 		
-        while (open.size()>0) {
+        while (!open.isEmpty()) {
             
-        	int vertex = open.get();
+        	int vertex = open.poll();
         	int degree = network.outDegree(vertex);
         	int target;
         	
@@ -74,10 +72,12 @@ public class AStarPathFinder<V, E> extends SingleSourcePathFinder<V,E> implement
         			nodeValue = g[vertex] + linkValue;
 
         			if (nodeValue < g[target]) {
+        				if (!open.contains(target))
+        					h[target] = heuristicEvaluator.evaluate(network.get(target));
+        				
         				g[target] = nodeValue;
-        				h[target] = heuristicEvaluator.evaluate(network.get(target));
         				predecessor[target] = vertex;
-        				open.add(target);
+        				open.decreaseKey(target, g[target]+h[target]);
         			}        				
         		}
         	}
@@ -85,20 +85,6 @@ public class AStarPathFinder<V, E> extends SingleSourcePathFinder<V,E> implement
 	}
 	
 	
-	private PriorityQueue<Integer> createPriorityQueue (int size)
-	{
-		Indexer<Integer>             nodeIndexer;
-		Evaluator<Integer>           nodeEvaluator;
-		PriorityQueue<Integer>       queue;
-
-		nodeIndexer = new AStarNodeIndexer();
-		nodeEvaluator = new AStarNodeEvaluator(g,h);
-		queue = new IndexedPriorityQueue<Integer>(size,nodeEvaluator,nodeIndexer);
-		
-		return queue;
-	}
-	
-
 	// Distances
 	
 	public final double[] cost ()
@@ -110,35 +96,4 @@ public class AStarPathFinder<V, E> extends SingleSourcePathFinder<V,E> implement
 	{
 		return g[node];
 	}
-	
-	// Ancillary classes
-	
-	private class AStarNodeEvaluator implements Evaluator<Integer>
-	{
-		double[] g;
-		double[] h;
-		
-		public AStarNodeEvaluator (double[] g, double[] h)
-		{
-			this.g = g;
-			this.h = h;
-		}
-		
-		@Override
-		public double evaluate(Integer object) 
-		{
-			return g[object] + h[object];
-		}
-	}
-	
-	private class AStarNodeIndexer implements Indexer<Integer>
-	{
-		@Override
-		public int index(Integer object) 
-		{
-			return object;
-		}
-		
-	}	
-
 }
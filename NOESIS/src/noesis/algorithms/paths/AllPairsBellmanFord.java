@@ -29,7 +29,7 @@ public class AllPairsBellmanFord<V,E> extends AllPairsShortestPathFinder<V, E>
 	{
 		int n = network.size();
 		
-		BellmanFordKernel kernel = new BellmanFordKernel();
+		BellmanFordKernel kernel = new BellmanFordKernel( new DistanceMatrix() );
 		
 		this.distance = new double[n][];
 		this.negativeCycles = false;
@@ -37,9 +37,26 @@ public class AllPairsBellmanFord<V,E> extends AllPairsShortestPathFinder<V, E>
 		Parallel.map(kernel, 0, n-1);
 	}
 	
+	@Override
+	public void run (DistanceConsumer consumer) 
+	{
+		BellmanFordKernel kernel = new BellmanFordKernel(consumer);
+		
+		this.negativeCycles = false;
+		
+		Parallel.map(kernel, 0, network.size()-1);
+	}
+	
 	
 	class BellmanFordKernel implements Kernel
 	{
+		private DistanceConsumer consumer;
+		
+		public BellmanFordKernel (DistanceConsumer consumer)
+		{
+			this.consumer = consumer;
+		}
+		
 		@Override
 		public Object call (int index) 
 		{
@@ -49,10 +66,10 @@ public class AllPairsBellmanFord<V,E> extends AllPairsShortestPathFinder<V, E>
 
 				finder.run();
 
-				distance[index] = finder.distance();
-
 				if (finder.negativeCycleDetected())
 					negativeCycles = true;
+				
+				consumer.consume(index, finder.distance());
 			}
 
 			return null;
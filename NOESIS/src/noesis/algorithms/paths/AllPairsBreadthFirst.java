@@ -0,0 +1,140 @@
+package noesis.algorithms.paths;
+
+import java.util.Arrays;
+
+import noesis.Network;
+import noesis.algorithms.traversal.MultiSourceBFS;
+
+import ikor.collection.CollectionFactory;
+import ikor.collection.List;
+import ikor.parallel.*;
+
+/**
+ * All-pairs shortest path lengths (i.e. number of hops), using breadth-first search from each node, O(nm).
+ * 
+ * Distances are computed by bit-parallel multi-source BFS, 64 source nodes at a time, 
+ * so each concurrent batch keeps its distance rows (i.e. 64 rows of n doubles), 
+ * in buffers that are reused by later batches during the same run.
+ * 
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class AllPairsBreadthFirst<V,E> extends AllPairsShortestPathFinder<V, E> 
+{
+
+	public AllPairsBreadthFirst (Network<V, E> net) 
+	{
+		super(net, null);
+	}
+
+	
+	@Override
+	public void run() 
+	{
+		this.distance = new double[network.size()][];
+		
+		run ( new DistanceConsumer() {
+			@Override
+			public void consume (int source, double[] row) {
+				distance[source] = row.clone();
+			}
+		});
+	}
+
+	@Override
+	public void run (DistanceConsumer consumer) 
+	{
+		int batches = (network.size()+MultiSourceBFS.WORD_SIZE-1) / MultiSourceBFS.WORD_SIZE;
+		
+		BFSKernel kernel = new BFSKernel(consumer);
+		
+		Parallel.map(kernel, 0, batches-1);
+	}
+	
+	
+	/**
+	 * Breadth-first search distances from a source node.
+	 * @param net Network
+	 * @param source Source node
+	 * @param distance Distance array (output: number of hops, infinity if unreachable)
+	 * @param queue Queue buffer (at least n elements)
+	 */
+	public static void distances (Network net, int source, double[] distance, int[] queue)
+	{
+		int head = 0;
+		int tail = 0;
+		
+		Arrays.fill(distance, Double.POSITIVE_INFINITY);
+		
+		distance[source] = 0;
+		queue[tail++] = source;
+		
+		while (head<tail) {
+			
+			int    node = queue[head++];
+			int    degree = net.outDegree(node);
+			double next = distance[node] + 1;
+			
+			for (int j=0; j<degree; j++) {
+				
+				int target = net.outLink(node,j);
+				
+				if (distance[target]==Double.POSITIVE_INFINITY) {
+					distance[target] = next;
+					queue[tail++] = target;
+				}
+			}
+		}
+	}
+	
+	
+	class BFSKernel implements Kernel
+	{
+		private DistanceConsumer consumer;
+		
+		// Multi-source BFS pool, reused for every batch of source nodes
+		
+		private List<MultiSourceBFS> idle = CollectionFactory.createList();
+		
+		public BFSKernel (DistanceConsumer consumer)
+		{
+			this.consumer = consumer;
+		}
+		
+		@Override
+		public Object call (int index) 
+		{
+			MultiSourceBFS traversal = acquire();
+			
+			try {
+				traversal.run(index*traversal.batchSize(), traversal.batchSize());
+			
+				for (int i=0; i<traversal.sources(); i++)
+					consumer.consume(traversal.source(i), traversal.distance(i));
+				
+			} finally {
+				release(traversal);
+			}
+
+			return null;
+		}
+		
+		private MultiSourceBFS acquire ()
+		{
+			synchronized (idle) {
+				if (idle.size()>0)
+					return idle.remove(idle.size()-1);
+			}
+			
+			return new MultiSourceBFS(network, 1, true);
+		}
+		
+		private void release (MultiSourceBFS traversal)
+		{
+			synchronized (idle) {
+				idle.add(traversal);
+			}
+		}
+	}
+	
+}
@@ -3,6 +3,9 @@ package noesis.algorithms.paths;
 import noesis.Network;
 import noesis.LinkEvaluator;
 
+import ikor.collection.CollectionFactory;
+import ikor.collection.List;
+import ikor.collection.primitive.IndexedIntHeap;
 import ikor.parallel.*;
 
 public class AllPairsDijkstra<V,E> extends AllPairsShortestPathFinder<V, E> 
@@ -19,28 +22,71 @@ public class AllPairsDijkstra<V,E> extends AllPairsShortestPathFinder<V, E>
 	{
 		int n = network.size();
 		
-		DijkstraKernel kernel = new DijkstraKernel();
+		DijkstraKernel kernel = new DijkstraKernel( new DistanceMatrix() );
 		
 		this.distance = new double[n][];
 		
 		Parallel.map(kernel, 0, n-1);
 	}
 	
+	@Override
+	public void run (DistanceConsumer consumer) 
+	{
+		DijkstraKernel kernel = new DijkstraKernel(consumer);
+		
+		Parallel.map(kernel, 0, network.size()-1);
+	}
+	
 	
 	class DijkstraKernel implements Kernel
 	{
+		private DistanceConsumer consumer;
+		
+		// Priority queue pool, reused for every source node
+		
+		private List<IndexedIntHeap> idle = CollectionFactory.createList();
+		
+		public DijkstraKernel (DistanceConsumer consumer)
+		{
+			this.consumer = consumer;
+		}
+		
 		@Override
 		public Object call (int index) 
 		{
-			DijkstraShortestPathFinder finder = new DijkstraShortestPathFinder(network,index,linkEvaluator);
+			IndexedIntHeap queue = acquire();
+			
+			try {
+				DijkstraShortestPathFinder finder = new DijkstraShortestPathFinder(network,index,linkEvaluator,queue);
 			
-			finder.run();
+				finder.run();
 			
-			distance[index] = finder.distance();
+				consumer.consume(index, finder.distance());
+				
+			} finally {
+				release(queue);
+			}
 
 			return null;
 		}
 		
+		private IndexedIntHeap acquire ()
+		{
+			synchronized (idle) {
+				if (idle.size()>0)
+					return idle.remove(idle.size()-1);
+			}
+			
+			return new IndexedIntHeap(network.size());
+		}
+		
+		private void release (IndexedIntHeap queue)
+		{
+			synchronized (idle) {
+				idle.add(queue);
+			}
+		}
+		
 	}
 	
 }
@@ -31,6 +31,39 @@ public class AllPairsJohnson<V,E> extends AllPairsShortestPathFinder<V, E>
 	
 	@Override
 	public void run() 
+	{
+		if (reweight()) {
+			
+			this.distance = new double[network.size()][];
+			
+			paths( new DistanceMatrix() );
+		}
+	}
+	
+	@Override
+	public void run (DistanceConsumer consumer) 
+	{
+		if (reweight())
+			paths(consumer);
+	}
+	
+	/**
+	 * All-pairs shortest paths (Dijkstra's algorithm), O(nm log n)
+	 */
+	private void paths (DistanceConsumer consumer)
+	{
+		DijkstraKernel kernel = new DijkstraKernel(consumer);
+		
+		Parallel.map(kernel, 0, network.size()-1);
+		
+		weight = null;
+	}
+	
+	/**
+	 * Link reweighting using Bellman-Ford's algorithm, O(mn)
+	 * @return false if negative cycles were detected
+	 */
+	private boolean reweight ()
 	{
 		int n = network.size();
 		
@@ -54,30 +87,28 @@ public class AllPairsJohnson<V,E> extends AllPairsShortestPathFinder<V, E>
 		
 		negativeCycles = finder.negativeCycleDetected();
 		
-		
-		if (!negativeCycles ){
+		if (!negativeCycles) {
 			
 			weight = finder.distance();
 
 			// Reweighting, O(1)
 			
 			dijkstraEvaluator = new DijkstraEvaluator (weight, linkEvaluator);
-		
-			// All-pairs shortest paths (Dijkstra's algorithm), O(nm log n)
-		
-			DijkstraKernel kernel = new DijkstraKernel();
-		
-			this.distance = new double[n][];
-		
-			Parallel.map(kernel, 0, n-1);
-			
-			weight = null;
 		}
+		
+		return !negativeCycles;
 	}
 	
 	
 	class DijkstraKernel implements Kernel
 	{
+		private DistanceConsumer consumer;
+		
+		public DijkstraKernel (DistanceConsumer consumer)
+		{
+			this.consumer = consumer;
+		}
+		
 		@Override
 		public Object call (int index) 
 		{
@@ -87,12 +118,14 @@ public class AllPairsJohnson<V,E> extends AllPairsShortestPathFinder<V, E>
 			
 			finder.run();
 			
-			distance[index] = finder.distance();
+			double[] row = finder.distance();
 			
 			// Reweighting
 			
 			for (int n=0; n<network.size(); n++)
-				distance[index][n] += weight[n] - weight[index];
+				row[n] += weight[n] - weight[index];
+			
+			consumer.consume(index, row);
 
 			return null;
 		}
@@ -27,6 +27,24 @@ public abstract class AllPairsShortestPathFinder<V, E> implements PathFinder<V,
 	{
 		return distance;
 	}
+	
+	/**
+	 * Streaming all-pairs shortest paths: 
+	 * distances are handed to the consumer, one source node at a time,
+	 * without keeping the n x n distance matrix in memory (when the algorithm allows it).
+	 * 
+	 * Default implementation: run() and hand out the rows of the resulting distance matrix.
+	 * 
+	 * @param consumer Distance consumer
+	 */
+	public void run (DistanceConsumer consumer)
+	{
+		run();
+		
+		if (distance!=null)
+			for (int i=0; i<distance.length; i++)
+				consumer.consume(i, distance[i]);
+	}
 
 	public final double distance(int source, int target) 
 	{
@@ -40,6 +58,19 @@ public abstract class AllPairsShortestPathFinder<V, E> implements PathFinder<V,
 	}
 	
 
+	/**
+	 * Distance consumer that keeps the distance matrix.
+	 */
+	protected class DistanceMatrix implements DistanceConsumer
+	{
+		@Override
+		public void consume (int source, double[] row)
+		{
+			distance[source] = row;
+		}
+	}
+	
+
 	public int[] path(int source, int target) 
 	{
 		// TODO Auto-generated method stub
@@ -53,4 +84,4 @@ public abstract class AllPairsShortestPathFinder<V, E> implements PathFinder<V,
 	}
 
 	
-}
\ No newline at end of file
+}
\ No newline at end of file
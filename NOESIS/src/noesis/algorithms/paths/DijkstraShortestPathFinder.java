@@ -1,20 +1,31 @@
 package noesis.algorithms.paths;
 
-import ikor.collection.Evaluator;
-import ikor.collection.IndexedPriorityQueue;
-import ikor.collection.Indexer;
-import ikor.collection.PriorityQueue;
+import ikor.collection.primitive.IndexedIntHeap;
 
 import noesis.Network;
 import noesis.LinkEvaluator;
+import noesis.network.LinkWeights;
 
 public class DijkstraShortestPathFinder<V,E> extends SingleSourceShortestPathFinder<V, E> implements PathFinder<V, E>
 {
+	private IndexedIntHeap queue;
+	
 	public DijkstraShortestPathFinder (Network<V,E> net, int origin, LinkEvaluator linkEvaluator)
 	{
 		super(net,origin,linkEvaluator);
 	}
 
+	/**
+	 * Constructor reusing a priority queue (e.g. for running Dijkstra's algorithm from many sources).
+	 * @param queue Empty heap with capacity for all the network nodes
+	 */
+	public DijkstraShortestPathFinder (Network<V,E> net, int origin, LinkEvaluator linkEvaluator, IndexedIntHeap queue)
+	{
+		this(net,origin,linkEvaluator);
+		
+		this.queue = queue;
+	}
+
 	
 	/* (non-Javadoc)
 	 * @see noesis.algorithms.paths.PathFinder#run()
@@ -22,29 +33,41 @@ public class DijkstraShortestPathFinder<V,E> extends SingleSourceShortestPathFin
 	@Override
 	public void run()
 	{
-		PriorityQueue<Integer> queue; 
-		double                 linkValue;
-		int                    size = network.size();
+		double linkValue;
+		int    size = network.size();
+		
+		// Link weights are read directly from their column, when available
+		
+		LinkWeights weights = null;
+		
+		if ( (linkEvaluator instanceof LinkWeights) && (((LinkWeights)linkEvaluator).network()==network) )
+			weights = (LinkWeights) linkEvaluator;
 		
 		// Initialization
 		
 		predecessor = new int[size];
 		distance = new double[size];
-		queue    = createPriorityQueue(size);
+		
+		if ( (queue==null) || (queue.capacity()<size) )
+			queue = new IndexedIntHeap(size);
+		else
+			queue.clear();
 		
 		for (int i=0; i<size; i++) {
 			predecessor[i] = -1;
 			distance[i] = Double.POSITIVE_INFINITY;
-			queue.add(i);
 		}
 		
-		updateDistance(queue, origin, 0);
+		// Nodes are inserted into the queue when they are first reached
+		
+		distance[origin] = 0;
+		queue.add(origin, 0);
 	
 		// Greedy algorithm
 		
-        while (queue.size()>0) {
+        while (!queue.isEmpty()) {
             
-        	int vertex = queue.get();
+        	int vertex = queue.poll();
         	int degree = network.outDegree(vertex);
         	int target;
         	
@@ -52,63 +75,17 @@ public class DijkstraShortestPathFinder<V,E> extends SingleSourceShortestPathFin
 
         		target = network.outLink(vertex,j);
 
-        		linkValue = linkEvaluator.evaluate(vertex,target);
+        		if (weights!=null)
+        			linkValue = weights.get(vertex,j);
+        		else
+        			linkValue = linkEvaluator.evaluate(vertex,target);
 
         		if (distance[target] > distance[vertex] + linkValue) {
         			predecessor[target] = vertex;
-        			updateDistance(queue, target, distance[vertex] + linkValue);
+        			distance[target] = distance[vertex] + linkValue;
+        			queue.decreaseKey(target, distance[target]);
         		}
         	}
         }		
 	}
-	
-	
-	private void updateDistance (PriorityQueue queue, int node, double newDistance)
-	{
-		queue.remove(node);
-		distance[node] = newDistance;
-		queue.add(node);
-	}
-	
-	private PriorityQueue<Integer> createPriorityQueue (int size)
-	{
-		Indexer<Integer>             nodeIndexer;
-		Evaluator<Integer>           nodeEvaluator;
-		PriorityQueue<Integer>       queue;
-
-		nodeIndexer = new DijkstraNodeIndexer();
-		nodeEvaluator = new DijkstraNodeEvaluator(distance);
-		queue = new IndexedPriorityQueue<Integer>(size,nodeEvaluator,nodeIndexer);
-		
-		return queue;
-	}
-		
-	// Ancillary classes
-	
-	private class DijkstraNodeEvaluator implements Evaluator<Integer>
-	{
-		double[] distance;
-		
-		public DijkstraNodeEvaluator (double[] distance)
-		{
-			this.distance = distance;
-		}
-		
-		@Override
-		public double evaluate(Integer object) 
-		{
-			return distance[object];
-		}
-	}
-	
-	private class DijkstraNodeIndexer implements Indexer<Integer>
-	{
-		@Override
-		public int index(Integer object) 
-		{
-			return object;
-		}
-		
-	}
 }
-
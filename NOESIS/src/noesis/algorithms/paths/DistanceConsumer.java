@@ -0,0 +1,24 @@
+package noesis.algorithms.paths;
+
+/**
+ * Consumer of shortest path distances, one source node at a time.
+ * 
+ * All-pairs path finders call consume() as soon as the distances from a source node are available, 
+ * so that callers can process them without materializing the whole n x n distance matrix.
+ * 
+ * NOTE: consume() might be called concurrently from different threads (for different source nodes)
+ * and the distance array might be reused by the path finder once consume() returns 
+ * (i.e. copy it if you need to keep it).
+ * 
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public interface DistanceConsumer 
+{
+	/**
+	 * Distances from a source node.
+	 * @param source Source node
+	 * @param distance Distances from the source node to every node in the network (infinity if unreachable)
+	 */
+	public void consume (int source, double[] distance);
+}
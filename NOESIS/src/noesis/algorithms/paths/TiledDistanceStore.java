@@ -0,0 +1,224 @@
+package noesis.algorithms.paths;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Disk-backed n x n distance matrix, for callers that need random access to all-pairs distances
+ * in networks whose distance matrix does not fit in memory.
+ * 
+ * The matrix is stored as square tiles of doubles in a memory-mapped file:
+ * - Tile (I,J) holds the distances from sources I*tile..(I+1)*tile-1 to targets J*tile..(J+1)*tile-1.
+ * - The tiles for a band of source nodes are stored contiguously and mapped on demand, 
+ *   so that the operating system pages them in and out as needed.
+ * 
+ * Distances can be written concurrently for different source nodes (i.e. the store can be used as
+ * the distance consumer of an all-pairs path finder).
+ * 
+ * e.g.
+ * 
+ * try (TiledDistanceStore store = new TiledDistanceStore(file, net.size())) {
+ *     new AllPairsDijkstra(net, evaluator).run(store);
+ *     ...
+ *     store.get(i,j);
+ * }
+ * 
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class TiledDistanceStore implements DistanceConsumer, Closeable
+{
+	public static final int DEFAULT_TILE = 256;
+	
+	private static final int DOUBLE_SIZE = 8;
+	
+	private RandomAccessFile   file;
+	private FileChannel        channel;
+	private AtomicReferenceArray<MappedByteBuffer> bands;
+	
+	private int  size;       // Number of nodes
+	private int  tile;       // Tile side
+	private int  tiles;      // Tiles per band
+	private long bandBytes;  // Bytes per band
+	
+	
+	/**
+	 * Constructor.
+	 * @param file File backing the distance matrix (created if it does not exist)
+	 * @param size Number of nodes
+	 * @throws IOException if the file cannot be created
+	 */
+	public TiledDistanceStore (File file, int size)
+		throws IOException
+	{
+		this(file, size, DEFAULT_TILE);
+	}
+	
+	/**
+	 * Constructor.
+	 * @param file File backing the distance matrix (created if it does not exist)
+	 * @param size Number of nodes
+	 * @param tile Tile side (reduced if a band of tiles would not fit in a single memory mapping)
+	 * @throws IOException if the file cannot be created
+	 */
+	public TiledDistanceStore (File file, int size, int tile)
+		throws IOException
+	{
+		this.size = size;
+		this.tile = Math.max(1, Math.min(tile, Math.max(size,1)));
+		
+		while ( (this.tile>1) && (bytes(this.tile)>Integer.MAX_VALUE) )
+			this.tile /= 2;
+		
+		this.tiles = (size+this.tile-1)/this.tile;
+		this.bandBytes = bytes(this.tile);
+		this.bands = new AtomicReferenceArray<MappedByteBuffer>(tiles);
+		
+		this.file = new RandomAccessFile(file, "rw");
+		this.channel = this.file.getChannel();
+		this.file.setLength(bandBytes*tiles);
+	}
+	
+	private long bytes (int tile)
+	{
+		long tilesPerBand = (size+tile-1)/tile;
+		
+		return tilesPerBand*tile*tile*DOUBLE_SIZE;
+	}
+	
+	
+	// Store size
+	
+	public final int size ()
+	{
+		return size;
+	}
+	
+	public final int tileSize ()
+	{
+		return tile;
+	}
+	
+	
+	// Memory mapping
+	
+	private MappedByteBuffer band (int index)
+	{
+		MappedByteBuffer buffer = bands.get(index);
+		
+		if (buffer==null) {
+			
+			synchronized (this) {
+				
+				buffer = bands.get(index);
+				
+				if (buffer==null) {
+					
+					try {
+						buffer = channel.map(FileChannel.MapMode.READ_WRITE, index*bandBytes, bandBytes);
+						buffer.order(ByteOrder.nativeOrder());
+					} catch (IOException error) {
+						throw new IllegalStateException("Unable to map distance band "+index, error);
+					}
+					
+					bands.set(index, buffer);
+				}
+			}
+		}
+		
+		return buffer;
+	}
+	
+	// Byte offset of (source,target) within its band
+	
+	private int offset (int source, int target)
+	{
+		int column = target/tile;
+		
+		return ( (column*tile + source%tile)*tile + target%tile )*DOUBLE_SIZE;
+	}
+	
+	
+	// Distances
+	
+	/**
+	 * Store the distances from a source node.
+	 * @see noesis.algorithms.paths.DistanceConsumer#consume(int, double[])
+	 */
+	@Override
+	public void consume (int source, double[] distance)
+	{
+		MappedByteBuffer buffer = band(source/tile);
+		
+		for (int column=0; column<tiles; column++) {
+			
+			int first = column*tile;
+			int last = Math.min(first+tile, size);
+			int position = offset(source, first);
+			
+			for (int target=first; target<last; target++) {
+				buffer.putDouble(position, distance[target]);
+				position += DOUBLE_SIZE;
+			}
+		}
+	}
+	
+	/**
+	 * Distance between two nodes.
+	 * @param source Source node
+	 * @param target Target node
+	 * @return Stored distance (0 if the distances from the source node have not been stored yet)
+	 */
+	public double get (int source, int target)
+	{
+		return band(source/tile).getDouble( offset(source,target) );
+	}
+	
+	/**
+	 * Distances from a source node.
+	 * @param source Source node
+	 * @param distance Output array (at least n elements)
+	 */
+	public void get (int source, double[] distance)
+	{
+		MappedByteBuffer buffer = band(source/tile);
+		
+		for (int target=0; target<size; target++)
+			distance[target] = buffer.getDouble( offset(source,target) );
+	}
+	
+	
+	// Persistence
+	
+	/**
+	 * Write pending changes to disk.
+	 */
+	public void flush ()
+	{
+		for (int i=0; i<bands.length(); i++)
+			if (bands.get(i)!=null)
+				bands.get(i).force();
+	}
+	
+	/**
+	 * Close the underlying file (mapped tiles are released when they are garbage collected).
+	 */
+	@Override
+	public void close () 
+		throws IOException
+	{
+		flush();
+		
+		for (int i=0; i<bands.length(); i++)
+			bands.set(i, null);
+		
+		channel.close();
+		file.close();
+	}
+}
@@ -0,0 +1,298 @@
+package noesis.algorithms.traversal;
+
+// Title:       Bit-parallel multi-source breadth-first search
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.util.Arrays;
+
+import noesis.Network;
+
+/**
+ * Multi-source breadth-first search (MS-BFS): 
+ * a batch of up to 64*words source nodes is traversed at once, using one bitset per node 
+ * (i.e. 'words' longs per node) to represent which BFSs have already seen the node.
+ * 
+ * Concurrent BFSs share their frontier expansions, so that each adjacency list is scanned 
+ * once per level and batch, rather than once per source node. Frontiers are kept as sparse
+ * node lists, so that each level only costs the links of its frontier nodes (e.g. long paths).
+ * 
+ * Results:
+ * - For each source in the batch, the number of nodes at each distance (i.e. path length histogram).
+ * - Optionally, the distances from each source node to every node in the network.
+ * 
+ * Each instance keeps O(words*n) working memory (plus the optional distance rows) and 
+ * can be reused for successive batches, but it is not thread-safe.
+ * 
+ * Reference:
+ * - Manuel Then et al.: "The more the merrier: Efficient multi-source graph traversal," 
+ *   PVLDB 8(4):449-460, 2014.
+ * 
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class MultiSourceBFS
+{
+	public static final int WORD_SIZE = 64;
+	
+	private Network network;
+	private int     words;
+	private int     batch;
+	
+	private long[]  seen;
+	private long[]  visit;
+	private long[]  next;
+	
+	private int[]   frontier;   // Nodes with non-empty visit bitsets
+	private int     frontierSize;
+	private int[]   upcoming;   // Nodes with non-empty next bitsets
+	private int     upcomingSize;
+	
+	private int[][]    paths;      // paths[i][d]: number of nodes at distance d from the i-th source
+	private int        levels;     // Number of BFS levels in the last batch
+	private double[][] distance;   // distance[i][node], if enabled
+	
+	private int first;
+	private int count;
+	
+	
+	/**
+	 * Constructor (64 sources per batch, without distance rows).
+	 * @param network Network
+	 */
+	public MultiSourceBFS (Network network)
+	{
+		this(network, 1, false);
+	}
+	
+	/**
+	 * Constructor.
+	 * @param network Network
+	 * @param words Number of 64-bit words per node (i.e. 64*words sources per batch)
+	 * @param distances Keep distances from each source node to every node (64*words*n doubles)
+	 */
+	public MultiSourceBFS (Network network, int words, boolean distances)
+	{
+		int n = network.size();
+		
+		this.network = network;
+		this.words = Math.max(1, words);
+		this.batch = WORD_SIZE*this.words;
+		
+		this.seen = new long[n*this.words];
+		this.visit = new long[n*this.words];
+		this.next = new long[n*this.words];
+		
+		this.frontier = new int[n];
+		this.upcoming = new int[n];
+		
+		this.paths = new int[batch][16];
+		
+		if (distances)
+			this.distance = new double[batch][n];
+	}
+	
+	
+	// Batch size
+	
+	/**
+	 * Maximum number of source nodes per batch.
+	 */
+	public final int batchSize ()
+	{
+		return batch;
+	}
+	
+	/**
+	 * Number of source nodes in the last batch.
+	 */
+	public final int sources ()
+	{
+		return count;
+	}
+	
+	/**
+	 * i-th source node in the last batch.
+	 */
+	public final int source (int i)
+	{
+		return first+i;
+	}
+	
+	
+	// Results
+	
+	/**
+	 * Path length histogram for the i-th source node in the last batch.
+	 * @param i Source index within the batch
+	 * @return paths[d] = number of nodes at distance d (paths[0]=1), 
+	 *         followed by zeros (i.e. array length might be greater than the number of levels) 
+	 */
+	public final int[] paths (int i)
+	{
+		return paths[i];
+	}
+	
+	/**
+	 * Number of BFS levels in the last batch (i.e. maximum eccentricity + 1).
+	 */
+	public final int levels ()
+	{
+		return levels;
+	}
+	
+	/**
+	 * Distances from the i-th source node in the last batch.
+	 * @param i Source index within the batch
+	 * @return Distance to every node in the network (infinity if unreachable), 
+	 *         null if distances were not enabled in the constructor
+	 */
+	public final double[] distance (int i)
+	{
+		return (distance!=null)? distance[i]: null;
+	}
+	
+	
+	// Multi-source BFS
+	
+	/**
+	 * Breadth-first search from a batch of consecutive source nodes.
+	 * @param first First source node
+	 * @param count Number of source nodes (at most batchSize())
+	 */
+	public void run (int first, int count)
+	{
+		int n = network.size();
+		
+		this.first = first;
+		this.count = Math.max(0, Math.min( Math.min(count, batch), n-first));
+		
+		// Initialization
+		
+		Arrays.fill(seen, 0);
+		Arrays.fill(visit, 0);
+		Arrays.fill(next, 0);
+		
+		frontierSize = 0;
+		upcomingSize = 0;
+		
+		for (int i=0; i<this.count; i++) {
+			
+			int  node = first+i;
+			int  word = node*words + i/WORD_SIZE;
+			long bit = 1L << (i%WORD_SIZE);
+			
+			seen[word] |= bit;
+			visit[word] |= bit;
+			frontier[frontierSize++] = node;
+			
+			Arrays.fill(paths[i], 0);
+			paths[i][0] = 1;
+			
+			if (distance!=null) {
+				Arrays.fill(distance[i], Double.POSITIVE_INFINITY);
+				distance[i][node] = 0;
+			}
+		}
+		
+		// Level-synchronous traversal
+		
+		boolean active = (this.count>0);
+		int     level = 0;
+		
+		while (active) {
+			
+			active = false;
+			level++;
+			
+			for (int i=0; i<frontierSize; i++) {
+				
+				int base = frontier[i]*words;
+				
+				if (expand(frontier[i], base, level))
+					active = true;
+				
+				for (int k=0; k<words; k++)
+					visit[base+k] = 0;
+			}
+			
+			// Next frontier
+			
+			long[] tmp = visit;
+			visit = next;
+			next = tmp;
+			
+			int[] nodes = frontier;
+			frontier = upcoming;
+			frontierSize = upcomingSize;
+			upcoming = nodes;
+			upcomingSize = 0;
+		}
+		
+		this.levels = level;
+	}
+	
+	private boolean isEmpty (long[] bits, int base)
+	{
+		for (int k=0; k<words; k++)
+			if (bits[base+k]!=0)
+				return false;
+		
+		return true;
+	}
+	
+	// Frontier expansion: propagate visit[node] to the node neighbors not yet seen by the corresponding BFSs
+	
+	private boolean expand (int node, int base, int level)
+	{
+		boolean discovered = false;
+		int     degree = network.outDegree(node);
+		
+		for (int j=0; j<degree; j++) {
+			
+			int target = network.outLink(node, j);
+			int targetBase = target*words;
+			
+			boolean fresh = isEmpty(next, targetBase);
+			
+			for (int k=0; k<words; k++) {
+				
+				long bits = visit[base+k] & ~seen[targetBase+k];
+				
+				if (bits!=0) {
+					
+					seen[targetBase+k] |= bits;
+					next[targetBase+k] |= bits;
+					discovered = true;
+					
+					record(bits, k*WORD_SIZE, target, level);
+				}
+			}
+			
+			if (fresh && !isEmpty(next, targetBase))
+				upcoming[upcomingSize++] = target;
+		}
+		
+		return discovered;
+	}
+	
+	private void record (long bits, int offset, int target, int level)
+	{
+		while (bits!=0) {
+			
+			int i = offset + Long.numberOfTrailingZeros(bits);
+			
+			if (level>=paths[i].length)
+				paths[i] = Arrays.copyOf(paths[i], 2*level);
+			
+			paths[i][level]++;
+			
+			if (distance!=null)
+				distance[i][target] = level;
+			
+			bits &= bits-1;
+		}
+	}
+}
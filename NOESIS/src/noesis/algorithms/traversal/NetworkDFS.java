@@ -1,5 +1,7 @@
 package noesis.algorithms.traversal;
 
+import java.util.Arrays;
+
 import ikor.collection.Visitor;
 
 import noesis.Network;
@@ -9,6 +11,10 @@ public class NetworkDFS<V,E> extends NetworkTraversal<V,E>
 {
 	private Visitor<V>  postContentVisitor;
 	private NodeVisitor postVisitor;
+
+	private boolean     reverse;
+	private int[]       path;   // DFS path
+	private int[]       next;   // Next link for each node in the path
 	
 	public void setNodePostVisitor (NodeVisitor nodeVisitor)
 	{
@@ -49,34 +55,104 @@ public class NetworkDFS<V,E> extends NetworkTraversal<V,E>
 		super(network, nodeVisitor, linkVisitor);
 	}
 
+	// Link direction
+
+	/**
+	 * Follow in-links instead of out-links, i.e. traverse the reverse network
+	 * (links are still visited in their original direction).
+	 */
+	public void setReverse (boolean reverse)
+	{
+		this.reverse = reverse;
+	}
+
+	public boolean isReverse ()
+	{
+		return reverse;
+	}
+
 	// Network traversal
+	// - Explicit stack (no recursion, whatever the path length)
+	// - Same visiting order as the recursive algorithm
 
-	public void traverse (int current)
+	public void traverse (int start)
 	{
+		int depth;
+		int current;
 		int target;
-		int degree;
 
-   	    state[current] = NetworkTraversal.State.DISCOVERED;
+		capacity();
+
+		discover(start);
+
+		path[0] = start;
+		next[0] = 0;
+		depth = 1;
+
+		while (depth>0) {
+
+			current = path[depth-1];
+
+			if (next[depth-1] < degree(current)) {
+
+				target = link(current, next[depth-1]);
+				next[depth-1]++;
 
-		visitNode(current);
+				if (reverse)
+					visitLink (target, current);
+				else
+					visitLink (current, target);
 
-		degree = network.outDegree(current);
+				if (target>=state.length)
+					capacity();
 
-		for (int i=0; i<degree; i++) {
+				if (state[target]==NetworkTraversal.State.UNDISCOVERED) {
+					discover(target);
+					path[depth] = target;
+					next[depth] = 0;
+					depth++;
+				}
 
-			target = network.outLink(current, i);
+			} else {
 
-			visitLink (current, target);
+				postVisitNode(current);
 
-			if (state[target]==NetworkTraversal.State.UNDISCOVERED) {
-				traverse(target);
+				state[current] = NetworkTraversal.State.EXPLORED;
+				depth--;
 			}
 		}
-				
-		postVisitNode(current);
+	}
+
+	// Path capacity: one entry per node, even if the network grows during the traversal
 
-   	    state[current] = NetworkTraversal.State.EXPLORED;
+	private void capacity ()
+	{
+		grow(network.size());
+
+		if (path==null) {
+			path = new int[state.length];
+			next = new int[state.length];
+		} else if (path.length<state.length) {
+			path = Arrays.copyOf(path, state.length);
+			next = Arrays.copyOf(next, state.length);
+		}
 	}
 
-}
+	private void discover (int node)
+	{
+		state[node] = NetworkTraversal.State.DISCOVERED;
+
+		visitNode(node);
+	}
 
+	private int degree (int node)
+	{
+		return reverse? network.inDegree(node): network.outDegree(node);
+	}
+
+	private int link (int node, int i)
+	{
+		return reverse? network.inLink(node, i): network.outLink(node, i);
+	}
+
+}
@@ -104,6 +104,18 @@ public abstract class NetworkTraversal<V,E>
 		}
 	}	
 	
+	// Network growth (e.g. nodes added by visitors during the traversal)
+
+	protected final void grow (int size)
+	{
+		if (size>state.length) {
+			int previous = state.length;
+
+			state = java.util.Arrays.copyOf(state, Math.max(size, 2*previous));
+			java.util.Arrays.fill(state, previous, state.length, State.UNDISCOVERED);
+		}
+	}
+
 	// Explored nodes
 
 	public State status (int index)
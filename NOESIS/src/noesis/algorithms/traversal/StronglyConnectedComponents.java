@@ -1,15 +1,38 @@
 package noesis.algorithms.traversal;
 
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ikor.parallel.Parallel;
+import ikor.parallel.Task;
+
 import noesis.*;
 import noesis.algorithms.NodeVisitor;
 
-// Kosaraju's two pass O(m+n) algorithm
+/**
+ * Strongly connected components, O(n+m), without recursion:
+ * - Kosaraju's two pass algorithm (default), following in-links for the reverse network.
+ *   Components are numbered in decreasing finishing time order of the first pass.
+ * - Tarjan's one pass algorithm (iterative).
+ * - Parallel forward-backward algorithm, for large networks: trivial components are trimmed first,
+ *   then the nodes reachable forward and backward from a random pivot form a component,
+ *   and the remaining three node subsets are independent subproblems, solved in parallel
+ *   (Tarjan's algorithm for small subsets). Component numbers depend on task scheduling.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
 
 public class StronglyConnectedComponents 
 {
+	public enum Method { KOSARAJU, TARJAN, FORWARD_BACKWARD };
+
+	public static final int SEQUENTIAL_THRESHOLD = 4096;  // Forward-backward subproblems solved by Tarjan's algorithm
+
 	private Network network;
 	private int index[];
 	private int components; 
+	private Method method = Method.KOSARAJU;
 
 	private int order[];
 	private int sizes[];
@@ -21,11 +44,27 @@ public class StronglyConnectedComponents
 		this.components = 0;
 	}
 	
+	public StronglyConnectedComponents (Network network, Method method)
+	{
+		this(network);
+		this.method = method;
+	}
+	
 	public final Network getNetwork ()
 	{
 		return this.network;
 	}
 	
+	public final Method getMethod ()
+	{
+		return method;
+	}
+	
+	public final void setMethod (Method method)
+	{
+		this.method = method;
+	}
+	
 	/**
 	 * Number of strongly connected components.
 	 * @return The number of strongly connected components in the network
@@ -85,36 +124,41 @@ public class StronglyConnectedComponents
 	}
 	
 	
-	private Network reverseNetwork (Network net)
+	public final void compute ()
 	{
-		Network reverse = new BasicNetwork();
-		int     size = net.size();
-		int     degree;
-		
-		reverse.setSize(size);
+		Arrays.fill(index, 0);
+		components = 0;
+		sizes = null;
 		
-		for (int i=0; i<size; i++) {
-			degree = net.outDegree(i);
-
-			for (int j=0; j<degree; j++)
-		    	reverse.add( net.outLink(i,j), i);
+		switch (method) {
+			case TARJAN:
+				tarjan();
+				break;
+			case FORWARD_BACKWARD:
+				forwardBackward();
+				break;
+			default:
+				kosaraju();
 		}
-		
-		return reverse;
 	}
 	
-	public final void compute ()
+	
+	// Kosaraju's algorithm
+	
+	private void kosaraju ()
 	{
-		// Topological sort on reverse network
-		// (finishing time for each node)
+		int size = network.size();
 		
-		Network reverse = reverseNetwork(network);
+		// DFS on reverse network, i.e. following in-links
+		// (decreasing finishing time for each node)
 		
-		TopologicalSort ts = new TopologicalSort(reverse);
+		NetworkDFS reverse = new NetworkDFS(network);
 		
-		ts.sort();
+		order = new int[size];
 		
-		order = ts.nodes();
+		reverse.setReverse(true);
+		reverse.setNodePostVisitor(new FinishingTimeVisitor());
+		reverse.traverse();
 		
 		// DFS on original network
 		// (in decreasing order of finishing time)
@@ -123,13 +167,319 @@ public class StronglyConnectedComponents
 	
 		dfs.setNodeVisitor(new StrongComponentVisitor(this));
 		
-		for (int i=0; i<network.size(); i++) {
+		for (int i=0; i<size; i++) {
 			if (index[order[i]]==0) {
 				components++;
 				dfs.traverse(order[i]);
 			}
 		}
 	}
+	
+	private class FinishingTimeVisitor extends NodeVisitor
+	{
+		private int current = network.size()-1;
+		
+		@Override
+		public void visit(int node) 
+		{
+			order[current] = node;
+			current--;
+		}	
+	}
+	
+	
+	// Tarjan's algorithm
+	
+	private AtomicInteger counter;   // Component numbers
+	private int[] discovery;         // Discovery time (0 for undiscovered nodes)
+	private int[] low;               // Lowest discovery time reachable from the node
+	private int[] color;             // Forward-backward subproblem for each node
+	
+	private void tarjan ()
+	{
+		int   size = network.size();
+		int[] nodes = new int[size];
+		
+		for (int i=0; i<size; i++)
+			nodes[i] = i;
+		
+		counter = new AtomicInteger(0);
+		discovery = new int[size];
+		low = new int[size];
+		
+		tarjan(nodes, null, 0);
+		
+		components = counter.get();
+	}
+	
+	/**
+	 * Iterative Tarjan's algorithm, O(n+m).
+	 * @param nodes Nodes
+	 * @param colors Node colors (null for the whole network)
+	 * @param current Color of the nodes (only links between nodes with the same color are followed)
+	 */
+	private void tarjan (int[] nodes, int[] colors, int current)
+	{
+		int[] stack = new int[nodes.length];  // Nodes without component
+		int[] path = new int[nodes.length];   // DFS path
+		int[] next = new int[nodes.length];   // Next link for each node in the path
+		int   top = 0;
+		int   depth = 0;
+		int   time = 0;
+		
+		for (int i=0; i<nodes.length; i++) {
+			
+			if (discovery[nodes[i]]==0) {
+				
+				discovery[nodes[i]] = low[nodes[i]] = ++time;
+				stack[top++] = nodes[i];
+				path[0] = nodes[i];
+				next[0] = 0;
+				depth = 1;
+				
+				while (depth>0) {
+					
+					int node = path[depth-1];
+					
+					if (next[depth-1]<network.outDegree(node)) {
+						
+						int target = network.outLink(node, next[depth-1]);
+						
+						next[depth-1]++;
+						
+						// Other subproblems, trimmed nodes & components already found
+						
+						if ((colors!=null) && (colors[target]!=current))
+							continue;
+						
+						if ((discovery[target]==0) && (index[target]==0)) {
+							discovery[target] = low[target] = ++time;
+							stack[top++] = target;
+							path[depth] = target;
+							next[depth] = 0;
+							depth++;
+						} else if ((index[target]==0) && (discovery[target]<low[node])) {
+							low[node] = discovery[target];
+						}
+						
+					} else {
+						
+						depth--;
+						
+						if (low[node]==discovery[node]) {
+							
+							int component = counter.incrementAndGet();
+							int member;
+							
+							do {
+								member = stack[--top];
+								index[member] = component;
+							} while (member!=node);
+						}
+						
+						if ((depth>0) && (low[node]<low[path[depth-1]]))
+							low[path[depth-1]] = low[node];
+					}
+				}
+			}
+		}
+	}
+	
+	
+	// Forward-backward algorithm
+	
+	private AtomicInteger palette;   // Subproblem colors
+	
+	private void forwardBackward ()
+	{
+		int size = network.size();
+		
+		counter = new AtomicInteger(0);
+		palette = new AtomicInteger(0);
+		discovery = new int[size];
+		low = new int[size];
+		color = new int[size];
+		
+		int[] nodes = trim();
+		
+		new ForwardBackwardTask(nodes, 0).call();
+		
+		components = counter.get();
+	}
+	
+	/**
+	 * Trimming: nodes without in-links or out-links (from other remaining nodes) are components by themselves.
+	 * @return Remaining nodes
+	 */
+	private int[] trim ()
+	{
+		int   size = network.size();
+		int[] in = new int[size];
+		int[] out = new int[size];
+		int[] queue = new int[size];
+		int   head = 0;
+		int   tail = 0;
+		int   remaining = size;
+		
+		for (int node=0; node<size; node++) {
+			for (int i=0; i<network.outDegree(node); i++) {
+				int target = network.outLink(node,i);
+				
+				if (target!=node) {
+					out[node]++;
+					in[target]++;
+				}
+			}
+		}
+		
+		for (int node=0; node<size; node++) {
+			if ((in[node]==0) || (out[node]==0)) {
+				index[node] = counter.incrementAndGet();
+				queue[tail++] = node;
+			}
+		}
+		
+		while (head<tail) {
+			
+			int node = queue[head++];
+			
+			remaining--;
+			
+			for (int i=0; i<network.outDegree(node); i++) {
+				int target = network.outLink(node,i);
+				
+				if ((index[target]==0) && (--in[target]==0)) {
+					index[target] = counter.incrementAndGet();
+					queue[tail++] = target;
+				}
+			}
+			
+			for (int i=0; i<network.inDegree(node); i++) {
+				int source = network.inLink(node,i);
+				
+				if ((index[source]==0) && (--out[source]==0)) {
+					index[source] = counter.incrementAndGet();
+					queue[tail++] = source;
+				}
+			}
+		}
+		
+		int[] nodes = new int[remaining];
+		
+		remaining = 0;
+		
+		for (int node=0; node<size; node++)
+			if (index[node]==0)
+				nodes[remaining++] = node;
+		
+		return nodes;
+	}
+	
+	private class ForwardBackwardTask extends Task<Object>
+	{
+		private int[] nodes;
+		private int   current;
+		
+		public ForwardBackwardTask (int[] nodes, int current)
+		{
+			this.nodes = nodes;
+			this.current = current;
+		}
+		
+		@Override
+		public Object call ()
+		{
+			if (nodes.length<=SEQUENTIAL_THRESHOLD) {
+				
+				tarjan(nodes, color, current);
+				
+			} else {
+				
+				int pivot = nodes[ThreadLocalRandom.current().nextInt(nodes.length)];
+				int forward = palette.incrementAndGet();
+				int backward = palette.incrementAndGet();
+				int component = counter.incrementAndGet();
+				
+				// Forward & backward reachability from the pivot
+				
+				int[] queue = new int[nodes.length];
+				
+				color[pivot] = forward;
+				search(pivot, queue, false, current, forward, -1, 0);
+				search(pivot, queue, true, current, backward, forward, component);
+				
+				// Subproblems
+				
+				int   count[] = new int[3];
+				int[] subsets = new int[] { forward, backward, current };
+				
+				for (int i=0; i<nodes.length; i++)
+					for (int j=0; j<subsets.length; j++)
+						if ((index[nodes[i]]==0) && (color[nodes[i]]==subsets[j]))
+							count[j]++;
+				
+				ForwardBackwardTask[] tasks = new ForwardBackwardTask[subsets.length];
+				
+				for (int j=0; j<subsets.length; j++) {
+					int[] subset = new int[count[j]];
+					int   size = 0;
+					
+					for (int i=0; i<nodes.length; i++)
+						if ((index[nodes[i]]==0) && (color[nodes[i]]==subsets[j]))
+							subset[size++] = nodes[i];
+					
+					tasks[j] = new ForwardBackwardTask(subset, subsets[j]);
+				}
+				
+				Parallel.forkjoin(tasks);
+			}
+			
+			return null;
+		}
+	}
+	
+	/**
+	 * Breadth-first search within a subproblem.
+	 * @param start Start node
+	 * @param queue Node queue
+	 * @param reverse Following in-links (backward) or out-links (forward)
+	 * @param current Color of the subproblem nodes
+	 * @param visited Color for visited nodes
+	 * @param shared Color of nodes also visited by the other search (-1 if none)
+	 * @param component Component for nodes with the shared color
+	 */
+	private void search (int start, int[] queue, boolean reverse, int current, int visited, int shared, int component)
+	{
+		int head = 0;
+		int tail = 0;
+		
+		if (color[start]==shared)
+			index[start] = component;
+		
+		queue[tail++] = start;
+		
+		while (head<tail) {
+			
+			int node = queue[head++];
+			int degree = reverse? network.inDegree(node): network.outDegree(node);
+			
+			for (int i=0; i<degree; i++) {
+				
+				int target = reverse? network.inLink(node,i): network.outLink(node,i);
+				
+				if (index[target]!=0)
+					continue;
+				
+				if (color[target]==current) {
+					color[target] = visited;
+					queue[tail++] = target;
+				} else if ((color[target]==shared) && (target!=start)) {
+					index[target] = component;
+					queue[tail++] = target;
+				}
+			}
+		}
+	}
 
 	// Visitor
 	
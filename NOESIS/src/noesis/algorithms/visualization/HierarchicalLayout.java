@@ -1,13 +1,11 @@
 package noesis.algorithms.visualization;
 
-import ikor.collection.Dictionary;
-import ikor.collection.DynamicDictionary;
 import ikor.collection.DynamicList;
 import ikor.collection.DynamicSet;
 import ikor.collection.List;
 import ikor.collection.Set;
-
-import java.util.Iterator;
+import ikor.collection.primitive.IntIntMap;
+import ikor.collection.primitive.IntSet;
 
 import noesis.Attribute;
 import noesis.AttributeNetwork;
@@ -27,7 +25,8 @@ import noesis.network.filter.LinkFilter;
 public class HierarchicalLayout extends NetworkLayout 
 {
 	private Network acyclicNetwork;
-	private Dictionary<Integer, Integer>[] layerAssignment; 
+	private IntIntMap[] layerAssignment;   // Node position within each layer
+	private int[][]     layerNodes;        // Nodes in each layer
 
 	@Override
 	public void layout (AttributeNetwork network, Attribute<Double> x, Attribute<Double> y) 
@@ -48,9 +47,7 @@ public class HierarchicalLayout extends NetworkLayout
 
 		for ( int layer = 0 ; layer < layerAssignment.length ; layer++ ) {
 
-			Iterator<Integer> iterator = layerAssignment[layer].iterator();
-			while (iterator.hasNext()) {
-				int nodeIndex = iterator.next();
+			for (int nodeIndex : layerNodes[layer]) {
 
 				px[nodeIndex] = (1.0 + layerAssignment[layer].get(nodeIndex))
 						/ (1.0 + layerAssignment[layer].size());
@@ -219,11 +216,11 @@ public class HierarchicalLayout extends NetworkLayout
 	// Step 2: Layer Assignment
 	// ------------------------
 	
-	private Dictionary<Integer, Integer>[] layerAssignmentByLongestPath (Network acyclicNetwork) 
+	private IntIntMap[] layerAssignmentByLongestPath (Network acyclicNetwork) 
 	{
 		int[] nodeToLayer = new int[acyclicNetwork.nodes()];
-		Set<Integer> U = new DynamicSet<Integer>();
-		Set<Integer> Z = new DynamicSet<Integer>();
+		IntSet U = new IntSet();
+		IntSet Z = new IntSet();
 		int currentLayer = 0;
 
 		// Compute layer assignment
@@ -252,9 +249,8 @@ public class HierarchicalLayout extends NetworkLayout
 				U.add(vertex);
 			} else {
 				currentLayer++;
-				Iterator<Integer> iter = U.iterator();
-				while (iter.hasNext()) {
-					Z.add(iter.next());
+				for (int u : U.toArray()) {
+					Z.add(u);
 				}
 			}
 
@@ -263,14 +259,22 @@ public class HierarchicalLayout extends NetworkLayout
 		// Set structure
 		int numLayers = currentLayer + 1;
 
-		Dictionary<Integer, Integer>[] assignment = new Dictionary[numLayers];
-		for ( int layer = 0 ; layer < numLayers ; layer++ )
-			assignment[layer] = new DynamicDictionary<Integer, Integer>();
-
 		int[] nodesAssignedToLayer = new int[numLayers];
+		for ( int node = 0; node < nodeToLayer.length ; node++ )
+			nodesAssignedToLayer[nodeToLayer[node]] += 1;
+
+		IntIntMap[] assignment = new IntIntMap[numLayers];
+		layerNodes = new int[numLayers][];
+		for ( int layer = 0 ; layer < numLayers ; layer++ ) {
+			assignment[layer] = new IntIntMap(nodesAssignedToLayer[layer]);
+			layerNodes[layer] = new int[nodesAssignedToLayer[layer]];
+			nodesAssignedToLayer[layer] = 0;
+		}
+
 		for ( int node = 0; node < nodeToLayer.length ; node++ ) {
 			int layer = nodeToLayer[node];
 			assignment[layer].set(node, nodesAssignedToLayer[layer]);
+			layerNodes[layer][nodesAssignedToLayer[layer]] = node;
 			nodesAssignedToLayer[layer] += 1;
 		}
 
@@ -286,13 +290,9 @@ public class HierarchicalLayout extends NetworkLayout
 		int[][][] linksPerLayer = new int[layerAssignment.length - 1][][];
 		for ( int layer = 0 ; layer < layerAssignment.length - 1 ; layer++ ) {
 			List<int[]> links = new DynamicList<int[]>();
-			Iterator<Integer> iter1 = layerAssignment[layer].iterator();
-			while (iter1.hasNext()) {
-				int u = iter1.next();
+			for (int u : layerNodes[layer]) {
 
-				Iterator<Integer> iter2 = layerAssignment[layer + 1].iterator();
-				while (iter2.hasNext()) {
-					int w = iter2.next();
+				for (int w : layerNodes[layer + 1]) {
 					if (network.contains(u, w) || network.contains(w, u)) {
 						links.add(new int[] { u, w });
 					}
@@ -309,14 +309,15 @@ public class HierarchicalLayout extends NetworkLayout
 			boolean restartLayer;
 			do {
 				restartLayer = false;
-				Iterator<Integer> iter1 = layerAssignment[layer].iterator();
-				Iterator<Integer> iter2 = layerAssignment[layer].iterator();
-				while (iter1.hasNext() && !restartLayer) {
+				int[] nodes = layerNodes[layer];
+				int iter1 = 0;
+				int iter2 = 0;
+				while (iter1 < nodes.length && !restartLayer) {
 					
-					int node1 = iter1.next();
-					while (iter2.hasNext() && !restartLayer) {
+					int node1 = nodes[iter1++];
+					while (iter2 < nodes.length && !restartLayer) {
 						
-						int node2 = iter2.next();
+						int node2 = nodes[iter2++];
 
 						// Swap nodes and check crosses
 						swapNodePositions(node1, node2, layer);
@@ -14,6 +14,7 @@ public abstract class NodeScoreTask extends NoesisTask<NodeScore>
 {
 	private DataModel   model;
 	private Network     network;
+	private NodeScore   initialScore;
 
 	// Constructors
 	
@@ -61,6 +62,47 @@ public abstract class NodeScoreTask extends NoesisTask<NodeScore>
 		setResult(score);
 	}
 
+	// Warm start
+
+	/**
+	 * Initial score, e.g. the result of a previous run on the same network before some changes.
+	 * Iterative algorithms start from it instead of their default initial vector.
+	 */
+	public final NodeScore getInitialScore ()
+	{
+		return initialScore;
+	}
+
+	public final void setInitialScore (NodeScore score)
+	{
+		this.initialScore = score;
+	}
+
+	/**
+	 * Initial vector for iterative algorithms.
+	 * @param value Default value, for nodes without an initial score (e.g. new nodes)
+	 * @return Initial score values, when available, or the default value
+	 */
+	protected final double[] getInitialVector (double value)
+	{
+		int      size = network.size();
+		double[] vector = new double[size];
+		int      known = 0;
+
+		if (initialScore!=null) {
+
+			known = Math.min(size, initialScore.size());
+
+			for (int node=0; node<known; node++)
+				vector[node] = initialScore.get(node);
+		}
+
+		for (int node=known; node<size; node++)
+			vector[node] = value;
+
+		return vector;
+	}
+
 	// Computation template method
 
 	public void checkDone ()
@@ -82,6 +82,83 @@ public abstract class Score extends DenseVector
 			setDescription(description.value());
 	}
 	
+	// Ranking
+
+	/**
+	 * Top-k scores (descending order, ties broken by index), O(N log k).
+	 * @param scores Scores
+	 * @param k Ranking size
+	 * @return Indices of the top-k scores
+	 */
+	public static int[] top (double[] scores, int k)
+	{
+		int   size = Math.min(k, scores.length);
+		int[] heap = new int[size];         // Min-heap of the current top-k
+		int   count = 0;
+
+		for (int i=0; i<scores.length; i++) {
+
+			if (count<size) {
+
+				heap[count] = i;
+				siftUp(heap, count, scores);
+				count++;
+
+			} else if ( (size>0) && greater(i, heap[0], scores) ) {
+
+				heap[0] = i;
+				siftDown(heap, 0, size, scores);
+			}
+		}
+
+		// Heap sort (descending order)
+
+		for (int last=size-1; last>0; last--) {
+			int tmp = heap[0];
+			heap[0] = heap[last];
+			heap[last] = tmp;
+			siftDown(heap, 0, last, scores);
+		}
+
+		return heap;
+	}
+
+	private static boolean greater (int a, int b, double[] scores)
+	{
+		return (scores[a]>scores[b]) || ((scores[a]==scores[b]) && (a<b));
+	}
+
+	private static void siftUp (int[] heap, int pos, double[] scores)
+	{
+		while ( (pos>0) && greater(heap[(pos-1)/2], heap[pos], scores) ) {
+			int parent = (pos-1)/2;
+			int tmp = heap[pos];
+			heap[pos] = heap[parent];
+			heap[parent] = tmp;
+			pos = parent;
+		}
+	}
+
+	private static void siftDown (int[] heap, int pos, int size, double[] scores)
+	{
+		while (2*pos+1<size) {
+
+			int child = 2*pos+1;
+
+			if ( (child+1<size) && greater(heap[child], heap[child+1], scores) )
+				child++;
+
+			if (greater(heap[pos], heap[child], scores)) {
+				int tmp = heap[pos];
+				heap[pos] = heap[child];
+				heap[child] = tmp;
+				pos = child;
+			} else {
+				break;
+			}
+		}
+	}
+
 	// Standard output
 	
 	public String toString ()
@@ -3,7 +3,6 @@ package noesis.analysis.structure;
 import ikor.model.data.annotations.Description;
 import ikor.model.data.annotations.Label;
 import noesis.Network;
-import noesis.analysis.NodeScoreTask;
 
 /**
  * Adjusted closeness centrality (for disconnected graphs), normalized within [0,1]
@@ -15,7 +14,7 @@ import noesis.analysis.NodeScoreTask;
 
 @Label("adj-closeness")
 @Description("Adjusted closeness")
-public class AdjustedCloseness extends NodeScoreTask
+public class AdjustedCloseness extends PathScoreTask
 {
 	public AdjustedCloseness (Network network)
 	{
@@ -24,13 +23,14 @@ public class AdjustedCloseness extends NodeScoreTask
 
 	
 	@Override
-	public double compute(int node) 
+	public double compute(int node, int[] paths) 
 	{
-		Network    network = getNetwork();
-		PathLength paths = new PathLength(network, node);
+		int    reachable = reachable(paths);
+		double sumPathLengths = sum(paths);
 		
-		paths.compute();
-		
-		return paths.closeness()*paths.reachable();
+		if (sumPathLengths>0)
+			return (reachable / sumPathLengths) * ((double)reachable/(getNetwork().size()-1));
+		else		
+			return 0.0;
 	}	
 }
@@ -0,0 +1,146 @@
+package noesis.analysis.structure;
+
+// Title:       Approximate betweenness centrality
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import ikor.math.statistics.fit.ConfidenceInterval;
+import ikor.model.data.annotations.Description;
+import ikor.model.data.annotations.Label;
+import noesis.Network;
+import noesis.Parameter;
+import noesis.analysis.NodeScoreTask;
+
+/**
+ * Approximate betweenness centrality, via source sampling.
+ *
+ * The sample size is either given explicitly or derived from an (epsilon,delta) guarantee:
+ * with probability 1-delta, all the estimates lie within epsilon*n^2 of their exact values.
+ * When a top-k ranking size is given, sampling stops as soon as the top-k ranking is stable.
+ *
+ * @see BetweennessSampler
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+@Label("approx-betweenness")
+@Description("Approximate node betweenness")
+public class ApproximateBetweenness extends NodeScoreTask
+{
+	public static final int    DEFAULT_SAMPLES = 0;    // i.e. from (epsilon,delta)
+	public static final double DEFAULT_EPSILON = 0.01;
+	public static final double DEFAULT_DELTA   = 0.1;
+	public static final int    DEFAULT_TOP     = 0;    // i.e. no adaptive sampling
+
+	@Label("samples")
+	@Parameter(min=0, max=Integer.MAX_VALUE, defaultValue=DEFAULT_SAMPLES)
+	private int samples;
+
+	@Label("epsilon")
+	@Parameter(min=0.0, max=1.0, defaultValue=DEFAULT_EPSILON)
+	private double epsilon;
+
+	@Label("delta")
+	@Parameter(min=0.0, max=1.0, defaultValue=DEFAULT_DELTA)
+	private double delta;
+
+	@Label("top-k")
+	@Parameter(min=0, max=Integer.MAX_VALUE, defaultValue=DEFAULT_TOP)
+	private int top;
+
+	private BetweennessSampler sampler;
+
+	// Constructors
+
+	public ApproximateBetweenness (Network network)
+	{
+		this(network, DEFAULT_SAMPLES, DEFAULT_EPSILON, DEFAULT_DELTA, DEFAULT_TOP);
+	}
+
+	public ApproximateBetweenness (Network network, int samples)
+	{
+		this(network, samples, DEFAULT_EPSILON, DEFAULT_DELTA, DEFAULT_TOP);
+	}
+
+	public ApproximateBetweenness (Network network, double epsilon, double delta)
+	{
+		this(network, DEFAULT_SAMPLES, epsilon, delta, DEFAULT_TOP);
+	}
+
+	/**
+	 * Constructor
+	 * @param network Network
+	 * @param samples Number of sampled source nodes (0 to derive it from epsilon & delta)
+	 * @param epsilon Maximum error, relative to n^2
+	 * @param delta Probability of exceeding the maximum error
+	 * @param top Top-k ranking size for adaptive sampling (0 for a fixed sample size)
+	 */
+	public ApproximateBetweenness (Network network, int samples, double epsilon, double delta, int top)
+	{
+		super(network);
+
+		this.samples = samples;
+		this.epsilon = epsilon;
+		this.delta = delta;
+		this.top = top;
+	}
+
+	// Sampling results
+
+	/**
+	 * Number of sampled source nodes.
+	 */
+	public int getSamples ()
+	{
+		checkDone();
+
+		return sampler.samples();
+	}
+
+	/**
+	 * Maximum absolute error of the estimates, with probability 1-delta.
+	 */
+	public double getError ()
+	{
+		checkDone();
+
+		return sampler.getError(delta);
+	}
+
+	/**
+	 * Confidence interval for the betweenness of a given node (confidence level 1-delta).
+	 */
+	public ConfidenceInterval getConfidenceInterval (int node)
+	{
+		double estimate = compute(node);
+		double error = getError();
+
+		return new ConfidenceInterval( Math.max(0, estimate-error), estimate+error, delta);
+	}
+
+	// Computation
+
+	@Override
+	public double compute (int node)
+	{
+		checkDone();
+
+		return getResult(node);
+	}
+
+	@Override
+	public void compute ()
+	{
+		Network net = getNetwork();
+		int     k = samples;
+
+		if (k<=0)
+			k = BetweennessSampler.samples(net.size(), epsilon, delta);
+
+		sampler = new BetweennessSampler(net);
+		sampler.sample(k, top);
+
+		setResult( sampler.getNodeBetweenness() );
+	}
+}
@@ -0,0 +1,136 @@
+package noesis.analysis.structure;
+
+// Title:       Approximate link betweenness centrality
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import ikor.math.statistics.fit.ConfidenceInterval;
+import ikor.model.data.annotations.Description;
+import ikor.model.data.annotations.Label;
+import noesis.Network;
+import noesis.Parameter;
+import noesis.analysis.LinkScore;
+import noesis.analysis.LinkScoreTask;
+import noesis.network.LinkIndexer;
+
+/**
+ * Approximate link betweenness centrality, via source sampling.
+ *
+ * @see ApproximateBetweenness
+ * @see BetweennessSampler
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+@Label("approx-link-betweenness")
+@Description("Approximate link betweenness")
+public class ApproximateLinkBetweenness extends LinkScoreTask
+{
+	@Label("samples")
+	@Parameter(min=0, max=Integer.MAX_VALUE, defaultValue=ApproximateBetweenness.DEFAULT_SAMPLES)
+	private int samples;
+
+	@Label("epsilon")
+	@Parameter(min=0.0, max=1.0, defaultValue=ApproximateBetweenness.DEFAULT_EPSILON)
+	private double epsilon;
+
+	@Label("delta")
+	@Parameter(min=0.0, max=1.0, defaultValue=ApproximateBetweenness.DEFAULT_DELTA)
+	private double delta;
+
+	@Label("top-k")
+	@Parameter(min=0, max=Integer.MAX_VALUE, defaultValue=ApproximateBetweenness.DEFAULT_TOP)
+	private int top;
+
+	private BetweennessSampler sampler;
+
+	// Constructors
+
+	public ApproximateLinkBetweenness (Network network)
+	{
+		this(network, ApproximateBetweenness.DEFAULT_SAMPLES);
+	}
+
+	public ApproximateLinkBetweenness (Network network, int samples)
+	{
+		super(network);
+
+		this.samples = samples;
+		this.epsilon = ApproximateBetweenness.DEFAULT_EPSILON;
+		this.delta = ApproximateBetweenness.DEFAULT_DELTA;
+		this.top = ApproximateBetweenness.DEFAULT_TOP;
+	}
+
+	/**
+	 * Constructor
+	 * @param network Network
+	 * @param index Link index
+	 * @param samples Number of sampled source nodes (0 to derive it from epsilon & delta)
+	 * @param epsilon Maximum error, relative to n^2
+	 * @param delta Probability of exceeding the maximum error
+	 * @param top Top-k ranking size for adaptive sampling (0 for a fixed sample size)
+	 */
+	public ApproximateLinkBetweenness (Network network, LinkIndexer index, int samples, double epsilon, double delta, int top)
+	{
+		super(network, index);
+
+		this.samples = samples;
+		this.epsilon = epsilon;
+		this.delta = delta;
+		this.top = top;
+	}
+
+	// Sampling results
+
+	public int getSamples ()
+	{
+		checkDone();
+
+		return sampler.samples();
+	}
+
+	public double getError ()
+	{
+		checkDone();
+
+		return sampler.getError(delta);
+	}
+
+	public ConfidenceInterval getConfidenceInterval (int source, int destination)
+	{
+		double estimate = compute(source, destination);
+		double error = getError();
+
+		return new ConfidenceInterval( Math.max(0, estimate-error), estimate+error, delta);
+	}
+
+	// Computation
+
+	@Override
+	public double compute (int source, int destination)
+	{
+		checkDone();
+
+		return getResult().get(source,destination);
+	}
+
+	@Override
+	public void compute ()
+	{
+		Network net = getNetwork();
+		int     k = samples;
+
+		if (k<=0)
+			k = BetweennessSampler.samples(net.links(), epsilon, delta);
+
+		sampler = new BetweennessSampler(net, getLinkIndex());
+		sampler.sample(k, top);
+
+		LinkScore result = new LinkScore(this, net, getLinkIndex());
+
+		result.set( sampler.getLinkBetweenness() );
+
+		setResult(result);
+	}
+}
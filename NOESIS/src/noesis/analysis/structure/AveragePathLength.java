@@ -3,11 +3,10 @@ package noesis.analysis.structure;
 import ikor.model.data.annotations.Description;
 import ikor.model.data.annotations.Label;
 import noesis.Network;
-import noesis.analysis.NodeScoreTask;
 
 @Label("avg-path-length")
 @Description("Average path length")
-public class AveragePathLength extends NodeScoreTask 
+public class AveragePathLength extends PathScoreTask 
 {
 	private int diameter;
 	
@@ -19,20 +18,24 @@ public class AveragePathLength extends NodeScoreTask
 	}	
 	
 	
-	public double compute(int node) 
+	@Override
+	public double compute(int node, int[] paths) 
 	{
-		int radius;
+		int radius = max(paths);
+		int reachable = reachable(paths);
 		
-		PathLength paths = new PathLength(getNetwork(), node);
-		
-		paths.compute();
-		
-		radius = (int) paths.getResult().max();
+		updateDiameter(radius);
 		
+		if (reachable>0)
+			return sum(paths) / reachable;
+		else
+			return 0.0;
+	}
+	
+	private synchronized void updateDiameter (int radius)
+	{
 		if (radius>diameter)
 			diameter = radius;
-		
-		return paths.averagePathLength();
 	}	
 	
 	public double averagePathLength ()
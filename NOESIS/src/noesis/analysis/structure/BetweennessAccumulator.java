@@ -0,0 +1,335 @@
+package noesis.analysis.structure;
+
+// Title:       Betweenness accumulator
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import ikor.collection.CollectionFactory;
+import ikor.collection.List;
+import ikor.parallel.Kernel;
+import ikor.parallel.Parallel;
+import noesis.Network;
+import noesis.network.LinkIndexer;
+
+/**
+ * Allocation-free implementation of Brandes' algorithm for node & link betweenness.
+ *
+ * Workers, i.e. sets of BFS buffers (queue, distances, geodesics & dependencies), are taken from
+ * a pool owned by the accumulator for each source node and returned afterwards, so that no buffers
+ * remain attached to the (long-lived) threads of the fork/join pool. At most one worker is created
+ * per concurrent task, and each worker accumulates the betweenness contributions of its source nodes
+ * into its own score arrays. Partial results are merged only once, when scores are requested.
+ *
+ * Scores are consistent with BetweennessScore & LinkBetweennessScore,
+ * i.e. every path is counted at both its endpoints (Freeman's betweenness + 2n-1).
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class BetweennessAccumulator
+{
+	private Network     net;
+	private LinkIndexer index;
+
+	private int[]       offset;    // offset[node] = position of the node first out-link
+	private int[]       link;      // link[offset[node]+j] = link index of the node j-th out-link
+
+	private List<Worker> workers;   // All workers (partial results)
+	private List<Worker> idle;      // Workers not in use
+
+	private int sources;
+
+	/**
+	 * Constructor (node betweenness).
+	 * @param net Network
+	 */
+	public BetweennessAccumulator (Network net)
+	{
+		this(net,null);
+	}
+
+	/**
+	 * Constructor (node & link betweenness), O(m) + O(m) calls to index.index(source,destination).
+	 * @param net Network
+	 * @param index Link index (null if link betweenness is not needed)
+	 */
+	public BetweennessAccumulator (Network net, LinkIndexer index)
+	{
+		this.net = net;
+		this.index = index;
+
+		if (index!=null) {
+
+			int size = net.size();
+
+			offset = new int[size+1];
+
+			for (int i=0; i<size; i++)
+				offset[i+1] = offset[i] + net.outDegree(i);
+
+			link = new int[offset[size]];
+
+			for (int i=0; i<size; i++) {
+				int degree = net.outDegree(i);
+
+				for (int j=0; j<degree; j++)
+					link[offset[i]+j] = index.index(i, net.outLink(i,j));
+			}
+		}
+
+		reset();
+	}
+
+
+	// Getters
+
+	public final Network getNetwork ()
+	{
+		return net;
+	}
+
+	public final LinkIndexer getLinkIndex ()
+	{
+		return index;
+	}
+
+	/**
+	 * Number of source nodes whose contributions have been accumulated.
+	 */
+	public final int sources ()
+	{
+		return sources;
+	}
+
+
+	// Computation
+
+	/**
+	 * Discard accumulated contributions.
+	 */
+	public final void reset ()
+	{
+		workers = CollectionFactory.createList();
+		idle = CollectionFactory.createList();
+		sources = 0;
+	}
+
+	/**
+	 * Accumulate contributions from all the nodes in the network.
+	 */
+	public final void accumulate ()
+	{
+		accumulate(null, 0, net.size()-1);
+	}
+
+	/**
+	 * Accumulate contributions from a subset of source nodes.
+	 * @param nodes Source nodes
+	 */
+	public final void accumulate (int[] nodes)
+	{
+		accumulate(nodes, 0, nodes.length-1);
+	}
+
+	/**
+	 * Accumulate contributions from a range of source nodes.
+	 * @param nodes Source nodes (null for node indices)
+	 * @param start First source
+	 * @param end Last source
+	 */
+	public final void accumulate (int[] nodes, int start, int end)
+	{
+		if (end>=start) {
+			Parallel.map( new AccumulatorKernel(nodes), start, end);
+			sources += end-start+1;
+		}
+	}
+
+	/**
+	 * Accumulated node betweenness, O(n*workers).
+	 * @return Node betweenness scores
+	 */
+	public final double[] getNodeBetweenness ()
+	{
+		double[] result = new double[net.size()];
+
+		for (int w=0; w<workers.size(); w++)
+			add(result, workers.get(w).node);
+
+		return result;
+	}
+
+	/**
+	 * Accumulated link betweenness, O(m*workers).
+	 * @return Link betweenness scores (sorted by link index)
+	 */
+	public final double[] getLinkBetweenness ()
+	{
+		double[] result = new double[index.links()];
+
+		for (int w=0; w<workers.size(); w++)
+			add(result, workers.get(w).link);
+
+		return result;
+	}
+
+	private final void add (double[] result, double[] partial)
+	{
+		for (int i=0; i<result.length; i++)
+			result[i] += partial[i];
+	}
+
+
+	// Parallel kernel
+
+	private class AccumulatorKernel implements Kernel<Object>
+	{
+		private int[] nodes;
+
+		public AccumulatorKernel (int[] nodes)
+		{
+			this.nodes = nodes;
+		}
+
+		@Override
+		public Object call (int i)
+		{
+			int    source = (nodes!=null)? nodes[i]: i;
+			Worker worker = acquire();
+
+			try {
+				worker.accumulate(source);
+			} finally {
+				release(worker);
+			}
+
+			return null;
+		}
+	}
+
+
+	// Worker pool
+
+	private Worker acquire ()
+	{
+		synchronized (idle) {
+			if (idle.size()>0)
+				return idle.remove(idle.size()-1);
+		}
+
+		Worker worker = new Worker();
+
+		synchronized (workers) {
+			workers.add(worker);
+		}
+
+		return worker;
+	}
+
+	private void release (Worker worker)
+	{
+		synchronized (idle) {
+			idle.add(worker);
+		}
+	}
+
+
+	// Worker buffers
+
+	private class Worker
+	{
+		private int[]    queue;      // BFS visit order (also used as stack)
+		private int[]    distance;   // -1 for unvisited nodes
+		private double[] geodesics;  // Number of shortest paths from the source node
+		private double[] dependency; // Betweenness score from the source node
+
+		private double[] node;       // Accumulated node betweenness
+		private double[] link;       // Accumulated link betweenness
+
+		public Worker ()
+		{
+			int size = net.size();
+
+			queue      = new int[size];
+			distance   = new int[size];
+			geodesics  = new double[size];
+			dependency = new double[size];
+			node       = new double[size];
+
+			if (index!=null)
+				link = new double[index.links()];
+
+			java.util.Arrays.fill(distance, -1);
+		}
+
+		public void accumulate (int source)
+		{
+			int visited = 0;
+
+			// BFS
+
+			queue[visited++] = source;
+			distance[source] = 0;
+			geodesics[source] = 1;
+
+			for (int head=0; head<visited; head++) {
+
+				int current = queue[head];
+				int d = distance[current]+1;
+				int degree = net.outDegree(current);
+
+				for (int j=0; j<degree; j++) {
+
+					int next = net.outLink(current,j);
+
+					if (distance[next]<0) {
+						distance[next] = d;
+						geodesics[next] = geodesics[current];
+						queue[visited++] = next;
+					} else if (distance[next]==d) {
+						geodesics[next] += geodesics[current];
+					}
+				}
+			}
+
+			// Dependencies from shortest paths (reverse order)
+
+			for (int i=visited-1; i>=0; i--) {
+
+				int    current = queue[i];
+				int    d = distance[current]+1;
+				int    degree = net.outDegree(current);
+				double score = 1;
+
+				for (int j=0; j<degree; j++) {
+
+					int next = net.outLink(current,j);
+
+					if (distance[next]==d) {
+
+						double contribution = dependency[next] * geodesics[current] / geodesics[next];
+
+						score += contribution;
+
+						if (link!=null)
+							link[BetweennessAccumulator.this.link[offset[current]+j]] += contribution;
+					}
+				}
+
+				dependency[current] = score;
+				node[current] += score;
+			}
+
+			// Reset buffers (visited nodes only)
+
+			for (int i=0; i<visited; i++) {
+				int current = queue[i];
+				distance[current] = -1;
+				geodesics[current] = 0;
+				dependency[current] = 0;
+			}
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package noesis.analysis.structure;
+
+// Title:       Betweenness estimation via source sampling
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import ikor.math.random.Random;
+import noesis.Network;
+import noesis.analysis.Score;
+import noesis.network.LinkIndexer;
+
+/**
+ * Betweenness estimation via source sampling.
+ *
+ * Source nodes are sampled uniformly at random (with replacement) and their contributions,
+ * scaled by n/k, provide unbiased estimates of node & link betweenness.
+ *
+ * Every contribution lies in [0,n], hence Hoeffding's inequality and the union bound
+ * guarantee, with probability at least 1-delta, |estimate-betweenness| &lt; epsilon*n^2
+ * for all nodes (or links) when k &gt;= ln(2N/delta)/(2*epsilon^2), N being the number of scores.
+ *
+ * References:
+ * - Ulrik Brandes & Christian Pich: "Centrality estimation in large networks,"
+ *   International Journal of Bifurcation and Chaos 17(7):2303-2318, 2007.
+ * - Matteo Riondato & Evgenios M. Kornaropoulos: "Fast approximation of betweenness centrality
+ *   through sampling," WSDM'2014, pp. 413-422.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class BetweennessSampler
+{
+	public static final int BATCH_SIZE = 64;     // Sources per batch (adaptive sampling)
+	public static final int STABLE_BATCHES = 3;  // Batches without changes in top-k ranking
+
+	private Network                net;
+	private BetweennessAccumulator accumulator;
+	private boolean                links;
+	private boolean                exact;
+
+
+	/**
+	 * Constructor (node betweenness).
+	 * @param net Network
+	 */
+	public BetweennessSampler (Network net)
+	{
+		this.net = net;
+		this.accumulator = new BetweennessAccumulator(net);
+		this.links = false;
+	}
+
+	/**
+	 * Constructor (link betweenness).
+	 * @param net Network
+	 * @param index Link index
+	 */
+	public BetweennessSampler (Network net, LinkIndexer index)
+	{
+		this.net = net;
+		this.accumulator = new BetweennessAccumulator(net,index);
+		this.links = true;
+	}
+
+
+	// Sample size
+
+	/**
+	 * Sample size for a given (epsilon,delta) guarantee.
+	 * @param scores Number of estimated scores (i.e. nodes or links)
+	 * @param epsilon Maximum error, relative to n^2
+	 * @param delta Probability of exceeding the maximum error
+	 * @return Number of source nodes to be sampled
+	 */
+	public static int samples (int scores, double epsilon, double delta)
+	{
+		double k = Math.log(2.0*Math.max(scores,1)/delta) / (2*epsilon*epsilon);
+
+		return (int) Math.min( Math.ceil(k), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Maximum error achieved with a given sample size.
+	 * @param scores Number of estimated scores (i.e. nodes or links)
+	 * @param samples Number of sampled source nodes
+	 * @param delta Probability of exceeding the maximum error
+	 * @return Maximum error epsilon, relative to n^2
+	 */
+	public static double error (int scores, int samples, double delta)
+	{
+		return Math.sqrt( Math.log(2.0*Math.max(scores,1)/delta) / (2.0*samples) );
+	}
+
+
+	// Sampling
+
+	/**
+	 * Number of sampled source nodes.
+	 */
+	public final int samples ()
+	{
+		return accumulator.sources();
+	}
+
+	/**
+	 * Are estimates exact (i.e. all the nodes were used as sources)?
+	 */
+	public final boolean isExact ()
+	{
+		return exact;
+	}
+
+	/**
+	 * Sample a fixed number of source nodes.
+	 * Exact scores are computed when the sample would not be smaller than the network.
+	 * @param samples Number of source nodes
+	 */
+	public void sample (int samples)
+	{
+		accumulator.reset();
+
+		if (samples>=net.size()) {
+			accumulator.accumulate();
+			exact = true;
+		} else {
+			accumulator.accumulate(randomSources(samples));
+			exact = false;
+		}
+	}
+
+	/**
+	 * Adaptive sampling: sample source nodes in batches until the top-k ranking
+	 * does not change for STABLE_BATCHES consecutive batches (or the sample size reaches its maximum).
+	 * @param samples Maximum number of source nodes
+	 * @param k Ranking size
+	 */
+	public void sample (int samples, int k)
+	{
+		if ( (k<=0) || (samples>=net.size()) ) {
+			sample(samples);
+			return;
+		}
+
+		int[] ranking = null;
+		int   stable = 0;
+
+		accumulator.reset();
+		exact = false;
+
+		while ( (accumulator.sources()<samples) && (stable<STABLE_BATCHES) ) {
+
+			int batch = Math.min(BATCH_SIZE, samples-accumulator.sources());
+
+			accumulator.accumulate(randomSources(batch));
+
+			int[] current = Score.top(links? accumulator.getLinkBetweenness(): accumulator.getNodeBetweenness(), k);
+
+			if ( (ranking!=null) && java.util.Arrays.equals(ranking, current) )
+				stable++;
+			else
+				stable = 0;
+
+			ranking = current;
+		}
+	}
+
+	private int[] randomSources (int samples)
+	{
+		int[] sources = new int[samples];
+
+		for (int i=0; i<samples; i++)
+			sources[i] = Random.random(net.size());
+
+		return sources;
+	}
+
+
+	// Estimates
+
+	/**
+	 * Estimated node betweenness.
+	 */
+	public double[] getNodeBetweenness ()
+	{
+		return scale(accumulator.getNodeBetweenness());
+	}
+
+	/**
+	 * Estimated link betweenness.
+	 */
+	public double[] getLinkBetweenness ()
+	{
+		return scale(accumulator.getLinkBetweenness());
+	}
+
+	private double[] scale (double[] scores)
+	{
+		if (!exact && (samples()>0)) {
+
+			double factor = ((double)net.size())/samples();
+
+			for (int i=0; i<scores.length; i++)
+				scores[i] *= factor;
+		}
+
+		return scores;
+	}
+
+	/**
+	 * Absolute error bound achieved by the current sample.
+	 * @param delta Probability of exceeding the error bound
+	 * @return Maximum absolute error (0 for exact scores)
+	 */
+	public double getError (double delta)
+	{
+		if (exact)
+			return 0;
+
+		double n = net.size();
+		int    scores = links? net.links(): net.size();
+
+		return error(scores, samples(), delta) * n * n;
+	}
+}
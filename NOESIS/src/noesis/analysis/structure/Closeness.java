@@ -3,7 +3,6 @@ package noesis.analysis.structure;
 import ikor.model.data.annotations.Description;
 import ikor.model.data.annotations.Label;
 import noesis.Network;
-import noesis.analysis.NodeScoreTask;
 
 /**
  * Closeness centrality (suitable for connected graphs).
@@ -15,7 +14,7 @@ import noesis.analysis.NodeScoreTask;
 
 @Label("closeness")
 @Description("Closeness")
-public class Closeness extends NodeScoreTask 
+public class Closeness extends PathScoreTask 
 {
 	public Closeness (Network network)
 	{
@@ -24,13 +23,14 @@ public class Closeness extends NodeScoreTask
 
 	
 	@Override
-	public double compute(int node) 
+	public double compute(int node, int[] paths) 
 	{
-		Network    network = getNetwork();
-		PathLength paths = new PathLength(network, node);
+		int    reachable = reachable(paths);
+		double sumPathLengths = sum(paths);
 		
-		paths.compute();
-		
-		return paths.closeness();
+		if (sumPathLengths>0)
+			return reachable / sumPathLengths;
+		else		
+			return 0.0;
 	}	
 }
@@ -1,11 +1,13 @@
 package noesis.analysis.structure;
 
 // Title:       Clustering coefficient
-// Version:     1.0
+// Version:     1.1
 // Copyright:   2013
 // Author:      Fernando Berzal
 // E-mail:      berzal@acm.org
 
+import java.util.Arrays;
+
 import ikor.model.data.annotations.Description;
 import ikor.model.data.annotations.Label;
 
@@ -14,7 +16,10 @@ import noesis.analysis.NodeScoreTask;
 
 /**
  * Clustering coefficient, between 0 and 1.
- * 
+ *
+ * Clustering coefficients for the whole network are obtained from triangle counts (see Triangles),
+ * which can be shared with other tasks. Self-loops and multiple links are ignored.
+ *
  * @author Fernando Berzal (berzal@acm.org)
  */
 
@@ -22,42 +27,97 @@ import noesis.analysis.NodeScoreTask;
 @Description("Clustering coefficient")
 public class ClusteringCoefficient extends NodeScoreTask
 {
+	private Triangles triangles;
+
 	public ClusteringCoefficient (Network network)
 	{
 		super(network);
 	}
-	
-	public double compute (int node) 
+
+	public ClusteringCoefficient (Network network, Triangles triangles)
+	{
+		super(network);
+
+		this.triangles = triangles;
+	}
+
+	public final Triangles getTriangles ()
+	{
+		if (triangles==null)
+			triangles = new Triangles(getNetwork());
+
+		return triangles;
+	}
+
+
+	@Override
+	public void compute ()
+	{
+		Network   net = getNetwork();
+		Triangles counts = getTriangles();
+		double    cc[] = new double[net.size()];
+
+		counts.checkDone();
+
+		for (int node=0; node<net.size(); node++)
+			cc[node] = coefficient(counts.closedPairs(node), net.outDegree(node));
+
+		setResult(cc);
+	}
+
+	/**
+	 * Clustering coefficient of a single node, O(sum of its out-neighbors' degrees * log d).
+	 */
+	@Override
+	public double compute (int node)
 	{
 		Network net = getNetwork();
-		int triangles = 0;
+		int closed = 0;
 		int degree  = net.outDegree(node);
 		int links[] = net.outLinks(node);
-		
-		if (links!=null) {			
+
+		if (links!=null) {
+
+			int neighbors[] = Arrays.copyOf(links, degree);
+
+			Arrays.sort(neighbors);
+
 			for (int i=0; i<degree; i++) {
-				for (int j=0; j<degree; j++) {				
-				
-					if (net.contains(links[i],links[j]))
-						triangles++;
+
+				int neighbor = neighbors[i];
+
+				if ( (neighbor!=node) && ((i==0) || (neighbor!=neighbors[i-1])) ) {
+
+					for (int j=0; j<net.outDegree(neighbor); j++) {
+
+						int other = net.outLink(neighbor,j);
+
+						if ( (other!=node) && (other!=neighbor) && (Arrays.binarySearch(neighbors,other)>=0) )
+							closed++;
+					}
 				}
 			}
 		}
-		
+
+		return coefficient(closed, degree);
+	}
+
+	private double coefficient (int closed, int degree)
+	{
 		if (degree>1)
-			return ((double)triangles)/(degree*(degree-1));
+			return closed/((double)degree*(degree-1));
 		else
 			return 0;
 	}
 
-	
+
 	// Average clustering coefficient
-	
+
 	public double averageClusteringCoefficient ()
 	{
 		checkDone();
-		
+
 		return getResult().average();
 	}
-		
+
 }
@@ -3,7 +3,6 @@ package noesis.analysis.structure;
 import ikor.model.data.annotations.Description;
 import noesis.Network;
 import noesis.Parameter;
-import noesis.analysis.NodeScoreTask;
 
 /**
  * Decay centrality (weighs distance exponentially).
@@ -16,7 +15,7 @@ import noesis.analysis.NodeScoreTask;
  */
 
 @Description("Node decay")
-public class Decay extends NodeScoreTask 
+public class Decay extends PathScoreTask 
 {
 	public static final double DEFAULT_DECAY = 0.5;
 	
@@ -48,13 +47,19 @@ public class Decay extends NodeScoreTask
 	}	
 
 	@Override
-	public double compute(int node) 
+	public double compute(int node, int[] paths) 
 	{
-		Network    network = getNetwork();
-		PathLength paths = new PathLength(network, node);
+		double sum = 0;
+		double decay = 1;
 		
-		paths.compute();
+		for (int d=1; d<paths.length; d++) {
+			
+			decay *= delta;
+			
+			if (paths[d]>0)
+				sum += paths[d] * decay;
+		}
 		
-		return paths.decay(delta);
+		return sum;
 	}	
 }
@@ -3,7 +3,6 @@ package noesis.analysis.structure;
 import ikor.model.data.annotations.Description;
 import ikor.model.data.annotations.Label;
 import noesis.Network;
-import noesis.analysis.NodeScoreTask;
 import noesis.analysis.NodeScore;
 
 /**
@@ -20,7 +19,7 @@ import noesis.analysis.NodeScore;
 
 @Label("eccentricity")
 @Description("Node eccentricity")
-public class Eccentricity extends NodeScoreTask 
+public class Eccentricity extends PathScoreTask 
 {
 	public Eccentricity (Network network)
 	{
@@ -29,13 +28,10 @@ public class Eccentricity extends NodeScoreTask
 
 	
 	
-	public double compute(int node) 
+	@Override
+	public double compute(int node, int[] paths) 
 	{
-		PathLength paths = new PathLength(getNetwork(), node);
-		
-		paths.compute();
-		
-		return paths.getResult().max();
+		return max(paths);
 	}	
 	
 	
@@ -20,11 +20,23 @@ public class EigenvectorCentrality  extends NodeScoreTask
 	public static int MAX_ITERATIONS = 100;
 	public static double EPSILON = 1e-6;
 	
+	private PowerIteration iteration;
+	
 	public EigenvectorCentrality (Network network)
 	{
 		super(network);
+		
+		iteration = new PowerIteration(MAX_ITERATIONS, EPSILON);
+		iteration.setNormalization(PowerIteration.Norm.L2);
 	}	
 
+	/**
+	 * Power iteration settings, e.g. convergence norm or extrapolation.
+	 */
+	public final PowerIteration getPowerIteration ()
+	{
+		return iteration;
+	}
 	
 
 	@Override
@@ -33,69 +45,29 @@ public class EigenvectorCentrality  extends NodeScoreTask
 		Network net = getNetwork();
 		int     size = net.size();
 		double  centrality[];
-		double  old[];
-		double  tmp[];
-		double  change;
-		double  sum2;
-		double  norm;
-		int     iteration;
 		
-		// Initialization: 1/N
-
-		centrality = new double[size];
-		old = new double[size];
+		// Initialization: 1/N, or warm start from a previous score
 		
-		for (int i=0; i<size; i++) {
-			centrality[i] = 1.0/size;
-			old[i] = centrality[i];
-		}
+		centrality = getInitialVector(1.0/size);
 		
 		
 		// Power iteration: O(k(n+m))
 		// The value of norm converges to the dominant eigenvalue, and the vector 'centrality' to an associated eigenvector
 		// ref. http://en.wikipedia.org/wiki/Power_iteration
 		
-		change = Double.MAX_VALUE;
+		final PowerIteration.Links links = new PowerIteration.Links(net, true);
 		
-		for (iteration=0; (iteration<MAX_ITERATIONS) && (change>EPSILON); iteration++) {
-
-			tmp = old;         // Swap old-centrality
-			old = centrality;
-			centrality = tmp;
-
-			sum2 = 0;
+		centrality = iteration.run( new PowerIteration.Operator() {
 			
-			for (int v=0; v<size; v++) {
-				
-				centrality[v] = 0.0;
-				
-				// Right eigenvector
-				
-				for (int i=0; i<net.inDegree(v); i++) {
-				 	centrality[v] += old[ net.inLink(v,i) ];
-				}
-	
-				// Left eigenvector (alternative for directed networks)
-				//
-				// for (int i=0; i<net.outDegree(v); i++) {
-				//     centrality[v] += old[ net.outLink(v,i) ];
-				// }
-				
-				sum2 += centrality[v]*centrality[v];
-			}
-		    
-		    // Normalization
+			// Right eigenvector (in-links)
+			// - Left eigenvector (alternative for directed networks): out-links
 			
-			norm = Math.sqrt(sum2);
-			change = 0;
-			
-			for (int v=0; v<size; v++) {
-				centrality[v] /= norm;
-
-				if ( Math.abs(centrality[v]-old[v]) > change )
-					change = Math.abs(centrality[v]-old[v]);
+			@Override
+			public double compute (double[] x, int node) 
+			{
+				return links.sum(x, node);
 			}
-		}
+		}, centrality);
 
 		// Result
 		
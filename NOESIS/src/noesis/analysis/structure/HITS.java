@@ -1,5 +1,7 @@
 package noesis.analysis.structure;
 
+import java.util.Arrays;
+
 import ikor.model.data.DataModel;
 import noesis.Network;
 import noesis.analysis.NodeScoreGroupTask;
@@ -27,6 +29,8 @@ public class HITS extends NodeScoreGroupTask
 	private double alpha;
 	private double beta;
 	
+	private PowerIteration iteration;
+	
 	public HITS (Network network)
 	{
 		this(network,1,1);
@@ -38,6 +42,10 @@ public class HITS extends NodeScoreGroupTask
 		
 		this.alpha = alpha;
 		this.beta = beta;
+		
+		this.iteration = new PowerIteration(MAX_ITERATIONS, EPSILON);
+		this.iteration.setNormalization(PowerIteration.Norm.L1);
+		this.iteration.setSegments(2);
 	}	
 
 	public double getAlpha ()
@@ -50,6 +58,14 @@ public class HITS extends NodeScoreGroupTask
 		return beta;
 	}	
 
+	/**
+	 * Power iteration settings, e.g. convergence norm or extrapolation.
+	 */
+	public final PowerIteration getPowerIteration ()
+	{
+		return iteration;
+	}
+
 	// Metadata
 	
 	private static final String[] names = { "hub", "authority" };
@@ -80,94 +96,40 @@ public class HITS extends NodeScoreGroupTask
 	public void compute ()
 	{
 		Network net = getNetwork();
-		int     size = net.size();
-		double  hub[], authority[];
-		double  oldHub[], oldAuthority[];
-		double  tmp[];
-		double  change;
-		double  sumHub, sumAuthority;
-		double  normHub, normAuthority;
-		int     iteration;
+		final int size = net.size();
+		double  centrality[];
 		
 		measures = createMeasures(net);
 		
 		// Initialization: 1/sqrt(N)
+		// - Hubs: centrality[0..size-1]
+		// - Authorities: centrality[size..2*size-1]
 		
-		hub = new double[size];
-		authority = new double[size];
-		oldHub = new double[size];
-		oldAuthority = new double[size];
+		centrality = new double[2*size];
 		
-		for (int i=0; i<size; i++) {
-			hub[i] = 1.0/Math.sqrt(size);
-			oldHub[i] = hub[i];
-			authority[i] = 1.0/Math.sqrt(size);
-			oldAuthority[i] = authority[i];
-		}
+		for (int i=0; i<2*size; i++)
+			centrality[i] = 1.0/Math.sqrt(size);
 				
 		
-		// Iterative algorithm
+		// Iterative algorithm, normalizing hub & authority vectors so that they sum 1
 		
-		change = Double.MAX_VALUE;
+		final PowerIteration.Links out = new PowerIteration.Links(net, false);
+		final PowerIteration.Links in = new PowerIteration.Links(net, true);
 		
-		for (iteration=0; (iteration<MAX_ITERATIONS) && (change>EPSILON); iteration++) {
-
-			// Swap centrality vectors
-			
-			tmp = oldHub;         
-			oldHub = hub;
-			hub = tmp;
-
-			tmp = oldHub;         
-			oldHub = hub;
-			hub = tmp;
-
-			sumHub = 0;
-			sumAuthority = 0;
-			
-			// Update hubs & authorities
+		centrality = iteration.run( new PowerIteration.Operator() {
 			
-			for (int v=0; v<size; v++) {
-				
-				hub[v] = 0.0;
-				authority[v] = 0.0;
-				
-			    for (int i=0; i<net.outDegree(v); i++) {
-				    hub[v] += oldAuthority[ net.outLink(v,i) ];
-				}
-				
-				for (int i=0; i<net.inDegree(v); i++) {
-				 	authority[v] += oldHub[ net.inLink(v,i) ];
-				}
-	
-			    hub[v] *= beta;
-			    authority[v] *= alpha;
-			    
-				sumHub += hub[v];
-				sumAuthority += authority[v];
+			@Override
+			public double compute (double[] x, int index) 
+			{
+				if (index<size)
+					return beta * out.sum(x, size, index);        // Hub: authorities it points to
+				else
+					return alpha * in.sum(x, 0, index-size);      // Authority: hubs that point to it
 			}
-		    
-		    // Normalize centrality vectors so that they sum 1
-			
-			normHub = sumHub;
-			normAuthority = sumAuthority;
-			
-			change = 0;
-			
-			for (int v=0; v<size; v++) {
-				hub[v] /= normHub;
-				authority[v] /= normAuthority;
-
-				if ( Math.abs(hub[v]-oldHub[v]) > change )
-					change = Math.abs(hub[v]-oldHub[v]);
-				
-				if ( Math.abs(authority[v]-oldAuthority[v]) > change )
-					change = Math.abs(authority[v]-oldAuthority[v]);
-			}
-		}
-
-		measures.get(HUB).set(hub);
-		measures.get(AUTHORITY).set(authority);
+		}, centrality);
+		
+		measures.get(HUB).set( Arrays.copyOfRange(centrality, 0, size) );
+		measures.get(AUTHORITY).set( Arrays.copyOfRange(centrality, size, 2*size) );
 	}	
 	
 	
@@ -0,0 +1,88 @@
+package noesis.analysis.structure;
+
+// Title:       Incremental Katz centrality
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import ikor.model.data.annotations.Description;
+
+import noesis.Network;
+
+/**
+ * Incremental Katz centrality, kept up to date as links are added to or removed from the network:
+ * x_i = alpha * sum_j ( A_ji * x_j ) + beta, i.e. the (unnormalized) linear system solution.
+ *
+ * NOTE: Alpha must be below 1/lambda, lambda being the largest eigenvalue of the adjacency matrix,
+ * for the solution to exist. The centrality vector is normalized to be a unit vector.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+@Description("Katz centrality (incremental)")
+public class IncrementalKatzCentrality extends IncrementalScore
+{
+	public static final double DEFAULT_BETA = 1.0;
+
+	private double alpha;
+	private double beta;
+
+	public IncrementalKatzCentrality (Network network, double alpha)
+	{
+		this(network,alpha,DEFAULT_BETA);
+	}
+
+	public IncrementalKatzCentrality (Network network, double alpha, double beta)
+	{
+		super(network);
+		this.alpha = alpha;
+		this.beta = beta;
+	}
+
+	public double getAlpha ()
+	{
+		return alpha;
+	}
+
+	public double getBeta ()
+	{
+		return beta;
+	}
+
+	@Override
+	public String getName()
+	{
+		return "katz("+alpha+","+beta+")";
+	}
+
+
+	@Override
+	protected double base ()
+	{
+		return beta;
+	}
+
+	@Override
+	protected double weight (int node, int degree)
+	{
+		return alpha;
+	}
+
+	@Override
+	protected double[] score (double[] estimate, int size)
+	{
+		double[] centrality = new double[size];
+		double   sum2 = 0;
+
+		for (int i=0; i<size; i++)
+			sum2 += estimate[i]*estimate[i];
+
+		double norm = Math.sqrt(sum2);
+
+		for (int i=0; i<size; i++)
+			centrality[i] = estimate[i]/norm;
+
+		return centrality;
+	}
+}
@@ -0,0 +1,75 @@
+package noesis.analysis.structure;
+
+// Title:       Incremental PageRank
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import ikor.model.data.annotations.Description;
+import ikor.model.data.annotations.Label;
+
+import noesis.Network;
+
+/**
+ * Incremental PageRank, kept up to date as links are added to or removed from the network.
+ *
+ * PageRank is the normalized solution of x = (1-theta) + theta * sum_{u->v} x(u)/outdegree(u),
+ * since dangling nodes are uniformly connected to every node, just as the random surfer.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+@Label("incremental-page-rank")
+@Description("PageRank (incremental)")
+public class IncrementalPageRank extends IncrementalScore
+{
+	private double theta;
+
+	public IncrementalPageRank (Network network)
+	{
+		this(network, PageRank.DEFAULT_THETA);
+	}
+
+	public IncrementalPageRank (Network network, double theta)
+	{
+		super(network);
+		this.theta = theta;
+	}
+
+	public double getTheta ()
+	{
+		return theta;
+	}
+
+
+	@Override
+	protected double base ()
+	{
+		return 1-theta;
+	}
+
+	@Override
+	protected double weight (int node, int degree)
+	{
+		if (degree>0)
+			return theta/degree;
+		else
+			return 0;
+	}
+
+	@Override
+	protected double[] score (double[] estimate, int size)
+	{
+		double[] pagerank = new double[size];
+		double   sum = 0;
+
+		for (int i=0; i<size; i++)
+			sum += estimate[i];
+
+		for (int i=0; i<size; i++)
+			pagerank[i] = estimate[i]/sum;
+
+		return pagerank;
+	}
+}
@@ -0,0 +1,311 @@
+package noesis.analysis.structure;
+
+// Title:       Incremental node scores
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import noesis.Network;
+import noesis.analysis.NodeScoreTask;
+
+/**
+ * Incremental node scores, for linear centralities x = b + sum_{u->v} w(u) x(u),
+ * kept up to date as links are added to (or removed from) a dynamic network.
+ *
+ * The score estimate p and the residual vector r satisfy r = b - p + sum_{u->v} w(u) p(u),
+ * i.e. the exact solution is p + (I-W')^-1 r. Pushing a node moves its residual to its score
+ * and spreads it to its out-neighbors, until no residual exceeds the tolerance (forward push).
+ *
+ * Link changes are made through the task: after a link change u->v, only the residuals
+ * of the out-neighbors of u are adjusted, so that the push work needed to refresh the scores
+ * is proportional to the change rather than to the network size. New nodes are also added
+ * through the task (or directly, before adding their links); node removals are not supported.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public abstract class IncrementalScore extends NodeScoreTask
+{
+	public static double EPSILON = 1e-3;   // Residual per node, for scores around 1
+
+	private double tolerance = EPSILON;
+
+	private double[] estimate;    // Score estimates
+	private double[] residual;    // Residuals
+	private double[] weight;      // Current link weights, w(node)
+	private boolean[] queued;
+	private int[]    queue;       // Circular FIFO queue of nodes to be pushed
+	private int      head;
+	private int      count;
+	private int      size;
+	private long     pushes;
+
+
+	public IncrementalScore (Network network)
+	{
+		super(network);
+	}
+
+	// Tolerance
+
+	/**
+	 * Maximum residual per node.
+	 */
+	public final double getTolerance ()
+	{
+		return tolerance;
+	}
+
+	public final void setTolerance (double tolerance)
+	{
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Number of push operations performed so far.
+	 */
+	public final long getPushes ()
+	{
+		return pushes;
+	}
+
+	// Linear system
+
+	/**
+	 * Constant term for every node, b.
+	 */
+	protected abstract double base ();
+
+	/**
+	 * Weight of the out-links of a node, w(node), given its out-degree.
+	 */
+	protected abstract double weight (int node, int degree);
+
+	/**
+	 * Final score vector, from the current estimates (e.g. normalized).
+	 */
+	protected abstract double[] score (double[] estimate, int size);
+
+
+	// Computation
+
+	@Override
+	public void compute ()
+	{
+		update();
+
+		setResult( score(estimate, size) );
+	}
+
+	@Override
+	public double compute (int node)
+	{
+		checkDone();
+
+		return getResult(node);
+	}
+
+	/**
+	 * Push residuals until all of them are below the tolerance.
+	 */
+	public synchronized void update ()
+	{
+		Network net = getNetwork();
+
+		synchronize();
+
+		while (count>0) {
+
+			int node = queue[head];
+
+			head = (head+1)%queue.length;
+			count--;
+			queued[node] = false;
+
+			double value = residual[node];
+
+			if (Math.abs(value)>tolerance) {
+
+				int degree = net.outDegree(node);
+
+				estimate[node] += value;
+				residual[node] = 0;
+				pushes++;
+
+				for (int i=0; i<degree; i++)
+					spread(net.outLink(node,i), weight[node]*value);
+			}
+		}
+	}
+
+	/**
+	 * Initial residuals (b) for every node in the network, including new nodes.
+	 */
+	private void synchronize ()
+	{
+		Network net = getNetwork();
+
+		if (estimate==null) {
+			size = 0;
+			estimate = new double[0];
+			residual = new double[0];
+			weight = new double[0];
+			queued = new boolean[0];
+			queue = new int[0];
+			head = 0;
+			count = 0;
+		}
+
+		while (size<net.size())
+			node();
+	}
+
+	private void spread (int node, double value)
+	{
+		residual[node] += value;
+
+		if (!queued[node] && (Math.abs(residual[node])>tolerance)) {
+			queued[node] = true;
+			queue[(head+count)%queue.length] = node;
+			count++;
+		}
+	}
+
+
+	// Network changes
+	// ---------------
+
+	/**
+	 * Add a new node to the network.
+	 * @return Index of the new node
+	 */
+	public synchronized int add ()
+	{
+		synchronize();
+
+		getNetwork().add(null);
+
+		synchronize();
+
+		return size-1;
+	}
+
+	private void node ()
+	{
+		Network net = getNetwork();
+		int     node = size;
+
+		if (size==estimate.length)
+			capacity(Math.max(16, 2*size));
+
+		size++;
+
+		estimate[node] = 0;
+		residual[node] = 0;
+		queued[node] = false;
+		weight[node] = weight(node, net.outDegree(node));
+
+		// Residual for the new node, without links: b
+
+		spread(node, base());
+	}
+
+	private void capacity (int capacity)
+	{
+		double[]  newEstimate = new double[capacity];
+		double[]  newResidual = new double[capacity];
+		double[]  newWeight = new double[capacity];
+		boolean[] newQueued = new boolean[capacity];
+		int[]     newQueue = new int[capacity];
+
+		System.arraycopy(estimate, 0, newEstimate, 0, size);
+		System.arraycopy(residual, 0, newResidual, 0, size);
+		System.arraycopy(weight, 0, newWeight, 0, size);
+		System.arraycopy(queued, 0, newQueued, 0, size);
+
+		for (int i=0; i<count; i++)
+			newQueue[i] = queue[(head+i)%queue.length];
+
+		estimate = newEstimate;
+		residual = newResidual;
+		weight = newWeight;
+		queued = newQueued;
+		queue = newQueue;
+		head = 0;
+	}
+
+	/**
+	 * Add a link to the network.
+	 * @param source Source node
+	 * @param destination Destination node
+	 * @return true if the link was added to the network
+	 */
+	public synchronized boolean add (int source, int destination)
+	{
+		Network net = getNetwork();
+
+		synchronize();
+
+		boolean ok = net.add(source, destination);
+
+		if (ok)
+			reweight(source, destination, +1);
+
+		return ok;
+	}
+
+	/**
+	 * Remove a link from the network.
+	 * @param source Source node
+	 * @param destination Destination node
+	 * @return true if the link was removed from the network
+	 */
+	public synchronized boolean remove (int source, int destination)
+	{
+		Network net = getNetwork();
+		boolean ok = false;
+
+		synchronize();
+
+		if (net.contains(source, destination)) {
+
+			ok = net.remove(source, destination);
+
+			if (ok)
+				reweight(source, destination, -1);
+		}
+
+		return ok;
+	}
+
+	/**
+	 * Residual adjustments after a link change: O(outdegree(source))
+	 * @param source Source node, whose out-degree has changed
+	 * @param destination Destination node
+	 * @param sign +1 for added links, -1 for removed links
+	 */
+	private void reweight (int source, int destination, int sign)
+	{
+		Network net = getNetwork();
+		double  old = weight[source];
+
+		weight[source] = weight(source, net.outDegree(source));
+
+		// Current links: weight change
+
+		if (weight[source]!=old) {
+
+			double change = (weight[source]-old)*estimate[source];
+
+			for (int i=0; i<net.outDegree(source); i++)
+				spread(net.outLink(source,i), change);
+		}
+
+		// Added link: new weight = old weight + change
+		// Removed link: -old weight
+
+		spread(destination, sign*old*estimate[source]);
+	}
+
+}
@@ -31,6 +31,8 @@ public class KatzCentrality  extends NodeScoreTask
 	@Parameter(defaultValue=DEFAULT_BETA)
 	private double beta;
 
+	private PowerIteration iteration;
+
 	public KatzCentrality (Network network)
 	{
 		this(network,DEFAULT_ALPHA,DEFAULT_BETA);
@@ -46,6 +48,9 @@ public class KatzCentrality  extends NodeScoreTask
 		super(network);
 		this.alpha = alpha;
 		this.beta = beta;
+		
+		this.iteration = new PowerIteration(MAX_ITERATIONS, EPSILON);
+		this.iteration.setNormalization(PowerIteration.Norm.L2);
 	}	
 	
 	public double getAlpha ()
@@ -58,6 +63,14 @@ public class KatzCentrality  extends NodeScoreTask
 		return beta;
 	}
 
+	/**
+	 * Power iteration settings, e.g. convergence norm or extrapolation.
+	 */
+	public final PowerIteration getPowerIteration ()
+	{
+		return iteration;
+	}
+
 	
 	@Override
 	public String getName() 
@@ -70,69 +83,30 @@ public class KatzCentrality  extends NodeScoreTask
 	public void compute ()
 	{
 		Network net = getNetwork();
-		int     size = net.size();
+		final int size = net.size();
 		double  centrality[];
-		double  old[];
-		double  tmp[];
-		double  change;
-		double  sum2;
-		double  norm;
-		int     iteration;
 		
-		// Initialization: 1/N
+		// Initialization: 1/N, or warm start from a previous score
 		
-		centrality = new double[size];
-		old = new double[size];
-	
-		for (int i=0; i<size; i++) {
-			centrality[i] = 1.0/size;
-			old[i] = centrality[i];
-		}
+		centrality = getInitialVector(1.0/size);
 		
 		
 		// Power iteration: O(k(n+m))
 		// The value of norm converges to the dominant eigenvalue, and the vector 'centrality' to an associated eigenvector
 		// ref. http://en.wikipedia.org/wiki/Power_iteration
 		
-		change = Double.MAX_VALUE;
+		final PowerIteration.Links links = new PowerIteration.Links(net, true);
 		
-		for (iteration=0; (iteration<MAX_ITERATIONS) && (change>EPSILON); iteration++) {
-
-			tmp = old;         // Swap old-centrality
-			old = centrality;
-			centrality = tmp;
-
-			sum2 = 0;
+		centrality = iteration.run( new PowerIteration.Operator() {
 			
-			for (int v=0; v<size; v++) {
-				
-				centrality[v] = 0.0;
+			@Override
+			public double compute (double[] x, int node) 
+			{
+				// Right eigenvector + Katz centrality
 				
-				// Right eigenvector
-				
-				for (int i=0; i<net.inDegree(v); i++) {
-				 	centrality[v] += old[ net.inLink(v,i) ];
-				}
-				
-				// Katz centrality
-
-				centrality[v] = alpha*centrality[v] + beta/size;
-				
-				sum2 += centrality[v]*centrality[v];
-			}
-		    
-		    // Normalization
-			
-			norm = Math.sqrt(sum2);
-			change = 0;
-			
-			for (int v=0; v<size; v++) {
-				centrality[v] /= norm;
-
-				if ( Math.abs(centrality[v]-old[v]) > change )
-					change = Math.abs(centrality[v]-old[v]);
+				return alpha*links.sum(x, node) + beta/size;
 			}
-		}
+		}, centrality);
 
 
 		// Result
@@ -6,11 +6,8 @@ package noesis.analysis.structure;
 // Author:      Fernando Berzal
 // E-mail:      berzal@acm.org
 
-import ikor.math.Vector;
 import ikor.model.data.annotations.Description;
 import ikor.model.data.annotations.Label;
-import ikor.parallel.*;
-import ikor.parallel.combiner.VectorAccumulator;
 import noesis.Network;
 import noesis.analysis.LinkScoreTask;
 import noesis.analysis.LinkScore;
@@ -69,34 +66,17 @@ public class LinkBetweenness extends LinkScoreTask
     	Network net = getNetwork();
     	LinkIndexer index = getLinkIndex();
     	
-        int size = net.size();
-        int links = net.links();
-    
         LinkScore result = new LinkScore(this, net, index);
 
-        // Parallel algorithm 
+        // Parallel algorithm (per-worker accumulators)
         
-        Vector score = (Vector) Parallel.reduce(new LinkBetweennessKernel(), new VectorAccumulator(links), 0, size - 1);
-
-        for (int i = 0; i < score.size(); i++) 
-            result.set(i, score.get(i));
+        BetweennessAccumulator accumulator = new BetweennessAccumulator(net, index);
+        
+        accumulator.accumulate();
+        
+        result.set( accumulator.getLinkBetweenness() );
         
         setResult(result);
     }
 
-
-    /**
-     * Kernel implementation
-     */
-    private class LinkBetweennessKernel implements Kernel<Vector> 
-    {
-        @Override
-        public Vector call(int index) 
-        {
-            LinkBetweennessScore score = new LinkBetweennessScore( getNetwork(), getLinkIndex(), index);
-            
-            return score.call();
-        }
-    }
-
 }
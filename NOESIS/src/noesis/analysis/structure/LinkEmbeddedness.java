@@ -1,7 +1,7 @@
 package noesis.analysis.structure;
 
 // Title:       Link embeddedness
-// Version:     1.0
+// Version:     1.1
 // Copyright:   2014
 // Author:      Fernando Berzal
 // E-mail:      berzal@acm.org
@@ -11,11 +11,15 @@ import ikor.collection.Set;
 import ikor.model.data.annotations.Description;
 import ikor.model.data.annotations.Label;
 import noesis.Network;
+import noesis.analysis.LinkScore;
 import noesis.analysis.LinkScoreTask;
 
 /**
  * Link embeddedness, i.e. number of shared neighbors.
- * 
+ *
+ * Scores for the whole network are obtained from triangle counts (see Triangles),
+ * which can be shared with other tasks.
+ *
  * @author Fernando Berzal (berzal@acm.org)
  */
 
@@ -23,19 +27,36 @@ import noesis.analysis.LinkScoreTask;
 @Description("Link embeddedness, a.k.a. shared neighbors")
 public class LinkEmbeddedness extends LinkScoreTask
 {
-	public LinkEmbeddedness(Network network) 
+	private Triangles triangles;
+
+	public LinkEmbeddedness(Network network)
+	{
+		super(network);
+	}
+
+	public LinkEmbeddedness(Network network, Triangles triangles)
 	{
 		super(network);
+
+		this.triangles = triangles;
 	}
-	
+
+	public final Triangles getTriangles ()
+	{
+		if (triangles==null)
+			triangles = new Triangles(getNetwork());
+
+		return triangles;
+	}
+
 	protected Set<Integer> neighborhood (int node)
 	{
 		Network      net = getNetwork();
 		Set<Integer> neighbors = CollectionFactory.createSet();
-		
+
 		for (int i=0; i<net.inDegree(node); i++)
 			neighbors.add(net.inLink(node,i));
-		
+
 		for (int i=0; i<net.outDegree(node); i++)
 			neighbors.add(net.outLink(node,i));
 
@@ -43,12 +64,44 @@ public class LinkEmbeddedness extends LinkScoreTask
 	}
 
 	@Override
-	public double compute(int source, int destination) 
+	public void compute ()
+	{
+		Network   net = getNetwork();
+		Triangles counts = getTriangles();
+		LinkScore result = new LinkScore(this,net,getLinkIndex());
+		int       pos = 0;
+
+		counts.checkDone();
+
+		for (int node=0; node<net.size(); node++) {
+			for (int link=0; link<net.outDegree(node); link++) {
+				result.set (pos, compute(node, net.outLink(node,link), counts.sharedNeighbors(pos)));
+				pos++;
+			}
+		}
+
+		setResult(result);
+	}
+
+	/**
+	 * Link score from its number of shared neighbors.
+	 * @param source Source node
+	 * @param destination Destination node
+	 * @param shared Shared neighbors (see getTriangles() for other node counts)
+	 * @return Link score
+	 */
+	protected double compute (int source, int destination, int shared)
+	{
+		return shared;
+	}
+
+	@Override
+	public double compute(int source, int destination)
 	{
 		Set<Integer> sourceNeighborhood = neighborhood(source);
 		Set<Integer> destinationNeighborhood = neighborhood(destination);
 		Set<Integer> sharedNeighborhood = sourceNeighborhood.intersection(destinationNeighborhood);
-		
+
 		return sharedNeighborhood.size();
 	}
 
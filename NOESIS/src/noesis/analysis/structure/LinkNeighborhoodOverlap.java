@@ -28,6 +28,19 @@ public class LinkNeighborhoodOverlap extends LinkEmbeddedness
 		super(network);
 	}
 
+	public LinkNeighborhoodOverlap(Network network, Triangles triangles) 
+	{
+		super(network, triangles);
+	}
+
+	@Override
+	protected double compute (int source, int destination, int shared) 
+	{
+		Triangles counts = getTriangles();
+		
+		return shared / (double) (counts.degree(source) + counts.degree(destination) - shared - 2);
+	}
+
 	@Override
 	public double compute(int source, int destination) 
 	{
@@ -42,4 +55,4 @@ public class LinkNeighborhoodOverlap extends LinkEmbeddedness
 		return sharedNeighborhood.size() / (double) linkNeighborhood.size();
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -28,6 +28,19 @@ public class LinkNeighborhoodSize extends LinkEmbeddedness
 		super(network);
 	}
 
+	public LinkNeighborhoodSize(Network network, Triangles triangles) 
+	{
+		super(network, triangles);
+	}
+
+	@Override
+	protected double compute (int source, int destination, int shared) 
+	{
+		Triangles counts = getTriangles();
+		
+		return counts.degree(source) + counts.degree(destination) - shared - 2;
+	}
+
 	@Override
 	public double compute(int source, int destination) 
 	{
@@ -41,4 +54,4 @@ public class LinkNeighborhoodSize extends LinkEmbeddedness
 		return linkNeighborhood.size();
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
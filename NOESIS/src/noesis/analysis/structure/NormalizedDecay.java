@@ -30,12 +30,12 @@ public class NormalizedDecay extends Decay
 	}	
 
 	@Override
-	public double compute(int node) 
+	public double compute(int node, int[] paths) 
 	{
 		int size = getNetwork().size();
 		
 		if ((size>1) && (getDelta()>0))
-			return super.compute(node) / ( getDelta() * (size-1) );
+			return super.compute(node, paths) / ( getDelta() * (size-1) );
 		else
 			return 0;
 	}	
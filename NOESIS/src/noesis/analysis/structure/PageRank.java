@@ -13,9 +13,12 @@ public class PageRank  extends NodeScoreTask
 {
 	public static double DEFAULT_THETA = 0.85;
 	public static double EPSILON = 1e-4;
+	public static int MAX_ITERATIONS = 1000;
 	
 	private double theta = DEFAULT_THETA;
 	
+	private PowerIteration iteration;
+	
 	public PageRank (Network network)
 	{
 		this(network, DEFAULT_THETA);
@@ -25,114 +28,96 @@ public class PageRank  extends NodeScoreTask
 	{
 		super(network);
 		this.theta = theta;
+		this.iteration = new PowerIteration(MAX_ITERATIONS, EPSILON);
+		this.iteration.setNormalization(PowerIteration.Norm.L1);   // Also for Gauss-Seidel sweeps
 	}	
 
+	/**
+	 * Power iteration settings, e.g. convergence norm, Gauss-Seidel sweeps or extrapolation.
+	 */
+	public final PowerIteration getPowerIteration ()
+	{
+		return iteration;
+	}
 	
-	double  pagerank[];
-	double  weight[];
 	
 	public void compute ()
 	{
 		Network net = getNetwork();
 		int     size = net.size();
-		boolean changes;
-		double  old;
-		boolean dangling[];
-		double  danglingRank;
-		double  randomRank;
-		double  rank[];
+		double  pagerank[];
 		
-		// Initialization: 1/N
+		// Initialization: 1/N, or warm start from a previous score
 		
-		pagerank = new double[size];
+		pagerank = getInitialVector(1.0/size);
 		
-		for (int i=0; i<size; i++)
-			pagerank[i] = 1.0/size;
+		// Iterative algorithm: O(k(n+m))
 		
-		// Weights: 1/outdegree(i)
+		pagerank = iteration.run( new PageRankOperator(net), pagerank);
 		
-		weight   = new double[size];
-		dangling = new boolean[size];
+		setResult(pagerank);
+	}	
+	
+	
+	private class PageRankOperator extends PowerIteration.Operator
+	{
+		private PowerIteration.Links links;
+		private double weight[];
+		private int    dangling[];
+		private int    size;
+		private double danglingRank;
+		private double randomRank;
 		
-		for (int i=0; i<size; i++) {
-			if (net.outDegree(i)>0)
-				weight[i] = 1.0 / net.outDegree(i);
-			else
-				dangling[i] = true;
-		}
+		public PageRankOperator (Network net)
+		{
+			int count = 0;
 			
-
-		// Iterative algorithm: O(k(n+m))
-		
-	    do {	
-	    	
-	    	changes = false;
-			rank = new double[size];
-	    	
-			// Dangling nodes (common calculation): O(n) 
+			size = net.size();
+			links = new PowerIteration.Links(net, true);
 			
-			danglingRank = 0;
+			// Weights: 1/outdegree(i)
 			
-			for (int i=0; i<size; i++)
-				if (dangling[i])
-					danglingRank += pagerank[i];
+			weight = new double[size];
 			
-			danglingRank /= size;
+			for (int i=0; i<size; i++) {
+				if (net.outDegree(i)>0)
+					weight[i] = 1.0 / net.outDegree(i);
+				else
+					count++;
+			}
+			
+			dangling = new int[count];
+			count = 0;
+			
+			for (int i=0; i<size; i++)
+				if (net.outDegree(i)==0)
+					dangling[count++] = i;
 			
 			// Random walk: O(1)
 			
 			randomRank = 1.0/size;
+		}
+		
+		@Override
+		public void prepare (double[] pagerank)
+		{
+			// Dangling nodes (common calculation): O(n) 
 			
-			// For each node: O(m)
+			danglingRank = 0;
 			
-		    for (int node=0; node<size; node++) {
-		    	
-		    	old = pagerank[node];
-		    	rank[node] = pagerank (net, node, danglingRank, randomRank);
-		    	
-		    	if (!changes && (Math.abs(rank[node]-old)>EPSILON) ) {
-		    		changes = true;
-		    	}
-		    }
-		    
-		    updateRank(rank);
-		    
-	    } while (changes);
-		
-		weight = null;
-		dangling = null;
-		
-		setResult(pagerank);
-	}	
-	
-	
-	private void updateRank (double[] rank)
-	{
-		pagerank = rank;
-	    // Normalization
-	    // this.multiply(1.0/ this.sum());
-	}
-	
-	
-	private double pagerank (Network net, int node, double danglingRank, double randomRank)
-	{
-		int    degree  = net.inDegree(node);
-		int    links[] = net.inLinks(node);
-		double rank    = 0;
-
-		// Network structure
-		
-		rank = 0;
-		
-		if (links!=null) {			
-			for (int i=0; i<degree; i++) {
-				rank += pagerank[links[i]]*weight[links[i]];
-			}
+			for (int i=0; i<dangling.length; i++)
+				danglingRank += pagerank[dangling[i]];
+			
+			danglingRank /= size;
 		}
 		
-		// PageRank: Incoming links + Dangling nodes + Random walk
-		
-		return theta*(rank + danglingRank) + (1-theta)*randomRank;
+		@Override
+		public double compute (double[] pagerank, int node)
+		{
+			// PageRank: Incoming links + Dangling nodes + Random walk
+			
+			return theta*(links.sum(pagerank, weight, node) + danglingRank) + (1-theta)*randomRank;
+		}
 	}
 	
 	
@@ -0,0 +1,167 @@
+package noesis.analysis.structure;
+
+// Title:       Path-based node scores
+// Version:     1.1
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import ikor.collection.CollectionFactory;
+import ikor.collection.List;
+import ikor.model.data.DataModel;
+import ikor.parallel.Kernel;
+import ikor.parallel.Parallel;
+import noesis.Network;
+import noesis.algorithms.traversal.MultiSourceBFS;
+import noesis.analysis.NodeScoreTask;
+
+/**
+ * Node scores computed from shortest path lengths (e.g. closeness or eccentricity).
+ * 
+ * These scores only depend on the number of nodes at each distance from the node,
+ * so they are computed from path length histograms obtained by bit-parallel multi-source BFS 
+ * (64 source nodes per traversal), without materializing distances.
+ * 
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public abstract class PathScoreTask extends NodeScoreTask 
+{
+	public PathScoreTask (DataModel model, Network network)
+	{
+		super(model, network);
+	}
+
+	public PathScoreTask (Network network)
+	{
+		super(network);
+	}
+	
+	
+	@Override
+	public void compute ()
+	{
+		Network network = getNetwork();
+		int     batches = (network.size()+MultiSourceBFS.WORD_SIZE-1) / MultiSourceBFS.WORD_SIZE;
+		
+		PathScoreKernel kernel = new PathScoreKernel(network);
+		
+		Parallel.map(kernel, 0, batches-1);
+		
+		setResult(kernel.score);
+	}
+	
+	@Override
+	public double compute (int node)
+	{
+		MultiSourceBFS bfs = new MultiSourceBFS(getNetwork());
+		
+		bfs.run(node, 1);
+		
+		return compute(node, bfs.paths(0));
+	}
+	
+	/**
+	 * Node score.
+	 * @param node Node index
+	 * @param paths Path length histogram, i.e. paths[d] = number of nodes at distance d from the node
+	 *        (paths[0]=1, possibly followed by trailing zeros)
+	 * @return Node score
+	 */
+	public abstract double compute (int node, int[] paths);
+	
+	
+	// Batch kernel: MS-BFS buffers pooled during the computation, reused for every batch
+	
+	private class PathScoreKernel implements Kernel
+	{
+		private Network  network;
+		private double[] score;
+		
+		private List<MultiSourceBFS> idle = CollectionFactory.createList();
+		
+		public PathScoreKernel (Network network)
+		{
+			this.network = network;
+			this.score = new double[network.size()];
+		}
+		
+		@Override
+		public Object call (int index) 
+		{
+			MultiSourceBFS traversal = acquire();
+			
+			try {
+				traversal.run(index*traversal.batchSize(), traversal.batchSize());
+			
+				for (int i=0; i<traversal.sources(); i++) {
+					int node = traversal.source(i);
+					score[node] = compute(node, traversal.paths(i));
+				}
+				
+			} finally {
+				release(traversal);
+			}
+			
+			return null;
+		}
+		
+		private MultiSourceBFS acquire ()
+		{
+			synchronized (idle) {
+				if (idle.size()>0)
+					return idle.remove(idle.size()-1);
+			}
+			
+			return new MultiSourceBFS(network);
+		}
+		
+		private void release (MultiSourceBFS traversal)
+		{
+			synchronized (idle) {
+				idle.add(traversal);
+			}
+		}
+	}
+	
+	
+	// Path length statistics
+	
+	/**
+	 * Number of nodes reachable from a node (not including itself).
+	 */
+	public static int reachable (int[] paths)
+	{
+		int total = 0;
+		
+		for (int d=1; d<paths.length; d++)
+			total += paths[d];
+		
+		return total;
+	}
+	
+	/**
+	 * Sum of path lengths to reachable nodes.
+	 */
+	public static double sum (int[] paths)
+	{
+		double sum = 0;
+		
+		for (int d=1; d<paths.length; d++)
+			sum += d * (double) paths[d];
+		
+		return sum;
+	}
+	
+	/**
+	 * Maximum path length to a reachable node.
+	 */
+	public static int max (int[] paths)
+	{
+		for (int d=paths.length-1; d>0; d--)
+			if (paths[d]>0)
+				return d;
+		
+		return 0;
+	}
+}
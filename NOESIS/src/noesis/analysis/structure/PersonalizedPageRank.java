@@ -0,0 +1,488 @@
+package noesis.analysis.structure;
+
+// Title:       Personalized PageRank
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.util.Arrays;
+
+import ikor.collection.CollectionFactory;
+import ikor.collection.List;
+import ikor.model.data.annotations.Description;
+import ikor.model.data.annotations.Label;
+import ikor.parallel.Kernel;
+import ikor.parallel.Parallel;
+
+import noesis.Network;
+import noesis.analysis.NodeScoreTask;
+import noesis.analysis.Score;
+
+/**
+ * Personalized PageRank, i.e. PageRank with random jumps to a set of seed nodes:
+ * the probability that a random walk starting at the seeds, which continues with probability theta
+ * at each step, stops at each node. Random walks stop at dangling nodes.
+ *
+ * Scores are computed by local push algorithms, which only visit a neighborhood of the seeds:
+ * - Forward push (from the seed nodes): Every score is underestimated by at most tolerance*outdegree.
+ * - Backward push (to a target node): Personalized PageRank of the target node for every single seed,
+ *   with an additive error below the tolerance.
+ *
+ * Queries return the top-k nodes with their scores (including the seeds themselves)
+ * and batches of queries are answered in parallel. Network links are read once, before the first query.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+@Label("personalized-page-rank")
+@Description("Personalized PageRank")
+public class PersonalizedPageRank extends NodeScoreTask
+{
+	public static double EPSILON = 1e-5;
+
+	private int[]  seeds;
+	private double theta;
+	private double tolerance = EPSILON;
+
+	private PowerIteration.Links out;
+	private PowerIteration.Links in;
+
+	private List<Push> workspaces = CollectionFactory.createList();   // Idle push buffers
+
+
+	public PersonalizedPageRank (Network network, int... seeds)
+	{
+		this(network, PageRank.DEFAULT_THETA, seeds);
+	}
+
+	public PersonalizedPageRank (Network network, double theta, int... seeds)
+	{
+		super(network);
+		this.theta = theta;
+		this.seeds = seeds;
+	}
+
+	public final int[] getSeeds ()
+	{
+		return seeds;
+	}
+
+	public final double getTheta ()
+	{
+		return theta;
+	}
+
+	/**
+	 * Residual tolerance (the lower, the more accurate and the more nodes visited).
+	 */
+	public final double getTolerance ()
+	{
+		return tolerance;
+	}
+
+	public final void setTolerance (double tolerance)
+	{
+		this.tolerance = tolerance;
+	}
+
+
+	// Node scores (forward push from the seeds)
+
+	@Override
+	public void compute ()
+	{
+		Push     push = acquire();
+		double[] score = new double[getNetwork().size()];
+
+		try {
+			push.forward(seeds);
+
+			for (int i=0; i<push.visited; i++)
+				score[push.touched[i]] = push.estimate[push.touched[i]];
+
+		} finally {
+			release(push);
+		}
+
+		setResult(score);
+	}
+
+	@Override
+	public double compute (int node)
+	{
+		checkDone();
+
+		return getResult(node);
+	}
+
+
+	// Queries
+	// -------
+
+	/**
+	 * Top-k nodes for the task seed nodes.
+	 */
+	public Ranking top (int k)
+	{
+		return forward(seeds, k);
+	}
+
+	/**
+	 * Top-k nodes for a seed node (forward push).
+	 */
+	public Ranking forward (int seed, int k)
+	{
+		return forward(new int[]{seed}, k);
+	}
+
+	/**
+	 * Top-k nodes for a set of seed nodes (forward push).
+	 * @param seeds Seed nodes
+	 * @param k Ranking size (0 for all the visited nodes)
+	 */
+	public Ranking forward (int[] seeds, int k)
+	{
+		Push push = acquire();
+
+		try {
+			push.forward(seeds);
+
+			return push.ranking(k);
+
+		} finally {
+			release(push);
+		}
+	}
+
+	/**
+	 * Top-k seed nodes for a target node (backward push),
+	 * i.e. the nodes whose personalized PageRank of the target is the highest.
+	 * @param target Target node
+	 * @param k Ranking size (0 for all the visited nodes)
+	 */
+	public Ranking backward (int target, int k)
+	{
+		Push push = acquire();
+
+		try {
+			push.backward(target);
+
+			return push.ranking(k);
+
+		} finally {
+			release(push);
+		}
+	}
+
+	/**
+	 * Batch of forward push queries, in parallel.
+	 * @param seeds Seed nodes for each query
+	 * @param k Ranking size
+	 */
+	public Ranking[] forward (final int[][] seeds, final int k)
+	{
+		final Ranking[] rankings = new Ranking[seeds.length];
+
+		links();
+
+		Parallel.map( new Kernel() {
+			@Override
+			public Object call (int index)
+			{
+				rankings[index] = forward(seeds[index], k);
+				return null;
+			}
+		}, 0, seeds.length-1);
+
+		return rankings;
+	}
+
+	/**
+	 * Batch of backward push queries, in parallel.
+	 * @param targets Target node for each query
+	 * @param k Ranking size
+	 */
+	public Ranking[] backward (final int[] targets, final int k)
+	{
+		final Ranking[] rankings = new Ranking[targets.length];
+
+		links();
+
+		Parallel.map( new Kernel() {
+			@Override
+			public Object call (int index)
+			{
+				rankings[index] = backward(targets[index], k);
+				return null;
+			}
+		}, 0, targets.length-1);
+
+		return rankings;
+	}
+
+
+	// Network links, O(n+m) once for all queries
+
+	private synchronized void links ()
+	{
+		if (out==null) {
+			out = new PowerIteration.Links(getNetwork(), false);
+			in = new PowerIteration.Links(getNetwork(), true);
+		}
+	}
+
+
+	/**
+	 * Query result: nodes in descending score order.
+	 */
+	public static class Ranking
+	{
+		private int[]    nodes;
+		private double[] scores;
+
+		public Ranking (int[] nodes, double[] scores)
+		{
+			this.nodes = nodes;
+			this.scores = scores;
+		}
+
+		public int size ()
+		{
+			return nodes.length;
+		}
+
+		public int node (int i)
+		{
+			return nodes[i];
+		}
+
+		public double score (int i)
+		{
+			return scores[i];
+		}
+
+		@Override
+		public String toString ()
+		{
+			StringBuilder builder = new StringBuilder("[");
+
+			for (int i=0; i<nodes.length; i++) {
+				if (i>0)
+					builder.append(", ");
+				builder.append(nodes[i]+":"+scores[i]);
+			}
+
+			return builder.append("]").toString();
+		}
+	}
+
+
+	// Push buffers, O(n) each: at most one per concurrent query, reused by later queries
+
+	private Push acquire ()
+	{
+		synchronized (workspaces) {
+			if (workspaces.size()>0)
+				return workspaces.remove(workspaces.size()-1);
+		}
+
+		return new Push();
+	}
+
+	/**
+	 * Clear the push state (even after failed queries) and return the buffers to the pool.
+	 */
+	private void release (Push push)
+	{
+		push.clear();
+
+		synchronized (workspaces) {
+			workspaces.add(push);
+		}
+	}
+
+
+	// Local push, reusing O(n) buffers: O(visited nodes) per query
+
+	private class Push
+	{
+		private double[]  estimate;
+		private double[]  residual;
+		private int[]     touched;    // Visited nodes
+		private int       visited;
+		private boolean[] seen;
+		private int[]     queue;      // Circular FIFO queue of nodes to be pushed
+		private boolean[] queued;
+		private int       head;
+		private int       count;
+
+		public Push ()
+		{
+			int size = getNetwork().size();
+
+			links();
+
+			estimate = new double[size];
+			residual = new double[size];
+			touched = new int[size];
+			seen = new boolean[size];
+			queue = new int[size];
+			queued = new boolean[size];
+		}
+
+		private void touch (int node)
+		{
+			if (!seen[node]) {
+				seen[node] = true;
+				touched[visited++] = node;
+			}
+		}
+
+		private void enqueue (int node)
+		{
+			if (!queued[node]) {
+				queued[node] = true;
+				queue[(head+count)%queue.length] = node;
+				count++;
+			}
+		}
+
+		private int dequeue ()
+		{
+			int node = queue[head];
+
+			head = (head+1)%queue.length;
+			count--;
+			queued[node] = false;
+
+			return node;
+		}
+
+		// Forward push: residual r(u) > tolerance*outdegree(u)
+
+		public void forward (int[] seeds)
+		{
+			for (int i=0; i<seeds.length; i++) {
+				touch(seeds[i]);
+				residual[seeds[i]] += 1.0/seeds.length;
+				enqueue(seeds[i]);
+			}
+
+			while (count>0) {
+
+				int    node = dequeue();
+				int    degree = out.degree(node);
+				double value = residual[node];
+
+				if (value>tolerance*(degree>0? degree: 1)) {
+
+					residual[node] = 0;
+
+					if (degree==0) {
+
+						estimate[node] += value;
+
+					} else {
+
+						double share = theta*value/degree;
+
+						estimate[node] += (1-theta)*value;
+
+						for (int i=0; i<degree; i++) {
+							int next = out.link(node,i);
+
+							touch(next);
+							residual[next] += share;
+
+							if (residual[next]>tolerance*(out.degree(next)>0? out.degree(next): 1))
+								enqueue(next);
+						}
+					}
+				}
+			}
+		}
+
+		// Backward push: residual r(v) > tolerance
+
+		public void backward (int target)
+		{
+			touch(target);
+			residual[target] = 1;
+			enqueue(target);
+
+			while (count>0) {
+
+				int    node = dequeue();
+				double value = residual[node];
+
+				if (value>tolerance) {
+
+					residual[node] = 0;
+
+					// Dangling nodes: the random walk stays at the node until it stops
+
+					if (out.degree(node)==0)
+						value /= (1-theta);
+
+					estimate[node] += (1-theta)*value;
+
+					for (int i=0; i<in.degree(node); i++) {
+						int previous = in.link(node,i);
+
+						touch(previous);
+						residual[previous] += theta*value/out.degree(previous);
+
+						if (residual[previous]>tolerance)
+							enqueue(previous);
+					}
+				}
+			}
+		}
+
+		// Top-k visited nodes with positive scores, O(visited log k)
+
+		public Ranking ranking (int k)
+		{
+			int[]    candidate = new int[visited];
+			double[] score = new double[visited];
+			int      candidates = 0;
+
+			for (int i=0; i<visited; i++) {
+				if (estimate[touched[i]]>0) {
+					candidate[candidates] = touched[i];
+					score[candidates] = estimate[touched[i]];
+					candidates++;
+				}
+			}
+
+			if (candidates<visited)
+				score = Arrays.copyOf(score, candidates);
+
+			int[]    top = Score.top(score, (k>0)? k: candidates);
+			int[]    nodes = new int[top.length];
+			double[] scores = new double[top.length];
+
+			for (int i=0; i<top.length; i++) {
+				nodes[i] = candidate[top[i]];
+				scores[i] = score[top[i]];
+			}
+
+			return new Ranking(nodes, scores);
+		}
+
+		public void clear ()
+		{
+			for (int i=0; i<visited; i++) {
+				estimate[touched[i]] = 0;
+				residual[touched[i]] = 0;
+				seen[touched[i]] = false;
+				queued[touched[i]] = false;   // Interrupted queries
+			}
+
+			visited = 0;
+			head = 0;
+			count = 0;
+		}
+	}
+}
@@ -0,0 +1,593 @@
+package noesis.analysis.structure;
+
+// Title:       Power iteration
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import ikor.parallel.Kernel;
+import ikor.parallel.Parallel;
+
+import noesis.Network;
+
+/**
+ * Sparse power iteration, x(k+1) = f(x(k)), shared by spectral node scores
+ * (e.g. PageRank, HITS, Katz & eigenvector centrality).
+ *
+ * Vector components are computed by an Operator, usually from sparse matrix-vector products
+ * over the CSR view of network links provided by Links. Jacobi sweeps run in parallel over
+ * blocks of BLOCK_SIZE components, using two buffers that are reused in every iteration.
+ * Partial block results are combined in block order, so that scores do not depend on the
+ * number of threads.
+ *
+ * Vectors can be normalized after each sweep (L1, L2 or MAX norm), either as a whole or as
+ * independent segments of the same size (e.g. hub & authority scores). Iteration stops when
+ * the change between consecutive vectors (L1, L2 or MAX norm) is not greater than the
+ * tolerance, or after a maximum number of iterations.
+ *
+ * Optional accelerations:
+ * - Gauss-Seidel sweeps, which update the vector in place and are therefore sequential.
+ *   They keep fixed points x=f(x), e.g. PageRank (normalized so that it sums 1), but not
+ *   eigenvectors whose eigenvalue is not 1 (e.g. eigenvector centrality).
+ * - Aitken extrapolation, applied to every vector component periodically, 
+ *   but only when convergence is slow (i.e. residuals decrease by less than SLOW_CONVERGENCE).
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class PowerIteration
+{
+	public enum Norm { L1, L2, MAX };
+	public enum Method { JACOBI, GAUSS_SEIDEL };
+
+	public static final int BLOCK_SIZE = 256;
+	public static final double SLOW_CONVERGENCE = 0.5;  // Residual ratio needed for extrapolation
+
+	private int    maxIterations;
+	private double tolerance;
+	private Norm   norm = Norm.MAX;
+	private Norm   normalization = null;
+	private int    segments = 1;
+	private Method method = Method.JACOBI;
+	private int    extrapolation = 0;
+
+	private int    iterations;
+	private double residual;
+
+
+	public PowerIteration (int maxIterations, double tolerance)
+	{
+		this.maxIterations = maxIterations;
+		this.tolerance = tolerance;
+	}
+
+
+	// Configuration
+
+	public int getMaxIterations ()
+	{
+		return maxIterations;
+	}
+
+	public void setMaxIterations (int maxIterations)
+	{
+		this.maxIterations = maxIterations;
+	}
+
+	public double getTolerance ()
+	{
+		return tolerance;
+	}
+
+	public void setTolerance (double tolerance)
+	{
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Convergence norm, i.e. norm of the change between consecutive vectors (MAX by default).
+	 */
+	public Norm getNorm ()
+	{
+		return norm;
+	}
+
+	public void setNorm (Norm norm)
+	{
+		this.norm = norm;
+	}
+
+	/**
+	 * Vector normalization after each sweep (null if vectors are not normalized).
+	 */
+	public Norm getNormalization ()
+	{
+		return normalization;
+	}
+
+	public void setNormalization (Norm normalization)
+	{
+		this.normalization = normalization;
+	}
+
+	/**
+	 * Number of independently-normalized segments in the vector.
+	 */
+	public int getSegments ()
+	{
+		return segments;
+	}
+
+	public void setSegments (int segments)
+	{
+		this.segments = segments;
+	}
+
+	public Method getMethod ()
+	{
+		return method;
+	}
+
+	public void setMethod (Method method)
+	{
+		this.method = method;
+	}
+
+	/**
+	 * Aitken extrapolation period, in iterations (0 if disabled).
+	 */
+	public int getExtrapolation ()
+	{
+		return extrapolation;
+	}
+
+	public void setExtrapolation (int period)
+	{
+		if ( (period!=0) && (period<3) )
+			throw new IllegalArgumentException("Aitken extrapolation needs three consecutive iterations");
+
+		this.extrapolation = period;
+	}
+
+
+	// Results
+
+	/**
+	 * Number of sweeps performed in the last run.
+	 */
+	public int getIterations ()
+	{
+		return iterations;
+	}
+
+	/**
+	 * Change in the last iteration of the last run.
+	 */
+	public double getResidual ()
+	{
+		return residual;
+	}
+
+
+	// Operator
+
+	public static abstract class Operator
+	{
+		/**
+		 * Called before each sweep, e.g. for computing global terms.
+		 * @param x Current vector
+		 */
+		public void prepare (double[] x)
+		{
+		}
+
+		/**
+		 * New value of a vector component.
+		 * @param x Current vector (already updated up to index-1 in Gauss-Seidel sweeps)
+		 * @param index Vector component
+		 */
+		public abstract double compute (double[] x, int index);
+	}
+
+
+	// Iteration
+
+	private Operator operator;
+	private double[] x;            // Current vector
+	private double[] y;            // Previous vector
+	private double[] z;            // Vector before the previous one (extrapolation)
+	private int      size;
+	private int      segmentSize;
+	private int      segmentBlocks;
+	private int      blocks;
+
+	private double[] blockSum;     // Block partial results
+	private double[] blockSum2;
+	private double[] blockMax;
+	private double[] blockChange;
+	private double[] divisor;      // Segment norms
+
+	/**
+	 * Run power iteration.
+	 * @param operator Vector operator
+	 * @param vector Initial vector (also used as a buffer)
+	 * @return Final vector
+	 */
+	public synchronized double[] run (Operator operator, double[] vector)
+	{
+		double[] result;
+
+		this.operator = operator;
+		this.size = vector.length;
+		this.segmentSize = size/segments;
+		this.segmentBlocks = (segmentSize+BLOCK_SIZE-1)/BLOCK_SIZE;
+		this.blocks = segments*segmentBlocks;
+
+		x = vector;
+		y = new double[size];
+		z = (extrapolation>0)? new double[size]: null;
+
+		blockSum = new double[blocks];
+		blockSum2 = new double[blocks];
+		blockMax = new double[blocks];
+		blockChange = new double[blocks];
+		divisor = new double[segments];
+
+		iterations = 0;
+		residual = Double.MAX_VALUE;
+
+		while ( (iterations<maxIterations) && (residual>tolerance) ) {
+
+			double previous = residual;
+
+			operator.prepare(x);
+
+			if (method==Method.GAUSS_SEIDEL)
+				gaussSeidel();
+			else
+				jacobi();
+
+			if (normalization!=null) {
+				normalize();
+				Parallel.map( new NormalizationKernel(true), 0, blocks-1);
+			}
+
+			residual = change();
+			iterations++;
+
+			if (z!=null) {
+
+				if ( (residual>tolerance) && (iterations>=2) && ((iterations%extrapolation)==0) && (residual>SLOW_CONVERGENCE*previous) )
+					extrapolate();
+
+				double[] tmp = z;   // z <- y (previous), y <- z (free)
+				z = y;
+				y = tmp;
+			}
+		}
+
+		result = x;
+
+		this.operator = null;
+		x = y = z = null;
+
+		return result;
+	}
+
+	/**
+	 * Jacobi sweep (parallel): x <- f(x), y <- x.
+	 */
+	private void jacobi ()
+	{
+		double[] tmp = y;
+
+		y = x;
+		x = tmp;
+
+		Parallel.map( new SweepKernel(y, x), 0, blocks-1);
+	}
+
+	/**
+	 * Gauss-Seidel sweep (sequential, in place): x <- f(x), y <- x.
+	 */
+	private void gaussSeidel ()
+	{
+		SweepKernel kernel = new SweepKernel(x, x);
+
+		if ( (normalization!=null) || (z!=null) )
+			System.arraycopy(x, 0, y, 0, size);
+
+		for (int block=0; block<blocks; block++)
+			kernel.call(block);
+	}
+
+	private void extrapolate ()
+	{
+		Parallel.map( new AitkenKernel(), 0, blocks-1);
+
+		if (normalization!=null) {
+			normalize();
+			Parallel.map( new NormalizationKernel(false), 0, blocks-1);
+		}
+	}
+
+
+	// Blocks
+
+	private int first (int block)
+	{
+		return (block/segmentBlocks)*segmentSize + (block%segmentBlocks)*BLOCK_SIZE;
+	}
+
+	private int last (int block)
+	{
+		int end = first(block) + BLOCK_SIZE;
+		int segmentEnd = (block/segmentBlocks+1)*segmentSize;
+
+		return ((end<segmentEnd)? end: segmentEnd) - 1;
+	}
+
+	private void partial (int block, double value)
+	{
+		double abs = (value<0)? -value: value;
+
+		blockSum[block] += abs;
+		blockSum2[block] += value*value;
+
+		if (abs>blockMax[block])
+			blockMax[block] = abs;
+	}
+
+	private void reset (int block)
+	{
+		blockSum[block] = 0;
+		blockSum2[block] = 0;
+		blockMax[block] = 0;
+		blockChange[block] = 0;
+	}
+
+	private void change (int block, double delta)
+	{
+		if (delta<0)
+			delta = -delta;
+
+		if (norm==Norm.L1)
+			blockChange[block] += delta;
+		else if (norm==Norm.L2)
+			blockChange[block] += delta*delta;
+		else if (delta>blockChange[block])
+			blockChange[block] = delta;
+	}
+
+	private double change ()
+	{
+		double total = 0;
+
+		for (int block=0; block<blocks; block++) {
+
+			if (norm==Norm.MAX) {
+				if (blockChange[block]>total)
+					total = blockChange[block];
+			} else {
+				total += blockChange[block];
+			}
+		}
+
+		return (norm==Norm.L2)? Math.sqrt(total): total;
+	}
+
+	/**
+	 * Segment norms, from partial block results.
+	 */
+	private void normalize ()
+	{
+		for (int segment=0; segment<segments; segment++) {
+
+			double sum = 0;
+			double sum2 = 0;
+			double max = 0;
+
+			for (int block=segment*segmentBlocks; block<(segment+1)*segmentBlocks; block++) {
+				sum += blockSum[block];
+				sum2 += blockSum2[block];
+
+				if (blockMax[block]>max)
+					max = blockMax[block];
+			}
+
+			if (normalization==Norm.L1)
+				divisor[segment] = sum;
+			else if (normalization==Norm.L2)
+				divisor[segment] = Math.sqrt(sum2);
+			else
+				divisor[segment] = max;
+
+			if (divisor[segment]==0)
+				divisor[segment] = 1;
+		}
+	}
+
+
+	// Kernels
+
+	private class SweepKernel implements Kernel
+	{
+		private double[] source;
+		private double[] target;
+
+		public SweepKernel (double[] source, double[] target)
+		{
+			this.source = source;
+			this.target = target;
+		}
+
+		@Override
+		public Object call (int block)
+		{
+			int last = last(block);
+
+			reset(block);
+
+			for (int i=first(block); i<=last; i++) {
+
+				double old = source[i];
+				double value = operator.compute(source, i);
+
+				target[i] = value;
+				partial(block, value);
+
+				if (normalization==null)
+					change(block, value-old);
+			}
+
+			return null;
+		}
+	}
+
+	private class NormalizationKernel implements Kernel
+	{
+		private boolean changes;
+
+		public NormalizationKernel (boolean changes)
+		{
+			this.changes = changes;
+		}
+
+		@Override
+		public Object call (int block)
+		{
+			int    last = last(block);
+			double scale = divisor[block/segmentBlocks];
+
+			for (int i=first(block); i<=last; i++) {
+
+				x[i] /= scale;
+
+				if (changes)
+					change(block, x[i]-y[i]);
+			}
+
+			return null;
+		}
+	}
+
+	/**
+	 * Aitken's delta-squared process: x - (x-y)^2/((x-y)-(y-z)),
+	 * only for components that converge and keep their sign.
+	 */
+	private class AitkenKernel implements Kernel
+	{
+		@Override
+		public Object call (int block)
+		{
+			int last = last(block);
+
+			reset(block);
+
+			for (int i=first(block); i<=last; i++) {
+
+				double d1 = x[i]-y[i];
+				double d2 = y[i]-z[i];
+				double a1 = (d1<0)? -d1: d1;
+				double a2 = (d2<0)? -d2: d2;
+
+				if (a1<a2) {
+
+					double value = x[i] - d1*d1/(d1-d2);
+
+					if ( (value>=0) == (x[i]>=0) )
+						x[i] = value;
+				}
+
+				partial(block, x[i]);
+			}
+
+			return null;
+		}
+	}
+
+
+	// CSR view of network links
+
+	/**
+	 * Compressed sparse row (CSR) view of network links, i.e. the in-links (or out-links)
+	 * of every node stored in a single array.
+	 */
+	public static class Links
+	{
+		private int[] offset;
+		private int[] link;
+
+		/**
+		 * CSR view, O(n+m).
+		 * @param net Network
+		 * @param in true for in-links, false for out-links
+		 */
+		public Links (Network net, boolean in)
+		{
+			int size = net.size();
+
+			offset = new int[size+1];
+
+			for (int node=0; node<size; node++)
+				offset[node+1] = offset[node] + (in? net.inDegree(node): net.outDegree(node));
+
+			link = new int[offset[size]];
+
+			for (int node=0; node<size; node++) {
+
+				int degree = offset[node+1]-offset[node];
+
+				for (int i=0; i<degree; i++)
+					link[offset[node]+i] = in? net.inLink(node,i): net.outLink(node,i);
+			}
+		}
+
+		public final int degree (int node)
+		{
+			return offset[node+1]-offset[node];
+		}
+
+		/**
+		 * i-th link of a node.
+		 */
+		public final int link (int node, int i)
+		{
+			return link[offset[node]+i];
+		}
+
+		/**
+		 * Sum of x[base+j] for every link j of the node.
+		 */
+		public final double sum (double[] x, int base, int node)
+		{
+			double sum = 0;
+			int    end = offset[node+1];
+
+			for (int i=offset[node]; i<end; i++)
+				sum += x[base+link[i]];
+
+			return sum;
+		}
+
+		public final double sum (double[] x, int node)
+		{
+			return sum(x, 0, node);
+		}
+
+		/**
+		 * Sum of x[j]*weight[j] for every link j of the node.
+		 */
+		public final double sum (double[] x, double[] weight, int node)
+		{
+			double sum = 0;
+			int    end = offset[node+1];
+
+			for (int i=offset[node]; i<end; i++)
+				sum += x[link[i]]*weight[link[i]];
+
+			return sum;
+		}
+	}
+}
@@ -0,0 +1,425 @@
+package noesis.analysis.structure;
+
+// Title:       Triangle counting
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import ikor.parallel.Kernel;
+import ikor.parallel.Parallel;
+
+import noesis.Network;
+
+/**
+ * Triangle counting engine, shared by clustering coefficients and link neighborhood scores.
+ *
+ * Triangles are enumerated in the underlying undirected simple graph (i.e. ignoring self-loops
+ * and multiple links), each one exactly once: edges are oriented from lower-degree to higher-degree
+ * nodes (ties broken by node index), so that no node has more than O(sqrt(m)) oriented edges,
+ * and the triangles of each oriented edge (u,v) are found by merging the sorted oriented
+ * adjacency lists of u and v, O(m^1.5). Nodes are processed in parallel.
+ *
+ * Link directions are kept for every edge, so that a single pass computes:
+ * - Per-node triangles.
+ * - Per-node closed pairs, i.e. ordered pairs of out-neighbors (a,b) such that a->b
+ *   (numerator of the clustering coefficient in directed networks).
+ * - Per-link shared neighbors, i.e. triangles the link belongs to.
+ * - Per-link cycles, i.e. nodes w such that destination->w->source.
+ *
+ * Links are identified by their LinkScore index, i.e. following the out-links of each node.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class Triangles
+{
+	private static final byte FORWARD  = 1;  // Oriented edge u->v: link u->v
+	private static final byte BACKWARD = 2;  // Oriented edge u->v: link v->u
+
+	private Network net;
+	private volatile boolean done;
+
+	private int[]  degree;       // Undirected degree, without self-loops & multiple links
+	private int[]  first;        // first[node]..first[node+1]-1 = node oriented edges
+	private int[]  target;       // Oriented edge targets, sorted for each node
+	private byte[] direction;    // Oriented edge links (FORWARD | BACKWARD)
+	private int[]  link;         // link[index] = 2*edge (+1 if the link is backward), -1 for self-loops
+
+	private AtomicIntegerArray nodeTriangles;
+	private AtomicIntegerArray closedPairs;
+	private AtomicIntegerArray edgeTriangles;
+	private AtomicIntegerArray forwardCycles;    // Oriented edge u->v: nodes w such that v->w->u
+	private AtomicIntegerArray backwardCycles;   // Oriented edge u->v: nodes w such that u->w->v
+
+
+	public Triangles (Network net)
+	{
+		this.net = net;
+	}
+
+	public final Network getNetwork ()
+	{
+		return net;
+	}
+
+
+	// Computation
+
+	public void checkDone ()
+	{
+		if (!done)
+			compute();
+	}
+
+	public synchronized void compute ()
+	{
+		if (!done) {
+			adjacency();
+			orientation();
+			Parallel.map( new TriangleKernel(), 0, net.size()-1);
+			links();
+			done = true;
+		}
+	}
+
+
+	// Node counts
+
+	/**
+	 * Undirected node degree, i.e. number of distinct neighbors (not including the node itself).
+	 */
+	public int degree (int node)
+	{
+		checkDone();
+		return degree[node];
+	}
+
+	/**
+	 * Triangles a node belongs to.
+	 */
+	public int triangles (int node)
+	{
+		checkDone();
+		return nodeTriangles.get(node);
+	}
+
+	/**
+	 * Closed pairs of a node, i.e. ordered pairs of out-neighbors (a,b) such that a->b.
+	 */
+	public int closedPairs (int node)
+	{
+		checkDone();
+		return closedPairs.get(node);
+	}
+
+	/**
+	 * Total number of triangles in the network.
+	 */
+	public long triangles ()
+	{
+		long total = 0;
+
+		checkDone();
+
+		for (int node=0; node<net.size(); node++)
+			total += nodeTriangles.get(node);
+
+		return total/3;
+	}
+
+
+	// Link counts
+
+	/**
+	 * Shared neighbors of a link, i.e. triangles the link belongs to.
+	 * @param index Link index
+	 */
+	public int sharedNeighbors (int index)
+	{
+		checkDone();
+
+		if (link[index]>=0)
+			return edgeTriangles.get(link[index]>>1);
+		else
+			return 0;
+	}
+
+	/**
+	 * Cycles of a link, i.e. nodes w such that destination->w->source.
+	 * @param index Link index
+	 */
+	public int cycles (int index)
+	{
+		checkDone();
+
+		if (link[index]<0)
+			return 0;
+		else if ((link[index]&1)==0)
+			return forwardCycles.get(link[index]>>1);
+		else
+			return backwardCycles.get(link[index]>>1);
+	}
+
+	/**
+	 * Reciprocal links, i.e. source->destination & destination->source.
+	 * @param index Link index
+	 */
+	public boolean isReciprocal (int index)
+	{
+		checkDone();
+
+		if (link[index]>=0)
+			return direction[link[index]>>1]==(FORWARD|BACKWARD);
+		else
+			return true;
+	}
+
+
+	// Undirected adjacency: sorted neighbors with link directions, node<<2 | FORWARD/BACKWARD
+
+	private long[] neighbors;
+	private int[]  offset;
+
+	private void adjacency ()
+	{
+		int size = net.size();
+
+		offset = new int[size+1];
+
+		for (int node=0; node<size; node++) {
+			for (int i=0; i<net.outDegree(node); i++) {
+				int other = net.outLink(node,i);
+
+				if (other!=node) {
+					offset[node+1]++;
+					offset[other+1]++;
+				}
+			}
+		}
+
+		for (int node=0; node<size; node++)
+			offset[node+1] += offset[node];
+
+		int[] position = Arrays.copyOf(offset, size);
+
+		neighbors = new long[offset[size]];
+
+		for (int node=0; node<size; node++) {
+			for (int i=0; i<net.outDegree(node); i++) {
+				int other = net.outLink(node,i);
+
+				if (other!=node) {
+					neighbors[position[node]++]  = ((long)other<<2) | FORWARD;
+					neighbors[position[other]++] = ((long)node<<2)  | BACKWARD;
+				}
+			}
+		}
+
+		degree = new int[size];
+
+		Parallel.map( new AdjacencyKernel(), 0, size-1);
+	}
+
+	private class AdjacencyKernel implements Kernel
+	{
+		@Override
+		public Object call (int node)
+		{
+			int start = offset[node];
+			int count = 0;
+
+			Arrays.sort(neighbors, start, offset[node+1]);
+
+			// Merge links in both directions (and multiple links)
+
+			for (int i=start; i<offset[node+1]; i++) {
+
+				if ( (count>0) && ((neighbors[start+count-1]>>2)==(neighbors[i]>>2)) )
+					neighbors[start+count-1] |= neighbors[i]&(FORWARD|BACKWARD);
+				else
+					neighbors[start+(count++)] = neighbors[i];
+			}
+
+			degree[node] = count;
+			return null;
+		}
+	}
+
+
+	// Degree-ordered orientation
+
+	private boolean oriented (int source, int destination)
+	{
+		return (degree[source]<degree[destination])
+		    || ((degree[source]==degree[destination]) && (source<destination));
+	}
+
+	private void orientation ()
+	{
+		int size = net.size();
+		int edges = 0;
+
+		first = new int[size+1];
+
+		for (int node=0; node<size; node++) {
+			for (int i=0; i<degree[node]; i++)
+				if (oriented(node, (int)(neighbors[offset[node]+i]>>2)))
+					edges++;
+			first[node+1] = edges;
+		}
+
+		target = new int[edges];
+		direction = new byte[edges];
+
+		for (int node=0; node<size; node++) {
+			int edge = first[node];
+
+			for (int i=0; i<degree[node]; i++) {
+				long neighbor = neighbors[offset[node]+i];
+
+				if (oriented(node, (int)(neighbor>>2))) {
+					target[edge] = (int)(neighbor>>2);
+					direction[edge] = (byte)(neighbor&(FORWARD|BACKWARD));
+					edge++;
+				}
+			}
+		}
+
+		neighbors = null;
+		offset = null;
+
+		nodeTriangles = new AtomicIntegerArray(size);
+		closedPairs = new AtomicIntegerArray(size);
+		edgeTriangles = new AtomicIntegerArray(edges);
+		forwardCycles = new AtomicIntegerArray(edges);
+		backwardCycles = new AtomicIntegerArray(edges);
+	}
+
+	private int edge (int source, int destination)
+	{
+		int edge = Arrays.binarySearch(target, first[source], first[source+1], destination);
+
+		return (edge>=0)? edge: -1;
+	}
+
+
+	// Triangle enumeration (atomic counters, since every triangle updates three nodes & edges)
+
+	private class TriangleKernel implements Kernel
+	{
+		@Override
+		public Object call (int u)
+		{
+			int end = first[u+1];
+
+			for (int uv=first[u]; uv<end; uv++) {
+
+				int v = target[uv];
+				int uw = first[u];
+				int vw = first[v];
+				int vend = first[v+1];
+
+				// Sorted-merge intersection
+
+				while ((uw<end) && (vw<vend)) {
+
+					if (target[uw]<target[vw]) {
+						uw++;
+					} else if (target[uw]>target[vw]) {
+						vw++;
+					} else {
+						triangle(u, v, target[uw], uv, uw, vw);
+						uw++;
+						vw++;
+					}
+				}
+			}
+
+			return null;
+		}
+	}
+
+	private void triangle (int u, int v, int w, int uv, int uw, int vw)
+	{
+		boolean u2v = (direction[uv]&FORWARD)!=0;
+		boolean v2u = (direction[uv]&BACKWARD)!=0;
+		boolean u2w = (direction[uw]&FORWARD)!=0;
+		boolean w2u = (direction[uw]&BACKWARD)!=0;
+		boolean v2w = (direction[vw]&FORWARD)!=0;
+		boolean w2v = (direction[vw]&BACKWARD)!=0;
+
+		nodeTriangles.incrementAndGet(u);
+		nodeTriangles.incrementAndGet(v);
+		nodeTriangles.incrementAndGet(w);
+
+		edgeTriangles.incrementAndGet(uv);
+		edgeTriangles.incrementAndGet(uw);
+		edgeTriangles.incrementAndGet(vw);
+
+		// Closed pairs
+
+		if (u2v && u2w)
+			closedPairs.addAndGet(u, count(v2w,w2v));
+
+		if (v2u && v2w)
+			closedPairs.addAndGet(v, count(u2w,w2u));
+
+		if (w2u && w2v)
+			closedPairs.addAndGet(w, count(u2v,v2u));
+
+		// Cycles
+
+		if (v2w && w2u)
+			forwardCycles.incrementAndGet(uv);
+
+		if (u2w && w2v)
+			backwardCycles.incrementAndGet(uv);
+
+		if (w2v && v2u)
+			forwardCycles.incrementAndGet(uw);
+
+		if (u2v && v2w)
+			backwardCycles.incrementAndGet(uw);
+
+		if (w2u && u2v)
+			forwardCycles.incrementAndGet(vw);
+
+		if (v2u && u2w)
+			backwardCycles.incrementAndGet(vw);
+	}
+
+	private int count (boolean a, boolean b)
+	{
+		return (a?1:0) + (b?1:0);
+	}
+
+
+	// Link index
+
+	private void links ()
+	{
+		int index = 0;
+
+		link = new int[net.links()];
+
+		for (int node=0; node<net.size(); node++) {
+			for (int i=0; i<net.outDegree(node); i++) {
+
+				int other = net.outLink(node,i);
+
+				if (other==node)
+					link[index] = -1;
+				else if (oriented(node,other))
+					link[index] = 2*edge(node,other);
+				else
+					link[index] = 2*edge(other,node) + 1;
+
+				index++;
+			}
+		}
+	}
+}
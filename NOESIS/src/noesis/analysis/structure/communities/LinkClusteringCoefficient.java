@@ -1,7 +1,7 @@
 package noesis.analysis.structure.communities;
 
 // Title:       Link Clustering coefficient
-// Version:     1.0
+// Version:     1.1
 // Copyright:   2014
 // Author:      Fco. Javier Gijon & Aaron Rosas
 // E-mail:      fcojaviergijon@gmail.com & aarr90@gmail.com
@@ -10,24 +10,68 @@ import ikor.model.data.annotations.Description;
 import ikor.model.data.annotations.Label;
 
 import noesis.Network;
+import noesis.analysis.LinkScore;
 import noesis.analysis.LinkScoreTask;
+import noesis.analysis.structure.Triangles;
 
 /**
  * Link Clustering coefficient
  *
+ * Scores for the whole network are obtained from triangle counts (see Triangles),
+ * whereas single links are computed locally (e.g. after removing links from the network).
+ *
  * @author Aaron Rosas (aarr90@gmail.com) & Fco. Javier Gijon (fcojaviergijon@gmail.com)
  */
 @Label("Link Clustering coefficient")
 @Description("Link Clustering coefficient")
-public class LinkClusteringCoefficient extends LinkScoreTask 
+public class LinkClusteringCoefficient extends LinkScoreTask
 {
-    public LinkClusteringCoefficient(Network network) 
+    private Triangles triangles;
+
+    public LinkClusteringCoefficient(Network network)
+    {
+        super(network);
+    }
+
+    public LinkClusteringCoefficient(Network network, Triangles triangles)
     {
         super(network);
+
+        this.triangles = triangles;
+    }
+
+    public final Triangles getTriangles()
+    {
+        if (triangles == null) {
+            triangles = new Triangles(getNetwork());
+        }
+
+        return triangles;
+    }
+
+    @Override
+    public void compute()
+    {
+        Network net = getNetwork();
+        Triangles counts = getTriangles();
+        LinkScore result = new LinkScore(this, net, getLinkIndex());
+        int pos = 0;
+
+        counts.checkDone();
+
+        for (int node = 0; node < net.size(); node++) {
+            for (int link = 0; link < net.outDegree(node); link++) {
+                int destination = net.outLink(node, link);
+                result.set(pos, coefficient(node, destination, counts.cycles(pos), counts.isReciprocal(pos)));
+                pos++;
+            }
+        }
+
+        setResult(result);
     }
 
     @Override
-    public double compute(int source, int destination) 
+    public double compute(int source, int destination)
     {
         Network net = getNetwork();
 
@@ -46,19 +90,26 @@ public class LinkClusteringCoefficient extends LinkScoreTask
             }
         }
 
+        return coefficient(source, destination, triangles, net.get(destination, source) != null);
+    }
+
+    private double coefficient(int source, int destination, int triangles, boolean reciprocal)
+    {
+        Network net = getNetwork();
+
         // max #triangles where the link could be there
         int kj = net.outDegree(destination);
         int ki = net.inDegree(source);
         int denom = Math.max(ki, kj);
-        
+
         if (denom == ki) {
             denom--;
-        } else if (net.get(destination, source) != null) {
+        } else if (reciprocal) {
             denom--;
         }
-        
+
         double result = 0;
-        
+
         if (denom!=0)
         	result = ((double) (triangles + 1)) / denom;
 
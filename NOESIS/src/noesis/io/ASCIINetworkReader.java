@@ -1,5 +1,7 @@
 package noesis.io;
 
+import ikor.collection.primitive.DoubleList;
+import ikor.collection.primitive.IntList;
 import ikor.math.Decimal;
 
 import java.io.*;
@@ -16,6 +18,8 @@ import noesis.Network;
  * [edge_3_node_1] [edge_3_node_2] [edge_3_cost]
  * ...
  * 
+ * In weighted mode, link costs are stored as doubles in a link weight column (see getLinkWeights).
+ * 
  * @author Fernando Berzal
  */
 public class ASCIINetworkReader extends NetworkReader<String,Decimal>
@@ -68,6 +72,14 @@ public class ASCIINetworkReader extends NetworkReader<String,Decimal>
 		throws IOException 
 	{
 		Network<String,Decimal> net = createNetwork();
+		
+		startWeights();
+		
+		if (isParallel()) {
+			readParallel(net);
+			return finishWeights(net);
+		}
+		
 		int     nodes;
 		int     source, destination;
 		String  line;
@@ -93,19 +105,160 @@ public class ASCIINetworkReader extends NetworkReader<String,Decimal>
 			tokenizer = new StringTokenizer(line);		
 			source = Integer.parseInt(tokenizer.nextToken())-1;       // Start from 0 instead of 1
 			destination = Integer.parseInt(tokenizer.nextToken())-1;
-			value = new Decimal(tokenizer.nextToken());
 			
-			net.add(source,destination,value);
+			if (weights!=null) {
+				link(net, source, destination, Double.parseDouble(tokenizer.nextToken()));
+			} else {
+				value = new Decimal(tokenizer.nextToken());
 			
-			if (!directed)
-				net.add(destination,source,value);
+				net.add(source,destination,value);
+			
+				if (!directed)
+					net.add(destination,source,value);
+			}
 
 			line = readLine();
 		}
 		
 		
+		return finishWeights(net);
+	}
+
+	/**
+	 * Header-only inspection: number of nodes & edges, as declared in the first line.
+	 */
+	@Override
+	public NetworkInfo inspect ()
+		throws IOException
+	{
+		NetworkInfo info = new NetworkInfo(getFormat());
+		String      line = readLine();
+		
+		info.setDirected(directed);
+		
+		if (line!=null) {
+			
+			StringTokenizer tokenizer = new StringTokenizer(line);
+			
+			info.setSize(Integer.parseInt(tokenizer.nextToken()));
+			
+			if (tokenizer.hasMoreTokens())
+				info.setLinks(Long.parseLong(tokenizer.nextToken()));
+		}
+		
+		return info;
+	}
+
+	/**
+	 * Parallel parser: the input is read block by block (see BlockInput) and the links 
+	 * in each block are parsed in parallel (see EdgeListParser), then added to the network in file order.
+	 * @param net Network
+	 * @throws IOException
+	 */
+	private void readParallel (Network<String,Decimal> net)
+		throws IOException
+	{
+		BlockInput block = new BlockInput(input);
+		String     header = "";
+		
+		// n m  == nodes & edges
+		
+		while ( (header!=null) && (header.length()==0) ) {
+			header = block.readLine();
+			
+			if (header!=null)
+				header = header.trim();
+		}
+		
+		StringTokenizer tokenizer = new StringTokenizer(header);
+		
+		net.setSize( Integer.parseInt(tokenizer.nextToken()) );
+		
+		// Links, block by block
+		
+		do {
+			int end = block.lines();
+			
+			EdgeListParser parser = new EdgeListParser(block.data(), false, true);
+
+			parser.setWeighted(weights!=null);
+			parser.parse(block.position(), end, block.line());
+			
+			for (int c=0; c<parser.chunks(); c++) {
+				
+				EdgeListParser.Chunk chunk = parser.chunk(c);
+				
+				for (int i=0; i<chunk.size(); i++) {
+					
+					int source = (int) chunk.source(i)-1;            // Start from 0 instead of 1
+					int destination = (int) chunk.destination(i)-1;
+					
+					if (weights!=null) {
+						link(net, source, destination, chunk.weight(i));
+					} else {
+						Decimal value = chunk.value(i);
+					
+						net.add(source,destination,value);
+					
+						if (!directed)
+							net.add(destination,source,value);
+					}
+				}
+			}
+			
+			block.skip(end, parser.lines());
+			
+		} while (block.fill());
+	}
+	
+	
+	// Weighted mode
+	
+	private IntList    sources;
+	private IntList    destinations;
+	private DoubleList weights;
+	
+	private void startWeights ()
+	{
+		if (isWeighted()) {
+			sources = new IntList();
+			destinations = new IntList();
+			weights = new DoubleList();
+		} else {
+			weights = null;
+		}
+	}
+	
+	private void link (Network<String,Decimal> net, int source, int destination, double weight)
+	{
+		net.add(source,destination);
+		
+		sources.add(source);
+		destinations.add(destination);
+		weights.add(weight);
+		
+		if (!directed) {
+			net.add(destination,source);
+			
+			sources.add(destination);
+			destinations.add(source);
+			weights.add(weight);
+		}
+	}
+	
+	private Network<String,Decimal> finishWeights (Network<String,Decimal> net)
+	{
+		if (weights!=null) {
+			setLinkWeights(net, sources.toArray(), destinations.toArray(), weights.toArray(), weights.size());
+			
+			sources = null;
+			destinations = null;
+			weights = null;
+		}
+		
 		return net;
 	}
+	
 
 	@Override
 	public void close() throws IOException 
@@ -0,0 +1,114 @@
+package noesis.io;
+
+// Title:       NOESIS binary network format
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+
+import ikor.model.data.BooleanModel;
+import ikor.model.data.DataModel;
+import ikor.model.data.DecimalModel;
+import ikor.model.data.IntegerModel;
+import ikor.model.data.RealModel;
+
+/**
+ * NOESIS binary network format (.noesis files).
+ *
+ * Little-endian file layout:
+ * - Fixed header (32 bytes): magic, version, header size, flags, nodes, links, node columns, link columns.
+ * - Network ID (length-prefixed UTF-8 string, length -1 if null).
+ * - Section table: offset & length (in bytes) of the four CSR sections.
+ * - Column table: name, data model class, column type, offset & length of each attribute column.
+ * - Sections, aligned to 8-byte boundaries:
+ *   - outOffsets int[n+1], outTargets int[m], inOffsets int[n+1], inSources int[m].
+ *   - Node attribute columns (n values) followed by link attribute columns (m values, CSR order).
+ *
+ * Column encodings:
+ * - INT: int[k], null values stored as Integer.MIN_VALUE.
+ * - REAL: double[k], null values stored as NaN (also used for decimal attributes).
+ * - BOOLEAN: byte[k], 1 for true, 0 for false, -1 for null.
+ * - TEXT: int[k+1] offsets, byte[k] null flags, UTF-8 data.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+class BinaryNetworkFormat
+{
+	public static final int MAGIC = 0x4E4F4553; // "NOES"
+	public static final int VERSION = 1;
+
+	public static final int FIXED_HEADER = 32;
+	public static final int ALIGNMENT = 8;
+
+	public static final int FLAG_DIRECTED = 1;
+
+	public static final int SECTIONS = 4;
+
+	public static final int INT = 1;
+	public static final int REAL = 2;
+	public static final int BOOLEAN = 3;
+	public static final int TEXT = 4;
+
+	public static final int NULL_INT = Integer.MIN_VALUE;
+
+	public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+	public static final Charset UTF8 = Charset.forName("UTF-8");
+
+
+	/**
+	 * Column type for a given data model.
+	 */
+	public static int type (DataModel model)
+	{
+		if (model instanceof IntegerModel)
+			return INT;
+		else if ( (model instanceof RealModel) || (model instanceof DecimalModel) )
+			return REAL;
+		else if (model instanceof BooleanModel)
+			return BOOLEAN;
+		else
+			return TEXT;
+	}
+
+	/**
+	 * Align file offset.
+	 */
+	public static long align (long offset)
+	{
+		return (offset+ALIGNMENT-1) & ~(long)(ALIGNMENT-1);
+	}
+
+	/**
+	 * Column length, in bytes.
+	 * @param type Column type
+	 * @param size Number of values
+	 * @param text UTF-8 data length (TEXT columns)
+	 */
+	public static long length (int type, int size, long text)
+	{
+		switch (type) {
+			case INT:
+				return 4L*size;
+			case REAL:
+				return 8L*size;
+			case BOOLEAN:
+				return size;
+			default:
+				return 4L*(size+1) + size + text;
+		}
+	}
+
+	/**
+	 * Encoded length of a string, in bytes.
+	 */
+	public static int length (String string)
+	{
+		if (string!=null)
+			return 4 + string.getBytes(UTF8).length;
+		else
+			return 4;
+	}
+}
@@ -0,0 +1,330 @@
+package noesis.io;
+
+// Title:       NOESIS binary network reader
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+import ikor.model.data.BooleanModel;
+import ikor.model.data.ColorModel;
+import ikor.model.data.DataModel;
+import ikor.model.data.DateModel;
+import ikor.model.data.DecimalModel;
+import ikor.model.data.IntegerModel;
+import ikor.model.data.RealModel;
+import ikor.model.data.TextModel;
+
+/**
+ * NOESIS binary network reader.
+ *
+ * The file sections are memory-mapped (read-only) and exposed as a MappedNetwork,
+ * without parsing or copying: opening a network just reads its header, so that
+ * the cost of accessing links is paid on demand by the operating system page cache.
+ *
+ * NOTE: The network type is ignored, read() always returns a MappedNetwork
+ * (see MappedNetwork.toAttributeNetwork() for mutable heap copies).
+ *
+ * @see BinaryNetworkFormat
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class BinaryNetworkReader extends NetworkReader<Integer,Integer>
+{
+	private File file;
+
+	public BinaryNetworkReader (File file)
+	{
+		this.file = file;
+	}
+
+	public BinaryNetworkReader (String filename)
+	{
+		this(new File(filename));
+	}
+
+
+	@Override
+	public MappedNetwork read ()
+		throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		FileChannel channel = raf.getChannel();
+
+		try {
+
+			// Header
+
+			ByteBuffer header = read(channel, 0, BinaryNetworkFormat.FIXED_HEADER);
+
+			if (header.getInt()!=BinaryNetworkFormat.MAGIC)
+				throw new IOException("Not a NOESIS binary network file: "+file);
+
+			int version = header.getInt();
+
+			if (version!=BinaryNetworkFormat.VERSION)
+				throw new IOException("Unsupported NOESIS binary network version: "+version);
+
+			int headerSize = header.getInt();
+			int flags = header.getInt();
+			int nodes = header.getInt();
+			int links = header.getInt();
+			int nodeColumns = header.getInt();
+			int linkColumns = header.getInt();
+
+			if ( (headerSize<BinaryNetworkFormat.FIXED_HEADER) || (headerSize>channel.size()) || (nodes<0) || (links<0) )
+				throw new IOException("Corrupt NOESIS binary network file: "+file);
+
+			header = read(channel, BinaryNetworkFormat.FIXED_HEADER, headerSize-BinaryNetworkFormat.FIXED_HEADER);
+
+			String id = getString(header);
+
+			// CSR sections
+
+			IntBuffer[] sections = new IntBuffer[BinaryNetworkFormat.SECTIONS];
+			long[]      sectionLength = new long[] { 4L*(nodes+1), 4L*links, 4L*(nodes+1), 4L*links };
+
+			for (int i=0; i<BinaryNetworkFormat.SECTIONS; i++) {
+				long offset = header.getLong();
+				long length = header.getLong();
+
+				if (length!=sectionLength[i])
+					throw new IOException("Corrupt NOESIS binary network file: "+file);
+
+				sections[i] = map(channel, offset, length).asIntBuffer();
+			}
+
+			// Link offsets, O(1) check: the links themselves are not read until they are needed
+
+			if ( (sections[0].get(nodes)!=links) || (sections[2].get(nodes)!=links) )
+				throw new IOException("Corrupt NOESIS binary network file: "+file);
+
+			// Attribute columns
+
+			MappedNetwork.Column[] nodeAttributes = new MappedNetwork.Column[nodeColumns];
+			MappedNetwork.Column[] linkAttributes = new MappedNetwork.Column[linkColumns];
+
+			for (int i=0; i<nodeColumns; i++)
+				nodeAttributes[i] = getColumn(channel, header, nodes);
+
+			for (int i=0; i<linkColumns; i++)
+				linkAttributes[i] = getColumn(channel, header, links);
+
+			MappedNetwork net = new MappedNetwork(nodes, links, sections[0], sections[1], sections[2], sections[3], nodeAttributes, linkAttributes);
+
+			net.setID(id);
+			net.setDirected( (flags & BinaryNetworkFormat.FLAG_DIRECTED)!=0 );
+
+			return net;
+
+		} catch (java.nio.BufferUnderflowException error) {
+
+			throw new IOException("Corrupt NOESIS binary network file: "+file, error);
+
+		} finally {
+
+			// Mappings remain valid after closing the channel
+
+			raf.close();
+		}
+	}
+
+
+	/**
+	 * Header-only inspection: the network sections are neither read nor mapped.
+	 */
+	@Override
+	public NetworkInfo inspect ()
+		throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		FileChannel channel = raf.getChannel();
+
+		try {
+
+			ByteBuffer header = read(channel, 0, BinaryNetworkFormat.FIXED_HEADER);
+
+			if (header.getInt()!=BinaryNetworkFormat.MAGIC)
+				throw new IOException("Not a NOESIS binary network file: "+file);
+
+			header.getInt(); // Version
+
+			int headerSize = header.getInt();
+			int flags = header.getInt();
+			int nodes = header.getInt();
+			int links = header.getInt();
+			int nodeColumns = header.getInt();
+			int linkColumns = header.getInt();
+
+			if ( (headerSize<BinaryNetworkFormat.FIXED_HEADER) || (headerSize>channel.size()) || (nodes<0) || (links<0) )
+				throw new IOException("Corrupt NOESIS binary network file: "+file);
+
+			header = read(channel, BinaryNetworkFormat.FIXED_HEADER, headerSize-BinaryNetworkFormat.FIXED_HEADER);
+
+			NetworkInfo info = new NetworkInfo(getFormat());
+
+			info.setID(getString(header));
+			info.setSize(nodes);
+			info.setLinks(links);
+			info.setDirected( (flags & BinaryNetworkFormat.FLAG_DIRECTED)!=0 );
+
+			header.position( header.position() + 16*BinaryNetworkFormat.SECTIONS );
+
+			for (int i=0; i<nodeColumns+linkColumns; i++) {
+
+				String id = getString(header);
+				String model = getString(header);
+				int    type = header.getInt();
+
+				header.position( header.position() + 16 );  // Column offset & length
+
+				if (i<nodeColumns)
+					info.addNodeAttribute(id, createModel(model,type));
+				else
+					info.addLinkAttribute(id, createModel(model,type));
+			}
+
+			return info;
+
+		} catch (java.nio.BufferUnderflowException error) {
+
+			throw new IOException("Corrupt NOESIS binary network file: "+file, error);
+
+		} finally {
+
+			raf.close();
+		}
+	}
+
+
+	private MappedNetwork.Column getColumn (FileChannel channel, ByteBuffer header, int size)
+		throws IOException
+	{
+		String id = getString(header);
+		String model = getString(header);
+		int    type = header.getInt();
+		long   offset = header.getLong();
+		long   length = header.getLong();
+
+		// Column length, as written by BinaryNetworkWriter
+
+		long   fixed = BinaryNetworkFormat.length(type, size, 0);
+
+		if ( (type<BinaryNetworkFormat.INT) || (type>BinaryNetworkFormat.TEXT) )
+			throw new IOException("Corrupt NOESIS binary network file: "+file);
+
+		if ( (type==BinaryNetworkFormat.TEXT)? (length<fixed): (length!=fixed) )
+			throw new IOException("Corrupt NOESIS binary network file: "+file);
+
+		ByteBuffer data = map(channel,offset,length);
+
+		if (type==BinaryNetworkFormat.TEXT) {
+			int text = data.getInt(4*size);
+
+			if ( (data.getInt(0)!=0) || (text<0) || (text>length-fixed) )
+				throw new IOException("Corrupt NOESIS binary network file: "+file);
+		}
+
+		return new MappedNetwork.Column(id, createModel(model,type), type, size, data);
+	}
+
+	/**
+	 * Known data models, instantiated by name (no other classes are loaded from the file).
+	 */
+	private static final Class[] MODELS = new Class[] {
+		IntegerModel.class,
+		RealModel.class,
+		DecimalModel.class,
+		BooleanModel.class,
+		TextModel.class,
+		DateModel.class,
+		ColorModel.class
+	};
+
+	private DataModel createModel (String name, int type)
+	{
+		for (int i=0; i<MODELS.length; i++) {
+			if (MODELS[i].getName().equals(name)) {
+				try {
+					return (DataModel) MODELS[i].getDeclaredConstructor().newInstance();
+				} catch (Exception error) {
+					// Default model for the column type
+				}
+			}
+		}
+
+		switch (type) {
+			case BinaryNetworkFormat.INT:
+				return new IntegerModel();
+			case BinaryNetworkFormat.REAL:
+				return new RealModel();
+			case BinaryNetworkFormat.BOOLEAN:
+				return new BooleanModel();
+			default:
+				return new TextModel();
+		}
+	}
+
+
+	// File access
+
+	private ByteBuffer read (FileChannel channel, long offset, int length)
+		throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(BinaryNetworkFormat.ORDER);
+
+		while (buffer.hasRemaining())
+			if (channel.read(buffer, offset+buffer.position())<0)
+				throw new IOException("Unexpected end of file: "+file);
+
+		buffer.flip();
+
+		return buffer;
+	}
+
+	private ByteBuffer map (FileChannel channel, long offset, long length)
+		throws IOException
+	{
+		if ( (offset<0) || (length<0) || (offset+length>channel.size()) )
+			throw new IOException("Corrupt NOESIS binary network file: "+file);
+
+		if (length>Integer.MAX_VALUE)
+			throw new IOException("NOESIS binary network section too large: "+length+" bytes");
+
+		return channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(BinaryNetworkFormat.ORDER);
+	}
+
+	private String getString (ByteBuffer buffer)
+		throws IOException
+	{
+		int length = buffer.getInt();
+
+		if (length<0)
+			return null;
+
+		if (length>buffer.remaining())
+			throw new IOException("Invalid string in NOESIS binary network header");
+
+		byte[] bytes = new byte[length];
+
+		buffer.get(bytes);
+
+		return new String(bytes, BinaryNetworkFormat.UTF8);
+	}
+
+
+	@Override
+	public void close ()
+		throws IOException
+	{
+		// Nothing to close (see read)
+	}
+}
@@ -0,0 +1,416 @@
+package noesis.io;
+
+// Title:       NOESIS binary network writer
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import ikor.collection.CollectionFactory;
+import ikor.collection.List;
+import ikor.model.data.TextModel;
+
+import noesis.Attribute;
+import noesis.AttributeNetwork;
+import noesis.CompactNetwork;
+import noesis.LinkAttribute;
+import noesis.Network;
+
+/**
+ * NOESIS binary network writer.
+ *
+ * Networks are stored in CSR form (see CompactNetwork), so that BinaryNetworkReader
+ * can memory-map them without parsing. Node & link attributes are stored as typed columns.
+ *
+ * @see BinaryNetworkFormat
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class BinaryNetworkWriter extends AttributeNetworkWriter
+{
+	public static final int BUFFER_SIZE = 1<<16;
+
+	private OutputStream        stream;
+	private WritableByteChannel channel;
+	private ByteBuffer          buffer;
+	private long                position;
+
+
+	public BinaryNetworkWriter (OutputStream stream)
+	{
+		this.stream = stream;
+		this.channel = Channels.newChannel(stream);
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(BinaryNetworkFormat.ORDER);
+	}
+
+
+	@Override
+	public void write (Network net)
+		throws IOException
+	{
+		AttributeNetwork attributes = null;
+
+		if (net instanceof MappedNetwork)
+			net = ((MappedNetwork)net).toAttributeNetwork();
+
+		if (net instanceof AttributeNetwork)
+			attributes = (AttributeNetwork) net;
+
+		// Sorted CSR topology
+
+		Network csr = (net instanceof CompactNetwork)? net: new CompactNetwork(net);
+
+		int nodes = csr.size();
+		int links = csr.links();
+
+		// Attribute columns
+
+		List<Column> columns = CollectionFactory.createList();
+		int nodeColumns = 0;
+		int linkColumns = 0;
+
+		if (attributes!=null) {
+
+			for (int i=0; i<attributes.getNodeAttributeCount(); i++)
+				columns.add( new Column(attributes.getNodeAttribute(i), null, nodes) );
+
+			nodeColumns = columns.size();
+
+			for (int i=0; i<attributes.getLinkAttributeCount(); i++)
+				columns.add( new Column(attributes.getLinkAttribute(i), csr, links) );
+
+			linkColumns = columns.size()-nodeColumns;
+		}
+
+		// Layout
+
+		int header = BinaryNetworkFormat.FIXED_HEADER
+		           + BinaryNetworkFormat.length(net.getID())
+		           + 16*BinaryNetworkFormat.SECTIONS;
+
+		for (int i=0; i<columns.size(); i++)
+			header += BinaryNetworkFormat.length(columns.get(i).id)
+			        + BinaryNetworkFormat.length(columns.get(i).model)
+			        + 4 + 16;
+
+		long[] sectionOffset = new long[BinaryNetworkFormat.SECTIONS];
+		long[] sectionLength = new long[] { 4L*(nodes+1), 4L*links, 4L*(nodes+1), 4L*links };
+		long   offset = BinaryNetworkFormat.align(header);
+
+		for (int i=0; i<BinaryNetworkFormat.SECTIONS; i++) {
+			sectionOffset[i] = offset;
+			offset = BinaryNetworkFormat.align(offset+sectionLength[i]);
+		}
+
+		for (int i=0; i<columns.size(); i++) {
+			columns.get(i).offset = offset;
+			offset = BinaryNetworkFormat.align(offset+columns.get(i).length);
+		}
+
+		// Header
+
+		position = 0;
+
+		putInt(BinaryNetworkFormat.MAGIC);
+		putInt(BinaryNetworkFormat.VERSION);
+		putInt(header);
+		putInt(net.isDirected()? BinaryNetworkFormat.FLAG_DIRECTED: 0);
+		putInt(nodes);
+		putInt(links);
+		putInt(nodeColumns);
+		putInt(linkColumns);
+		putString(net.getID());
+
+		for (int i=0; i<BinaryNetworkFormat.SECTIONS; i++) {
+			putLong(sectionOffset[i]);
+			putLong(sectionLength[i]);
+		}
+
+		for (int i=0; i<columns.size(); i++) {
+			Column column = columns.get(i);
+			putString(column.id);
+			putString(column.model);
+			putInt(column.type);
+			putLong(column.offset);
+			putLong(column.length);
+		}
+
+		// CSR sections
+
+		pad(sectionOffset[0]);
+		writeOffsets(csr, true);
+		pad(sectionOffset[1]);
+		writeLinks(csr, true);
+		pad(sectionOffset[2]);
+		writeOffsets(csr, false);
+		pad(sectionOffset[3]);
+		writeLinks(csr, false);
+
+		// Attribute columns
+
+		for (int i=0; i<columns.size(); i++) {
+			pad(columns.get(i).offset);
+			columns.get(i).write();
+		}
+
+		pad(offset);
+		flush();
+	}
+
+
+	// CSR
+
+	private void writeOffsets (Network net, boolean out)
+		throws IOException
+	{
+		int offset = 0;
+
+		putInt(offset);
+
+		for (int i=0; i<net.size(); i++) {
+			offset += out? net.outDegree(i): net.inDegree(i);
+			putInt(offset);
+		}
+	}
+
+	private void writeLinks (Network net, boolean out)
+		throws IOException
+	{
+		for (int i=0; i<net.size(); i++) {
+
+			int degree = out? net.outDegree(i): net.inDegree(i);
+
+			for (int j=0; j<degree; j++)
+				putInt(out? net.outLink(i,j): net.inLink(i,j));
+		}
+	}
+
+
+	// Attribute column
+
+	private class Column
+	{
+		String    id;
+		String    model;
+		int       type;
+		int       size;
+		long      offset;
+		long      length;
+
+		Attribute attribute;
+		Network   csr;       // Link attributes (CSR order)
+		byte[][]  text;      // Encoded text values
+
+		public Column (Attribute attribute, Network csr, int size)
+		{
+			this.id = attribute.getID();
+			this.model = attribute.getModel().getClass().getName();
+			this.type = BinaryNetworkFormat.type(attribute.getModel());
+			this.size = size;
+			this.attribute = attribute;
+			this.csr = csr;
+
+			long textLength = 0;
+
+			if (type==BinaryNetworkFormat.TEXT) {
+
+				text = new byte[size][];
+
+				for (int i=0; i<size; i++) {
+					String value = text(attribute, value(i));
+
+					if (value!=null) {
+						text[i] = value.getBytes(BinaryNetworkFormat.UTF8);
+						textLength += text[i].length;
+					}
+				}
+			}
+
+			this.length = BinaryNetworkFormat.length(type, size, textLength);
+		}
+
+		// Values are accessed sequentially (link values in CSR order)
+
+		private int source;  // Current source node
+		private int end;     // CSR position of the first link after the current source node
+
+		private Object value (int index)
+		{
+			if (csr==null)
+				return attribute.get(index);
+
+			if (index==0) {
+				source = 0;
+				end = csr.outDegree(0);
+			}
+
+			while (index>=end) {
+				source++;
+				end += csr.outDegree(source);
+			}
+
+			int link = index-end+csr.outDegree(source);
+
+			return ((LinkAttribute)attribute).get(source, csr.outLink(source,link));
+		}
+
+		public void write ()
+			throws IOException
+		{
+			switch (type) {
+
+				case BinaryNetworkFormat.INT:
+					for (int i=0; i<size; i++) {
+						Object value = value(i);
+						putInt( (value!=null)? ((Number)value).intValue(): BinaryNetworkFormat.NULL_INT );
+					}
+					break;
+
+				case BinaryNetworkFormat.REAL:
+					for (int i=0; i<size; i++) {
+						Object value = value(i);
+						putDouble( (value!=null)? ((Number)value).doubleValue(): Double.NaN );
+					}
+					break;
+
+				case BinaryNetworkFormat.BOOLEAN:
+					for (int i=0; i<size; i++) {
+						Object value = value(i);
+						putByte( (value!=null)? (((Boolean)value)? 1: 0) : -1 );
+					}
+					break;
+
+				default:
+					int offset = 0;
+
+					putInt(offset);
+
+					for (int i=0; i<size; i++) {
+						if (text[i]!=null)
+							offset += text[i].length;
+						putInt(offset);
+					}
+
+					for (int i=0; i<size; i++)
+						putByte( (text[i]!=null)? 0: 1 );
+
+					for (int i=0; i<size; i++)
+						if (text[i]!=null)
+							putBytes(text[i]);
+			}
+
+			text = null;
+		}
+	}
+
+	private static String text (Attribute attribute, Object value)
+	{
+		if (value==null)
+			return null;
+		else if (attribute.getModel() instanceof TextModel)
+			return value.toString();
+		else
+			return attribute.getModel().toString(value);
+	}
+
+
+	// Buffered output
+
+	private void ensure (int bytes)
+		throws IOException
+	{
+		if (buffer.remaining()<bytes)
+			flush();
+	}
+
+	private void flush ()
+		throws IOException
+	{
+		buffer.flip();
+
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+
+		buffer.clear();
+	}
+
+	private void putByte (int value)
+		throws IOException
+	{
+		ensure(1);
+		buffer.put((byte)value);
+		position++;
+	}
+
+	private void putInt (int value)
+		throws IOException
+	{
+		ensure(4);
+		buffer.putInt(value);
+		position += 4;
+	}
+
+	private void putLong (long value)
+		throws IOException
+	{
+		ensure(8);
+		buffer.putLong(value);
+		position += 8;
+	}
+
+	private void putDouble (double value)
+		throws IOException
+	{
+		ensure(8);
+		buffer.putDouble(value);
+		position += 8;
+	}
+
+	private void putBytes (byte[] bytes)
+		throws IOException
+	{
+		for (int i=0; i<bytes.length; ) {
+			ensure(1);
+
+			int chunk = Math.min(bytes.length-i, buffer.remaining());
+
+			buffer.put(bytes, i, chunk);
+			position += chunk;
+			i += chunk;
+		}
+	}
+
+	private void putString (String string)
+		throws IOException
+	{
+		if (string!=null) {
+			byte[] bytes = string.getBytes(BinaryNetworkFormat.UTF8);
+			putInt(bytes.length);
+			putBytes(bytes);
+		} else {
+			putInt(-1);
+		}
+	}
+
+	private void pad (long offset)
+		throws IOException
+	{
+		while (position<offset)
+			putByte(0);
+	}
+
+
+	@Override
+	public void close ()
+		throws IOException
+	{
+		stream.close();
+	}
+}
@@ -0,0 +1,267 @@
+package noesis.io;
+
+// Title:       Block text input
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+import java.nio.charset.Charset;
+
+import java.util.Arrays;
+
+/**
+ * Block text input for network readers.
+ *
+ * Input is read into a fixed-size byte buffer (UTF-8 encoded for character streams),
+ * so that its complete lines can be processed in place, e.g. by EdgeListParser,
+ * before the next block is read. Unconsumed bytes (i.e. partial lines) are moved
+ * to the beginning of the buffer when it is refilled, and the buffer only grows
+ * for lines longer than the block size.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class BlockInput
+{
+	public static int BLOCK_SIZE = 1<<24;   // bytes
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private InputStream stream;
+	private Reader      reader;
+	private char[]      chars;
+	private int         pending;    // Pending high surrogate (character streams), -1 if none
+
+	private byte[]      data;
+	private int         position;
+	private int         limit;
+	private long        line;
+	private boolean     eof;
+
+	/**
+	 * Byte input.
+	 * @param stream Input stream
+	 */
+	public BlockInput (InputStream stream)
+	{
+		this.stream = stream;
+		this.data = new byte[BLOCK_SIZE];
+		this.line = 1;
+	}
+
+	/**
+	 * Character input, encoded as UTF-8.
+	 * @param reader Character stream
+	 */
+	public BlockInput (Reader reader)
+	{
+		this.reader = reader;
+		this.chars = new char[Math.max(2, BLOCK_SIZE/4)];
+		this.pending = -1;
+		this.data = new byte[BLOCK_SIZE];
+		this.line = 1;
+	}
+
+
+	// Buffer
+
+	/**
+	 * Current buffer (it may change after fill()).
+	 */
+	public final byte[] data ()
+	{
+		return data;
+	}
+
+	/**
+	 * First unconsumed byte in the buffer.
+	 */
+	public final int position ()
+	{
+		return position;
+	}
+
+	/**
+	 * End of the buffered input (exclusive).
+	 */
+	public final int limit ()
+	{
+		return limit;
+	}
+
+	/**
+	 * Line number of the current position.
+	 */
+	public final long line ()
+	{
+		return line;
+	}
+
+	/**
+	 * End of the complete lines in the buffer, i.e. the position after the last line break
+	 * (or the buffer limit, once the end of the input has been reached).
+	 */
+	public final int lines ()
+	{
+		if (eof)
+			return limit;
+
+		int end = limit;
+
+		while ( (end>position) && (data[end-1]!='\n') )
+			end--;
+
+		return end;
+	}
+
+	/**
+	 * End of the line that starts at a given position.
+	 * @param start Line start
+	 * @return Position of the line break (or the buffer limit)
+	 */
+	public final int endOfLine (int start)
+	{
+		int eol = start;
+
+		while ( (eol<limit) && (data[eol]!='\n') )
+			eol++;
+
+		return eol;
+	}
+
+	/**
+	 * Consume buffered input.
+	 * @param end New position
+	 * @param lines Number of lines consumed
+	 */
+	public final void skip (int end, long lines)
+	{
+		position = end;
+		line += lines;
+	}
+
+
+	// Input
+
+	/**
+	 * Read the next block of input.
+	 * @return false if the end of the input had already been reached
+	 * @throws IOException
+	 */
+	public boolean fill ()
+		throws IOException
+	{
+		if (eof)
+			return false;
+
+		// Unconsumed bytes, moved to the beginning of the buffer,
+		// which grows for long lines (room for, at least, a UTF-8 encoded surrogate pair)
+
+		if (position>0) {
+			System.arraycopy(data, position, data, 0, limit-position);
+			limit -= position;
+			position = 0;
+		} else if (data.length-limit<6) {
+			data = Arrays.copyOf(data, 2*data.length);
+		}
+
+		while ( !eof && (limit<data.length) ) {
+
+			int length = read(data, limit, data.length-limit);
+
+			if (length<0)
+				eof = true;
+			else if (length>0)
+				limit += length;
+			else
+				break;
+		}
+
+		return true;
+	}
+
+	private int read (byte[] buffer, int offset, int length)
+		throws IOException
+	{
+		if (stream!=null)
+			return stream.read(buffer, offset, length);
+
+		// Character streams: at most 3 bytes per char (4 bytes per surrogate pair)
+
+		int count = Math.min(chars.length, length/3);
+		int start = 0;
+
+		if (count<2)
+			return 0;   // Full buffer
+
+		if (pending>=0) {
+			chars[start++] = (char) pending;
+			pending = -1;
+		}
+
+		int read = reader.read(chars, start, count-start);
+
+		if (read<0) {
+			if (start==0)
+				return -1;
+			read = 0;
+		}
+
+		int size = start+read;
+
+		if ( (read>0) && Character.isHighSurrogate(chars[size-1]) ) {
+			pending = chars[size-1];
+			size--;
+		}
+
+		byte[] bytes = new String(chars, 0, size).getBytes(UTF8);
+
+		System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+
+		return bytes.length;
+	}
+
+	/**
+	 * Next byte in the input, without consuming it.
+	 * @return Next byte, -1 at the end of the input
+	 * @throws IOException
+	 */
+	public int peek ()
+		throws IOException
+	{
+		while ( (position==limit) && fill() )
+			;
+
+		return (position<limit)? data[position]: -1;
+	}
+
+	/**
+	 * Read the next line.
+	 * @return Next line (without its line break), null at the end of the input
+	 * @throws IOException
+	 */
+	public String readLine ()
+		throws IOException
+	{
+		int eol = endOfLine(position);
+
+		while ( (eol==limit) && !eof ) {
+			eol -= position;
+			fill();
+			eol = endOfLine(position+eol);
+		}
+
+		if (position==limit)
+			return null;
+
+		String result = new String(data, position, eol-position, UTF8);
+
+		skip( Math.min(eol+1, limit), 1 );
+
+		return result;
+	}
+}
@@ -0,0 +1,363 @@
+package noesis.io;
+
+// Title:       Block-parallel text output
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+import java.util.zip.GZIPOutputStream;
+
+import ikor.parallel.Kernel;
+import ikor.parallel.Parallel;
+
+/**
+ * Block-parallel text output for network writers.
+ *
+ * Text is formatted into blocks: sequences of items (e.g. nodes or links) that are
+ * formatted by a Formatter into independent character buffers. In parallel mode,
+ * batches of blocks are formatted, encoded (and compressed) in parallel, then
+ * written in order, so that the output is identical to the sequential one.
+ *
+ * Byte output is UTF-8 encoded and written through a channel (a FileChannel for file
+ * output streams). Compressed output is written as a sequence of gzip members, one per block
+ * (as pigz does), which can be read by any gzip decompressor, including GZIPInputStream.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class BlockOutput
+{
+	public static final int BLOCK_SIZE = 1<<12;   // Items per block
+	public static final int BUFFER_SIZE = 1<<16;  // Characters per sequential block
+
+	public static final String NEWLINE = System.getProperty("line.separator");
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private Writer              writer;
+	private OutputStream        stream;
+	private WritableByteChannel channel;
+	private Charset             charset;
+	private boolean             gzip;
+	private boolean             parallel = false;
+	private int                 blockSize = BLOCK_SIZE;
+	private StringBuilder       buffer = new StringBuilder();
+	private long                blocks = 0;
+
+	/**
+	 * Character output.
+	 * @param writer Output writer
+	 */
+	public BlockOutput (Writer writer)
+	{
+		this.writer = writer;
+
+		if (writer instanceof OutputStreamWriter)
+			this.charset = Charset.forName(((OutputStreamWriter)writer).getEncoding());
+		else
+			this.charset = UTF8;
+	}
+
+	/**
+	 * Byte output, UTF-8 encoded.
+	 * @param stream Output stream
+	 */
+	public BlockOutput (OutputStream stream)
+	{
+		this(stream, false);
+	}
+
+	/**
+	 * Byte output, UTF-8 encoded.
+	 * @param stream Output stream
+	 * @param gzip true for gzip-compressed output
+	 */
+	public BlockOutput (OutputStream stream, boolean gzip)
+	{
+		this.stream = stream;
+		this.gzip = gzip;
+		this.charset = UTF8;
+
+		if (stream instanceof FileOutputStream)
+			this.channel = ((FileOutputStream)stream).getChannel();
+		else
+			this.channel = Channels.newChannel(stream);
+	}
+
+
+	// Configuration
+
+	/**
+	 * Parallel mode: when enabled, blocks are formatted, encoded and compressed in parallel.
+	 */
+	public final boolean isParallel ()
+	{
+		return parallel;
+	}
+
+	public final void setParallel (boolean parallel)
+	{
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Number of items per block in parallel mode.
+	 */
+	public final int getBlockSize ()
+	{
+		return blockSize;
+	}
+
+	public final void setBlockSize (int items)
+	{
+		this.blockSize = Math.max(1, items);
+	}
+
+	/**
+	 * Compressed output (gzip).
+	 */
+	public final boolean isCompressed ()
+	{
+		return gzip;
+	}
+
+	/**
+	 * Output character encoding.
+	 */
+	public final Charset getCharset ()
+	{
+		return charset;
+	}
+
+
+	// Formatting
+
+	/**
+	 * Item formatter.
+	 * Formatters are called from multiple threads in parallel mode, hence they must not
+	 * modify shared state.
+	 */
+	public interface Formatter
+	{
+		/**
+		 * Format an item.
+		 * @param item Item index
+		 * @param output Output buffer
+		 */
+		public void format (int item, StringBuilder output);
+	}
+
+
+	// Output
+
+	/**
+	 * Write text.
+	 * @param text Text
+	 */
+	public void write (String text)
+		throws IOException
+	{
+		buffer.append(text);
+
+		if (buffer.length()>=BUFFER_SIZE)
+			flushBuffer();
+	}
+
+	/**
+	 * Write a line of text.
+	 * @param text Text (without line separator)
+	 */
+	public void writeLine (String text)
+		throws IOException
+	{
+		buffer.append(text);
+		buffer.append(NEWLINE);
+
+		if (buffer.length()>=BUFFER_SIZE)
+			flushBuffer();
+	}
+
+	/**
+	 * Write a sequence of items, in order.
+	 * @param items Number of items
+	 * @param formatter Item formatter
+	 */
+	public void write (int items, Formatter formatter)
+		throws IOException
+	{
+		if (!parallel || (items<=blockSize)) {
+
+			for (int i=0; i<items; i++) {
+
+				formatter.format(i, buffer);
+
+				if (buffer.length()>=BUFFER_SIZE)
+					flushBuffer();
+			}
+
+		} else {
+
+			flushBuffer();
+
+			int count = (items+blockSize-1)/blockSize;
+			int batch = 4*Runtime.getRuntime().availableProcessors();
+
+			for (int first=0; first<count; first+=batch) {
+
+				BlockKernel kernel = new BlockKernel(formatter, items, first, Math.min(count, first+batch));
+
+				Parallel.map(kernel, kernel.first, kernel.last-1);
+
+				for (int i=0; i<kernel.bytes.length; i++) {
+					if (kernel.bytes[i]!=null)
+						output(kernel.bytes[i]);
+					else
+						output(kernel.chars[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Formats a batch of blocks: block b comprises items [b*blockSize, (b+1)*blockSize).
+	 */
+	private class BlockKernel implements Kernel<Object>
+	{
+		Formatter       formatter;
+		int             items;
+		int             first;
+		int             last;
+		StringBuilder[] chars;
+		byte[][]        bytes;
+
+		public BlockKernel (Formatter formatter, int items, int first, int last)
+		{
+			this.formatter = formatter;
+			this.items = items;
+			this.first = first;
+			this.last = last;
+			this.chars = new StringBuilder[last-first];
+			this.bytes = new byte[last-first][];
+		}
+
+		@Override
+		public Object call (int block)
+		{
+			StringBuilder text = new StringBuilder();
+			int           end = (int) Math.min(items, (long)(block+1)*blockSize);
+
+			for (int i=block*blockSize; i<end; i++)
+				formatter.format(i, text);
+
+			if (writer!=null)
+				chars[block-first] = text;
+			else
+				bytes[block-first] = encode(text);
+
+			return null;
+		}
+	}
+
+
+	// Blocks
+
+	private void flushBuffer ()
+		throws IOException
+	{
+		if (buffer.length()>0) {
+
+			if (writer!=null)
+				output(buffer);
+			else
+				output(encode(buffer));
+
+			buffer.setLength(0);
+		}
+	}
+
+	/**
+	 * Encode (and compress) a block.
+	 */
+	private byte[] encode (StringBuilder text)
+	{
+		byte[] data = text.toString().getBytes(charset);
+
+		if (gzip) {
+
+			try {
+				ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length/4+64);
+				GZIPOutputStream      member = new GZIPOutputStream(compressed, BUFFER_SIZE);
+
+				member.write(data);
+				member.close();
+
+				data = compressed.toByteArray();
+
+			} catch (IOException error) {
+				throw new IllegalStateException(error); // Not thrown by in-memory streams
+			}
+		}
+
+		return data;
+	}
+
+	private void output (StringBuilder text)
+		throws IOException
+	{
+		writer.append(text);
+		blocks++;
+	}
+
+	private void output (byte[] data)
+		throws IOException
+	{
+		ByteBuffer bytes = ByteBuffer.wrap(data);
+
+		while (bytes.hasRemaining())
+			channel.write(bytes);
+
+		blocks++;
+	}
+
+	/**
+	 * Write buffered text.
+	 */
+	public void flush ()
+		throws IOException
+	{
+		flushBuffer();
+
+		if (writer!=null)
+			writer.flush();
+		else
+			stream.flush();
+	}
+
+	public void close ()
+		throws IOException
+	{
+		flushBuffer();
+
+		if ( gzip && (blocks==0) )
+			output(encode(buffer));   // Empty gzip member, i.e. valid empty output
+
+		if (writer!=null)
+			writer.close();
+		else {
+			channel.close();
+			stream.close();
+		}
+	}
+}
@@ -0,0 +1,516 @@
+package noesis.io;
+
+// Title:       Parallel edge list parser
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import ikor.math.Decimal;
+import ikor.parallel.Kernel;
+import ikor.parallel.Parallel;
+
+/**
+ * Parallel edge list parser.
+ *
+ * Edge sections are split at line boundaries into chunks, which are tokenized in parallel
+ * (fork/join) into per-chunk primitive edge buffers. Chunks keep the file order,
+ * so that merging them yields the same link order as sequential parsing.
+ *
+ * Supported line formats (tokens separated by blanks, tabs or commas):
+ * - Pairs: <source> <destination> [<value> ...]  (e.g. SNAP, ASCII, Pajek *arcs & *edges)
+ * - Lists: <source> <destination>*               (e.g. Pajek *arcslist & *edgeslist)
+ *
+ * Link values can be parsed either as Decimal values or as double weights (weighted mode).
+ * Empty lines and comment lines (starting with % or #) are ignored.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class EdgeListParser
+{
+	public static final int DEFAULT_CHUNK_SIZE = 1<<20;  // bytes
+
+	private static final Decimal ONE = new Decimal(1);
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private byte[]  data;
+	private boolean lists;
+	private boolean values;
+	private Decimal defaultValue;
+	private boolean weighted;
+	private double  defaultWeight;
+	private int     chunkSize;
+
+	private Chunk[] chunks;
+	private int     size;
+	private long    lines;
+
+
+	/**
+	 * Constructor.
+	 * @param data Input data
+	 * @param lists true for adjacency lists, false for pairs
+	 * @param values true if link values are to be parsed (pairs only)
+	 */
+	public EdgeListParser (byte[] data, boolean lists, boolean values)
+	{
+		this.data = data;
+		this.lists = lists;
+		this.values = values && !lists;
+		this.defaultValue = ONE;
+		this.defaultWeight = 1.0;
+		this.chunkSize = DEFAULT_CHUNK_SIZE;
+	}
+
+	/**
+	 * Weighted mode: link values are parsed as doubles (pairs only).
+	 */
+	public final void setWeighted (boolean weighted)
+	{
+		this.weighted = weighted && !lists;
+		
+		if (this.weighted)
+			this.values = false;
+	}
+
+	/**
+	 * Weight for links without an explicit value (1 by default).
+	 */
+	public final void setDefaultWeight (double weight)
+	{
+		this.defaultWeight = weight;
+	}
+
+	/**
+	 * Value for links without an explicit value (1 by default).
+	 */
+	public final void setDefaultValue (Decimal value)
+	{
+		this.defaultValue = value;
+	}
+
+	/**
+	 * Minimum chunk size, in bytes.
+	 */
+	public final void setChunkSize (int bytes)
+	{
+		this.chunkSize = Math.max(1, bytes);
+	}
+
+
+	// Parsing
+
+	/**
+	 * Parse an edge section in parallel.
+	 * @param start First byte of the edge section
+	 * @param end End of the edge section (exclusive)
+	 * @param line Line number of the first line in the section (for error messages)
+	 * @throws IOException if the section contains malformed lines
+	 */
+	public void parse (int start, int end, long line)
+		throws IOException
+	{
+		int count = (int) Math.max(1, Math.min( (end-start+(long)chunkSize-1)/chunkSize,
+		                                        4*Runtime.getRuntime().availableProcessors() ));
+
+		// Chunk boundaries, moved forward to the beginning of the next line
+
+		int[] bounds = new int[count+1];
+
+		bounds[0] = start;
+		bounds[count] = end;
+
+		for (int i=1; i<count; i++) {
+			int pos = Math.max(bounds[i-1], start + (int)((long)(end-start)*i/count));
+
+			while ( (pos<end) && (pos>start) && (data[pos-1]!='\n') )
+				pos++;
+
+			bounds[i] = pos;
+		}
+
+		chunks = new Chunk[count];
+
+		for (int i=0; i<count; i++)
+			chunks[i] = new Chunk(bounds[i], bounds[i+1]);
+
+		Parallel.map( new ParserKernel(), 0, count-1 );
+
+		// Errors & totals
+
+		size = 0;
+		lines = 0;
+
+		for (int i=0; i<count; i++) {
+
+			if (chunks[i].error!=null)
+				throw new IOException(chunks[i].error+" at line "+(line+lines+chunks[i].errorLine));
+
+			lines += chunks[i].lines;
+			size += chunks[i].size;
+		}
+	}
+
+	private class ParserKernel implements Kernel<Object>
+	{
+		@Override
+		public Object call (int index)
+		{
+			chunks[index].parse();
+			return null;
+		}
+	}
+
+
+	// Results
+
+	/**
+	 * Number of parsed edges.
+	 */
+	public final int size ()
+	{
+		return size;
+	}
+
+	/**
+	 * Number of parsed lines.
+	 */
+	public final long lines ()
+	{
+		return lines;
+	}
+
+	/**
+	 * Number of chunks.
+	 */
+	public final int chunks ()
+	{
+		return chunks.length;
+	}
+
+	/**
+	 * Parsed chunk.
+	 * @param index Chunk index
+	 */
+	public final Chunk chunk (int index)
+	{
+		return chunks[index];
+	}
+
+	/**
+	 * Edge sources, in file order.
+	 * @param base Base index (e.g. 1 for Pajek files)
+	 */
+	public int[] sources (int base)
+	{
+		int[] result = new int[size];
+		int   pos = 0;
+
+		for (int c=0; c<chunks.length; c++)
+			for (int i=0; i<chunks[c].size; i++)
+				result[pos++] = (int) (chunks[c].sources[i]-base);
+
+		return result;
+	}
+
+	/**
+	 * Edge destinations, in file order.
+	 * @param base Base index (e.g. 1 for Pajek files)
+	 */
+	public int[] destinations (int base)
+	{
+		int[] result = new int[size];
+		int   pos = 0;
+
+		for (int c=0; c<chunks.length; c++)
+			for (int i=0; i<chunks[c].size; i++)
+				result[pos++] = (int) (chunks[c].destinations[i]-base);
+
+		return result;
+	}
+
+
+	/**
+	 * Chunk: per-task edge buffer.
+	 */
+	public class Chunk
+	{
+		private int       start;
+		private int       end;
+		private int       pos;
+
+		private long[]    sources;
+		private long[]    destinations;
+		private Decimal[] values;
+		private double[]  weights;
+		private int       size;
+
+		private long      lines;
+		private String    error;
+		private long      errorLine;
+
+		Chunk (int start, int end)
+		{
+			this.start = start;
+			this.end = end;
+		}
+
+		public final int size ()
+		{
+			return size;
+		}
+
+		public final long source (int index)
+		{
+			return sources[index];
+		}
+
+		public final long destination (int index)
+		{
+			return destinations[index];
+		}
+
+		public final Decimal value (int index)
+		{
+			return values[index];
+		}
+
+		public final double weight (int index)
+		{
+			return weights[index];
+		}
+
+		private void add (long source, long destination, Decimal value, double weight)
+		{
+			if (size==sources.length) {
+				sources = Arrays.copyOf(sources, 2*size);
+				destinations = Arrays.copyOf(destinations, 2*size);
+
+				if (EdgeListParser.this.values)
+					values = Arrays.copyOf(values, 2*size);
+
+				if (weighted)
+					weights = Arrays.copyOf(weights, 2*size);
+			}
+
+			sources[size] = source;
+			destinations[size] = destination;
+
+			if (EdgeListParser.this.values)
+				values[size] = value;
+
+			if (weighted)
+				weights[size] = weight;
+
+			size++;
+		}
+
+
+		// Tokenizer
+
+		void parse ()
+		{
+			int capacity = Math.max(16, (end-start)/8);
+
+			sources = new long[capacity];
+			destinations = new long[capacity];
+
+			if (EdgeListParser.this.values)
+				values = new Decimal[capacity];
+
+			if (weighted)
+				weights = new double[capacity];
+
+			pos = start;
+
+			while ( (pos<end) && (error==null) ) {
+
+				int eol = pos;
+
+				while ( (eol<end) && (data[eol]!='\n') )
+					eol++;
+
+				parseLine(eol);
+
+				if (error!=null)
+					errorLine = lines;
+
+				lines++;
+				pos = eol+1;
+			}
+		}
+
+		private void parseLine (int eol)
+		{
+			skip(eol);
+
+			if ( (pos==eol) || (data[pos]=='%') || (data[pos]=='#') )
+				return;
+
+			long source = number(eol);
+
+			if (source<0)
+				return;
+
+			skip(eol);
+
+			if (lists) {
+
+				while (pos<eol) {
+
+					long destination = number(eol);
+
+					if (destination<0)
+						return;
+
+					add(source, destination, null, defaultWeight);
+					skip(eol);
+				}
+
+			} else {
+
+				if (pos==eol) {
+					error = "Missing destination node";
+					return;
+				}
+
+				long destination = number(eol);
+
+				if (destination<0)
+					return;
+
+				Decimal value = defaultValue;
+				double  weight = defaultWeight;
+
+				if (EdgeListParser.this.values || weighted) {
+
+					skip(eol);
+
+					if (pos<eol) {
+						int first = pos;
+
+						while ( (pos<eol) && !separator(data[pos]) )
+							pos++;
+
+						if (weighted) {
+							weight = parseDouble(data, first, pos);
+
+							if (Double.isNaN(weight)) {
+								error = "Invalid link weight";
+								return;
+							}
+						} else if ( (pos-first==1) && (data[first]=='1') ) {
+							value = ONE;
+						} else {
+							value = new Decimal(new String(data, first, pos-first));
+						}
+					}
+				}
+
+				add(source, destination, value, weight);
+			}
+		}
+
+		// Node id (-1 if malformed)
+
+		private long number (int eol)
+		{
+			long value = 0;
+			int  first = pos;
+
+			while ( (pos<eol) && (data[pos]>='0') && (data[pos]<='9') ) {
+
+				if (value > (Long.MAX_VALUE-(data[pos]-'0'))/10) {
+					error = "Node id out of range";
+					return -1;
+				}
+
+				value = 10*value + (data[pos]-'0');
+				pos++;
+			}
+
+			if ( (pos==first) || ((pos<eol) && !separator(data[pos])) ) {
+				error = "Invalid node id";
+				return -1;
+			}
+
+			return value;
+		}
+
+		private void skip (int eol)
+		{
+			while ( (pos<eol) && separator(data[pos]) )
+				pos++;
+		}
+	}
+
+	private static boolean separator (byte c)
+	{
+		return (c==' ') || (c=='\t') || (c=='\r') || (c==',');
+	}
+
+	private static final int MAX_DIGITS = 15;
+
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 
+	                                                1e11, 1e12, 1e13, 1e14, 1e15 };
+
+	/**
+	 * Parse a real number without creating intermediate strings for plain decimal numbers.
+	 * Numbers with exponents or too many digits are parsed by Double.parseDouble.
+	 * @param data Input data
+	 * @param start Start of the number
+	 * @param end End of the number (exclusive)
+	 * @return Parsed number (NaN if malformed)
+	 */
+	public static double parseDouble (byte[] data, int start, int end)
+	{
+		int     pos = start;
+		boolean negative = false;
+		long    mantissa = 0;
+		int     digits = 0;
+		int     decimals = -1;
+
+		if ( (pos<end) && ((data[pos]=='-') || (data[pos]=='+')) ) {
+			negative = (data[pos]=='-');
+			pos++;
+		}
+
+		while (pos<end) {
+
+			byte c = data[pos];
+
+			if ( (c>='0') && (c<='9') ) {
+				mantissa = 10*mantissa + (c-'0');
+				digits++;
+
+				if (decimals>=0)
+					decimals++;
+			} else if ( (c=='.') && (decimals<0) ) {
+				decimals = 0;
+			} else {
+				break;
+			}
+
+			pos++;
+		}
+
+		if ( (pos==end) && (digits>0) && (digits<=MAX_DIGITS) ) {
+
+			// Exact mantissa (< 2^53) & power of ten: correctly rounded result
+
+			double value = (decimals>0)? mantissa/POWERS_OF_TEN[decimals]: mantissa;
+
+			return negative? -value: value;
+		}
+
+		try {
+			return Double.parseDouble(new String(data, start, end-start, UTF8));
+		} catch (NumberFormatException error) {
+			return Double.NaN;
+		}
+	}
+}
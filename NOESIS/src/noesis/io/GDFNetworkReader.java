@@ -255,6 +255,55 @@ public class GDFNetworkReader extends AttributeNetworkReader
     	return net;
     }
 
+    /**
+     * GDF file inspection: attribute schema from nodedef & edgedef headers,
+     * node & link lines counted in a single pass.
+     */
+    @Override
+    public NetworkInfo inspect() throws IOException
+    {
+    	AttributeNetwork schema = new AttributeNetwork();  // Empty network (attribute declarations)
+    	String  line;
+    	boolean inNodeDef = false;
+    	boolean inEdgeDef = false;
+    	int     nodes = 0;
+    	long    links = 0;
+
+    	schema.addNodeAttribute( new Attribute("id") );
+
+    	while ((line = readLine()) != null) {
+
+    		if (line.startsWith("nodedef>")) {
+
+    			inEdgeDef = false;
+    			inNodeDef = true;
+    			processNodeDef(schema,line.substring(8));
+
+    		} else if (line.startsWith("edgedef>")) {
+
+    			inEdgeDef = true;
+    			inNodeDef = false;
+    			processEdgeDef(schema,line.substring(8));
+
+    		} else if (inNodeDef) {
+
+    			nodes++;
+
+    		} else if (inEdgeDef) {
+
+    			links++;
+    		}
+    	}
+
+    	NetworkInfo info = new NetworkInfo(getFormat(), schema);
+
+    	info.setID(null);
+    	info.setSize(nodes);
+    	info.setLinks(links);
+
+    	return info;
+    }
+
 
 	@Override
 	public void close() throws IOException 
@@ -6,11 +6,12 @@ package noesis.io;
 // Author:      Fernando Berzal
 // E-mail:      berzal@acm.org
 
+import ikor.model.data.DataModel;
 import ikor.model.data.IntegerModel;
 import ikor.model.data.RealModel;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 
 import noesis.Network;
@@ -19,91 +20,109 @@ import noesis.AttributeNetwork;
 import noesis.Attribute;
 import noesis.LinkAttribute;
 
-public class GDFNetworkWriter extends AttributeNetworkWriter 
+public class GDFNetworkWriter extends TextNetworkWriter
 {
-	
-	private BufferedWriter writer;
-	
 	public GDFNetworkWriter (Writer writer)
 	{
-		this.writer = new BufferedWriter(writer);
-	}	
+		super(writer);
+	}
+
+	public GDFNetworkWriter (OutputStream stream)
+	{
+		super(stream);
+	}
+
+	public GDFNetworkWriter (OutputStream stream, boolean gzip)
+	{
+		super(stream, gzip);
+	}
 
 	@Override
-	public void write(Network net) throws IOException 
+	public void write(Network net) throws IOException
 	{
 		writeNodes(net);
 		writeLinks(net);
-		writer.flush();
+		getOutput().flush();
 	}
 
-	public void writeNodes(Network net) 
-		throws IOException 
+	public void writeNodes(final Network net)
+		throws IOException
 	{
 		writeNodeDef(net);
-		
-		for (int i=0; i<net.size(); i++)
-			writeNode(net,i);
+
+		getOutput().write(net.size(), new BlockOutput.Formatter() {
+
+			@Override
+			public void format (int i, StringBuilder output)
+			{
+				formatNode(net, i, output);
+			}
+		});
 	}
 
-	public void writeNodeDef(Network net) 
-		throws IOException 
+	public void writeNodeDef(Network net)
+		throws IOException
 	{
-		writer.write("nodedef>name");
-		
+		StringBuilder header = new StringBuilder("nodedef>name");
+
 		if (net instanceof AttributeNetwork) {
-			AttributeNetwork attrnet = (AttributeNetwork)net; 
+			AttributeNetwork attrnet = (AttributeNetwork)net;
 			int attributes = attrnet.getNodeAttributeCount();
-			
+
 			for (int i=0; i<attributes; i++) {
 				Attribute attribute = attrnet.getNodeAttribute(i);
 				String    id = attribute.getID();
-				
-				if (!id.equals("id"))
-					writer.write(","+attribute.getID());
-				
-					if (attribute.getModel() instanceof IntegerModel)
-						writer.write(" INTEGER");
-					else if (attribute.getModel() instanceof RealModel)
-						writer.write(" DOUBLE");
+
+				if (!id.equals("id")) {
+					header.append(","+attribute.getID());
+					header.append(typeString(attribute.getModel()));
+				}
 			}
 		}
 
-		writer.newLine();
+		getOutput().writeLine(header.toString());
 	}
-	
-	
 
-	public void writeNode (Network net, int index) 
-		throws IOException 
+	private String typeString (DataModel model)
 	{
+		if (model instanceof IntegerModel)
+			return " INTEGER";
+		else if (model instanceof RealModel)
+			return " DOUBLE";
+		else
+			return "";
+	}
+
 
+	private void formatNode (Network net, int index, StringBuilder output)
+	{
 		if (net instanceof AttributeNetwork) {
 
-			AttributeNetwork attrnet = (AttributeNetwork)net; 
+			AttributeNetwork attrnet = (AttributeNetwork)net;
+
+			output.append(attrnet.getNodeAttribute("id").get(index));
 
-			writer.write(attrnet.getNodeAttribute("id").get(index).toString());
-			
 			int attributes = attrnet.getNodeAttributeCount();
 
 			for (int i=0; i<attributes; i++) {
 				Attribute attribute = attrnet.getNodeAttribute(i);
 				String    id = attribute.getID();
 
-				if (!id.equals("id"))
-					writer.write(","+valueString(attribute.get(index)));
+				if (!id.equals("id")) {
+					output.append(',');
+					output.append(valueString(attribute.get(index)));
+				}
 			}
-			
+
 		} else {
-			writer.write(""+index);
+			output.append(index);
 		}
 
-		writer.newLine();
+		output.append(BlockOutput.NEWLINE);
 	}
-	
-	
+
+
 	private String valueString (Object value)
-		throws IOException
 	{
 		if (value!=null) {
 			String str = value.toString();
@@ -112,85 +131,77 @@ public class GDFNetworkWriter extends AttributeNetworkWriter
 				return "'"+str+"'";
 			else if (str.contains(",") || str.contains("'"))
 				return "\""+str+"\"";
-			else 
+			else
 				return str;
 		} else {
 			return "";
 		}
 	}
-	
-	
-	
-	
 
-	public void writeLinks(Network net) 
-		throws IOException 
+
+
+	public void writeLinks(final Network net)
+		throws IOException
 	{
-		int[] outlinks;
-		
 		writeLinkDef(net);
-		
-		for (int i=0; i<net.size(); i++) {
-			outlinks = net.outLinks(i);
-		
-			if (outlinks!=null)
-				for (int j=0; j< outlinks.length; j++)
-					writeLink(net,i,outlinks[j]);
-		}
+
+		getOutput().write(net.size(), new BlockOutput.Formatter() {
+
+			@Override
+			public void format (int i, StringBuilder output)
+			{
+				int degree = net.outDegree(i);
+
+				for (int j=0; j<degree; j++)
+					formatLink(net, i, net.outLink(i,j), output);
+			}
+		});
 	}
 
-	public void writeLinkDef(Network net) 
-		throws IOException 
+	public void writeLinkDef(Network net)
+		throws IOException
 	{
-			writer.write("edgedef>node1,node2");
-			
-			if (net instanceof AttributeNetwork) {
-				AttributeNetwork attrnet = (AttributeNetwork)net; 
-				int attributes = attrnet.getLinkAttributeCount();
-				
-				for (int i=0; i<attributes; i++) {
-					LinkAttribute attribute = attrnet.getLinkAttribute(i);
-					writer.write(","+attribute.getID());
-
-					if (attribute.getModel() instanceof IntegerModel)
-						writer.write(" INTEGER");
-					else if (attribute.getModel() instanceof RealModel)
-						writer.write(" DOUBLE");
-				}
+		StringBuilder header = new StringBuilder("edgedef>node1,node2");
+
+		if (net instanceof AttributeNetwork) {
+			AttributeNetwork attrnet = (AttributeNetwork)net;
+			int attributes = attrnet.getLinkAttributeCount();
+
+			for (int i=0; i<attributes; i++) {
+				LinkAttribute attribute = attrnet.getLinkAttribute(i);
+				header.append(","+attribute.getID());
+				header.append(typeString(attribute.getModel()));
 			}
+		}
 
-			writer.newLine();
+		getOutput().writeLine(header.toString());
 	}
 
-	public void writeLink (Network net, int source, int target)
-		throws IOException
+	private void formatLink (Network net, int source, int target, StringBuilder output)
 	{
 		if (net instanceof AttributeNetwork) {
 
 			AttributeNetwork attrnet = (AttributeNetwork)net;
 			Attribute nodeID = attrnet.getNodeAttribute("id");
 
-			writer.write(nodeID.get(source).toString());
-			writer.write(",");
-			writer.write(nodeID.get(target).toString());
-			
+			output.append(nodeID.get(source));
+			output.append(',');
+			output.append(nodeID.get(target));
+
 			int attributes = attrnet.getLinkAttributeCount();
 
 			for (int i=0; i<attributes; i++) {
 				LinkAttribute attribute = attrnet.getLinkAttribute(i);
-				writer.write(","+valueString(attribute.get(source,target)));
+				output.append(',');
+				output.append(valueString(attribute.get(source,target)));
 			}
-			
+
 		} else {
-			writer.write(source+","+target);
+			output.append(source);
+			output.append(',');
+			output.append(target);
 		}
-		writer.newLine();
-	}
 
-	@Override
-	public void close() throws IOException 
-	{
-		writer.close();
+		output.append(BlockOutput.NEWLINE);
 	}
-
 }
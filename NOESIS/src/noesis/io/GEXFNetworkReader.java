@@ -0,0 +1,346 @@
+package noesis.io;
+
+// Title:       GEXF network reader
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import ikor.collection.CollectionFactory;
+import ikor.collection.Dictionary;
+import ikor.collection.primitive.DoubleList;
+import ikor.collection.primitive.IntList;
+import ikor.model.data.RealModel;
+import ikor.model.data.TextModel;
+
+import noesis.Attribute;
+import noesis.LinkAttribute;
+import noesis.Network;
+
+/**
+ * GEXF Network Reader: Graph Exchange XML Format, as used by Gephi (http://gexf.net/)
+ *
+ * - Node and edge attributes are declared in &lt;attributes&gt; sections and their values are
+ *   given by &lt;attvalue&gt; elements; numerical attributes (integer, long, float or double)
+ *   are parsed into primitive attribute columns.
+ * - Node labels are stored in the "label" node attribute.
+ * - Node positions (viz:position) are stored in the "x" and "y" node attributes.
+ * - Edge weights are stored in the "weight" link attribute
+ *   (and in the link weight column in weighted mode, see getLinkWeights).
+ *
+ * Dynamic graphs (spells) and hierarchical graphs are not supported.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class GEXFNetworkReader extends XMLNetworkReader
+{
+	// GEXF attributes
+
+	private Dictionary<String,Attribute>     nodeKeys = CollectionFactory.createDictionary();
+	private Dictionary<String,LinkAttribute> linkKeys = CollectionFactory.createDictionary();
+
+	// Current values
+
+	private int     source = 0;
+	private int     target = 0;
+	private int     nodes = 0;
+	private boolean undirected = false;
+
+	// Parser state
+
+	private boolean inNode = false;
+	private boolean inEdge = false;
+	private String  attributeClass = null;
+
+	// Weighted mode
+
+	private IntList    sources;
+	private IntList    destinations;
+	private DoubleList weights;
+
+
+	// Constructor
+
+	public GEXFNetworkReader (InputStream stream)
+	{
+		super(stream);
+	}
+
+	// Parser
+
+	@Override
+	public Network read() throws IOException
+	{
+		if (isWeighted()) {
+			sources = new IntList();
+			destinations = new IntList();
+			weights = new DoubleList();
+		} else {
+			weights = null;
+		}
+
+		Network result = super.read();
+
+		if (weights!=null) {
+			setLinkWeights(result, sources.toArray(), destinations.toArray(), weights.toArray(), weights.size());
+			sources = null;
+			destinations = null;
+			weights = null;
+		}
+
+		return result;
+	}
+
+	@Override
+	protected void startElement (String element)
+	{
+		if (element.equals("graph")) {
+
+			parseGraphElement();
+
+		} else if (element.equals("attributes")) {
+
+			attributeClass = attribute("class");
+
+		} else if (element.equals("attribute")) {
+
+			parseAttributeElement();
+
+		} else if (element.equals("node")) {
+
+			inNode = true;
+			inEdge = false;
+
+			parseNodeElement();
+
+		} else if (element.equals("edge")) {
+
+			inEdge = true;
+			inNode = false;
+
+			parseEdgeElement();
+
+		} else if (element.equals("attvalue")) {
+
+			parseAttributeValue();
+
+		} else if (element.equals("position")) {
+
+			parsePosition();
+		}
+	}
+
+	@Override
+	protected void endElement (String element)
+	{
+		if (element.equals("node")) {
+
+			inNode = false;
+
+		} else if (element.equals("edge")) {
+
+			inEdge = false;
+
+		} else if (element.equals("attributes")) {
+
+			attributeClass = null;
+		}
+	}
+
+	private void parseGraphElement ()
+	{
+		String type = attribute("defaultedgetype");
+
+		// GEXF default edge type: undirected
+
+		if ( (type==null) || type.equals("undirected") || type.equals("mutual") )
+			net.setDirected(false);
+	}
+
+	private void parseAttributeElement ()
+	{
+		String id = attribute("id");
+		String title = attribute("title");
+		String type = attribute("type");
+
+		if (title==null)
+			title = id;
+
+		if ((id!=null) && (attributeClass!=null)) {
+
+			if (attributeClass.equals("node")) {
+
+				nodeKeys.set(id, createNodeAttribute(title, dataModel(type)));
+
+			} else if (attributeClass.equals("edge")) {
+
+				linkKeys.set(id, createLinkAttribute(title, dataModel(type)));
+			}
+		}
+	}
+
+	private void parseAttributeValue ()
+	{
+		String id = attribute("for");
+		String value = attribute("value");
+
+		if (id==null)
+			id = attribute("id");   // GEXF 1.1
+
+		if (id!=null) {
+
+			if (inNode) {
+
+				Attribute attribute = nodeKeys.get(id);
+
+				if (attribute!=null)
+					setNodeAttribute(attribute, nodes-1, value);
+
+			} else if (inEdge) {
+
+				LinkAttribute attribute = linkKeys.get(id);
+
+				if (attribute!=null)
+					setLink(attribute, value);
+			}
+		}
+	}
+
+	private void parseNodeElement ()
+	{
+		String id = attribute("id");
+		String label = attribute("label");
+
+		nodes++;
+		net.add(nodes-1);
+
+		if (id!=null)
+			setNodeID(net, nodes-1, id);
+
+		if (label!=null)
+			setNodeAttribute(createNodeAttribute("label", new TextModel()), nodes-1, label);
+	}
+
+	private void parsePosition ()
+	{
+		if (inNode) {
+			setNodeAttribute(createNodeAttribute("x", new RealModel()), nodes-1, attribute("x"));
+			setNodeAttribute(createNodeAttribute("y", new RealModel()), nodes-1, attribute("y"));
+		}
+	}
+
+	private void parseEdgeElement ()
+	{
+		String type = attribute("type");
+		String weight = attribute("weight");
+
+		source = getNodeIndex(attribute("source"));
+		target = getNodeIndex(attribute("target"));
+
+		// Undirected edges within directed graphs
+
+		undirected = net.isDirected() && ("undirected".equals(type) || "mutual".equals(type));
+
+		addLink(net,source,target);
+
+		if (undirected)
+			net.add(target,source);
+
+		if (weight!=null) {
+
+			setLink(createLinkAttribute("weight", new RealModel()), weight);
+
+			if (weights!=null)
+				weight(weight);
+		}
+	}
+
+	private void setLink (LinkAttribute attribute, String value)
+	{
+		setLinkAttribute(attribute, source, target, value);
+
+		if (undirected)
+			setLinkAttribute(attribute, target, source, value);
+	}
+
+	private void weight (String value)
+	{
+		double weight;
+
+		try {
+			weight = Double.parseDouble(value);
+		} catch (NumberFormatException error) {
+			weight = Double.NaN;
+		}
+
+		if (!Double.isNaN(weight)) {
+
+			sources.add(source);
+			destinations.add(target);
+			weights.add(weight);
+
+			if (undirected || !net.isDirected()) {
+				sources.add(target);
+				destinations.add(source);
+				weights.add(weight);
+			}
+		}
+	}
+
+
+	// Inspection
+
+	@Override
+	protected void inspectElement (String element, NetworkInfo info)
+	{
+		if (element.equals("graph")) {
+
+			String type = attribute("defaultedgetype");
+
+			info.setDirected( (type!=null) && !type.equals("undirected") && !type.equals("mutual") );
+			info.setSize(0);
+			info.setLinks(0);
+
+		} else if (element.equals("attributes")) {
+
+			attributeClass = attribute("class");
+
+		} else if (element.equals("attribute")) {
+
+			String id = attribute("id");
+			String title = attribute("title");
+
+			if (title==null)
+				title = id;
+
+			if ((id!=null) && "node".equals(attributeClass))
+				info.addNodeAttribute(title, dataModel(attribute("type")));
+			else if ((id!=null) && "edge".equals(attributeClass))
+				info.addLinkAttribute(title, dataModel(attribute("type")));
+
+		} else if (element.equals("node")) {
+
+			info.setSize(info.size()+1);
+
+			if (attribute("label")!=null)
+				info.addNodeAttribute("label", new TextModel());
+
+		} else if (element.equals("position")) {
+
+			info.addNodeAttribute("x", new RealModel());
+			info.addNodeAttribute("y", new RealModel());
+
+		} else if (element.equals("edge")) {
+
+			info.setLinks(info.links()+1);
+
+			if (attribute("weight")!=null)
+				info.addLinkAttribute("weight", new RealModel());
+		}
+	}
+
+}
@@ -132,6 +132,58 @@ public class GMLNetworkReader extends AttributeNetworkReader
 		return net;		
 	}
 
+	/**
+	 * GML file inspection: nodes, edges and attribute keys are collected in a single pass.
+	 */
+	@Override
+	public NetworkInfo inspect() throws IOException 
+	{
+		NetworkInfo info = new NetworkInfo(getFormat());
+		boolean     inNode = false;
+		boolean     inEdge = false;
+		int         nodes = 0;
+		long        links = 0;
+		
+		info.addNodeAttribute("id", null);
+		
+		while ( readLine() != null ) {
+			
+			String line = currentLine();
+			String[] items = line.split("\\s+");
+			String key = line.toLowerCase();
+			
+			if ( key.startsWith("node") ) {
+				
+				nodes++;
+				inNode = true;
+				inEdge = false;
+				
+			} else if ( key.startsWith("edge") ) {
+				
+				links++;
+				inNode = false;
+				inEdge = true;
+				
+			} else if ( Character.isAlphabetic(key.charAt(0)) ) {
+				
+				if (inNode) {
+					if (!key.startsWith("id"))
+						info.addNodeAttribute(items[0], null);
+				} else if (inEdge) {
+					if (!key.startsWith("source") && !key.startsWith("target"))
+						info.addLinkAttribute(items[0], null);
+				} else if (key.startsWith("directed")) {
+					info.setDirected( Integer.parseInt(items[1])!=0 );
+				}
+			}
+		}
+		
+		info.setSize(nodes);
+		info.setLinks(links);
+		
+		return info;
+	}
+
 	// Attribute parsing
 
 	private String parseAttribute(String id, String line) 
@@ -6,8 +6,8 @@ package noesis.io;
 // Author:      Fernando Berzal
 // E-mail:      berzal@acm.org
 
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 
 import noesis.Network;
@@ -16,90 +16,101 @@ import noesis.AttributeNetwork;
 import noesis.Attribute;
 import noesis.LinkAttribute;
 
-public class GMLNetworkWriter extends AttributeNetworkWriter 
+public class GMLNetworkWriter extends TextNetworkWriter
 {
-	
-	private BufferedWriter writer;
-	
 	public GMLNetworkWriter (Writer writer)
 	{
-		this.writer = new BufferedWriter(writer);
-	}	
+		super(writer);
+	}
+
+	public GMLNetworkWriter (OutputStream stream)
+	{
+		super(stream);
+	}
+
+	public GMLNetworkWriter (OutputStream stream, boolean gzip)
+	{
+		super(stream, gzip);
+	}
 
 	@Override
-	public void write(Network net) throws IOException 
+	public void write(Network net) throws IOException
 	{
-		writer.write("graph");
-		writer.newLine();
-		
-		writer.write("[");
-		writer.newLine();
+		BlockOutput output = getOutput();
+
+		output.writeLine("graph");
+		output.writeLine("[");
 
 		if (net.isDirected())
-			writer.write("\tdirected 1");
+			output.writeLine("\tdirected 1");
 		else
-			writer.write("\tdirected 0");
-		
-		writer.newLine();
-		
-		writer.write("\tcreator \"NOESIS\"");
-		writer.newLine();
-		
+			output.writeLine("\tdirected 0");
+
+		output.writeLine("\tcreator \"NOESIS\"");
+
 		writeNodes(net);
 
 		writeLinks(net);
 
-		writer.write("]");
-		writer.newLine();
-		
-		writer.flush();
+		output.writeLine("]");
+
+		output.flush();
 	}
 
-	public void writeNodes(Network net) 
-		throws IOException 
+	public void writeNodes(final Network net)
+		throws IOException
 	{
-		for (int i=0; i<net.size(); i++)
-			writeNode(net,i);
+		getOutput().write(net.size(), new BlockOutput.Formatter() {
+
+			@Override
+			public void format (int i, StringBuilder output)
+			{
+				formatNode(net, i, output);
+			}
+		});
 	}
-		
 
-	public void writeNode (Network net, int index) 
-		throws IOException 
+
+	private void formatNode (Network net, int index, StringBuilder output)
 	{
-		writer.write("\tnode [");
-		writer.newLine();
+		output.append("\tnode [");
+		output.append(BlockOutput.NEWLINE);
 
 		if (net instanceof AttributeNetwork) {
 
-			AttributeNetwork attrnet = (AttributeNetwork)net; 
+			AttributeNetwork attrnet = (AttributeNetwork)net;
+
+			formatValue(output, "id", attrnet.getNodeAttribute("id").get(index).toString());
 
-			writer.write("\t\tid "+valueString(attrnet.getNodeAttribute("id").get(index).toString()));
-			writer.newLine();
-			
 			int attributes = attrnet.getNodeAttributeCount();
 
 			for (int i=0; i<attributes; i++) {
 				Attribute attribute = attrnet.getNodeAttribute(i);
 				String    id = attribute.getID();
 
-				if (!id.equals("id")) {
-					writer.write("\t\t"+id+" "+valueString(attribute.get(index)));
-					writer.newLine();
-				}
+				if (!id.equals("id"))
+					formatValue(output, id, attribute.get(index));
 			}
-			
+
 		} else {
-			writer.write("\t\tid "+index);
-			writer.newLine();
+			formatValue(output, "id", index);
 		}
 
-		writer.write("\t]");
-		writer.newLine();
+		output.append("\t]");
+		output.append(BlockOutput.NEWLINE);
+	}
+
+	private void formatValue (StringBuilder output, String key, Object value)
+	{
+		output.append("\t\t");
+		output.append(key);
+		output.append(' ');
+		output.append(valueString(value));
+		output.append(BlockOutput.NEWLINE);
 	}
-	
-	
+
+
 	private String valueString (Object value)
-		throws IOException
 	{
 		if (value!=null) {
 			String str = value.toString();
@@ -108,86 +119,78 @@ public class GMLNetworkWriter extends AttributeNetworkWriter
 				return "'"+str+"'";
 			else if (shouldBeQuoted(str))
 				return "\""+str+"\"";
-			else 
+			else
 				return str;
 		} else {
 			return "\"\"";
 		}
 	}
-	
+
 	private boolean shouldBeQuoted (String str)
 	{
 		char c;
-		
+
 		if (str.length()==0)
 			return true;
-		
+
 		for (int i=0; i<str.length(); i++) {
 			c=str.charAt(i);
 			if ((c!='.') && (c!='+') && (c!='-') && ((c<'0') || (c>'9')))
 				return true;
 		}
-		
+
 		return false;
 	}
-	
-	
 
-	public void writeLinks(Network net) 
-		throws IOException 
+
+
+	public void writeLinks(final Network net)
+		throws IOException
 	{
-		int[] outlinks;
-
-		for (int i=0; i<net.size(); i++) {
-			outlinks = net.outLinks(i);
-		
-			if (outlinks!=null)
-				for (int j=0; j< outlinks.length; j++)
-					if (net.isDirected() || (i<=outlinks[j]) )
-						writeLink(net,i,outlinks[j]);
-		}
+		getOutput().write(net.size(), new BlockOutput.Formatter() {
+
+			@Override
+			public void format (int i, StringBuilder output)
+			{
+				int degree = net.outDegree(i);
+
+				for (int j=0; j<degree; j++) {
+					int target = net.outLink(i,j);
+
+					if (net.isDirected() || (i<=target) )
+						formatLink(net, i, target, output);
+				}
+			}
+		});
 	}
 
-	
-	public void writeLink (Network net, int source, int target)
-		throws IOException
+
+	private void formatLink (Network net, int source, int target, StringBuilder output)
 	{
-		writer.write("\tedge [");
-		writer.newLine();
-		
+		output.append("\tedge [");
+		output.append(BlockOutput.NEWLINE);
+
 		if (net instanceof AttributeNetwork) {
 
 			AttributeNetwork attrnet = (AttributeNetwork)net;
 			Attribute nodeID = attrnet.getNodeAttribute("id");
 
-			writer.write("\t\tsource "+valueString(nodeID.get(source).toString()));
-			writer.newLine();
-			writer.write("\t\ttarget "+valueString(nodeID.get(target).toString()));
-			writer.newLine();
-			
+			formatValue(output, "source", nodeID.get(source).toString());
+			formatValue(output, "target", nodeID.get(target).toString());
+
 			int attributes = attrnet.getLinkAttributeCount();
 
 			for (int i=0; i<attributes; i++) {
 				LinkAttribute attribute = attrnet.getLinkAttribute(i);
-				writer.write("\t\t"+attribute.getID()+" "+valueString(attribute.get(source,target)));
-				writer.newLine();
+				formatValue(output, attribute.getID(), attribute.get(source,target));
 			}
-			
+
 		} else {
-			writer.write("\t\tsource "+source);
-			writer.newLine();
-			writer.write("\t\ttarget "+target);
-			writer.newLine();
+			formatValue(output, "source", source);
+			formatValue(output, "target", target);
 		}
-		
-		writer.write("\t]");
-		writer.newLine();
-	}
 
-	@Override
-	public void close() throws IOException 
-	{
-		writer.close();
+		output.append("\t]");
+		output.append(BlockOutput.NEWLINE);
 	}
-
-}
\ No newline at end of file
+}
@@ -1,289 +1,259 @@
 package noesis.io;
 
 // Title:       GraphML network reader
-// Version:     1.0
-// Copyright:   2012
+// Version:     1.1
+// Copyright:   2014
 // Author:      Fernando Berzal
 // E-mail:      berzal@acm.org
 
+import ikor.collection.CollectionFactory;
+import ikor.collection.Dictionary;
+import ikor.collection.Set;
 import ikor.model.data.DataModel;
-import ikor.model.data.IntegerModel;
-import ikor.model.data.RealModel;
-import ikor.model.data.TextModel;
 
-import java.io.BufferedInputStream;
-import java.io.IOException;
 import java.io.InputStream;
 
-import javax.xml.stream.*;
-
 import noesis.Attribute;
-import noesis.AttributeNetwork;
 import noesis.LinkAttribute;
-import noesis.Network;
 
 /**
  * GraphML Network Reader: XML-based file format for graphs (http://en.wikipedia.org/wiki/GraphML)
- * 
+ *
+ * Numerical attributes declared by GraphML keys (attr.type int, long, float or double)
+ * are parsed into primitive attribute columns.
+ *
  * @author Fernando Berzal
  */
 
-public class GraphMLNetworkReader extends AttributeNetworkReader
+public class GraphMLNetworkReader extends XMLNetworkReader
 {
-	// Input stream
-	
-	private InputStream input;
-	
-	// Network
-	
-	AttributeNetwork net; 
-    
+	// GraphML keys
+
+	private Dictionary<String,Attribute>     nodeKeys = CollectionFactory.createDictionary();
+	private Dictionary<String,LinkAttribute> linkKeys = CollectionFactory.createDictionary();
+
 	// Current values
-	
-	int     source = 0;
-    int     target = 0;
-    int     nodes;
-
-    // Parser state
-    
-    boolean inNode = false;
-    boolean inEdge = false;
-    String  attribute = null;
-	
-    
-    // Constructor
-    
+
+	private int     source = 0;
+	private int     target = 0;
+	private int     nodes;
+
+	// Parser state
+
+	private boolean inNode = false;
+	private boolean inEdge = false;
+	private String  key = null;
+
+	private Set<String> declared = CollectionFactory.createSet();  // Inspection: declared keys
+
+
+	// Constructor
+
 	public GraphMLNetworkReader (InputStream stream)
 	{
-		this.input = new BufferedInputStream(stream);
-		this.setType(noesis.AttributeNetwork.class);
+		super(stream);
 	}
 
 	// Parser
-	
+
 	@Override
-	public Network read() throws IOException 
+	protected void startElement (String element)
 	{
-        net = new AttributeNetwork();
-        net.addNodeAttribute( new Attribute("id") );
-        nodes = net.size();		
-		
-		try {
-			XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-			XMLStreamReader xmlStreamReader = inputFactory.createXMLStreamReader(input);
-	
-			while(xmlStreamReader.hasNext()){
-
-				int event = xmlStreamReader.next();
-				
-				switch (event) {
-				
-					case XMLStreamConstants.START_ELEMENT:
-						
-						String element = xmlStreamReader.getLocalName();
-						
-						if (element.equals("graph")) {
-							
-							inNode = false;
-							inEdge = false;
-							attribute = null;			
-							
-							parseGraphElement(xmlStreamReader);
-							
-						} else if (element.equals("node")) {
-							
-							inNode = true;
-							inEdge = false;
-							attribute = null;
-
-							parseNodeElement(xmlStreamReader);
-							
-						} else if (element.equals("edge")) {
-							
-							inEdge = true;
-							inNode = false;
-							attribute = null;
-
-							parseEdgeElement(xmlStreamReader);
-							
-						} else if (element.equals("data")) {
-							
-							parseDataElement(xmlStreamReader);
-				
-						} else if (element.equals("key")) {
-							
-							parseAttribute(xmlStreamReader);
-						}
-
-						break;
-
-					case XMLStreamConstants.CHARACTERS:
-						parseAttributeValue(xmlStreamReader);
-						attribute = null;
-						break;
-				}
-			}
+		if (element.equals("graph")) {
+
+			inNode = false;
+			inEdge = false;
+			key = null;
+
+			parseGraphElement();
+
+		} else if (element.equals("node")) {
+
+			inNode = true;
+			inEdge = false;
+			key = null;
+
+			parseNodeElement();
+
+		} else if (element.equals("edge")) {
+
+			inEdge = true;
+			inNode = false;
+			key = null;
+
+			parseEdgeElement();
+
+		} else if (element.equals("data")) {
 
-		} catch (FactoryConfigurationError e){
-			System.err.println("FactoryConfigurationError"+e.getMessage());
-		} catch (XMLStreamException e) {
-			System.err.println("XMLStreamException"+e.getMessage());
+			key = attribute("key");
+
+			if ( (key!=null) && (inNode || inEdge) )
+				capture();
+
+		} else if (element.equals("key")) {
+
+			parseKeyElement();
 		}
-		
-		return net;
 	}
 
-	private void parseAttribute (XMLStreamReader xmlStreamReader) 
+	@Override
+	protected void endElement (String element)
 	{
-		String key;
-		String value;
-		
-		String id = null;
-		String scope = null;
-		String type = null;
-
-		for (int i=0; i<xmlStreamReader.getAttributeCount(); i++) {				
-
-			key = xmlStreamReader.getAttributeLocalName(i);
-			value = xmlStreamReader.getAttributeValue(i);
-		
-			if (key.equals("for")) {
-				scope = value;
-			} else if (key.equals("id")) {
-				id = value;
-			} else if (key.equals("attr.name")) {
-				id = value;
-			} else if (key.equals("attr.type")) {
-				type = value;
-			}
-			
-			// TODO Default values
+		if (element.equals("data")) {
+
+			parseDataElement();
+			key = null;
+
+		} else if (element.equals("node")) {
+
+			inNode = false;
+
+		} else if (element.equals("edge")) {
+
+			inEdge = false;
 		}
-		
-		if (scope!=null) {
-			
+	}
+
+	private void parseKeyElement ()
+	{
+		String id = attribute("id");
+		String name = attribute("attr.name");
+		String scope = attribute("for");
+		String type = attribute("attr.type");
+
+		// TODO Default values
+
+		if (name==null)
+			name = id;
+
+		if ((id!=null) && (scope!=null)) {
+
 			DataModel model = dataModel(type);
-			
+
 			if (scope.equals("node")) {
-				
-				net.addNodeAttribute( new Attribute(id,model) );
-			
+
+				nodeKeys.set(id, createNodeAttribute(name,model));
+
 			} else if (scope.equals("edge")) {
-				
-				net.addLinkAttribute( new LinkAttribute(net,id,model) );
-				
+
+				linkKeys.set(id, createLinkAttribute(name,model));
 			}
 		}
 	}
-	
-    // Data types
-    
-    private DataModel dataModel (String dataType)
-    {
-    	String   type = dataType.toLowerCase();
-    	DataModel model;
-
-    	if (type.equals("double") || type.equals("float"))
-    		model = new RealModel();
-    	else if (type.equals("long") || type.equals("int"))
-    		model = new IntegerModel();
-    	else // string, boolean
-    		model = new TextModel();
-
-    	return model;
-    }
-
-	private void parseAttributeValue(XMLStreamReader xmlStreamReader) 
+
+	private void parseDataElement ()
 	{
-		String value;
-	
-		if (attribute!=null) {
-			value = xmlStreamReader.getText();
-			
+		if (key!=null) {
+
 			if (inNode) {
-				setNodeAttribute(net,nodes-1,attribute,value);
-			} else if (inEdge) {
-				setLinkAttribute(net,source,target,attribute,value);
-			}
-		}
-	}
 
+				Attribute attribute = nodeKeys.get(key);
 
-	private void parseDataElement (XMLStreamReader xmlStreamReader) 
-	{
-		String key;
-	
-		for (int i=0; i<xmlStreamReader.getAttributeCount(); i++) {
-			key = xmlStreamReader.getAttributeLocalName(i); 
+				if (attribute!=null)
+					setNodeAttribute(attribute, nodes-1);
+				else
+					setNodeAttribute(net, nodes-1, key, text());
+
+			} else if (inEdge) {
 
-			if (key.equals("key")) {
-				attribute = xmlStreamReader.getAttributeValue(i);
+				LinkAttribute attribute = linkKeys.get(key);
+
+				if (attribute!=null)
+					setLinkAttribute(attribute, source, target);
+				else
+					setLinkAttribute(net, source, target, key, text());
 			}
 		}
 	}
 
+	private void parseGraphElement ()
+	{
+		String edgedefault = attribute("edgedefault");
+		String id = attribute("id");
 
+		if ("undirected".equals(edgedefault))
+			net.setDirected(false);
 
-	private void parseGraphElement (XMLStreamReader xmlStreamReader) 
-	{
-		String key;
-		String value;
-
-		for (int i=0; i<xmlStreamReader.getAttributeCount(); i++) {				
-
-			key = xmlStreamReader.getAttributeLocalName(i);
-			value = xmlStreamReader.getAttributeValue(i);
-			
-			if (key.equals("edgedefault")) {
-				if (value.equals("undirected"))
-					net.setDirected(false);
-			} else if (key.equals("id")) {
-				net.setID(value);
-			}
-				
-		}
+		if (id!=null)
+			net.setID(id);
 	}
 
-
-	private void parseNodeElement (XMLStreamReader xmlStreamReader) 
+	private void parseNodeElement ()
 	{
-		String key;
-	
+		String id = attribute("id");
+
 		nodes++;
 		net.add(nodes-1);
 
-		for (int i=0; i<xmlStreamReader.getAttributeCount(); i++) {
-			key = xmlStreamReader.getAttributeLocalName(i);
-			if (key.equals("id")) {
-				setNodeID(net, nodes-1, xmlStreamReader.getAttributeValue(i));
-			}
-		}
+		if (id!=null)
+			setNodeID(net, nodes-1, id);
 	}
 
-
-	private void parseEdgeElement(XMLStreamReader xmlStreamReader) 
+	private void parseEdgeElement ()
 	{
-		String key;
-		String value;
-	
-		for (int i=0; i<xmlStreamReader.getAttributeCount(); i++) {
-			key = xmlStreamReader.getAttributeLocalName(i); 
-			value = xmlStreamReader.getAttributeValue(i);
-			
-			if (key.equals("source")) {
-				source = getNodeIndex(value);
-			} else if (key.equals("target")) {
-				target = getNodeIndex(value);
-			}
-		}
-		
+		source = getNodeIndex(attribute("source"));
+		target = getNodeIndex(attribute("target"));
+
 		addLink(net,source,target);
 	}
 
+
+	// Inspection
+
 	@Override
-	public void close() throws IOException 
+	protected void inspectElement (String element, NetworkInfo info)
 	{
-		input.close();
+		if (element.equals("graph")) {
+
+			info.setID(attribute("id"));
+			info.setDirected(!"undirected".equals(attribute("edgedefault")));
+			info.setSize(0);
+			info.setLinks(0);
+
+		} else if (element.equals("node")) {
+
+			inNode = true;
+			inEdge = false;
+			info.setSize(info.size()+1);
+
+		} else if (element.equals("edge")) {
+
+			inNode = false;
+			inEdge = true;
+			info.setLinks(info.links()+1);
+
+		} else if (element.equals("data")) {
+
+			// Undeclared keys (text attributes)
+
+			key = attribute("key");
+
+			if ( (key!=null) && !declared.contains(key) ) {
+				if (inNode)
+					info.addNodeAttribute(key, null);
+				else if (inEdge)
+					info.addLinkAttribute(key, null);
+			}
+
+		} else if (element.equals("key")) {
+
+			String id = attribute("id");
+			String name = attribute("attr.name");
+			String scope = attribute("for");
+
+			if (name==null)
+				name = id;
+
+			if ((id!=null) && (scope!=null)) {
+
+				declared.add(id);
+
+				if (scope.equals("node"))
+					info.addNodeAttribute(name, dataModel(attribute("attr.type")));
+				else if (scope.equals("edge"))
+					info.addLinkAttribute(name, dataModel(attribute("attr.type")));
+			}
+		}
 	}
 
 }
@@ -6,14 +6,13 @@ package noesis.io;
 // Author:      Fernando Berzal
 // E-mail:      berzal@acm.org
 
+import ikor.model.data.DataModel;
 import ikor.model.data.IntegerModel;
 import ikor.model.data.RealModel;
 
-import java.io.Writer;
-import java.io.BufferedWriter;
 import java.io.IOException;
-
-import javax.xml.stream.*;
+import java.io.OutputStream;
+import java.io.Writer;
 
 import noesis.Network;
 import noesis.AttributeNetwork;
@@ -21,216 +20,258 @@ import noesis.AttributeNetwork;
 import noesis.Attribute;
 import noesis.LinkAttribute;
 
-public class GraphMLNetworkWriter extends AttributeNetworkWriter 
+/**
+ * GraphML network writer.
+ *
+ * Elements are formatted directly (with XML escaping), so that node and link
+ * sections can be written in parallel blocks. The XML declaration specifies
+ * the actual output encoding.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class GraphMLNetworkWriter extends TextNetworkWriter
 {
-	
-	private BufferedWriter  output;
-	private XMLStreamWriter writer;
-	
 	public GraphMLNetworkWriter (Writer writer)
 	{
-		this.output = new BufferedWriter(writer);
-	}	
+		super(writer);
+	}
+
+	public GraphMLNetworkWriter (OutputStream stream)
+	{
+		super(stream);
+	}
+
+	public GraphMLNetworkWriter (OutputStream stream, boolean gzip)
+	{
+		super(stream, gzip);
+	}
 
 	@Override
-	public void write(Network net) throws IOException 
+	public void write(Network net) throws IOException
 	{
-		XMLOutputFactory factory = XMLOutputFactory.newInstance();
-		
-		try {
-			this.writer = factory.createXMLStreamWriter(output);
-			
-			writer.writeStartDocument("ISO-8859-1","1.0");
-			
-			writer.writeStartElement("graphml");
-			writer.writeAttribute("xmlns", "http://graphml.graphdrawing.org/xmlns");
-			writer.writeAttribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance");
-			writer.writeAttribute("xsi:schemaLocation", "http://graphml.graphdrawing.org/xmlns\nhttp://graphml.graphdrawing.org/xmlns/1.0/graphml.xsd");
-			
-			if (net instanceof AttributeNetwork)
-				writeAttributes((AttributeNetwork)net);
-
-			writer.writeStartElement("graph");
-			
-			if (net.getID()!=null)
-				writer.writeAttribute("id", net.getID());
-			
-			if (net.isDirected()) {
-				writer.writeAttribute("edgedefault", "directed");
-			} else {
-				writer.writeAttribute("edgedefault", "undirected");				
-			}
-			
-			writeNodes(net);
-			
-			writeLinks(net);
-
-			writer.writeEndElement();
-
-			writer.writeEndElement();
-			
-			writer.writeEndDocument();
-
-			writer.flush();
-			writer.close();			
-			
-		} catch (XMLStreamException error) {
-			throw new IOException(error);
-		}
+		BlockOutput output = getOutput();
+
+		output.writeLine("<?xml version=\"1.0\" encoding=\""+output.getCharset().name()+"\"?>");
+		output.writeLine("<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\""
+		                +" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+		                +" xsi:schemaLocation=\"http://graphml.graphdrawing.org/xmlns http://graphml.graphdrawing.org/xmlns/1.0/graphml.xsd\">");
+
+		if (net instanceof AttributeNetwork)
+			writeAttributes((AttributeNetwork)net);
+
+		StringBuilder graph = new StringBuilder("<graph");
+
+		if (net.getID()!=null)
+			formatAttribute(graph, "id", net.getID());
+
+		if (net.isDirected())
+			formatAttribute(graph, "edgedefault", "directed");
+		else
+			formatAttribute(graph, "edgedefault", "undirected");
+
+		graph.append('>');
+
+		output.writeLine(graph.toString());
+
+		writeNodes(net);
+
+		writeLinks(net);
+
+		output.writeLine("</graph>");
+		output.writeLine("</graphml>");
+
+		output.flush();
 	}
 
-	public void writeAttributes (AttributeNetwork net) 
-			throws IOException, XMLStreamException 
+	public void writeAttributes (AttributeNetwork net)
+		throws IOException
 	{
 		// Node attributes
-			
+
 		for (int i=0; i<net.getNodeAttributeCount(); i++) {
 			Attribute attribute = net.getNodeAttribute(i);
 			String    id = attribute.getID();
 
-			if (!id.equals("id")) {
-				writer.writeStartElement("key");
-				writer.writeAttribute("id", id);
-				writer.writeAttribute("for", "node");
-				writer.writeAttribute("attr.name", id);
-				
-				if (attribute.getModel() instanceof RealModel)
-					writer.writeAttribute("attr.type", "double");
-				else if (attribute.getModel() instanceof IntegerModel)
-					writer.writeAttribute("attr.type", "int");
-				else 
-					writer.writeAttribute("attr.type", "string");
-
-				writer.writeEndElement();
-			}
+			if (!id.equals("id"))
+				writeKey(id, "node", attribute.getModel());
 		}
-		
+
 		// Link attributes
-		
+
 		for (int i=0; i<net.getLinkAttributeCount(); i++) {
 			LinkAttribute attribute = net.getLinkAttribute(i);
-			String id = attribute.getID();
-
-			writer.writeStartElement("key");
-			writer.writeAttribute("id", id);
-			writer.writeAttribute("for", "edge");
-			writer.writeAttribute("attr.name", id);
-			writer.writeAttribute("attr.type", "string");  // TODO Attribute types
-			writer.writeEndElement();
+			String        id = attribute.getID();
+
+			if (!id.equals("id"))
+				writeKey(id, "edge", attribute.getModel());
 		}
 	}
 
-	
-	public void writeNodes(Network net) 
-		throws IOException, XMLStreamException
+	private void writeKey (String id, String domain, DataModel model)
+		throws IOException
+	{
+		StringBuilder key = new StringBuilder("<key");
+
+		formatAttribute(key, "id", id);
+		formatAttribute(key, "for", domain);
+		formatAttribute(key, "attr.name", id);
+
+		if (model instanceof RealModel)
+			formatAttribute(key, "attr.type", "double");
+		else if (model instanceof IntegerModel)
+			formatAttribute(key, "attr.type", "int");
+		else
+			formatAttribute(key, "attr.type", "string");
+
+		key.append("/>");
+
+		getOutput().writeLine(key.toString());
+	}
+
+
+	public void writeNodes(final Network net)
+		throws IOException
 	{
-		for (int i=0; i<net.size(); i++)
-			writeNode(net,i);
+		getOutput().write(net.size(), new BlockOutput.Formatter() {
+
+			@Override
+			public void format (int i, StringBuilder output)
+			{
+				formatNode(net, i, output);
+			}
+		});
 	}
-		
 
-	public void writeNode (Network net, int index) 
-		throws IOException, XMLStreamException 
+
+	private void formatNode (Network net, int index, StringBuilder output)
 	{
-		writer.writeStartElement("node");
+		output.append("<node");
 
 		if (net instanceof AttributeNetwork) {
 
-			AttributeNetwork attrnet = (AttributeNetwork)net; 
+			AttributeNetwork attrnet = (AttributeNetwork)net;
+
+			formatAttribute(output, "id", attrnet.getNodeAttribute("id").get(index).toString());
+			output.append('>');
 
-			writer.writeAttribute("id", attrnet.getNodeAttribute("id").get(index).toString());
-			
 			int attributes = attrnet.getNodeAttributeCount();
 
 			for (int i=0; i<attributes; i++) {
 				Attribute attribute = attrnet.getNodeAttribute(i);
 				String    id = attribute.getID();
 
-				if (!id.equals("id")) {
-					writer.writeStartElement("data");
-					writer.writeAttribute("key", id);
-					String str = formatString(attribute.get(index));
-					writer.writeCharacters(str);
-					writer.writeEndElement();
-				}
+				if (!id.equals("id"))
+					formatData(output, id, attribute.get(index));
 			}
-			
+
+			output.append("</node>");
+
 		} else {
-			
-			writer.writeAttribute("id", ""+index);
+
+			formatAttribute(output, "id", ""+index);
+			output.append("/>");
 		}
 
-		writer.writeEndElement();
+		output.append(BlockOutput.NEWLINE);
 	}
-		
-	
-	private String formatString (Object value)
-			throws IOException
-	{
-		if (value!=null) {
-			return value.toString();
-		} else {
-			return "";
-		}
-	}	
 
-	
-	public void writeLinks(Network net) 
-		throws IOException, XMLStreamException 
+
+	public void writeLinks(final Network net)
+		throws IOException
 	{
-		int[] outlinks;
-				
-		for (int i=0; i<net.size(); i++) {
-			outlinks = net.outLinks(i);
-		
-			if (outlinks!=null)
-				for (int j=0; j< outlinks.length; j++)
-					if (net.isDirected() || (i<=outlinks[j]) )
-						writeLink(net,i,outlinks[j]);
-		}
+		getOutput().write(net.size(), new BlockOutput.Formatter() {
+
+			@Override
+			public void format (int i, StringBuilder output)
+			{
+				int degree = net.outDegree(i);
+
+				for (int j=0; j<degree; j++) {
+					int target = net.outLink(i,j);
+
+					if (net.isDirected() || (i<=target) )
+						formatLink(net, i, target, output);
+				}
+			}
+		});
 	}
 
-	
-	public void writeLink (Network net, int source, int target)
-		throws IOException, XMLStreamException
+
+	private void formatLink (Network net, int source, int target, StringBuilder output)
 	{
-		writer.writeStartElement("edge");
+		output.append("<edge");
 
 		if (net instanceof AttributeNetwork) {
 
-			AttributeNetwork attrnet = (AttributeNetwork)net; 
+			AttributeNetwork attrnet = (AttributeNetwork)net;
 			Attribute nodeID = attrnet.getNodeAttribute("id");
 
-			writer.writeAttribute("source", nodeID.get(source).toString());
-			writer.writeAttribute("target", nodeID.get(target).toString());
-			
+			formatAttribute(output, "source", nodeID.get(source).toString());
+			formatAttribute(output, "target", nodeID.get(target).toString());
+			output.append('>');
+
 			int attributes = attrnet.getLinkAttributeCount();
 
 			for (int i=0; i<attributes; i++) {
 				LinkAttribute attribute = attrnet.getLinkAttribute(i);
 				String        id = attribute.getID();
 
-				if (!id.equals("id")) {
-					writer.writeStartElement("data");
-					writer.writeAttribute("key", id);
-					writer.writeCharacters(formatString(attribute.get(source,target)));
-					writer.writeEndElement();
-				}
+				if (!id.equals("id"))
+					formatData(output, id, attribute.get(source,target));
 			}
-			
+
+			output.append("</edge>");
+
 		} else {
-			
-			writer.writeAttribute("source", ""+source);
-			writer.writeAttribute("target", ""+target);
+
+			formatAttribute(output, "source", ""+source);
+			formatAttribute(output, "target", ""+target);
+			output.append("/>");
 		}
 
-		writer.writeEndElement();
+		output.append(BlockOutput.NEWLINE);
 	}
 
-	@Override
-	public void close() throws IOException 
+
+	// XML formatting
+
+	private void formatData (StringBuilder output, String key, Object value)
 	{
-		output.close();
+		output.append("<data");
+		formatAttribute(output, "key", key);
+		output.append('>');
+
+		if (value!=null)
+			escape(output, value.toString());
+
+		output.append("</data>");
+	}
+
+	private void formatAttribute (StringBuilder output, String name, String value)
+	{
+		output.append(' ');
+		output.append(name);
+		output.append("=\"");
+		escape(output, value);
+		output.append('"');
 	}
 
+	private void escape (StringBuilder output, String text)
+	{
+		for (int i=0; i<text.length(); i++) {
+
+			char c = text.charAt(i);
+
+			switch (c) {
+				case '<':  output.append("&lt;");   break;
+				case '>':  output.append("&gt;");   break;
+				case '&':  output.append("&amp;");  break;
+				case '"':  output.append("&quot;"); break;
+				case '\n': output.append("&#10;");  break;
+				case '\r': output.append("&#13;");  break;
+				case '\t': output.append("&#9;");   break;
+				default:   output.append(c);
+			}
+		}
+	}
 }
@@ -0,0 +1,498 @@
+package noesis.io;
+
+// Title:       Memory-mapped network ADT
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.math.BigDecimal;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+import ikor.model.data.DataModel;
+import ikor.model.data.DecimalModel;
+import ikor.model.data.RealModel;
+import ikor.model.data.TextModel;
+
+import noesis.Attribute;
+import noesis.AttributeNetwork;
+import noesis.LinkAttribute;
+import noesis.Network;
+import noesis.network.LinkIndexer;
+
+/**
+ * Read-only network ADT backed by a memory-mapped NOESIS binary file (see BinaryNetworkReader).
+ *
+ * CSR arrays and attribute columns are accessed in place, without copying them into the Java heap:
+ * - offsets[i]..offsets[i+1]-1 delimit the links of node i.
+ * - Neighbors are sorted, hence link lookups take O(log d) time.
+ * - Link indices follow the CSR order (as in CompactNetwork).
+ *
+ * Since file mappings are read-only, the operating system page cache is shared
+ * by all the processes that map the same file.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class MappedNetwork extends Network<Integer,Integer> implements LinkIndexer
+{
+	private int       size;
+	private int       links;
+
+	private IntBuffer outOffsets;
+	private IntBuffer outTargets;
+	private IntBuffer inOffsets;
+	private IntBuffer inSources;
+
+	private Column[]  nodeColumns;
+	private Column[]  linkColumns;
+
+
+	// Constructor
+
+	MappedNetwork (int size, int links, IntBuffer outOffsets, IntBuffer outTargets, IntBuffer inOffsets, IntBuffer inSources, Column[] nodeColumns, Column[] linkColumns)
+	{
+		this.size = size;
+		this.links = links;
+		this.outOffsets = outOffsets;
+		this.outTargets = outTargets;
+		this.inOffsets = inOffsets;
+		this.inSources = inSources;
+		this.nodeColumns = nodeColumns;
+		this.linkColumns = linkColumns;
+	}
+
+
+	// Network size
+
+	@Override
+	public final int nodes()
+	{
+		return size;
+	}
+
+	@Override
+	public final void setSize(int nodes)
+	{
+		throw new UnsupportedOperationException("Memory-mapped networks are read-only.");
+	}
+
+	@Override
+	public final int links()
+	{
+		return links;
+	}
+
+
+	// Nodes
+
+	@Override
+	public final int index(Integer node)
+	{
+		if ( (node!=null) && (node>=0) && (node<size) )
+			return node;
+		else
+			return -1;
+	}
+
+	@Override
+	public final Integer get(int index)
+	{
+		return index;
+	}
+
+	@Override
+	public final boolean contains(Integer node)
+	{
+		return index(node)!=-1;
+	}
+
+	@Override
+	public final int add(Integer node)
+	{
+		throw new UnsupportedOperationException("Memory-mapped networks are read-only.");
+	}
+
+	@Override
+	public final void set(int node, Integer value)
+	{
+		throw new UnsupportedOperationException("Memory-mapped networks are read-only.");
+	}
+
+
+	// Links
+
+	@Override
+	public final boolean add(int sourceIndex, int destinationIndex)
+	{
+		throw new UnsupportedOperationException("Memory-mapped networks are read-only.");
+	}
+
+	@Override
+	public final boolean add(int sourceIndex, int destinationIndex, Integer content)
+	{
+		throw new UnsupportedOperationException("Memory-mapped networks are read-only.");
+	}
+
+	@Override
+	public final boolean remove(int nodeIndex)
+	{
+		throw new UnsupportedOperationException("Memory-mapped networks are read-only.");
+	}
+
+	@Override
+	public final boolean remove(int sourceIndex, int destinationIndex)
+	{
+		throw new UnsupportedOperationException("Memory-mapped networks are read-only.");
+	}
+
+	/**
+	 * Position of a link in the CSR arrays, O(log d).
+	 * @param source Source node index
+	 * @param destination Destination node index
+	 * @return Link position, -1 if the link does not exist.
+	 */
+	private int position (int source, int destination)
+	{
+		int left  = outOffsets.get(source);
+		int right = outOffsets.get(source+1)-1;
+
+		while (left<=right) {
+
+			int middle = (left+right)>>>1;
+			int value  = outTargets.get(middle);
+
+			if (value<destination)
+				left = middle+1;
+			else if (value>destination)
+				right = middle-1;
+			else
+				return middle;
+		}
+
+		return -1;
+	}
+
+	@Override
+	public final Integer get(int source, int destination)
+	{
+		if (position(source,destination)!=-1)
+			return destination;
+		else
+			return null;
+	}
+
+	@Override
+	public final boolean contains(int source, int destination)
+	{
+		return position(source,destination)!=-1;
+	}
+
+
+	// Node degrees
+
+	@Override
+	public final int inDegree(int node)
+	{
+		return inOffsets.get(node+1)-inOffsets.get(node);
+	}
+
+	@Override
+	public final int outDegree(int node)
+	{
+		return outOffsets.get(node+1)-outOffsets.get(node);
+	}
+
+	@Override
+	public final int outLink(int node, int link)
+	{
+		return outTargets.get(outOffsets.get(node)+link);
+	}
+
+	@Override
+	public final int inLink(int node, int link)
+	{
+		return inSources.get(inOffsets.get(node)+link);
+	}
+
+
+	// Link index
+
+	/**
+	 * Index of a given link, O(log d).
+	 * @see noesis.network.LinkIndexer#index(int, int)
+	 */
+	@Override
+	public final int index(int source, int destination)
+	{
+		return position(source,destination);
+	}
+
+	/**
+	 * Source node of a given link, O(log n).
+	 * @see noesis.network.LinkIndexer#source(int)
+	 */
+	@Override
+	public final int source(int link)
+	{
+		if ( (link<0) || (link>=links) )
+			return -1;
+
+		// Last node whose offset is not greater than the link index
+
+		int left  = 0;
+		int right = size-1;
+
+		while (left<right) {
+
+			int middle = (left+right+1)>>>1;
+
+			if (outOffsets.get(middle)<=link)
+				left = middle;
+			else
+				right = middle-1;
+		}
+
+		return left;
+	}
+
+	/**
+	 * Destination node of a given link, O(1).
+	 * @see noesis.network.LinkIndexer#destination(int)
+	 */
+	@Override
+	public final int destination(int link)
+	{
+		if ( (link<0) || (link>=links) )
+			return -1;
+
+		return outTargets.get(link);
+	}
+
+
+	// Attribute columns
+
+	public final int getNodeColumnCount ()
+	{
+		return nodeColumns.length;
+	}
+
+	public final Column getNodeColumn (int index)
+	{
+		return nodeColumns[index];
+	}
+
+	public final Column getNodeColumn (String id)
+	{
+		return find(nodeColumns, id);
+	}
+
+	public final int getLinkColumnCount ()
+	{
+		return linkColumns.length;
+	}
+
+	public final Column getLinkColumn (int index)
+	{
+		return linkColumns[index];
+	}
+
+	public final Column getLinkColumn (String id)
+	{
+		return find(linkColumns, id);
+	}
+
+	private static Column find (Column[] columns, String id)
+	{
+		for (int i=0; i<columns.length; i++)
+			if (columns[i].getID().equals(id))
+				return columns[i];
+
+		return null;
+	}
+
+
+	// Conversion
+
+	/**
+	 * Heap copy of the memory-mapped network, including its attributes, O(n+m).
+	 * @return Attribute network (link indices do not necessarily follow the CSR order)
+	 */
+	public AttributeNetwork toAttributeNetwork ()
+	{
+		AttributeNetwork net = new AttributeNetwork(this);
+
+		net.setID(getID());
+		net.setDirected(isDirected());
+
+		for (int c=0; c<nodeColumns.length; c++) {
+
+			Column    column = nodeColumns[c];
+			Attribute attribute = new Attribute(column.getID(), column.getModel());
+
+			for (int i=0; i<size; i++)
+				attribute.set(i, column.get(i));
+
+			net.addNodeAttribute(attribute);
+		}
+
+		for (int c=0; c<linkColumns.length; c++) {
+
+			Column        column = linkColumns[c];
+			LinkAttribute attribute = new LinkAttribute(net, column.getID(), column.getModel());
+
+			for (int i=0; i<size; i++) {
+
+				int start  = outOffsets.get(i);
+				int degree = outDegree(i);
+
+				for (int j=0; j<degree; j++)
+					attribute.set(net.index(i, outTargets.get(start+j)), column.get(start+j));
+			}
+
+			net.addLinkAttribute(attribute);
+		}
+
+		return net;
+	}
+
+
+	@Override
+	public String toString ()
+	{
+		return "["+super.toString()+"] "+size()+" nodes, "+links()+" links.";
+	}
+
+
+	/**
+	 * Memory-mapped attribute column.
+	 */
+	public static class Column
+	{
+		private String       id;
+		private DataModel    model;
+		private int          type;
+		private int          size;
+
+		private ByteBuffer   data;
+		private IntBuffer    ints;     // INT values or TEXT offsets
+		private DoubleBuffer doubles;  // REAL values
+
+		Column (String id, DataModel model, int type, int size, ByteBuffer data)
+		{
+			this.id = id;
+			this.model = model;
+			this.type = type;
+			this.size = size;
+			this.data = data;
+
+			if (type==BinaryNetworkFormat.INT)
+				this.ints = data.asIntBuffer();
+			else if (type==BinaryNetworkFormat.REAL)
+				this.doubles = data.asDoubleBuffer();
+			else if (type==BinaryNetworkFormat.TEXT)
+				this.ints = data.asIntBuffer();
+		}
+
+		public final String getID ()
+		{
+			return id;
+		}
+
+		public final DataModel getModel ()
+		{
+			return model;
+		}
+
+		public final int size ()
+		{
+			return size;
+		}
+
+		public final boolean isNull (int index)
+		{
+			switch (type) {
+				case BinaryNetworkFormat.INT:
+					return ints.get(index)==BinaryNetworkFormat.NULL_INT;
+				case BinaryNetworkFormat.REAL:
+					return Double.isNaN(doubles.get(index));
+				case BinaryNetworkFormat.BOOLEAN:
+					return data.get(index)<0;
+				default:
+					return data.get(4*(size+1)+index)!=0;
+			}
+		}
+
+		public final int getInt (int index)
+		{
+			if (type==BinaryNetworkFormat.REAL)
+				return (int) doubles.get(index);
+			else
+				return ints.get(index);
+		}
+
+		public final double getDouble (int index)
+		{
+			if (type==BinaryNetworkFormat.REAL)
+				return doubles.get(index);
+			else if (isNull(index))
+				return Double.NaN;
+			else
+				return ints.get(index);
+		}
+
+		public final boolean getBoolean (int index)
+		{
+			return data.get(index)>0;
+		}
+
+		public final String getText (int index)
+		{
+			if (type!=BinaryNetworkFormat.TEXT)
+				return isNull(index)? null: model.toString(get(index));
+
+			if (isNull(index))
+				return null;
+
+			int    start = ints.get(index);
+			int    end = ints.get(index+1);
+			int    base = 5*size+4;
+			byte[] bytes = new byte[end-start];
+
+			for (int i=0; i<bytes.length; i++)
+				bytes[i] = data.get(base+start+i);
+
+			return new String(bytes, BinaryNetworkFormat.UTF8);
+		}
+
+		/**
+		 * Column value, as stored in NOESIS attributes.
+		 */
+		public final Object get (int index)
+		{
+			if (isNull(index))
+				return null;
+
+			switch (type) {
+				case BinaryNetworkFormat.INT:
+					return ints.get(index);
+				case BinaryNetworkFormat.REAL:
+					if (model instanceof DecimalModel)
+						return model.fromString(BigDecimal.valueOf(doubles.get(index)).toPlainString());
+					else if (model instanceof RealModel)
+						return doubles.get(index);
+					else
+						return model.fromString(Double.toString(doubles.get(index)));
+				case BinaryNetworkFormat.BOOLEAN:
+					return data.get(index)>0;
+				default:
+					if (model instanceof TextModel)
+						return getText(index);
+					else
+						return model.fromString(getText(index));
+			}
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package noesis.io;
+
+// Title:       Network file information
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ikor.model.data.DataModel;
+import ikor.model.data.TextModel;
+
+import noesis.Attribute;
+import noesis.AttributeNetwork;
+import noesis.Network;
+
+/**
+ * Network file information, as obtained by NetworkReader.inspect():
+ * network ID, number of nodes and links, and attribute schema.
+ *
+ * Link counts refer to link entries in the network file, i.e. edges of undirected
+ * networks are counted once. Unknown counts are reported as -1.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class NetworkInfo
+{
+	private static final DataModel DEFAULT_MODEL = new TextModel();
+
+	private String  format;
+	private String  id;
+	private int     size = -1;
+	private long    links = -1;
+	private boolean directed = true;
+
+	private List<String>    nodeAttributes = new ArrayList<String>();
+	private List<DataModel> nodeModels = new ArrayList<DataModel>();
+	private List<String>    linkAttributes = new ArrayList<String>();
+	private List<DataModel> linkModels = new ArrayList<DataModel>();
+
+	public NetworkInfo (String format)
+	{
+		this.format = format;
+	}
+
+	/**
+	 * Information about an already loaded network.
+	 * @param format Format name
+	 * @param net Network
+	 */
+	public NetworkInfo (String format, Network net)
+	{
+		this(format);
+
+		this.id = net.getID();
+		this.size = net.size();
+		this.links = net.links();
+		this.directed = net.isDirected();
+
+		if (net instanceof AttributeNetwork) {
+
+			AttributeNetwork attrnet = (AttributeNetwork) net;
+
+			for (int i=0; i<attrnet.getNodeAttributeCount(); i++) {
+				Attribute attribute = attrnet.getNodeAttribute(i);
+				addNodeAttribute(attribute.getID(), attribute.getModel());
+			}
+
+			for (int i=0; i<attrnet.getLinkAttributeCount(); i++) {
+				Attribute attribute = attrnet.getLinkAttribute(i);
+				addLinkAttribute(attribute.getID(), attribute.getModel());
+			}
+		}
+	}
+
+
+	// Network
+
+	/**
+	 * File format, e.g. "Pajek" or "GraphML".
+	 */
+	public final String getFormat ()
+	{
+		return format;
+	}
+
+	public final String getID ()
+	{
+		return id;
+	}
+
+	public final void setID (String id)
+	{
+		this.id = id;
+	}
+
+	/**
+	 * Number of nodes (-1 if unknown).
+	 */
+	public final int size ()
+	{
+		return size;
+	}
+
+	public final void setSize (int size)
+	{
+		this.size = size;
+	}
+
+	/**
+	 * Number of link entries (-1 if unknown).
+	 */
+	public final long links ()
+	{
+		return links;
+	}
+
+	public final void setLinks (long links)
+	{
+		this.links = links;
+	}
+
+	public final boolean isDirected ()
+	{
+		return directed;
+	}
+
+	public final void setDirected (boolean directed)
+	{
+		this.directed = directed;
+	}
+
+
+	// Node attributes
+
+	public final int getNodeAttributeCount ()
+	{
+		return nodeAttributes.size();
+	}
+
+	public final String getNodeAttribute (int index)
+	{
+		return nodeAttributes.get(index);
+	}
+
+	public final DataModel getNodeAttributeModel (int index)
+	{
+		return nodeModels.get(index);
+	}
+
+	/**
+	 * Declare a node attribute (attributes already declared are ignored).
+	 * @param id Attribute ID
+	 * @param model Attribute data model (text if null)
+	 */
+	public final void addNodeAttribute (String id, DataModel model)
+	{
+		if (!nodeAttributes.contains(id)) {
+			nodeAttributes.add(id);
+			nodeModels.add( (model!=null)? model: DEFAULT_MODEL );
+		}
+	}
+
+
+	// Link attributes
+
+	public final int getLinkAttributeCount ()
+	{
+		return linkAttributes.size();
+	}
+
+	public final String getLinkAttribute (int index)
+	{
+		return linkAttributes.get(index);
+	}
+
+	public final DataModel getLinkAttributeModel (int index)
+	{
+		return linkModels.get(index);
+	}
+
+	/**
+	 * Declare a link attribute (attributes already declared are ignored).
+	 * @param id Attribute ID
+	 * @param model Attribute data model (text if null)
+	 */
+	public final void addLinkAttribute (String id, DataModel model)
+	{
+		if (!linkAttributes.contains(id)) {
+			linkAttributes.add(id);
+			linkModels.add( (model!=null)? model: DEFAULT_MODEL );
+		}
+	}
+
+
+	@Override
+	public String toString ()
+	{
+		StringBuilder builder = new StringBuilder(format);
+
+		if (id!=null)
+			builder.append(" \""+id+"\"");
+
+		builder.append( directed? " directed network: ": " undirected network: ");
+		builder.append( (size>=0)? size+" nodes, ": "? nodes, " );
+		builder.append( (links>=0)? links+" links": "? links" );
+
+		if (!nodeAttributes.isEmpty())
+			builder.append("; node attributes: "+schema(nodeAttributes,nodeModels));
+
+		if (!linkAttributes.isEmpty())
+			builder.append("; link attributes: "+schema(linkAttributes,linkModels));
+
+		return builder.toString();
+	}
+
+	private String schema (List<String> ids, List<DataModel> models)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (int i=0; i<ids.size(); i++) {
+
+			if (i>0)
+				builder.append(", ");
+
+			builder.append(ids.get(i));
+			builder.append(" (");
+			builder.append(models.get(i).getClass().getSimpleName().replace("Model",""));
+			builder.append(')');
+		}
+
+		return builder.toString();
+	}
+}
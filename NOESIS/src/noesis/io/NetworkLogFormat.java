@@ -0,0 +1,134 @@
+package noesis.io;
+
+// Title:       NOESIS network log format
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.zip.CRC32;
+
+/**
+ * NOESIS network log format: append-only log of network changes.
+ *
+ * Little-endian file layout:
+ * - Header (8 bytes): magic, version.
+ * - Frames, each one written by a single flush: payload length, CRC-32 of the payload, payload.
+ * - Frame payloads are sequences of records (record type byte followed by its arguments):
+ *   - ADD_NODE: node ID (length-prefixed UTF-8 string, length -1 if null).
+ *   - ADD_LINK: source node index, destination node index.
+ *   - REMOVE_LINK: source node index, destination node index.
+ *
+ * Nodes are numbered in order of appearance. A log ends at its last complete frame:
+ * incomplete or corrupt frames (e.g. interrupted writes) are ignored by readers
+ * and discarded by writers before appending new frames.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+class NetworkLogFormat
+{
+	public static final int MAGIC = 0x474F4C4E; // "NLOG"
+	public static final int VERSION = 1;
+
+	public static final int HEADER = 8;
+	public static final int FRAME_HEADER = 8;
+
+	public static final byte ADD_NODE = 1;
+	public static final byte ADD_LINK = 2;
+	public static final byte REMOVE_LINK = 3;
+
+	public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+	public static final Charset UTF8 = Charset.forName("UTF-8");
+
+
+	/**
+	 * Check the log header.
+	 * @param channel Log file
+	 * @throws IOException if the file is not a network log
+	 */
+	public static void checkHeader (FileChannel channel)
+		throws IOException
+	{
+		ByteBuffer header = ByteBuffer.allocate(HEADER).order(ORDER);
+
+		if ( (channel.size()<HEADER) || (read(channel, 0, header)<HEADER) || (header.getInt(0)!=MAGIC) )
+			throw new IOException("Not a NOESIS network log");
+
+		if (header.getInt(4)!=VERSION)
+			throw new IOException("Unsupported NOESIS network log version: "+header.getInt(4));
+	}
+
+	/**
+	 * Read a frame.
+	 * @param channel Log file
+	 * @param offset Frame offset
+	 * @param buffer Frame buffer (reallocated when needed)
+	 * @return Frame payload, positioned at its first record (null if there is no valid frame at the given offset)
+	 */
+	public static ByteBuffer readFrame (FileChannel channel, long offset, ByteBuffer buffer)
+		throws IOException
+	{
+		ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER).order(ORDER);
+
+		if (read(channel, offset, header)<FRAME_HEADER)
+			return null;
+
+		int  length = header.getInt(0);
+		int  checksum = header.getInt(4);
+
+		if ( (length<0) || (offset+FRAME_HEADER+length>channel.size()) )
+			return null;
+
+		if ( (buffer==null) || (buffer.capacity()<length) )
+			buffer = ByteBuffer.allocate(length).order(ORDER);
+
+		buffer.clear();
+		buffer.limit(length);
+
+		if ( (read(channel, offset+FRAME_HEADER, buffer)<length) || (checksum(buffer.array(), 0, length)!=checksum) )
+			return null;
+
+		buffer.rewind();
+
+		return buffer;
+	}
+
+	/**
+	 * Frame checksum.
+	 */
+	public static int checksum (byte[] data, int offset, int length)
+	{
+		CRC32 crc = new CRC32();
+
+		crc.update(data, offset, length);
+
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Read from a given file position until the buffer is full (or the end of file is reached).
+	 * @return Number of bytes read
+	 */
+	private static int read (FileChannel channel, long position, ByteBuffer buffer)
+		throws IOException
+	{
+		int total = 0;
+
+		while (buffer.hasRemaining()) {
+
+			int count = channel.read(buffer, position+total);
+
+			if (count<0)
+				break;
+
+			total += count;
+		}
+
+		return total;
+	}
+}
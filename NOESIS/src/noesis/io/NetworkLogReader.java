@@ -0,0 +1,251 @@
+package noesis.io;
+
+// Title:       NOESIS network log reader
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import noesis.Network;
+
+/**
+ * NOESIS network log reader: replays network logs.
+ *
+ * read() replays the whole log onto a new network (a DynamicNetwork by default,
+ * see setType), whereas update() applies just the log tail, i.e. the frames
+ * appended since the current log offset, to an existing network:
+ *
+ * <pre>
+ * NetworkLogReader reader = new NetworkLogReader(log);
+ * Network net = reader.read();
+ * ...
+ * reader.update(net);   // Changes appended to the log since the previous read/update
+ * </pre>
+ *
+ * Offsets can be saved (getOffset) and restored (setOffset) so that long-running
+ * processes can resume from where they left off.
+ * Link records are idempotent: existing links are not added twice and
+ * nonexistent links are not removed.
+ *
+ * @see NetworkLogFormat
+ * @see NetworkLogWriter
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class NetworkLogReader extends NetworkReader<String,Object>
+{
+	private RandomAccessFile file;
+	private FileChannel      channel;
+	private ByteBuffer       buffer;
+	private long             offset;
+
+	public NetworkLogReader (File log)
+		throws IOException
+	{
+		this.file = new RandomAccessFile(log, "r");
+		this.channel = file.getChannel();
+
+		try {
+			NetworkLogFormat.checkHeader(channel);
+		} catch (IOException error) {
+			file.close();
+			throw error;
+		}
+
+		this.offset = NetworkLogFormat.HEADER;
+
+		setType(noesis.DynamicNetwork.class);
+	}
+
+	public NetworkLogReader (String filename)
+		throws IOException
+	{
+		this(new File(filename));
+	}
+
+
+	// Log offset
+
+	/**
+	 * Log offset, i.e. position of the first frame not read yet.
+	 * @return Log offset
+	 */
+	public final long getOffset ()
+	{
+		return offset;
+	}
+
+	/**
+	 * Set log offset.
+	 * @param offset Log offset, as returned by getOffset() or NetworkLogWriter.position()
+	 */
+	public final void setOffset (long offset)
+	{
+		this.offset = Math.max(offset, NetworkLogFormat.HEADER);
+	}
+
+
+	// Replay
+
+	/**
+	 * Replay the whole log onto a new network.
+	 */
+	@Override
+	public Network<String,Object> read ()
+		throws IOException
+	{
+		Network<String,Object> net = createNetwork();
+
+		offset = NetworkLogFormat.HEADER;
+
+		update(net);
+
+		return net;
+	}
+
+	/**
+	 * Apply the log tail to a network, i.e. the complete frames after the current log offset,
+	 * O(r) for r records (plus link lookups). Frames are applied atomically: every record
+	 * in a frame is checked before any of them is applied to the network.
+	 *
+	 * @param net Network, as obtained by replaying the log up to the current offset
+	 * @return Number of records applied
+	 * @throws IOException if the log contains invalid records, e.g. references to nonexistent nodes
+	 *         (the offending frame is not applied and the offset is left at its beginning)
+	 * @throws UnsupportedOperationException if the network does not support link removal
+	 */
+	public int update (Network<String,?> net)
+		throws IOException
+	{
+		int records = 0;
+
+		while (true) {
+
+			ByteBuffer frame = NetworkLogFormat.readFrame(channel, offset, buffer);
+
+			if (frame==null)
+				break;
+
+			buffer = frame;
+
+			check(net, frame);
+
+			records += apply(net, frame);
+			offset += NetworkLogFormat.FRAME_HEADER + frame.limit();
+		}
+
+		return records;
+	}
+
+	/**
+	 * Check all the records in a frame, without applying them, O(r).
+	 * @param net Network, before applying the frame
+	 * @param frame Frame records (its position is restored)
+	 * @throws IOException if any record is invalid
+	 */
+	private void check (Network<String,?> net, ByteBuffer frame)
+		throws IOException
+	{
+		int start = frame.position();
+		int size = net.size();   // Network size, including the nodes added by the frame
+
+		try {
+
+			while (frame.hasRemaining()) {
+
+				byte type = frame.get();
+
+				if (type==NetworkLogFormat.ADD_NODE) {
+
+					int length = frame.getInt();
+
+					if (length>frame.remaining())
+						throw new IOException("Truncated record in network log frame at offset "+offset);
+
+					if (length>0)
+						frame.position(frame.position()+length);
+
+					size++;
+
+				} else if ( (type==NetworkLogFormat.ADD_LINK) || (type==NetworkLogFormat.REMOVE_LINK) ) {
+
+					int source = frame.getInt();
+					int destination = frame.getInt();
+
+					if ( (source<0) || (source>=size) || (destination<0) || (destination>=size) )
+						throw new IOException("Invalid node index in network log frame at offset "+offset);
+
+				} else {
+
+					throw new IOException("Invalid record type in network log frame at offset "+offset);
+				}
+			}
+
+		} catch (java.nio.BufferUnderflowException error) {
+
+			throw new IOException("Truncated record in network log frame at offset "+offset, error);
+
+		} finally {
+
+			frame.position(start);
+		}
+	}
+
+	/**
+	 * Apply the records in a (checked) frame.
+	 */
+	private int apply (Network<String,?> net, ByteBuffer frame)
+	{
+		int records = 0;
+
+		while (frame.hasRemaining()) {
+
+			byte type = frame.get();
+
+			if (type==NetworkLogFormat.ADD_NODE) {
+
+				int    length = frame.getInt();
+				String id = null;
+
+				if (length>=0) {
+					id = new String(frame.array(), frame.position(), length, NetworkLogFormat.UTF8);
+					frame.position(frame.position()+length);
+				}
+
+				net.add(id);
+
+			} else {
+
+				int source = frame.getInt();
+				int destination = frame.getInt();
+
+				if (type==NetworkLogFormat.ADD_LINK) {
+					if (!net.contains(source,destination))
+						net.add(source,destination);
+				} else {
+					if (net.contains(source,destination))
+						net.remove(source,destination);
+				}
+			}
+
+			records++;
+		}
+
+		return records;
+	}
+
+
+	@Override
+	public void close ()
+		throws IOException
+	{
+		file.close();
+	}
+}
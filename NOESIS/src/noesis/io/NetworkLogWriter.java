@@ -0,0 +1,333 @@
+package noesis.io;
+
+// Title:       NOESIS network log writer
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import noesis.Network;
+
+/**
+ * NOESIS network log writer: appends network changes to a network log.
+ *
+ * Changes are buffered and appended to the log as a single frame when the buffer
+ * is full or when the writer is flushed, so that readers see either all the changes
+ * in a frame or none of them.
+ *
+ * @see NetworkLogFormat
+ * @see NetworkLogReader
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class NetworkLogWriter implements NetworkWriter
+{
+	public static final int BUFFER_SIZE = 1<<16;
+
+	private RandomAccessFile file;
+	private FileChannel      channel;
+	private ByteBuffer       buffer;
+	private long             end;
+	private boolean          sync = false;
+
+	/**
+	 * Open a network log for appending changes (the log is created if it does not exist).
+	 * Incomplete frames at the end of an existing log are discarded.
+	 * @param log Log file
+	 */
+	public NetworkLogWriter (File log)
+		throws IOException
+	{
+		this(log, true);
+	}
+
+	/**
+	 * Open a network log.
+	 * @param log Log file
+	 * @param append true to append changes to an existing log, false to start a new log
+	 */
+	public NetworkLogWriter (File log, boolean append)
+		throws IOException
+	{
+		this.file = new RandomAccessFile(log, "rw");
+		this.channel = file.getChannel();
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(NetworkLogFormat.ORDER);
+
+		if (!append)
+			channel.truncate(0);
+
+		if (channel.size()==0) {
+
+			ByteBuffer header = ByteBuffer.allocate(NetworkLogFormat.HEADER).order(NetworkLogFormat.ORDER);
+
+			header.putInt(NetworkLogFormat.MAGIC);
+			header.putInt(NetworkLogFormat.VERSION);
+			header.flip();
+
+			write(header, 0);
+
+			end = NetworkLogFormat.HEADER;
+
+		} else {
+
+			NetworkLogFormat.checkHeader(channel);
+
+			end = recover();
+			channel.truncate(end);
+		}
+
+		buffer.position(NetworkLogFormat.FRAME_HEADER);
+	}
+
+	public NetworkLogWriter (String filename)
+		throws IOException
+	{
+		this(new File(filename), true);
+	}
+
+	public NetworkLogWriter (String filename, boolean append)
+		throws IOException
+	{
+		this(new File(filename), append);
+	}
+
+	/**
+	 * End of the last complete frame, O(frames): frame lengths are followed
+	 * and only the checksum of the last frame is verified.
+	 */
+	private long recover ()
+		throws IOException
+	{
+		ByteBuffer header = ByteBuffer.allocate(NetworkLogFormat.FRAME_HEADER).order(NetworkLogFormat.ORDER);
+		long       size = channel.size();
+		long       offset = NetworkLogFormat.HEADER;
+		long       last = -1;
+
+		while (offset+NetworkLogFormat.FRAME_HEADER<=size) {
+
+			header.clear();
+			channel.read(header, offset);
+
+			int length = header.getInt(0);
+
+			if ( (length<0) || (offset+NetworkLogFormat.FRAME_HEADER+length>size) )
+				break;
+
+			last = offset;
+			offset += NetworkLogFormat.FRAME_HEADER+length;
+		}
+
+		if ( (last!=-1) && (NetworkLogFormat.readFrame(channel, last, null)==null) )
+			offset = last;
+
+		return offset;
+	}
+
+
+	// Configuration
+
+	/**
+	 * Synchronous mode: when enabled, frames are forced to the storage device
+	 * before flush() returns.
+	 */
+	public final boolean isSync ()
+	{
+		return sync;
+	}
+
+	public final void setSync (boolean sync)
+	{
+		this.sync = sync;
+	}
+
+	/**
+	 * Log length, i.e. offset of the end of the last frame written to the log.
+	 * @return Log offset (as used by NetworkLogReader.setOffset)
+	 */
+	public final long position ()
+	{
+		return end;
+	}
+
+
+	// Records
+
+	/**
+	 * Append a node to the log (nodes are numbered in order of appearance).
+	 * @param id Node ID
+	 */
+	public void addNode (String id)
+		throws IOException
+	{
+		byte[] data = (id!=null)? id.getBytes(NetworkLogFormat.UTF8): null;
+
+		reserve( 5 + ((data!=null)? data.length: 0) );
+
+		buffer.put(NetworkLogFormat.ADD_NODE);
+
+		if (data!=null) {
+			buffer.putInt(data.length);
+			buffer.put(data);
+		} else {
+			buffer.putInt(-1);
+		}
+	}
+
+	/**
+	 * Append a new link to the log.
+	 * @param source Source node index
+	 * @param destination Destination node index
+	 */
+	public void addLink (int source, int destination)
+		throws IOException
+	{
+		link(NetworkLogFormat.ADD_LINK, source, destination);
+	}
+
+	/**
+	 * Append a link removal to the log.
+	 * @param source Source node index
+	 * @param destination Destination node index
+	 */
+	public void removeLink (int source, int destination)
+		throws IOException
+	{
+		link(NetworkLogFormat.REMOVE_LINK, source, destination);
+	}
+
+	private void link (byte type, int source, int destination)
+		throws IOException
+	{
+		reserve(9);
+
+		buffer.put(type);
+		buffer.putInt(source);
+		buffer.putInt(destination);
+	}
+
+	private void reserve (int bytes)
+		throws IOException
+	{
+		if (buffer.remaining()<bytes) {
+
+			flush();
+
+			if (buffer.remaining()<bytes) {
+				buffer = ByteBuffer.allocate(NetworkLogFormat.FRAME_HEADER+bytes).order(NetworkLogFormat.ORDER);
+				buffer.position(NetworkLogFormat.FRAME_HEADER);
+			}
+		}
+	}
+
+
+	// Frames
+
+	/**
+	 * Append buffered changes to the log, as a single frame.
+	 */
+	public void flush ()
+		throws IOException
+	{
+		int length = buffer.position()-NetworkLogFormat.FRAME_HEADER;
+
+		if (length>0) {
+
+			buffer.putInt(0, length);
+			buffer.putInt(4, NetworkLogFormat.checksum(buffer.array(), NetworkLogFormat.FRAME_HEADER, length));
+			buffer.flip();
+
+			write(buffer, end);
+
+			end += NetworkLogFormat.FRAME_HEADER+length;
+
+			if (sync)
+				channel.force(false);
+		}
+
+		buffer.clear();
+		buffer.position(NetworkLogFormat.FRAME_HEADER);
+	}
+
+	private void write (ByteBuffer data, long position)
+		throws IOException
+	{
+		while (data.hasRemaining())
+			position += channel.write(data, position);
+	}
+
+
+	// Network writer
+
+	/**
+	 * Append a whole network to the log, i.e. its nodes (IDs given by node values) and links.
+	 * Link records use the node indices of the given network, hence this method
+	 * is meant for empty logs (e.g. network snapshots).
+	 * @param net Network
+	 */
+	@Override
+	public void write (Network net)
+		throws IOException
+	{
+		for (int i=0; i<net.size(); i++) {
+			Object value = net.get(i);
+			addNode( (value!=null)? value.toString(): null );
+		}
+
+		for (int i=0; i<net.size(); i++) {
+			int degree = net.outDegree(i);
+
+			for (int j=0; j<degree; j++)
+				addLink(i, net.outLink(i,j));
+		}
+
+		flush();
+	}
+
+	@Override
+	public void close ()
+		throws IOException
+	{
+		flush();
+		file.close();
+	}
+
+
+	// Compaction
+
+	/**
+	 * Compact a network log, which is replaced by a log containing just the current network
+	 * (i.e. its nodes and links, without link removals).
+	 *
+	 * NOTE: The log must not be written during compaction and offsets into the old log
+	 * are no longer valid once the log has been compacted.
+	 *
+	 * @param log Log file
+	 */
+	public static void compact (File log)
+		throws IOException
+	{
+		NetworkLogReader reader = new NetworkLogReader(log);
+		Network          net = reader.read();
+
+		reader.close();
+
+		File temp = new File(log.getPath()+".tmp");
+
+		NetworkLogWriter writer = new NetworkLogWriter(temp, false);
+
+		writer.setSync(true);
+		writer.write(net);
+		writer.close();
+
+		Files.move(temp.toPath(), log.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
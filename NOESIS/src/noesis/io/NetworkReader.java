@@ -3,6 +3,7 @@ package noesis.io;
 import java.io.IOException;
 
 import noesis.Network;
+import noesis.network.LinkWeights;
 
 public abstract class NetworkReader<V,E> 
 {
@@ -37,6 +38,98 @@ public abstract class NetworkReader<V,E>
 		return net;
 	}
 	
+	// Parallel parsing
+
+	private boolean parallel = false;
+
+	/**
+	 * Parallel parsing: when enabled, readers that support it read their input
+	 * block by block (see BlockInput) and parse the links in each block in parallel (see EdgeListParser).
+	 */
+	public final boolean isParallel ()
+	{
+		return parallel;
+	}
+
+	public final void setParallel (boolean parallel)
+	{
+		this.parallel = parallel;
+	}
+
+	// Weighted networks
+
+	private boolean     weighted = false;
+	private LinkWeights weights = null;
+
+	/**
+	 * Weighted mode: when enabled, readers that support it parse link weights as doubles
+	 * into a primitive link weight column (see getLinkWeights), instead of creating
+	 * Decimal link values.
+	 */
+	public final boolean isWeighted ()
+	{
+		return weighted;
+	}
+
+	public final void setWeighted (boolean weighted)
+	{
+		this.weighted = weighted;
+	}
+
+	/**
+	 * Link weights of the last network read in weighted mode.
+	 * @return Link weights, aligned with link indices (null if not available)
+	 */
+	public final LinkWeights getLinkWeights ()
+	{
+		return weights;
+	}
+
+	/**
+	 * Create the link weight column for a network.
+	 * @param net Network
+	 * @param sources Source node indices
+	 * @param destinations Destination node indices
+	 * @param values Link weights
+	 * @param count Number of weighted links
+	 */
+	protected final void setLinkWeights (Network net, int[] sources, int[] destinations, double[] values, int count)
+	{
+		weights = new LinkWeights(net);
+		weights.set(sources, destinations, values, count);
+	}
+
+	// Inspection
+
+	/**
+	 * Network file information (ID, size, number of links and attribute schema),
+	 * obtained from file headers or from a single streaming pass over the input,
+	 * without building the network. Readers that do not support inspection
+	 * load the whole network.
+	 * 
+	 * NOTE: inspect() consumes the reader input, i.e. a new reader is needed to read the network.
+	 * 
+	 * @return Network file information
+	 */
+	public NetworkInfo inspect ()
+		throws IOException
+	{
+		return new NetworkInfo(getFormat(), read());
+	}
+
+	/**
+	 * Network file format name, e.g. "Pajek" for PajekNetworkReader.
+	 */
+	public String getFormat ()
+	{
+		String name = getClass().getSimpleName();
+
+		if (name.endsWith("NetworkReader"))
+			name = name.substring(0, name.length()-"NetworkReader".length());
+
+		return name;
+	}
+
 	// Abstract methods
 	
 	public abstract Network<V, E> read () throws IOException;
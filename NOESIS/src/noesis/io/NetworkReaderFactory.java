@@ -0,0 +1,504 @@
+package noesis.io;
+
+// Title:       Network reader factory
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Network reader factory: registry of network file formats.
+ *
+ * File formats are detected from their contents (magic numbers and headers),
+ * so that file extensions are only used when the contents are not recognized
+ * (e.g. empty files). Gzip-compressed files are decompressed on the fly and
+ * their contents are detected in the same way.
+ *
+ * <pre>
+ * NetworkReader reader = NetworkReaderFactory.createReader("network.dat");
+ * NetworkInfo   info = reader.inspect();
+ * </pre>
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class NetworkReaderFactory
+{
+	public static final int HEADER_SIZE = 1<<12;
+	public static final int GZIP_BUFFER_SIZE = 1<<16;
+
+	private static final Charset LATIN1 = Charset.forName("ISO-8859-1");
+
+
+	// Network file formats
+
+	/**
+	 * Network file format.
+	 */
+	public static abstract class Format
+	{
+		private String   name;
+		private String[] extensions;
+
+		/**
+		 * Network file format.
+		 * @param name Format name
+		 * @param extensions File extensions, used when file contents are not recognized
+		 */
+		public Format (String name, String... extensions)
+		{
+			this.name = name;
+			this.extensions = extensions;
+		}
+
+		public final String getName ()
+		{
+			return name;
+		}
+
+		/**
+		 * Check the file extension.
+		 * @param filename File name
+		 * @return true if the file name ends with one of the format extensions
+		 */
+		public final boolean matches (String filename)
+		{
+			String file = filename.toLowerCase();
+
+			for (int i=0; i<extensions.length; i++)
+				if (file.endsWith(extensions[i]))
+					return true;
+
+			return false;
+		}
+
+		/**
+		 * Format detection.
+		 * @param header First bytes of the file (up to HEADER_SIZE bytes)
+		 * @param text Header, as text
+		 * @return true if the header corresponds to a file in this format
+		 */
+		public abstract boolean detect (byte[] header, String text);
+
+		/**
+		 * Create a network reader for a file.
+		 * @param file Network file
+		 */
+		public NetworkReader createReader (File file)
+			throws IOException
+		{
+			return createReader(new FileInputStream(file));
+		}
+
+		/**
+		 * Create a network reader for an input stream.
+		 * @param stream Input stream
+		 */
+		public abstract NetworkReader createReader (InputStream stream)
+			throws IOException;
+
+		@Override
+		public String toString ()
+		{
+			return name;
+		}
+	}
+
+
+	// Registry
+
+	private static List<Format> formats = new ArrayList<Format>();
+
+	/**
+	 * Register a network file format, which takes precedence over formats already registered.
+	 * @param format Network file format
+	 */
+	public static synchronized void register (Format format)
+	{
+		formats.add(0, format);
+	}
+
+	/**
+	 * Network file format for a given file header.
+	 * @param header File header
+	 * @param length Header length
+	 * @return Network file format (null if not recognized)
+	 */
+	public static synchronized Format detect (byte[] header, int length)
+	{
+		String text = text(header, length);
+
+		if (length<header.length)
+			header = Arrays.copyOf(header, length);
+
+		for (int i=0; i<formats.size(); i++)
+			if (formats.get(i).detect(header, text))
+				return formats.get(i);
+
+		return null;
+	}
+
+	/**
+	 * Network file format for a given file name.
+	 * @param filename File name
+	 * @return Network file format (null if not recognized)
+	 */
+	public static synchronized Format detect (String filename)
+	{
+		for (int i=0; i<formats.size(); i++)
+			if (formats.get(i).matches(filename))
+				return formats.get(i);
+
+		return null;
+	}
+
+	/**
+	 * Network file format for a given file, detected from its contents
+	 * (or from its name when its contents are not recognized).
+	 * @param file Network file
+	 * @return Network file format (null if not recognized)
+	 */
+	public static Format detect (File file)
+		throws IOException
+	{
+		byte[] header = new byte[HEADER_SIZE];
+		int    length = header(new FileInputStream(file), header);
+
+		if (isGZip(header, length))
+			length = header(new GZIPInputStream(new FileInputStream(file)), header);
+
+		Format format = detect(header, length);
+
+		if (format==null)
+			format = detect(file.getName().toLowerCase().replaceAll("\\.gz$", ""));
+
+		return format;
+	}
+
+	/**
+	 * Create a network reader for a given file.
+	 * @param file Network file
+	 * @return Network reader
+	 * @throws IOException if the file format is not recognized
+	 */
+	public static NetworkReader createReader (File file)
+		throws IOException
+	{
+		byte[] header = new byte[HEADER_SIZE];
+		int    length = header(new FileInputStream(file), header);
+
+		if (isGZip(header, length)) {
+
+			Format format = detect(file);
+
+			if (format==null)
+				throw new IOException("Unknown network file format: "+file);
+
+			if (format.getName().equals("SNAP"))
+				return new SNAPGZNetworkReader(new FileInputStream(file));
+			else
+				return format.createReader(new GZIPInputStream(new FileInputStream(file), GZIP_BUFFER_SIZE));
+		}
+
+		Format format = detect(header, length);
+
+		if (format==null)
+			format = detect(file.getName());
+
+		if (format==null)
+			throw new IOException("Unknown network file format: "+file);
+
+		return format.createReader(file);
+	}
+
+	public static NetworkReader createReader (String filename)
+		throws IOException
+	{
+		return createReader(new File(filename));
+	}
+
+
+	// Headers
+
+	private static int header (InputStream stream, byte[] header)
+		throws IOException
+	{
+		int length = 0;
+
+		try {
+
+			int count;
+
+			while ( (length<header.length) && ((count=stream.read(header, length, header.length-length))>0) )
+				length += count;
+
+		} catch (java.io.EOFException error) {
+
+			// Truncated gzip file: partial header
+
+		} finally {
+
+			stream.close();
+		}
+
+		return length;
+	}
+
+	private static boolean isGZip (byte[] header, int length)
+	{
+		return (length>=2) && ((header[0]&0xFF)==0x1F) && ((header[1]&0xFF)==0x8B);
+	}
+
+	private static String text (byte[] header, int length)
+	{
+		int start = 0;
+
+		// UTF-8 byte order mark
+
+		if ( (length>=3) && ((header[0]&0xFF)==0xEF) && ((header[1]&0xFF)==0xBB) && ((header[2]&0xFF)==0xBF) )
+			start = 3;
+
+		return new String(header, start, length-start, LATIN1);
+	}
+
+	private static int magic (byte[] header)
+	{
+		if (header.length<4)
+			return 0;
+
+		return ByteBuffer.wrap(header, 0, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+	}
+
+	/**
+	 * First line of a text header, ignoring empty lines and comments.
+	 * @param text Text header
+	 * @param comment Comment prefix (null if the format does not support comments)
+	 * @param skip Number of lines to skip
+	 * @return Text line (null if not available)
+	 */
+	private static String line (String text, String comment, int skip)
+	{
+		StringTokenizer lines = new StringTokenizer(text, "\r\n");
+
+		while (lines.hasMoreTokens()) {
+
+			String line = lines.nextToken().trim();
+
+			if ( (line.length()>0) && ((comment==null) || !line.startsWith(comment)) ) {
+
+				if (skip==0)
+					return line;
+
+				skip--;
+			}
+		}
+
+		return null;
+	}
+
+	private static boolean isNumeric (String line, int tokens)
+	{
+		StringTokenizer tokenizer = new StringTokenizer(line, " \t,");
+
+		if (tokenizer.countTokens()!=tokens)
+			return false;
+
+		while (tokenizer.hasMoreTokens()) {
+			try {
+				Double.parseDouble(tokenizer.nextToken());
+			} catch (NumberFormatException error) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static final Pattern GML_GRAPH = Pattern.compile("(^|\\s)graph\\s*\\[", Pattern.CASE_INSENSITIVE);
+
+
+	// Built-in formats
+
+	static {
+
+		register( new Format("SNAP", ".txt") {
+
+			@Override
+			public boolean detect (byte[] header, String text)
+			{
+				String line = line(text, null, 0);
+
+				return (line!=null) && (line.startsWith("#") || isNumeric(line,2) || isNumeric(line,3));
+			}
+
+			@Override
+			public NetworkReader createReader (InputStream stream)
+			{
+				return new SNAPNetworkReader(stream);
+			}
+		});
+
+		register( new Format("ASCII", ".dat") {
+
+			// [nodes] [edges] followed by [node] [node] [cost] lines
+
+			@Override
+			public boolean detect (byte[] header, String text)
+			{
+				String first = line(text, null, 0);
+				String second = line(text, null, 1);
+
+				return (first!=null) && (second!=null) && isNumeric(first,2) && isNumeric(second,3);
+			}
+
+			@Override
+			public NetworkReader createReader (InputStream stream)
+			{
+				return new ASCIINetworkReader(new InputStreamReader(stream));
+			}
+		});
+
+		register( new Format("GML", ".gml") {
+
+			@Override
+			public boolean detect (byte[] header, String text)
+			{
+				return !text.trim().startsWith("<") && GML_GRAPH.matcher(text).find();
+			}
+
+			@Override
+			public NetworkReader createReader (InputStream stream)
+			{
+				return new GMLNetworkReader(new InputStreamReader(stream));
+			}
+		});
+
+		register( new Format("GDF", ".gdf") {
+
+			@Override
+			public boolean detect (byte[] header, String text)
+			{
+				String line = line(text, "#", 0);
+
+				return (line!=null) && line.toLowerCase().startsWith("nodedef>");
+			}
+
+			@Override
+			public NetworkReader createReader (InputStream stream)
+			{
+				return new GDFNetworkReader(new InputStreamReader(stream));
+			}
+		});
+
+		register( new Format("Pajek", ".net") {
+
+			@Override
+			public boolean detect (byte[] header, String text)
+			{
+				String line = line(text, "%", 0);
+
+				if (line==null)
+					return false;
+
+				line = line.toLowerCase();
+
+				return line.startsWith("*net") || line.startsWith("*vertices");
+			}
+
+			@Override
+			public NetworkReader createReader (InputStream stream)
+			{
+				return new PajekNetworkReader(new InputStreamReader(stream));
+			}
+		});
+
+		register( new Format("GEXF", ".gexf") {
+
+			@Override
+			public boolean detect (byte[] header, String text)
+			{
+				return text.trim().startsWith("<") && text.contains("<gexf");
+			}
+
+			@Override
+			public NetworkReader createReader (InputStream stream)
+			{
+				return new GEXFNetworkReader(stream);
+			}
+		});
+
+		register( new Format("GraphML", ".graphml") {
+
+			@Override
+			public boolean detect (byte[] header, String text)
+			{
+				return text.trim().startsWith("<") && text.contains("<graphml");
+			}
+
+			@Override
+			public NetworkReader createReader (InputStream stream)
+			{
+				return new GraphMLNetworkReader(stream);
+			}
+		});
+
+		register( new Format("NetworkLog", ".nlog") {
+
+			@Override
+			public boolean detect (byte[] header, String text)
+			{
+				return magic(header)==NetworkLogFormat.MAGIC;
+			}
+
+			@Override
+			public NetworkReader createReader (File file)
+				throws IOException
+			{
+				return new NetworkLogReader(file);
+			}
+
+			@Override
+			public NetworkReader createReader (InputStream stream)
+				throws IOException
+			{
+				throw new IOException("Network logs cannot be read from streams");
+			}
+		});
+
+		register( new Format("Binary", ".noesis") {
+
+			@Override
+			public boolean detect (byte[] header, String text)
+			{
+				return magic(header)==BinaryNetworkFormat.MAGIC;
+			}
+
+			@Override
+			public NetworkReader createReader (File file)
+			{
+				return new BinaryNetworkReader(file);
+			}
+
+			@Override
+			public NetworkReader createReader (InputStream stream)
+				throws IOException
+			{
+				throw new IOException("NOESIS binary networks cannot be read from streams");
+			}
+		});
+	}
+}
@@ -3,6 +3,9 @@ package noesis.io;
 import java.io.*;
 import java.util.StringTokenizer;
 
+import ikor.collection.DynamicList;
+import ikor.collection.primitive.DoubleList;
+import ikor.collection.primitive.IntList;
 import ikor.math.Decimal;
 import noesis.Attribute;
 import noesis.AttributeNetwork;
@@ -14,6 +17,12 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 	private BufferedReader input;
 	private String currentLine;
 	
+	private BlockInput block;   // Block input (parallel mode)
+	
+	private IntList    sources;       // Weighted mode
+	private IntList    destinations;
+	private DoubleList weights;
+	
 	private final int startIndex = 1;
 	private int bimode = 0;
 	
@@ -36,7 +45,7 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 		String line;
 		
 		do {
-			line = input.readLine();
+			line = nextLine();
 			
 			if (line!=null)
 				line = line.trim();
@@ -48,6 +57,126 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 		return line;
 	}
 	
+	/**
+	 * Reads the next raw input line
+	 * @return Next input line, null at the end of the input
+	 * @throws IOException
+	 */
+	private String nextLine ()
+		throws IOException
+	{
+		if (block==null)
+			return input.readLine();
+		else
+			return block.readLine();
+	}
+	
+	/**
+	 * Parse the current link section in parallel, block by block (parallel mode),
+	 * then add its links to the network in a single batch, in file order.
+	 * @param net Network
+	 * @param lists true for adjacency lists, false for pairs
+	 * @param symmetric true for edges (i.e. links in both directions)
+	 * @throws IOException
+	 */
+	private void readSection (AttributeNetwork net, boolean lists, boolean symmetric)
+		throws IOException
+	{
+		IntList              linkSources = new IntList();
+		IntList              linkDestinations = new IntList();
+		DynamicList<Decimal> linkValues = new DynamicList<Decimal>();
+		boolean              values = !lists && (weights==null);
+		boolean              found = false;
+		
+		do {
+			byte[] data = block.data();
+			int    start = block.position();
+			int    limit = block.lines();   // Complete lines in the current block
+			int    end = start;
+			long   lines = 0;
+			
+			// Section end: next line starting with *
+			
+			while (end<limit) {
+				
+				int pos = end;
+				
+				while ( (pos<limit) && ((data[pos]==' ') || (data[pos]=='\t')) )
+					pos++;
+				
+				if ( (pos<limit) && (data[pos]=='*') ) {
+					found = true;
+					break;
+				}
+				
+				end = Math.min(block.endOfLine(end)+1, limit);
+				lines++;
+			}
+			
+			if (end>start) {
+				
+				EdgeListParser parser = new EdgeListParser(data, lists, !lists);
+				
+				parser.setWeighted(weights!=null);
+				parser.parse(start, end, block.line());
+				
+				for (int c=0; c<parser.chunks(); c++) {
+					
+					EdgeListParser.Chunk chunk = parser.chunk(c);
+					
+					for (int i=0; i<chunk.size(); i++) {
+						
+						int source = (int) chunk.source(i) - startIndex;
+						int destination = (int) chunk.destination(i) - startIndex;
+						
+						linkSources.add(source);
+						linkDestinations.add(destination);
+						
+						if (symmetric) {
+							linkSources.add(destination);
+							linkDestinations.add(source);
+						}
+						
+						if (values) {
+							linkValues.add(chunk.value(i));
+						} else if ( (weights!=null) && !lists ) {
+							weight(source, destination, chunk.weight(i));
+							
+							if (symmetric)
+								weight(destination, source, chunk.weight(i));
+						}
+					}
+				}
+			}
+			
+			block.skip(end, lines);
+			
+		} while (!found && block.fill());
+		
+		// Links (batch)
+		
+		net.addLinks(linkSources.toArray(), linkDestinations.toArray());
+		
+		if (values) {
+			
+			LinkAttribute<Decimal> attribute = net.getLinkAttribute("value");
+			int step = symmetric? 2: 1;
+			
+			for (int i=0; i<linkValues.size(); i++) {
+				
+				int source = linkSources.get(step*i);
+				int destination = linkDestinations.get(step*i);
+				
+				attribute.set(source, destination, linkValues.get(i));
+				
+				if (symmetric)
+					attribute.set(destination, source, linkValues.get(i));
+			}
+		}
+		
+		readLine();
+	}
+	
 	/**
 	 * Current input line
 	 * @return Input line
@@ -137,6 +266,11 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 		int    source, destination;
 		StringTokenizer tokenizer;
 		
+		if (block!=null) {
+			readSection(net, true, false);
+			return;
+		}
+		
 		line = readLine();
 		
 		while ((line!=null) && !line.startsWith("*")) {
@@ -168,6 +302,11 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 		int    source, destination;
 		StringTokenizer tokenizer;
 		
+		if (block!=null) {
+			readSection(net, true, true);
+			return;
+		}
+		
 		line = readLine();
 		
 		while ((line!=null) && !line.startsWith("*")) {
@@ -203,6 +342,11 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 		Decimal value;
 		Decimal one = new Decimal(1);
 		
+		if (block!=null) {
+			readSection(net, false, false);
+			return;
+		}
+		
 		line = readLine();
 		
 		while ((line!=null) && !line.startsWith("*")) {
@@ -212,13 +356,21 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 			source = Integer.parseInt(tokenizer.nextToken());
 			destination = Integer.parseInt(tokenizer.nextToken());
 			
-			if (tokenizer.hasMoreTokens())
-				value = new Decimal(tokenizer.nextToken());
-			else
-				value = one;
+			if (weights!=null) {
+				
+				net.add(source-startIndex, destination-startIndex);
+				weight(source-startIndex, destination-startIndex, tokenizer.hasMoreTokens()? Double.parseDouble(tokenizer.nextToken()): 1.0);
+				
+			} else {
 			
-			net.add(source-startIndex, destination-startIndex); 			
-			net.getLinkAttribute("value").set(source-startIndex, destination-startIndex, value);
+				if (tokenizer.hasMoreTokens())
+					value = new Decimal(tokenizer.nextToken());
+				else
+					value = one;
+			
+				net.add(source-startIndex, destination-startIndex); 			
+				net.getLinkAttribute("value").set(source-startIndex, destination-startIndex, value);
+			}
 			
 			line = readLine();
 		}
@@ -239,6 +391,11 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 		Decimal value;
 		Decimal one = new Decimal(1);
 		
+		if (block!=null) {
+			readSection(net, false, true);
+			return;
+		}
+		
 		line = readLine();
 		
 		while ((line!=null) && !line.startsWith("*")) {
@@ -248,16 +405,29 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 			source = Integer.parseInt(tokenizer.nextToken());
 			destination = Integer.parseInt(tokenizer.nextToken());
 			
-			if (tokenizer.hasMoreTokens())
-				value = new Decimal(tokenizer.nextToken());
-			else
-				value = one;
+			if (weights!=null) {
+				
+				double weight = tokenizer.hasMoreTokens()? Double.parseDouble(tokenizer.nextToken()): 1.0;
+				
+				net.add(source-startIndex, destination-startIndex);
+				net.add(destination-startIndex, source-startIndex);
+				
+				weight(source-startIndex, destination-startIndex, weight);
+				weight(destination-startIndex, source-startIndex, weight);
+				
+			} else {
+			
+				if (tokenizer.hasMoreTokens())
+					value = new Decimal(tokenizer.nextToken());
+				else
+					value = one;
 			
-			net.add(source-startIndex, destination-startIndex); // , value);	
-			net.add(destination-startIndex, source-startIndex); // , value);	
+				net.add(source-startIndex, destination-startIndex); // , value);	
+				net.add(destination-startIndex, source-startIndex); // , value);	
 
-			net.getLinkAttribute("value").set(source-startIndex, destination-startIndex, value);
-			net.getLinkAttribute("value").set(destination-startIndex, source-startIndex, value);
+				net.getLinkAttribute("value").set(source-startIndex, destination-startIndex, value);
+				net.getLinkAttribute("value").set(destination-startIndex, source-startIndex, value);
+			}
 			
 			line = readLine();			
 		}			
@@ -286,10 +456,14 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 
 				for (int j=0; j<net.size(); j++) {
 
-					value = new Decimal(tokenizer.nextToken());
+					if (weights!=null) {
+						matrix(net, i, j, tokenizer.nextToken());
+					} else {
+						value = new Decimal(tokenizer.nextToken());
 
-					if (value.intValue()>0)
-						net.add(i,j);
+						if (value.intValue()>0)
+							net.add(i,j);
+					}
 				}
 			}
 		
@@ -302,10 +476,14 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 
 				for (int j=0; j<net.size()-bimode; j++) {
 
-					value = new Decimal(tokenizer.nextToken());
+					if (weights!=null) {
+						matrix(net, i, bimode+j, tokenizer.nextToken());
+					} else {
+						value = new Decimal(tokenizer.nextToken());
 
-					if (value.intValue()>0)
-						net.add(i,bimode+j);
+						if (value.intValue()>0)
+							net.add(i,bimode+j);
+					}
 				}
 			}
 		}
@@ -316,8 +494,39 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 	
 
 	
+	// Weighted mode
+	
+	/**
+	 * Record a link weight (weighted mode)
+	 * @param source Source node index
+	 * @param destination Destination node index
+	 * @param weight Link weight
+	 */
+	private void weight (int source, int destination, double weight)
+	{
+		sources.add(source);
+		destinations.add(destination);
+		weights.add(weight);
+	}
+	
+	/**
+	 * Adjacency matrix entry (weighted mode)
+	 */
+	private void matrix (AttributeNetwork net, int source, int destination, String token)
+	{
+		double weight = Double.parseDouble(token);
+		
+		if (weight>=1) {  // i.e. new Decimal(token).intValue()>0
+			net.add(source,destination);
+			weight(source,destination,weight);
+		}
+	}
+	
+	
 	/**
 	 * Read Pajek file (*vertices, *arcslist/*edgeslist, *arcs/*edges, *matrix). 
+	 * In weighted mode, link values are stored in a link weight column (see getLinkWeights) 
+	 * instead of the "value" link attribute.
 	 */
 	@Override
 	public Network read()
@@ -326,6 +535,17 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 		AttributeNetwork net = new AttributeNetwork();
         net.addNodeAttribute( new Attribute("id") );	
         net.addLinkAttribute( new LinkAttribute<Decimal>(net, "value"));
+        
+		if (isParallel())
+			block = new BlockInput(input);
+		
+		if (isWeighted()) {
+			sources = new IntList();
+			destinations = new IntList();
+			weights = new DoubleList();
+		} else {
+			weights = null;
+		}
 		
 		readLine();
 		
@@ -357,9 +577,79 @@ public class PajekNetworkReader extends AttributeNetworkReader // NetworkReader<
 			//  .paj == Pajek project files
 		}
 		
+		block = null;
+		
+		if (weights!=null) {
+			setLinkWeights(net, sources.toArray(), destinations.toArray(), weights.toArray(), weights.size());
+			sources = null;
+			destinations = null;
+			weights = null;
+		}
+		
 		return net;
 	}
 
+	/**
+	 * Pajek file inspection: a single pass over the input, counting link entries
+	 * (pairs in *arcs & *edges sections, adjacent nodes in *arcslist & *edgeslist
+	 * sections, and nonzero entries in *matrix sections).
+	 */
+	@Override
+	public NetworkInfo inspect ()
+		throws IOException
+	{
+		NetworkInfo info = new NetworkInfo(getFormat());
+		String      section = "";
+		long        links = 0;
+		
+		info.addNodeAttribute("id", null);
+		info.addLinkAttribute("value", null);
+		
+		String line = readLine();
+		
+		while (line!=null) {
+			
+			if (line.startsWith("*")) {
+				
+				section = line.toLowerCase();
+				
+				if (section.startsWith("*net") && (line.indexOf(' ')!=-1)) {
+					
+					info.setID( line.substring(line.indexOf(' ')).trim() );
+					
+				} else if (section.startsWith("*vertices")) {
+					
+					StringTokenizer tokenizer = new StringTokenizer(line);
+					
+					tokenizer.nextToken(); // *vertices
+					info.setSize( Integer.parseInt(tokenizer.nextToken()) );
+				}
+				
+			} else if (section.startsWith("*arcslist") || section.startsWith("*edgeslist")) {
+				
+				links += new StringTokenizer(line).countTokens()-1;
+				
+			} else if (section.startsWith("*arcs") || section.startsWith("*edges")) {
+				
+				links++;
+				
+			} else if (section.startsWith("*matrix")) {
+				
+				StringTokenizer tokenizer = new StringTokenizer(line);
+				
+				while (tokenizer.hasMoreTokens())
+					if (new Decimal(tokenizer.nextToken()).intValue()>0)
+						links++;
+			}
+			
+			line = readLine();
+		}
+		
+		info.setLinks(links);
+		
+		return info;
+	}
+
 	@Override
 	public void close() throws IOException 
 	{
@@ -3,8 +3,9 @@ package noesis.io;
 import ikor.math.Decimal;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
-import java.io.BufferedWriter;
+import java.util.Arrays;
 
 import noesis.Attribute;
 import noesis.AttributeNetwork;
@@ -12,120 +13,149 @@ import noesis.LinkAttribute;
 import noesis.Network;
 
 
-public class PajekNetworkWriter extends AttributeNetworkWriter 
+public class PajekNetworkWriter extends TextNetworkWriter
 {
-	
-	private BufferedWriter writer;
-	
 	public PajekNetworkWriter (Writer writer)
 	{
-		this.writer = new BufferedWriter(writer);
-	}	
+		super(writer);
+	}
+
+	public PajekNetworkWriter (OutputStream stream)
+	{
+		super(stream);
+	}
+
+	public PajekNetworkWriter (OutputStream stream, boolean gzip)
+	{
+		super(stream, gzip);
+	}
 
 	@Override
-	public void write(Network net) 
-		throws IOException 
+	public void write(Network net)
+		throws IOException
 	{
 		writeNodes((AttributeNetwork)net);
 		writeLinks((AttributeNetwork)net);
-		writer.flush();
+		getOutput().flush();
 	}
 
-	public void writeNodes(AttributeNetwork net) 
-		throws IOException 
+	public void writeNodes(AttributeNetwork net)
+		throws IOException
 	{
-		Attribute id = net.getNodeAttribute("id");
-		
-		writer.write("*vertices "+net.size());
-		writer.newLine();
-		
-		for (int i=0; i<net.size(); i++) {
-			writer.write(""+(i+1));
-			
-			if ((id.get(i)!=null) &&!id.get(i).equals(""+(i+1))) 
-				writer.write(" \""+id.get(i)+"\"");
-			
-			writer.newLine();
-		}
+		final Attribute id = net.getNodeAttribute("id");
+
+		getOutput().writeLine("*vertices "+net.size());
+
+		getOutput().write(net.size(), new BlockOutput.Formatter() {
+
+			@Override
+			public void format (int i, StringBuilder output)
+			{
+				String label = ""+(i+1);
+				Object value = (id!=null)? id.get(i): null;
+
+				output.append(label);
+
+				if ((value!=null) && !value.equals(label)) {
+					output.append(" \"");
+					output.append(value);
+					output.append('"');
+				}
+
+				output.append(BlockOutput.NEWLINE);
+			}
+		});
 	}
 
-	public void writeLinks(AttributeNetwork net) 
-		throws IOException 
+	/**
+	 * Links: symmetric links with equal values are written as edges, the remaining links as arcs
+	 * (links are written in lexicographic order).
+	 */
+	public void writeLinks(final AttributeNetwork net)
+		throws IOException
 	{
-		Decimal value;
-		Decimal symmetric;
-		
-		writer.write("*arcs");
-		writer.newLine();
-
-		for (int i=0; i<net.size(); i++) {
-			for (int j=0; j<net.size(); j++) {
-		
-				if (net.get(i,j)!=null) {					
-					value = getValue(net,i,j);
-					
-					if (net.get(j,i)==null) { 
-						writeArc(i,j,value);					
-					} else {
-						symmetric = getValue(net,j,i);
-
-						if (!value.equals(symmetric))
-							writeArc(i,j,value);
-					}
+		final LinkAttribute<Decimal> attribute = (LinkAttribute<Decimal>) net.getLinkAttribute("value");
+
+		getOutput().writeLine("*arcs");
+
+		getOutput().write(net.size(), new BlockOutput.Formatter() {
+
+			@Override
+			public void format (int i, StringBuilder output)
+			{
+				int[] links = sortedLinks(net,i);
+
+				for (int k=0; k<links.length; k++) {
+					int     j = links[k];
+					Decimal value = getValue(attribute,i,j);
+
+					if (!net.contains(j,i) || !value.equals(getValue(attribute,j,i)))
+						writeArc(output,i,j,value);
 				}
 			}
-		}
-		
-		writer.write("*edges");
-		writer.newLine();
-		
-		for (int i=0; i<net.size(); i++) {
-			for (int j=i+1; j<net.size(); j++) {
-		
-				if (net.get(i,j)!=null) {					
-					value = getValue(net,i,j);
-					
-					if (net.get(j,i)!=null) {
-						symmetric = getValue(net,j,i);
-
-						if (value.equals(symmetric))
-							writeArc(i,j,value);
+		});
+
+		getOutput().writeLine("*edges");
+
+		getOutput().write(net.size(), new BlockOutput.Formatter() {
+
+			@Override
+			public void format (int i, StringBuilder output)
+			{
+				int[] links = sortedLinks(net,i);
+
+				for (int k=0; k<links.length; k++) {
+					int j = links[k];
+
+					if ( (j>i) && net.contains(j,i) ) {
+						Decimal value = getValue(attribute,i,j);
+
+						if (value.equals(getValue(attribute,j,i)))
+							writeArc(output,i,j,value);
 					}
 				}
 			}
-		}		
+		});
 	}
-	
-	
-	private void writeArc (int i, int j, Decimal value)
-		throws IOException
+
+
+	private int[] sortedLinks (Network net, int node)
 	{
-		writer.write(""+(i+1)+" "+(j+1));
-		
-		if (value!=null)
-			writer.write(" " + value.toString());
-		
-		writer.newLine();		
+		int[] links = net.outLinks(node);
+
+		if (links==null)
+			return new int[0];
+
+		links = Arrays.copyOf(links, net.outDegree(node));
+		Arrays.sort(links);
+
+		return links;
+	}
+
+	private void writeArc (StringBuilder output, int i, int j, Decimal value)
+	{
+		output.append(i+1);
+		output.append(' ');
+		output.append(j+1);
+
+		if (value!=null) {
+			output.append(' ');
+			output.append(value.toString());
+		}
+
+		output.append(BlockOutput.NEWLINE);
 	}
-	
-	
+
+
 	private final static Decimal one = new Decimal(1);
-	
-	private Decimal getValue (AttributeNetwork net, int i, int j)
+
+	private Decimal getValue (LinkAttribute<Decimal> attribute, int i, int j)
 	{
-		LinkAttribute<Decimal> attribute = (LinkAttribute<Decimal>) net.getLinkAttribute("value");
-		Decimal value = attribute.get(i,j);
-		
+		Decimal value = (attribute!=null)? attribute.get(i,j): null;
+
 		if (value!=null)
 			return value;
 		else
 			return one;
 	}
-
-	@Override
-	public void close() throws IOException 
-	{
-		writer.close();
-	}
-	
 }
@@ -1,21 +1,19 @@
 package noesis.io;
 
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.io.IOException;
 
 import java.util.zip.GZIPInputStream;
 
 public class SNAPGZNetworkReader extends SNAPNetworkReader 
 {
+	public static final int GZIP_BUFFER_SIZE = 1<<18;
 
 	public SNAPGZNetworkReader (InputStream input)
 		throws IOException
 	{
-		InputStream gzip = new GZIPInputStream( input );
-		Reader reader = new InputStreamReader(gzip);
-	
-		setReader(reader);		
+		// Raw bytes are parsed directly from a large-buffer GZIP stream
+		
+		setInputStream( new GZIPInputStream(input, GZIP_BUFFER_SIZE) );
 	}
 }
@@ -0,0 +1,18 @@
+package noesis.io;
+
+import java.io.OutputStream;
+
+/**
+ * Gzip-compressed SNAP edge list writer (see SNAPGZNetworkReader).
+ *
+ * In parallel mode, blocks are compressed in parallel as independent gzip members.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class SNAPGZNetworkWriter extends SNAPNetworkWriter
+{
+	public SNAPGZNetworkWriter (OutputStream output)
+	{
+		super(output, true);
+	}
+}
@@ -1,131 +1,589 @@
 package noesis.io;
 
+import ikor.collection.primitive.LongIntMap;
 import ikor.math.Decimal;
 
 import java.io.*;
-import java.util.StringTokenizer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 
 import noesis.Network;
 
+/**
+ * SNAP edge list reader.
+ *
+ * Edge lists are parsed directly from raw bytes: node ids are parsed as integers
+ * without creating intermediate strings, mapped to node indices through a primitive
+ * long-to-int table, and nodes & links are added to a pre-sized network as a single batch.
+ * Comment lines (starting with #) provide the network ID and its size, if available:
+ *
+ * # Directed graph (each unordered pair of nodes is saved once): <file>.txt
+ * # <id>
+ * # Nodes: <n> Edges: <m>
+ * # FromNodeId	ToNodeId
+ *
+ * Additional columns (e.g. weights or timestamps) are ignored.
+ * In weighted mode, the third column (if present) is parsed as the link weight.
+ *
+ * In parallel mode, the edge list is split into chunks that are parsed in parallel.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
 public class SNAPNetworkReader extends NetworkReader<String,Decimal>
 {
-	private BufferedReader input;
+	public static final int BUFFER_SIZE = 1<<20;
+	public static final int INITIAL_CAPACITY = 1<<12;
+	public static final int DIRECT_LIMIT = 1<<28;
+	public static final int HEADER_LIMIT = 1<<24;   // Maximum preallocation from header counts
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private InputStream stream;
+	private Reader      reader;
 
 	public SNAPNetworkReader ()
 	{
-		this.input = null;
+		this.stream = null;
+		this.reader = null;
 	}
-	
+
 	public SNAPNetworkReader (Reader reader)
 	{
 		setReader(reader);
 	}
 
+	public SNAPNetworkReader (InputStream stream)
+	{
+		setInputStream(stream);
+	}
+
 	public void setReader (Reader reader)
 	{
-		this.input = new BufferedReader(reader);
+		this.reader = reader;
+		this.stream = null;
+	}
+
+	public void setInputStream (InputStream stream)
+	{
+		this.stream = stream;
+		this.reader = null;
 	}
-	
+
+
+	// Input
+
+	private char[] chars;
+
 	/**
-	 * Reads the next input line from a SNAP file (ignoring empty lines) 
-	 * @return Next input line
+	 * Reads the next chunk of input bytes.
+	 * @return Number of bytes read, -1 at the end of the input
 	 * @throws IOException
 	 */
-	private String readLine ()
+	private int read (byte[] buffer)
 		throws IOException
 	{
-		String line;
-		
-		do {
-			line = input.readLine();
-		} while ((line!=null) && (line.trim().length()==0));
-		
-		return line;
-	}	
-	
+		if (stream!=null)
+			return stream.read(buffer);
+
+		// Character streams: chunks are encoded as UTF-8 (i.e. one byte per ASCII character)
+
+		if (chars==null)
+			chars = new char[buffer.length/4];
+
+		int length = reader.read(chars);
+
+		if (length<0)
+			return -1;
+
+		byte[] bytes = new String(chars,0,length).getBytes(UTF8);
+
+		System.arraycopy(bytes, 0, buffer, 0, bytes.length);
+
+		return bytes.length;
+	}
+
+
+	// Parser state
+
+	private Network<String,Decimal> net;
+
+	private int[]      direct;  // Direct-address table for small ids: node index + 1 (0 if missing)
+	private LongIntMap ids;     // Hash table for larger ids
+	private long[]     labels;
+	private int        nodes;
+	private int        size;
+
+	private int[]    sources;
+	private int[]    destinations;
+	private double[] weights;       // Weighted mode
+	private int      links;
+
+	private int    comments;
+	private long   line;
+	private String networkID;
+	private int    edges;
+
+	private boolean counting;   // Inspection: links are counted, not stored
+	private boolean done;       // Inspection: header information available
+
 
 	@Override
-	public Network<String,Decimal> read() 
-		throws IOException 
-	{
-		Network<String,Decimal> net = createNetwork();
-		int     nodes;
-		int     source, destination;
-		int     mark;
-		String  line;
-		String  token;
-		String  idSource, idDestination;
-		StringTokenizer tokenizer;
-		
-		// # Directed graph (each unordered pair of nodes is saved once): <file>.txt 
-		
-		readLine();
-		
-		// # <id>
-		
-		net.setID( readLine().substring(2) );
-		
-		// # Nodes: <n> Edges: <m>
-		
-		line = readLine();
-		tokenizer = new StringTokenizer(line);
-		
-		token = tokenizer.nextToken();
-		assert token.equals("#");
-		
-		token = tokenizer.nextToken();
-		assert token.equals("Nodes:");
-		
-		nodes = Integer.parseInt(tokenizer.nextToken());
-		
-		// token = tokenizer.nextToken();
-		// assert token.equals("Edges:");
-		// links = Integer.parseInt(tokenizer.nextToken());
-		
-		net.setSize(nodes);
-		
-		// # FromNodeId	ToNodeId
-		
-		readLine();
-		
-		// Links
-		
-		line = readLine();
-		
-		while (line!=null) {
-			
-			// tokenizer = new StringTokenizer(line);		
-			// idSource = Integer.parseInt(tokenizer.nextToken());
-			// idDestination = Integer.parseInt(tokenizer.nextToken());
-			
-			mark = line.indexOf('\t');
-			idSource = line.substring(0, mark);
-			idDestination = line.substring(mark+1);			
-
-			source = net.index(idSource);
-			
-			if (source==-1)
-				source = net.add(idSource);
-
-			destination = net.index(idDestination);
-			
-			if (destination==-1)
-				destination = net.add(idDestination);
+	public Network<String,Decimal> read()
+		throws IOException
+	{
+		net = createNetwork();
+
+		start();
+
+		if (isParallel())
+			readParallel();
+		else
+			readSequential();
+
+		net.setID(networkID);
+
+		// Nodes, labeled by their ids
 		
-			if (!net.add(source,destination))
-				System.err.println(line);
+		net.setSize(Math.max(size,nodes));
+
+		for (int i=0; i<nodes; i++)
+			net.set(i, Long.toString(labels[i]));
 
-			line = readLine();
+		// Links (batch)
+
+		if (links<sources.length) {
+			sources = Arrays.copyOf(sources, links);
+			destinations = Arrays.copyOf(destinations, links);
 		}
-		
-		
-		return net;
+
+		net.addLinks(sources, destinations);
+
+		if (weights!=null)
+			setLinkWeights(net, sources, destinations, weights, links);
+
+		Network<String,Decimal> result = net;
+
+		net = null;
+		finish();
+
+		return result;
 	}
 
+	/**
+	 * SNAP file inspection: network ID and size are obtained from header comments
+	 * (# Nodes: <n> Edges: <m>) when available, otherwise a single pass over the
+	 * edge list counts links and distinct node ids.
+	 */
 	@Override
-	public void close() throws IOException 
+	public NetworkInfo inspect ()
+		throws IOException
+	{
+		NetworkInfo info = new NetworkInfo(getFormat());
+
+		start();
+
+		counting = true;
+		weights = null;
+
+		readSequential();
+
+		info.setID(networkID);
+
+		if (done) {
+			info.setSize(size);
+			info.setLinks(edges);
+		} else {
+			info.setSize(Math.max(size,nodes));
+			info.setLinks(links);
+		}
+
+		finish();
+
+		return info;
+	}
+
+	/**
+	 * Initialize parser state.
+	 */
+	private void start ()
 	{
-		input.close();
+		direct = new int[INITIAL_CAPACITY];
+		ids = new LongIntMap();
+		labels = new long[INITIAL_CAPACITY];
+		nodes = 0;
+		size = 0;
+		sources = new int[INITIAL_CAPACITY];
+		destinations = new int[INITIAL_CAPACITY];
+		weights = isWeighted()? new double[INITIAL_CAPACITY]: null;
+		links = 0;
+		comments = 0;
+		line = 1;
+		networkID = null;
+		edges = -1;
+		counting = false;
+		done = false;
+	}
+
+	/**
+	 * Release parser state.
+	 */
+	private void finish ()
+	{
+		direct = null;
+		ids = null;
+		labels = null;
+		sources = null;
+		destinations = null;
+		weights = null;
+	}
+
+
+	/**
+	 * Sequential parser: byte stream state machine.
+	 * @throws IOException
+	 */
+	private void readSequential ()
+		throws IOException
+	{
+		byte[] buffer = new byte[BUFFER_SIZE];
+		int    length;
+
+		ByteArrayOutputStream comment = new ByteArrayOutputStream();
+
+		boolean inComment = false;
+		boolean lineStart = true;
+		boolean inToken = false;
+		int     tokens = 0;
+		long    id = 0;
+		long    source = 0;
+
+		byte[]  weight = new byte[64];   // Weight token (weighted mode)
+		int     weightLength = 0;
+
+		while (!done && (length=read(buffer))>=0) {
+
+			for (int i=0; (i<length) && !done; i++) {
+
+				byte c = buffer[i];
+
+				if (c=='\n') {
+
+					// End of line
+
+					if (inComment) {
+						comment(new String(comment.toByteArray(), UTF8));
+						inComment = false;
+					} else {
+						if (inToken) {
+							if (tokens==0)
+								source = id;
+							tokens++;
+						}
+
+						if (tokens>=2)
+							link(source, id, weight(weight, weightLength));
+						else if (tokens==1)
+							throw new IOException("Missing destination node at SNAP line "+line);
+					}
+
+					lineStart = true;
+					inToken = false;
+					tokens = 0;
+					weightLength = 0;
+					line++;
+
+				} else if (inComment) {
+
+					comment.write(c);
+
+				} else if (lineStart && (c=='#')) {
+
+					inComment = true;
+					comment.reset();
+
+				} else if ( (weights!=null) && (tokens==2) && (c!=' ') && (c!='\t') && (c!='\r') && (c!=',') ) {
+
+					// Weight token
+
+					if (weightLength==weight.length)
+						weight = Arrays.copyOf(weight, 2*weightLength);
+
+					weight[weightLength++] = c;
+
+				} else if ((c>='0') && (c<='9')) {
+
+					lineStart = false;
+
+					if (tokens<2) {
+						if (!inToken) {
+							id = 0;
+							inToken = true;
+						}
+						if (id > (Long.MAX_VALUE-(c-'0'))/10)
+							throw new IOException("Node id out of range at SNAP line "+line);
+						id = 10*id + (c-'0');
+					}
+
+				} else if ((c==' ') || (c=='\t') || (c=='\r') || (c==',')) {
+
+					// Token separator
+
+					if (inToken) {
+						if (tokens==0)
+							source = id;
+						tokens++;
+						inToken = false;
+					} else if ( (tokens==2) && (weightLength>0) ) {
+						tokens++;
+					}
+
+				} else if (tokens<2) {
+
+					throw new IOException("Invalid node id at SNAP line "+line);
+				}
+			}
+		}
+
+		// Last line (without end of line)
+
+		if (inComment) {
+			comment(new String(comment.toByteArray(), UTF8));
+		} else {
+			if (inToken) {
+				if (tokens==0)
+					source = id;
+				tokens++;
+			}
+
+			if (tokens>=2)
+				link(source, id, weight(weight, weightLength));
+			else if (tokens==1)
+				throw new IOException("Missing destination node at SNAP line "+line);
+		}
+	}
+
+	/**
+	 * Link weight (weighted mode)
+	 * @param token Weight token
+	 * @param length Token length (0 for unweighted links)
+	 * @return Link weight
+	 * @throws IOException if the weight is not a number
+	 */
+	private double weight (byte[] token, int length)
+		throws IOException
+	{
+		if (length==0)
+			return 1.0;
+
+		double value = EdgeListParser.parseDouble(token, 0, length);
+
+		if (Double.isNaN(value))
+			throw new IOException("Invalid link weight at SNAP line "+line);
+
+		return value;
+	}
+
+
+	/**
+	 * Parallel parser: header comments are processed sequentially, then the edge list
+	 * is read block by block (see BlockInput) and each block is split into chunks
+	 * that are parsed in parallel (see EdgeListParser). 
+	 * Node ids are mapped to node indices in file order, so that the resulting 
+	 * network is identical to the one obtained by the sequential parser.
+	 * @throws IOException
+	 */
+	private void readParallel ()
+		throws IOException
+	{
+		BlockInput block = (stream!=null)? new BlockInput(stream): new BlockInput(reader);
+
+		// Header
+
+		while (block.peek()=='#') {
+			comment( block.readLine().substring(1) );
+			line++;
+		}
+
+		// Edge list, block by block
+
+		do {
+			int end = block.lines();
+
+			EdgeListParser parser = new EdgeListParser(block.data(), false, false);
+
+			parser.setWeighted(weights!=null);
+			parser.parse(block.position(), end, line);
+
+			if (links+parser.size()>sources.length) {
+				int capacity = Math.max(links+parser.size(), 2*sources.length);
+
+				sources = Arrays.copyOf(sources, capacity);
+				destinations = Arrays.copyOf(destinations, capacity);
+
+				if (weights!=null)
+					weights = Arrays.copyOf(weights, capacity);
+			}
+
+			for (int c=0; c<parser.chunks(); c++) {
+
+				EdgeListParser.Chunk chunk = parser.chunk(c);
+
+				for (int i=0; i<chunk.size(); i++)
+					link(chunk.source(i), chunk.destination(i), (weights!=null)? chunk.weight(i): 1.0);
+			}
+
+			block.skip(end, parser.lines());
+			line += parser.lines();
+
+		} while (block.fill());
+	}
+
+
+	/**
+	 * Process a comment line
+	 * @param text Comment (without #)
+	 */
+	private void comment (String text)
+	{
+		String comment = text.trim();
+
+		comments++;
+
+		int mark = comment.indexOf("Nodes:");
+
+		if (mark!=-1) {
+
+			// # Nodes: <n> Edges: <m>
+
+			size = number(comment, mark+6);
+
+			if ( (size>labels.length) && (nodes==0) )
+				labels = new long[Math.min(size, HEADER_LIMIT)];
+
+			mark = comment.indexOf("Edges:");
+
+			if (mark!=-1) {
+				edges = number(comment, mark+6);
+
+				// Headers are not trusted: capped preallocation, keeping links already read
+
+				int capacity = Math.min(edges, HEADER_LIMIT);
+
+				if (capacity>sources.length) {
+					sources = Arrays.copyOf(sources, capacity);
+					destinations = Arrays.copyOf(destinations, capacity);
+
+					if (weights!=null)
+						weights = Arrays.copyOf(weights, capacity);
+				}
+			}
+
+		} else if ( (comments==2) && (nodes==0) ) {
+
+			// # <id>
+
+			networkID = comment;
+		}
+	}
+
+	private int number (String string, int start)
+	{
+		int pos = start;
+
+		while ( (pos<string.length()) && Character.isWhitespace(string.charAt(pos)) )
+			pos++;
+
+		int end = pos;
+
+		while ( (end<string.length()) && Character.isDigit(string.charAt(end)) )
+			end++;
+
+		try {
+			return Integer.parseInt(string.substring(pos,end));
+		} catch (NumberFormatException error) {
+			return -1;
+		}
+	}
+
+
+	/**
+	 * Node index for a given node id (nodes are numbered in order of appearance).
+	 *
+	 * SNAP ids are usually small integers, hence most ids are mapped through a
+	 * direct-address table, whose size is proportional to the number of nodes.
+	 * Larger ids are mapped through a hash table.
+	 *
+	 * @param id Node id
+	 * @return Node index
+	 */
+	private int node (long id)
+	{
+		if ( (id<direct.length) && (direct[(int)id]!=0) )
+			return direct[(int)id]-1;
+
+		int index = (ids.size()>0)? ids.get(id): -1;
+
+		if (index==-1) {
+
+			if (nodes==labels.length)
+				labels = Arrays.copyOf(labels, 2*nodes);
+
+			index = nodes;
+			labels[nodes++] = id;
+
+			if ( (id>=direct.length) && (id<DIRECT_LIMIT) && (id<2L*Math.max(Math.max(size,nodes),INITIAL_CAPACITY)) )
+				direct = Arrays.copyOf(direct, (int) Math.min(DIRECT_LIMIT, Math.max(2L*direct.length, 2*Long.highestOneBit(id))));
+
+			if (id<direct.length)
+				direct[(int)id] = index+1;
+			else
+				ids.set(id, index);
+		}
+
+		return index;
+	}
+
+	private void link (long source, long destination, double weight)
+	{
+		if (counting) {
+
+			if ( (size>0) && (edges>=0) ) {
+				done = true;   // Header
+			} else {
+				node(source);
+				node(destination);
+				links++;
+			}
+
+			return;
+		}
+
+		if (links==sources.length) {
+			sources = Arrays.copyOf(sources, 2*links);
+			destinations = Arrays.copyOf(destinations, 2*links);
+
+			if (weights!=null)
+				weights = Arrays.copyOf(weights, 2*links);
+		}
+
+		sources[links] = node(source);
+		destinations[links] = node(destination);
+
+		if (weights!=null)
+			weights[links] = weight;
+
+		links++;
+	}
+
+
+	@Override
+	public void close() throws IOException
+	{
+		if (stream!=null)
+			stream.close();
+
+		if (reader!=null)
+			reader.close();
 	}
 
 }
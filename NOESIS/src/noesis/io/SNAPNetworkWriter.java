@@ -0,0 +1,146 @@
+package noesis.io;
+
+// Title:       SNAP network writer
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import noesis.Attribute;
+import noesis.AttributeNetwork;
+import noesis.Network;
+
+/**
+ * SNAP edge list writer.
+ *
+ * Nodes are labeled by their integer ids (i.e. their "id" attribute or node values)
+ * when all of them are integers, by their indices otherwise. Undirected networks
+ * are written as in SNAP undirected datasets, i.e. each pair of nodes is saved once:
+ *
+ * # Directed graph: <id>
+ * # <id>
+ * # Nodes: <n> Edges: <m>
+ * # FromNodeId	ToNodeId
+ *
+ * @see SNAPNetworkReader
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class SNAPNetworkWriter extends TextNetworkWriter
+{
+	public SNAPNetworkWriter (Writer writer)
+	{
+		super(writer);
+	}
+
+	public SNAPNetworkWriter (OutputStream stream)
+	{
+		super(stream);
+	}
+
+	public SNAPNetworkWriter (OutputStream stream, boolean gzip)
+	{
+		super(stream, gzip);
+	}
+
+	@Override
+	public void write (final Network net)
+		throws IOException
+	{
+		BlockOutput  output = getOutput();
+		final long[] labels = labels(net);
+		final boolean directed = net.isDirected();
+
+		// Header
+
+		if (directed)
+			output.writeLine("# Directed graph" + ((net.getID()!=null)? ": "+net.getID(): ""));
+		else
+			output.writeLine("# Undirected graph (each unordered pair of nodes is saved once)" + ((net.getID()!=null)? ": "+net.getID(): ""));
+
+		if (net.getID()!=null)
+			output.writeLine("# "+net.getID());
+
+		output.writeLine("# Nodes: "+net.size()+" Edges: "+links(net));
+		output.writeLine("# FromNodeId\tToNodeId");
+
+		// Edge list
+
+		output.write(net.size(), new BlockOutput.Formatter() {
+
+			@Override
+			public void format (int i, StringBuilder text)
+			{
+				int degree = net.outDegree(i);
+
+				for (int j=0; j<degree; j++) {
+					int target = net.outLink(i,j);
+
+					if (directed || (i<=target)) {
+						text.append( (labels!=null)? labels[i]: i );
+						text.append('\t');
+						text.append( (labels!=null)? labels[target]: target );
+						text.append('\n');
+					}
+				}
+			}
+		});
+
+		output.flush();
+	}
+
+	/**
+	 * Number of edges in the edge list.
+	 */
+	private long links (Network net)
+	{
+		if (net.isDirected())
+			return net.links();
+
+		long links = 0;
+
+		for (int i=0; i<net.size(); i++) {
+			int degree = net.outDegree(i);
+
+			for (int j=0; j<degree; j++)
+				if (i<=net.outLink(i,j))
+					links++;
+		}
+
+		return links;
+	}
+
+	/**
+	 * Integer node labels.
+	 * @return Node labels, null if nodes have to be labeled by their indices
+	 */
+	private long[] labels (Network net)
+	{
+		Attribute id = null;
+
+		if (net instanceof AttributeNetwork)
+			id = ((AttributeNetwork)net).getNodeAttribute("id");
+
+		long[] labels = new long[net.size()];
+
+		for (int i=0; i<net.size(); i++) {
+
+			Object value = (id!=null)? id.get(i): net.get(i);
+
+			if (value==null)
+				return null;
+
+			try {
+				labels[i] = Long.parseLong(value.toString());
+			} catch (NumberFormatException error) {
+				return null;
+			}
+		}
+
+		return labels;
+	}
+}
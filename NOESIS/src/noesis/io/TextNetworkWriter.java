@@ -0,0 +1,91 @@
+package noesis.io;
+
+// Title:       Text network writer
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Base class for text network writers, which format their output through a BlockOutput.
+ *
+ * Writers can be created on top of character writers or byte streams (UTF-8, optionally
+ * gzip-compressed). In parallel mode, node and link sections are formatted
+ * (and compressed) in parallel blocks.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public abstract class TextNetworkWriter extends AttributeNetworkWriter
+{
+	private BlockOutput output;
+
+	public TextNetworkWriter (Writer writer)
+	{
+		this.output = new BlockOutput(writer);
+	}
+
+	public TextNetworkWriter (OutputStream stream)
+	{
+		this(stream, false);
+	}
+
+	public TextNetworkWriter (OutputStream stream, boolean gzip)
+	{
+		this.output = new BlockOutput(stream, gzip);
+	}
+
+
+	/**
+	 * Writer output.
+	 */
+	protected final BlockOutput getOutput ()
+	{
+		return output;
+	}
+
+	/**
+	 * Parallel output: when enabled, node and link sections are formatted in parallel blocks.
+	 */
+	public final boolean isParallel ()
+	{
+		return output.isParallel();
+	}
+
+	public final void setParallel (boolean parallel)
+	{
+		output.setParallel(parallel);
+	}
+
+	/**
+	 * Number of nodes per block in parallel mode.
+	 */
+	public final int getBlockSize ()
+	{
+		return output.getBlockSize();
+	}
+
+	public final void setBlockSize (int nodes)
+	{
+		output.setBlockSize(nodes);
+	}
+
+	/**
+	 * Compressed (gzip) output.
+	 */
+	public final boolean isCompressed ()
+	{
+		return output.isCompressed();
+	}
+
+
+	@Override
+	public void close ()
+		throws IOException
+	{
+		output.close();
+	}
+}
@@ -0,0 +1,336 @@
+package noesis.io;
+
+// Title:       XML network reader
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import ikor.model.data.DataModel;
+import ikor.model.data.IntegerModel;
+import ikor.model.data.RealModel;
+import ikor.model.data.TextModel;
+
+import noesis.Attribute;
+import noesis.AttributeNetwork;
+import noesis.LinkAttribute;
+import noesis.Network;
+import noesis.network.attribute.AttributeColumn;
+import noesis.network.attribute.ColumnAttribute;
+import noesis.network.attribute.ColumnLinkAttribute;
+
+/**
+ * Streaming XML network reader (StAX), common core of XML-based network file formats.
+ *
+ * Element text is accumulated in a reusable character buffer, so that numerical attribute
+ * values are parsed into primitive attribute columns (see ColumnAttribute & ColumnLinkAttribute)
+ * without creating a String per value.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public abstract class XMLNetworkReader extends AttributeNetworkReader
+{
+	public static final int INITIAL_BUFFER_SIZE = 256;
+
+	// Input stream
+
+	private InputStream input;
+
+	// XML parser
+
+	private XMLStreamReader xml;
+
+	// Character buffer
+
+	private char[]  text = new char[INITIAL_BUFFER_SIZE];
+	private int     length = 0;
+	private boolean capture = false;
+
+	// Network
+
+	protected AttributeNetwork net;
+
+
+	// Constructor
+
+	public XMLNetworkReader (InputStream stream)
+	{
+		this.input = new BufferedInputStream(stream);
+		this.setType(noesis.AttributeNetwork.class);
+	}
+
+
+	// Parser
+
+	@Override
+	public Network read() throws IOException
+	{
+		net = new AttributeNetwork();
+		net.addNodeAttribute( new Attribute("id") );
+
+		parse(null);
+
+		return net;
+	}
+
+	/**
+	 * XML file inspection: a single streaming pass, without capturing element text.
+	 */
+	@Override
+	public NetworkInfo inspect() throws IOException
+	{
+		NetworkInfo info = new NetworkInfo(getFormat());
+
+		info.addNodeAttribute("id", null);
+
+		parse(info);
+
+		return info;
+	}
+
+	/**
+	 * StAX parser loop
+	 * @param info Network information (inspection), null when reading the network
+	 */
+	private void parse (NetworkInfo info)
+		throws IOException
+	{
+		try {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+
+			xml = factory.createXMLStreamReader(input);
+
+			while (xml.hasNext()) {
+
+				switch (xml.next()) {
+
+					case XMLStreamConstants.START_ELEMENT:
+						capture = false;
+						if (info!=null)
+							inspectElement(xml.getLocalName(), info);
+						else
+							startElement(xml.getLocalName());
+						break;
+
+					case XMLStreamConstants.CHARACTERS:
+					case XMLStreamConstants.CDATA:
+						if (capture)
+							append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+						break;
+
+					case XMLStreamConstants.END_ELEMENT:
+						if (info==null)
+							endElement(xml.getLocalName());
+						capture = false;
+						break;
+				}
+			}
+
+			xml.close();
+
+		} catch (XMLStreamException error) {
+
+			throw new IOException("XML error - "+error.getMessage(), error);
+
+		} finally {
+
+			xml = null;
+		}
+	}
+
+	/**
+	 * Element start
+	 * @param element Element local name
+	 */
+	protected abstract void startElement (String element)
+		throws IOException;
+
+	/**
+	 * Element start (inspection)
+	 * @param element Element local name
+	 * @param info Network information
+	 */
+	protected abstract void inspectElement (String element, NetworkInfo info)
+		throws IOException;
+
+	/**
+	 * Element end
+	 * @param element Element local name
+	 */
+	protected abstract void endElement (String element)
+		throws IOException;
+
+
+	// Current element
+
+	/**
+	 * Value of an XML attribute of the current element (namespaces are ignored).
+	 * @param name Attribute local name
+	 * @return Attribute value (null if not present)
+	 */
+	protected final String attribute (String name)
+	{
+		return xml.getAttributeValue(null, name);
+	}
+
+	/**
+	 * Capture the text of the current element, which will be available when the element ends.
+	 */
+	protected final void capture ()
+	{
+		capture = true;
+		length = 0;
+	}
+
+	/**
+	 * Captured text, as a String
+	 * @return Element text
+	 */
+	protected final String text ()
+	{
+		return new String(text, 0, length);
+	}
+
+	private void append (char[] chars, int start, int count)
+	{
+		if (length+count>text.length)
+			text = Arrays.copyOf(text, Math.max(length+count, 2*text.length));
+
+		System.arraycopy(chars, start, text, length, count);
+		length += count;
+	}
+
+
+	// Data types
+
+	/**
+	 * Attribute data model
+	 * @param dataType Attribute type, as declared in the XML file
+	 * @return Data model (text by default)
+	 */
+	protected static DataModel dataModel (String dataType)
+	{
+		String   type = (dataType!=null)? dataType.toLowerCase(): "string";
+		DataModel model;
+
+		if (type.equals("double") || type.equals("float"))
+			model = new RealModel();
+		else if (type.equals("long") || type.equals("int") || type.equals("integer"))
+			model = new IntegerModel();
+		else // string, boolean
+			model = new TextModel();
+
+		return model;
+	}
+
+	/**
+	 * Create a node attribute, stored in a primitive column when possible.
+	 * @param id Attribute name
+	 * @param model Data model
+	 * @return Node attribute (existing attributes are reused)
+	 */
+	protected Attribute createNodeAttribute (String id, DataModel model)
+	{
+		Attribute attribute = net.getNodeAttribute(id);
+
+		if (attribute==null) {
+
+			if (AttributeColumn.create(model)!=null)
+				attribute = new ColumnAttribute(id, model);
+			else
+				attribute = new Attribute(id, model);
+
+			net.addNodeAttribute(attribute);
+		}
+
+		return attribute;
+	}
+
+	/**
+	 * Create a link attribute, stored in a primitive column when possible.
+	 * @param id Attribute name
+	 * @param model Data model
+	 * @return Link attribute (existing attributes are reused)
+	 */
+	protected LinkAttribute createLinkAttribute (String id, DataModel model)
+	{
+		LinkAttribute attribute = net.getLinkAttribute(id);
+
+		if (attribute==null) {
+
+			if (AttributeColumn.create(model)!=null)
+				attribute = new ColumnLinkAttribute(net, id, model);
+			else
+				attribute = new LinkAttribute(net, id, model);
+
+			net.addLinkAttribute(attribute);
+		}
+
+		return attribute;
+	}
+
+
+	// Attribute values from the captured text
+
+	protected final void setNodeAttribute (Attribute attribute, int node)
+	{
+		if (attribute instanceof ColumnAttribute)
+			((ColumnAttribute) attribute).parse(node, text, 0, length);
+		else
+			attribute.set(node, text());
+	}
+
+	protected final void setLinkAttribute (LinkAttribute attribute, int source, int target)
+	{
+		if (attribute instanceof ColumnLinkAttribute) {
+
+			ColumnLinkAttribute column = (ColumnLinkAttribute) attribute;
+
+			column.parse(source, target, text, 0, length);
+
+			if (!net.isDirected())
+				column.parse(target, source, text, 0, length);
+
+		} else {
+
+			setLinkAttribute(attribute, source, target, text());
+		}
+	}
+
+
+	// Attribute values from XML attributes
+
+	protected final void setNodeAttribute (Attribute attribute, int node, String value)
+	{
+		if (value!=null)
+			attribute.set(node, value);
+	}
+
+	protected final void setLinkAttribute (LinkAttribute attribute, int source, int target, String value)
+	{
+		if (value!=null) {
+			attribute.set(source, target, value);
+
+			if (!net.isDirected())
+				attribute.set(target, source, value);
+		}
+	}
+
+
+	@Override
+	public void close() throws IOException
+	{
+		input.close();
+	}
+}
@@ -66,6 +66,12 @@ public class ColorMapNodeRenderer extends NodeRenderer
 		return cache[index];
 	}
 	
+	@Override
+	public Style getBorder (int node)
+	{
+		return DEFAULT_BORDER;
+	}
+	
 	// Node rendering	
 	
 	@Override
@@ -94,4 +100,4 @@ public class ColorMapNodeRenderer extends NodeRenderer
 	}
 
 
-}
\ No newline at end of file
+}
\ No newline at end of file
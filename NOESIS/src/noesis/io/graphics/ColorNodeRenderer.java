@@ -48,6 +48,7 @@ public class ColorNodeRenderer extends NodeRenderer
 		return colors[pos];
 	}
 	
+	@Override
 	public Style getBorder (int node)
 	{
 		return borders[node%borders.length];
@@ -83,4 +84,4 @@ public class ColorNodeRenderer extends NodeRenderer
 	}
 
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -16,6 +16,12 @@ public class DefaultNodeRenderer extends NodeRenderer
 		return DEFAULT_NODE_STYLE;
 	}
 	
+	@Override
+	public Style getBorder (int node)
+	{
+		return DEFAULT_BORDER_STYLE;
+	}
+	
 	@Override
 	public void render(NetworkRenderer drawing, int node) 
 	{
@@ -89,6 +89,12 @@ public class GradientNodeRenderer extends NodeRenderer
 			return gradient;
 		}		
 	}	
+	
+	@Override
+	public Style getBorder (int node)
+	{
+		return border;
+	}
 
 	
 	// Node rendering
@@ -1,19 +1,28 @@
 package noesis.io.graphics;
 
-import ikor.model.graphics.io.DrawingWriter;
-import ikor.model.graphics.io.DrawingWriterFactory;
-
+import java.awt.image.BufferedImage;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import javax.imageio.ImageIO;
+
 import noesis.Network;
 import noesis.io.NetworkWriter;
 
+/**
+ * Network image writer.
+ * 
+ * Bitmap images (PNG & JPG) are rasterized tile by tile in parallel (see NetworkRasterizer),
+ * vector images (SVG) are streamed while iterating over the network (see SVGNetworkWriter).
+ * 
+ * @author Fernando Berzal (berzal@acm.org)
+ */
 public class NetworkImageWriter implements NetworkWriter 
 {
 	private BufferedOutputStream writer;
 	private NetworkRenderer renderer;
+	private NetworkRasterizer rasterizer;
 	private String format;
 	
 	public NetworkImageWriter (OutputStream writer, NetworkRenderer renderer, String format)
@@ -21,19 +30,43 @@ public class NetworkImageWriter implements NetworkWriter
 		this.writer = new BufferedOutputStream(writer);
 		this.renderer = renderer;
 		this.format = format;
+		
+		if (!format.equals("svg"))
+			this.rasterizer = new NetworkRasterizer(renderer);
+	}
+	
+	/**
+	 * Rasterizer for bitmap formats (null for vector formats).
+	 */
+	public NetworkRasterizer getRasterizer ()
+	{
+		return rasterizer;
 	}
 	
 	@Override
 	public void write (Network net) throws IOException 
 	{
-		DrawingWriter dw = DrawingWriterFactory.create(renderer,format);
-		BackgroundRenderer background = renderer.getBackgroundRenderer();
+		if (rasterizer!=null)
+			writeBitmap();
+		else
+			writeSVG();
+	}
+	
+	private void writeBitmap () throws IOException
+	{
+		BufferedImage image = rasterizer.render();
 		
-		renderer.setBackgroundRenderer(null);
+		if (!ImageIO.write(image, format, writer))
+			throw new IOException("Unsupported image format: "+format);
 		
-		dw.write(writer);
-
-		renderer.setBackgroundRenderer(background);
+		writer.flush();
+	}
+	
+	private void writeSVG () throws IOException
+	{
+		SVGNetworkWriter svg = new SVGNetworkWriter(writer, renderer);
+		
+		svg.write();
 	}
 
 	@Override
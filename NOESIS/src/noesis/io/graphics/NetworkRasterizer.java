@@ -0,0 +1,784 @@
+package noesis.io.graphics;
+
+// Title:       Tiled network rasterizer
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import ikor.model.graphics.Style;
+import ikor.model.graphics.styles.Gradient;
+import ikor.model.graphics.styles.LinearGradient;
+import ikor.model.graphics.styles.RadialGradient;
+import ikor.parallel.Parallel;
+import ikor.parallel.Task;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.LinearGradientPaint;
+import java.awt.Paint;
+import java.awt.RadialGradientPaint;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+import noesis.Network;
+
+/**
+ * Tiled network rasterizer.
+ *
+ * Draws a network straight into a BufferedImage, using the node and link renderers
+ * of a NetworkRenderer but without creating drawing elements. The canvas is partitioned
+ * into square tiles, links and nodes are binned into the tiles they overlap, and tiles
+ * are rasterized in parallel. Within each tile, links are drawn before nodes, both in
+ * network order, as in NetworkRenderer.render().
+ *
+ * Antialiased links are rasterized directly into the image pixels, as spans (i.e. the
+ * coverage of each pixel by the link stroke, for butt caps), when the image stores
+ * packed RGB or ARGB pixels, and drawn by Java2D otherwise (Java2D antialiased strokes
+ * are several times slower). Since spans are computed from the link end points, the
+ * result does not depend on the tile size.
+ *
+ * Level of detail: links whose on-screen length is below a given threshold
+ * (one pixel by default) are culled, as well as links outside the canvas.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class NetworkRasterizer
+{
+	public static final int    DEFAULT_TILE_SIZE = 256;
+	public static final double DEFAULT_MINIMUM_LINK_LENGTH = 1.0;
+	public static final Color  DEFAULT_BACKGROUND = DefaultBackgroundRenderer.DEFAULT_BACKGROUND.getColor();
+
+	private static final long  ONE = 1<<16;
+	private static final long  HALF = 1<<15;
+
+	private NetworkRenderer renderer;
+
+	private int     tileSize = DEFAULT_TILE_SIZE;
+	private double  minimumLinkLength = DEFAULT_MINIMUM_LINK_LENGTH;
+	private Color   background = DEFAULT_BACKGROUND;
+	private boolean antialiasing = true;
+	private boolean parallel = true;
+
+	private long    culled;
+
+
+	public NetworkRasterizer (NetworkRenderer renderer)
+	{
+		this.renderer = renderer;
+	}
+
+	// Getters & setters
+
+	public NetworkRenderer getRenderer ()
+	{
+		return renderer;
+	}
+
+	public int getTileSize ()
+	{
+		return tileSize;
+	}
+
+	public void setTileSize (int tileSize)
+	{
+		if (tileSize>0)
+			this.tileSize = tileSize;
+	}
+
+	/**
+	 * Level of detail: minimum on-screen link length, in pixels.
+	 */
+	public double getMinimumLinkLength ()
+	{
+		return minimumLinkLength;
+	}
+
+	/**
+	 * Level of detail: links shorter than the given length (in pixels) are not drawn.
+	 * @param length Minimum on-screen link length (0 to draw every link)
+	 */
+	public void setMinimumLinkLength (double length)
+	{
+		this.minimumLinkLength = length;
+	}
+
+	public Color getBackground ()
+	{
+		return background;
+	}
+
+	/**
+	 * Background color (null for a transparent background, when supported by the image type).
+	 */
+	public void setBackground (Color background)
+	{
+		this.background = background;
+	}
+
+	public boolean isAntialiased ()
+	{
+		return antialiasing;
+	}
+
+	public void setAntialiased (boolean antialiasing)
+	{
+		this.antialiasing = antialiasing;
+	}
+
+	public boolean isParallel ()
+	{
+		return parallel;
+	}
+
+	public void setParallel (boolean parallel)
+	{
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Number of links culled during the last rendering (outside the canvas or below the level of detail).
+	 */
+	public long getCulledLinks ()
+	{
+		return culled;
+	}
+
+
+	// Rendering
+
+	public BufferedImage render ()
+	{
+		return render(BufferedImage.TYPE_INT_RGB);
+	}
+
+	public BufferedImage render (int imageType)
+	{
+		BufferedImage image = new BufferedImage(renderer.getWidth(), renderer.getHeight(), imageType);
+
+		render(image);
+
+		return image;
+	}
+
+	public void render (BufferedImage image)
+	{
+		Scene scene = new Scene(image.getWidth(), image.getHeight());
+
+		scene.setPixels(image);
+
+		int tilesX = (image.getWidth()+tileSize-1)/tileSize;
+		int tilesY = (image.getHeight()+tileSize-1)/tileSize;
+
+		TileTask[] tasks = new TileTask[tilesX*tilesY];
+
+		for (int i=0; i<tilesY; i++)
+			for (int j=0; j<tilesX; j++)
+				tasks[i*tilesX+j] = new TileTask(image, scene, i*tilesX+j, j*tileSize, i*tileSize);
+
+		if (parallel) {
+			Parallel.forkjoin(tasks);
+		} else {
+			for (int i=0; i<tasks.length; i++)
+				tasks[i].call();
+		}
+
+		culled = scene.culled;
+	}
+
+
+	/**
+	 * Scene: node coordinates, styles, and tile bins (compressed, i.e. tile t
+	 * comprises entries start[t]..start[t+1]-1).
+	 */
+	private class Scene
+	{
+		int      width;
+		int      height;
+		int      tilesX;
+		int      tilesY;
+
+		// Nodes
+
+		int[]    x;
+		int[]    y;
+		int[]    radius;
+		Style[]  nodeStyles;
+		Style[]  borderStyles;
+		int[]    nodeStart;
+		int[]    nodeBin;
+
+		// Links
+
+		int      links;
+		int[]    sources;
+		int[]    targets;
+		Style[]  linkStyles;
+		int[]    linkStart;
+		int[]    linkBin;
+		long     culled;
+
+		// Strokes, indexed by width
+
+		Stroke[] strokes = new Stroke[0];
+
+		// Image pixels (null if links have to be drawn by Java2D)
+
+		int[]    pixels;
+		int      stride;
+		boolean  alpha;
+
+
+		public Scene (int width, int height)
+		{
+			this.width = width;
+			this.height = height;
+			this.tilesX = (width+tileSize-1)/tileSize;
+			this.tilesY = (height+tileSize-1)/tileSize;
+
+			Network net = renderer.getNetwork();
+
+			if (net!=null) {
+				createNodes(net);
+				createLinks(net);
+			} else {
+				nodeStart = new int[tilesX*tilesY+1];
+				linkStart = new int[tilesX*tilesY+1];
+			}
+		}
+
+		/**
+		 * Direct access to packed RGB/ARGB pixels.
+		 */
+		public void setPixels (BufferedImage image)
+		{
+			WritableRaster raster = image.getRaster();
+
+			if ( ( (image.getType()==BufferedImage.TYPE_INT_RGB) || (image.getType()==BufferedImage.TYPE_INT_ARGB) )
+			     && (raster.getParent()==null)
+			     && (raster.getDataBuffer() instanceof DataBufferInt)
+			     && (raster.getSampleModel() instanceof SinglePixelPackedSampleModel) ) {
+
+				pixels = ((DataBufferInt)raster.getDataBuffer()).getData();
+				stride = ((SinglePixelPackedSampleModel)raster.getSampleModel()).getScanlineStride();
+				alpha = (image.getType()==BufferedImage.TYPE_INT_ARGB);
+			}
+		}
+
+		// Scene construction (sequential, since renderer style caches are not thread-safe)
+
+		private void createNodes (Network net)
+		{
+			NodeRenderer nodeRenderer = renderer.getNodeRenderer();
+			int          size = net.size();
+			int          border;
+
+			x = new int[size];
+			y = new int[size];
+			radius = new int[size];
+			nodeStyles = new Style[size];
+			borderStyles = new Style[size];
+
+			for (int i=0; i<size; i++) {
+				x[i] = renderer.getX(i);
+				y[i] = renderer.getY(i);
+
+				if (nodeRenderer!=null) {
+					radius[i] = nodeRenderer.getSize(i);
+					nodeStyles[i] = nodeRenderer.getStyle(i);
+					borderStyles[i] = nodeRenderer.getBorder(i);
+
+					if (nodeStyles[i]!=null)
+						stroke(nodeStyles[i].getWidth());
+					if (borderStyles[i]!=null)
+						stroke(borderStyles[i].getWidth());
+				}
+			}
+
+			// Node bins
+
+			nodeStart = new int[tilesX*tilesY+1];
+
+			if (nodeRenderer!=null) {
+
+				for (int pass=0; pass<2; pass++) {
+
+					for (int i=0; i<size; i++) {
+						border = (borderStyles[i]!=null)? borderStyles[i].getWidth(): 0;
+						bin ( x[i]-radius[i]-border-1, y[i]-radius[i]-border-1,
+						      x[i]+radius[i]+border+1, y[i]+radius[i]+border+1, i, nodeStart, nodeBin);
+					}
+
+					if (pass==0)
+						nodeBin = new int[prefix(nodeStart)];
+					else
+						shift(nodeStart);
+				}
+			}
+		}
+
+		private void createLinks (Network net)
+		{
+			LinkRenderer linkRenderer = renderer.getLinkRenderer();
+			int          size = net.size();
+			double       minimum = minimumLinkLength*minimumLinkLength;
+
+			linkStart = new int[tilesX*tilesY+1];
+
+			if (linkRenderer==null)
+				return;
+
+			// Visible links
+
+			sources = new int[net.links()];
+			targets = new int[net.links()];
+			linkStyles = new Style[net.links()];
+
+			for (int i=0; i<size; i++) {
+
+				int degree = net.outDegree(i);
+
+				for (int j=0; j<degree; j++) {
+
+					int    target = net.outLink(i,j);
+					double dx = x[target]-x[i];
+					double dy = y[target]-y[i];
+
+					if ( (dx*dx+dy*dy<minimum)
+					   || (Math.max(x[i],x[target])<0) || (Math.min(x[i],x[target])>=width)
+					   || (Math.max(y[i],y[target])<0) || (Math.min(y[i],y[target])>=height) ) {
+						culled++;
+					} else {
+						sources[links] = i;
+						targets[links] = target;
+						linkStyles[links] = linkRenderer.getStyle(i,target);
+						stroke(linkStyles[links].getWidth());
+						links++;
+					}
+				}
+			}
+
+			// Link bins
+
+			for (int pass=0; pass<2; pass++) {
+
+				for (int k=0; k<links; k++) {
+					int pad = linkStyles[k].getWidth()/2 + 1;
+					bin (sources[k], targets[k], pad, k, linkStart, linkBin);
+				}
+
+				if (pass==0)
+					linkBin = new int[prefix(linkStart)];
+				else
+					shift(linkStart);
+			}
+		}
+
+		private Stroke stroke (int width)
+		{
+			if (width>=strokes.length) {
+				Stroke[] expanded = new Stroke[width+1];
+				System.arraycopy(strokes, 0, expanded, 0, strokes.length);
+				strokes = expanded;
+			}
+
+			if (strokes[width]==null)
+				strokes[width] = new BasicStroke(width);
+
+			return strokes[width];
+		}
+
+		// Binning: first pass counts entries (bin==null), second pass fills bins
+
+		private void bin (int left, int top, int right, int bottom, int item, int[] start, int[] bin)
+		{
+			int tx0 = Math.max(0, left/tileSize);
+			int ty0 = Math.max(0, top/tileSize);
+			int tx1 = Math.min(tilesX-1, right/tileSize);
+			int ty1 = Math.min(tilesY-1, bottom/tileSize);
+
+			if ( (right<0) || (bottom<0) )
+				return;
+
+			for (int ty=ty0; ty<=ty1; ty++)
+				for (int tx=tx0; tx<=tx1; tx++)
+					add(ty*tilesX+tx, item, start, bin);
+		}
+
+		private void bin (int source, int target, int pad, int item, int[] start, int[] bin)
+		{
+			int x0 = x[source];
+			int y0 = y[source];
+			int x1 = x[target];
+			int y1 = y[target];
+
+			int tx0 = Math.max(0, (Math.min(x0,x1)-pad)/tileSize);
+			int ty0 = Math.max(0, (Math.min(y0,y1)-pad)/tileSize);
+			int tx1 = Math.min(tilesX-1, (Math.max(x0,x1)+pad)/tileSize);
+			int ty1 = Math.min(tilesY-1, (Math.max(y0,y1)+pad)/tileSize);
+
+			for (int ty=ty0; ty<=ty1; ty++) {
+				for (int tx=tx0; tx<=tx1; tx++) {
+
+					if ( ((tx0==tx1) && (ty0==ty1))
+					   || intersects(x0, y0, x1, y1, tx*tileSize-pad, ty*tileSize-pad, (tx+1)*tileSize+pad, (ty+1)*tileSize+pad) )
+						add(ty*tilesX+tx, item, start, bin);
+				}
+			}
+		}
+
+		private void add (int tile, int item, int[] start, int[] bin)
+		{
+			if (bin==null)
+				start[tile]++;
+			else
+				bin[start[tile]++] = item;
+		}
+
+		/**
+		 * Bin counts to bin offsets.
+		 * @return Total number of entries
+		 */
+		private int prefix (int[] start)
+		{
+			int total = 0;
+
+			for (int t=0; t<start.length; t++) {
+				int count = start[t];
+				start[t] = total;
+				total += count;
+			}
+
+			return total;
+		}
+
+		/**
+		 * Restore bin offsets after the filling pass (start[t] points to the end of bin t).
+		 */
+		private void shift (int[] start)
+		{
+			for (int t=start.length-1; t>0; t--)
+				start[t] = start[t-1];
+
+			start[0] = 0;
+		}
+	}
+
+
+	/**
+	 * Segment-rectangle intersection (Liang-Barsky clipping).
+	 */
+	private static boolean intersects (double x0, double y0, double x1, double y1, double left, double top, double right, double bottom)
+	{
+		double dx = x1-x0;
+		double dy = y1-y0;
+		double t0 = 0;
+		double t1 = 1;
+
+		double[] p = { -dx, dx, -dy, dy };
+		double[] q = { x0-left, right-x0, y0-top, bottom-y0 };
+
+		for (int i=0; i<4; i++) {
+
+			if (p[i]==0) {
+
+				if (q[i]<0)
+					return false;
+
+			} else {
+
+				double t = q[i]/p[i];
+
+				if (p[i]<0) {
+					if (t>t1) return false;
+					if (t>t0) t0 = t;
+				} else {
+					if (t<t0) return false;
+					if (t<t1) t1 = t;
+				}
+			}
+		}
+
+		return true;
+	}
+
+
+	/**
+	 * Tile rasterization.
+	 */
+	private class TileTask extends Task<Object>
+	{
+		BufferedImage image;
+		Scene         scene;
+		int           tile;
+		int           left;
+		int           top;
+
+		public TileTask (BufferedImage image, Scene scene, int tile, int left, int top)
+		{
+			this.image = image;
+			this.scene = scene;
+			this.tile = tile;
+			this.left = left;
+			this.top = top;
+		}
+
+		@Override
+		public Object call ()
+		{
+			int width = Math.min(tileSize, image.getWidth()-left);
+			int height = Math.min(tileSize, image.getHeight()-top);
+
+			// Tiles share the image raster, each one drawing only within its own bounds
+
+			Graphics2D g = image.getSubimage(left, top, width, height).createGraphics();
+
+			g.translate(-left, -top);
+			g.clipRect(left, top, width, height);
+
+			if (antialiasing)
+				g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+			if (background!=null) {
+				g.setColor(background);
+				g.fillRect(left, top, width, height);
+			}
+
+			if ( antialiasing && (scene.pixels!=null) )
+				rasterizeLinks(width, height);
+			else
+				drawLinks(g);
+
+			drawNodes(g);
+
+			g.dispose();
+
+			return null;
+		}
+
+		private void drawLinks (Graphics2D g)
+		{
+			Style current = null;
+
+			for (int k=scene.linkStart[tile]; k<scene.linkStart[tile+1]; k++) {
+
+				int   link = scene.linkBin[k];
+				Style style = scene.linkStyles[link];
+
+				if (style!=current) {
+					g.setColor(style.getColor());
+					g.setStroke(scene.strokes[style.getWidth()]);
+					current = style;
+				}
+
+				g.drawLine( scene.x[scene.sources[link]], scene.y[scene.sources[link]],
+				            scene.x[scene.targets[link]], scene.y[scene.targets[link]] );
+			}
+		}
+
+		private void rasterizeLinks (int width, int height)
+		{
+			for (int k=scene.linkStart[tile]; k<scene.linkStart[tile+1]; k++) {
+
+				int link = scene.linkBin[k];
+
+				rasterize( scene.x[scene.sources[link]], scene.y[scene.sources[link]],
+				           scene.x[scene.targets[link]], scene.y[scene.targets[link]],
+				           scene.linkStyles[link], width, height );
+			}
+		}
+
+		/**
+		 * Link rasterization: for each pixel along the major axis, the stroke covers
+		 * an interval [c-h,c+h] along the minor axis, where pixel p spans [p-0.5,p+0.5].
+		 * Fixed-point arithmetic: 32 fractional bits for the slope, 16 for coordinates.
+		 */
+		private void rasterize (int x0, int y0, int x1, int y1, Style style, int width, int height)
+		{
+			int     dx = x1-x0;
+			int     dy = y1-y0;
+			boolean steep = Math.abs(dy)>Math.abs(dx);
+
+			if ( (dx==0) && (dy==0) )
+				return;
+
+			// Major axis u, minor axis v
+
+			int u0 = steep? y0: x0;
+			int v0 = steep? x0: y0;
+			int u1 = steep? y1: x1;
+			int v1 = steep? x1: y1;
+
+			if (u0>u1) {
+				int swap;
+				swap = u0; u0 = u1; u1 = swap;
+				swap = v0; v0 = v1; v1 = swap;
+			}
+
+			double length = Math.sqrt((double)dx*dx+(double)dy*dy);
+			long   slope = ((long)(v1-v0)<<32) / (u1-u0);
+			long   half = (long) (0.5 * Math.max(1, style.getWidth()) * length / (u1-u0) * ONE);
+
+			// Tile bounds
+
+			int uMin = Math.max(u0, steep? top: left);
+			int uMax = Math.min(u1, (steep? top+height: left+width)-1);
+			int vMin = steep? left: top;
+			int vMax = (steep? left+width: top+height)-1;
+
+			int color = style.getColor().getRGB();
+			int opacity = (color>>>24) + ((color>>>24)>>>7);  // 0..256
+
+			int[] pixels = scene.pixels;
+			int   stride = scene.stride;
+
+			for (int u=uMin; u<=uMax; u++) {
+
+				long c = ( ((long)v0<<32) + slope*(u-u0) ) >> 16;
+				long low = c-half;
+				long high = c+half;
+				int  first = Math.max(vMin, (int)((low+HALF)>>16));
+				int  last = Math.min(vMax, (int)((high+HALF)>>16));
+
+				for (int v=first; v<=last; v++) {
+
+					long center = (long)v<<16;
+					long coverage = Math.min(high, center+HALF) - Math.max(low, center-HALF);
+
+					if (coverage>0) {
+
+						int a = (int) ((Math.min(coverage,ONE)*opacity) >> 16);
+						int index = steep? u*stride+v: v*stride+u;
+
+						pixels[index] = blend(pixels[index], color, a);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Source-over blending.
+		 * @param dst Destination pixel
+		 * @param src Source color
+		 * @param a Source alpha (0..256)
+		 */
+		private int blend (int dst, int src, int a)
+		{
+			if (a>=256)
+				return scene.alpha? src|0xFF000000: src;
+
+			int da = scene.alpha? dst>>>24: 255;
+
+			if (da==255) {
+
+				int na = 256-a;
+				int rb = ( ((src&0xFF00FF)*a + (dst&0xFF00FF)*na) >>> 8 ) & 0xFF00FF;
+				int g = ( ((src&0x00FF00)*a + (dst&0x00FF00)*na) >>> 8 ) & 0x00FF00;
+
+				return (dst&0xFF000000) | rb | g;
+
+			} else {
+
+				// Non-premultiplied ARGB
+
+				int sa = a*255/256;
+				int oa = sa + (da*(255-sa)+127)/255;
+
+				if (oa==0)
+					return 0;
+
+				int r = (((src>>16)&0xFF)*sa*255 + ((dst>>16)&0xFF)*da*(255-sa) + oa*255/2) / (oa*255);
+				int g = (((src>>8)&0xFF)*sa*255 + ((dst>>8)&0xFF)*da*(255-sa) + oa*255/2) / (oa*255);
+				int b = ((src&0xFF)*sa*255 + (dst&0xFF)*da*(255-sa) + oa*255/2) / (oa*255);
+
+				return (oa<<24) | (r<<16) | (g<<8) | b;
+			}
+		}
+
+		private void drawNodes (Graphics2D g)
+		{
+			for (int k=scene.nodeStart[tile]; k<scene.nodeStart[tile+1]; k++) {
+
+				int   node = scene.nodeBin[k];
+				int   radius = scene.radius[node];
+				int   x = scene.x[node]-radius;
+				int   y = scene.y[node]-radius;
+				Style style = scene.nodeStyles[node];
+				Style border = scene.borderStyles[node];
+
+				if (style!=null) {
+					setStyle(g, style, x, y, 2*radius);
+					g.fillOval(x, y, 2*radius, 2*radius);
+				}
+
+				if (border!=null) {
+					setStyle(g, border, x, y, 2*radius);
+					g.drawOval(x, y, 2*radius, 2*radius);
+				}
+			}
+		}
+
+		/**
+		 * Node style, as in ikor.model.graphics.swing.JDrawingComponent
+		 */
+		private void setStyle (Graphics2D g, Style style, int x, int y, int size)
+		{
+			g.setColor(style.getColor());
+			g.setStroke(scene.strokes[style.getWidth()]);
+
+			if (style instanceof LinearGradient) {
+				g.setPaint(linearGradient((LinearGradient)style, x, y, size));
+			} else if (style instanceof RadialGradient) {
+				g.setPaint(radialGradient((RadialGradient)style, x, y, size));
+			}
+		}
+
+		private Paint linearGradient (LinearGradient style, int x, int y, int size)
+		{
+			Point2D start = new Point2D.Float( x + size*style.getStartX(), y + size*style.getStartY() );
+			Point2D end = new Point2D.Float( x + size*style.getEndX(), y + size*style.getEndY() );
+
+			if (start.equals(end))
+				return style.getKeyframe(style.getKeyframeCount()-1).getColor();
+
+			return new LinearGradientPaint(start, end, distribution(style), colors(style));
+		}
+
+		private Paint radialGradient (RadialGradient style, int x, int y, int size)
+		{
+			Point2D center = new Point2D.Float( x + size*style.getCenterX(), y + size*style.getCenterY() );
+			float   radius = size*style.getRadius();
+
+			if (radius<=0)
+				return style.getKeyframe(style.getKeyframeCount()-1).getColor();
+
+			return new RadialGradientPaint(center, radius, distribution(style), colors(style));
+		}
+
+		private float[] distribution (Gradient style)
+		{
+			float[] distribution = new float[style.getKeyframeCount()];
+
+			for (int i=0; i<distribution.length; i++)
+				distribution[i] = style.getKeyframe(i).getValue();
+
+			return distribution;
+		}
+
+		private Color[] colors (Gradient style)
+		{
+			Color[] colors = new Color[style.getKeyframeCount()];
+
+			for (int i=0; i<colors.length; i++)
+				colors[i] = style.getKeyframe(i).getColor();
+
+			return colors;
+		}
+	}
+}
@@ -2,6 +2,9 @@ package noesis.io.graphics;
 
 import ikor.model.graphics.Drawing;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import noesis.AttributeNetwork;
 import noesis.Attribute;
 
@@ -145,6 +148,20 @@ public class NetworkRenderer extends Drawing
 		}
 	}
 	
+	/**
+	 * Draw network as a SVG stream, without creating drawing elements
+	 * (see SVGNetworkWriter).
+	 */
+	
+	public void renderSVG (OutputStream output)
+		throws IOException
+	{
+		SVGNetworkWriter writer = new SVGNetworkWriter(output, this);
+		
+		writer.write();
+		writer.close();
+	}
+	
 	/**
 	 * Update network
 	 */
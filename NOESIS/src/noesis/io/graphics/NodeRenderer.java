@@ -95,6 +95,14 @@ public abstract class NodeRenderer
 	
 	public abstract Style getStyle (int node);
 	
+	/**
+	 * Node border style (null if nodes are drawn without borders).
+	 */
+	public Style getBorder (int node)
+	{
+		return null;
+	}
+	
 	// Node rendering
 	
 	public abstract void render (NetworkRenderer drawing, int node);
@@ -0,0 +1,390 @@
+package noesis.io.graphics;
+
+// Title:       Streaming SVG network writer
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import ikor.model.graphics.Style;
+import ikor.model.graphics.styles.Gradient;
+import ikor.model.graphics.styles.GradientKeyframe;
+import ikor.model.graphics.styles.LinearGradient;
+import ikor.model.graphics.styles.RadialGradient;
+
+import java.awt.Color;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import noesis.Network;
+import noesis.io.NetworkWriter;
+
+/**
+ * Streaming SVG network writer.
+ *
+ * SVG elements are written while iterating over the network, using the node and link
+ * renderers of a NetworkRenderer but without creating drawing elements. Styles are
+ * deduplicated into CSS classes, i.e. fill classes (f0, f1...) and stroke classes
+ * (s0, s1...), written in a first pass over the network, so that each element just
+ * references its classes.
+ *
+ * Unlike SVGDrawingWriter, the background renderer is ignored.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class SVGNetworkWriter implements NetworkWriter
+{
+	public static final int BUFFER_SIZE = 1<<16;
+
+	private Writer          writer;
+	private NetworkRenderer renderer;
+	private boolean         ids = true;
+
+	// Style sheet
+
+	private Map<Style,String>  fills;              // Style objects (identity) -> fill classes
+	private Map<Style,String>  strokes;            // Style objects (identity) -> stroke classes
+	private Map<String,String> fillClasses;        // CSS declarations -> fill classes
+	private Map<String,String> strokeClasses;      // CSS declarations -> stroke classes
+	private Map<String,String> gradients;          // Gradient definitions -> gradient IDs
+	private StringBuilder      definitions;
+	private StringBuilder      css;
+
+
+	public SVGNetworkWriter (Writer writer, NetworkRenderer renderer)
+	{
+		this.writer = new BufferedWriter(writer, BUFFER_SIZE);
+		this.renderer = renderer;
+	}
+
+	public SVGNetworkWriter (OutputStream stream, NetworkRenderer renderer)
+		throws IOException
+	{
+		this( new OutputStreamWriter(stream, "UTF-8"), renderer);
+	}
+
+	/**
+	 * Element IDs, i.e. NetworkRenderer node & link IDs.
+	 */
+	public boolean getIDs ()
+	{
+		return ids;
+	}
+
+	public void setIDs (boolean ids)
+	{
+		this.ids = ids;
+	}
+
+
+	// NetworkWriter interface
+
+	/**
+	 * Write the network of the renderer (the network parameter is ignored,
+	 * as in NetworkImageWriter).
+	 */
+	@Override
+	public void write (Network net)
+		throws IOException
+	{
+		write();
+	}
+
+	public void write ()
+		throws IOException
+	{
+		Network       net = renderer.getNetwork();
+		StringBuilder buffer = new StringBuilder();
+
+		createStyleSheet(net);
+
+		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" version=\"1.1\""
+		            +" width=\""+renderer.getWidth()+"\" height=\""+renderer.getHeight()+"\">\n");
+		writer.write("<defs>\n");
+		writer.write(definitions.toString());
+		writer.write("<style type=\"text/css\"><![CDATA[\n");
+		writer.write(css.toString());
+		writer.write("]]></style>\n");
+		writer.write("</defs>\n");
+
+		if (net!=null) {
+
+			LinkRenderer linkRenderer = renderer.getLinkRenderer();
+			NodeRenderer nodeRenderer = renderer.getNodeRenderer();
+
+			if (linkRenderer!=null) {
+
+				for (int node=0; node<net.size(); node++) {
+					for (int index=0; index<net.outDegree(node); index++) {
+						formatLink(buffer, node, net.outLink(node,index), linkRenderer);
+						flush(buffer);
+					}
+				}
+			}
+
+			if (nodeRenderer!=null) {
+
+				for (int node=0; node<net.size(); node++) {
+					formatNode(buffer, node, nodeRenderer);
+					flush(buffer);
+				}
+			}
+		}
+
+		buffer.append("</svg>\n");
+
+		writer.write(buffer.toString());
+		writer.flush();
+	}
+
+	private void flush (StringBuilder buffer)
+		throws IOException
+	{
+		if (buffer.length()>=BUFFER_SIZE) {
+			writer.write(buffer.toString());
+			buffer.setLength(0);
+		}
+	}
+
+	@Override
+	public void close ()
+		throws IOException
+	{
+		writer.close();
+	}
+
+
+	// Elements
+
+	private void formatLink (StringBuilder buffer, int source, int target, LinkRenderer linkRenderer)
+	{
+		buffer.append("<line");
+
+		if (ids)
+			buffer.append(" id=\"").append(renderer.getLinkId(source,target)).append('"');
+
+		buffer.append(" class=\"").append(strokeClass(linkRenderer.getStyle(source,target))).append('"');
+		buffer.append(" x1=\"").append(renderer.getX(source)).append('"');
+		buffer.append(" y1=\"").append(renderer.getY(source)).append('"');
+		buffer.append(" x2=\"").append(renderer.getX(target)).append('"');
+		buffer.append(" y2=\"").append(renderer.getY(target)).append('"');
+		buffer.append("/>\n");
+	}
+
+	private void formatNode (StringBuilder buffer, int node, NodeRenderer nodeRenderer)
+	{
+		Style style = nodeRenderer.getStyle(node);
+		Style border = nodeRenderer.getBorder(node);
+
+		buffer.append("<circle");
+
+		if (ids)
+			buffer.append(" id=\"").append(renderer.getNodeId(node)).append('"');
+
+		buffer.append(" class=\"");
+
+		if (style!=null)
+			buffer.append(fillClass(style));
+		else
+			buffer.append("f");
+
+		if (border!=null)
+			buffer.append(' ').append(strokeClass(border));
+
+		buffer.append('"');
+		buffer.append(" cx=\"").append(renderer.getX(node)).append('"');
+		buffer.append(" cy=\"").append(renderer.getY(node)).append('"');
+		buffer.append(" r=\"").append(nodeRenderer.getSize(node)).append('"');
+		buffer.append("/>\n");
+	}
+
+
+	// Style sheet
+
+	private void createStyleSheet (Network net)
+	{
+		fills = new IdentityHashMap<Style,String>();
+		strokes = new IdentityHashMap<Style,String>();
+		fillClasses = new HashMap<String,String>();
+		strokeClasses = new HashMap<String,String>();
+		gradients = new HashMap<String,String>();
+		definitions = new StringBuilder();
+		css = new StringBuilder();
+
+		css.append(".f{fill:none}\n");
+
+		if (net!=null) {
+
+			LinkRenderer linkRenderer = renderer.getLinkRenderer();
+			NodeRenderer nodeRenderer = renderer.getNodeRenderer();
+
+			if (linkRenderer!=null) {
+				for (int node=0; node<net.size(); node++)
+					for (int index=0; index<net.outDegree(node); index++)
+						strokeStyle( linkRenderer.getStyle(node, net.outLink(node,index)) );
+			}
+
+			if (nodeRenderer!=null) {
+				for (int node=0; node<net.size(); node++) {
+					fillStyle( nodeRenderer.getStyle(node) );
+					strokeStyle( nodeRenderer.getBorder(node) );
+				}
+			}
+		}
+	}
+
+	private void strokeStyle (Style style)
+	{
+		if ( (style!=null) && !strokes.containsKey(style) )
+			strokes.put(style, styleClass(strokeClasses, "s", strokeDeclaration(style)));
+	}
+
+	private void fillStyle (Style style)
+	{
+		if ( (style!=null) && !fills.containsKey(style) ) {
+
+			String declaration;
+
+			if (style instanceof Gradient)
+				declaration = "fill:url(#"+gradient((Gradient)style)+")";
+			else
+				declaration = fillDeclaration(style);
+
+			fills.put(style, styleClass(fillClasses, "f", declaration));
+		}
+	}
+
+	/**
+	 * Stroke class for a style (styles are looked up by identity first, then by value,
+	 * since renderers may return equivalent style objects in different calls).
+	 */
+	private String strokeClass (Style style)
+	{
+		String id = strokes.get(style);
+
+		if (id==null)
+			id = strokeClasses.get(strokeDeclaration(style));
+
+		return (id!=null)? id: "s";
+	}
+
+	private String fillClass (Style style)
+	{
+		String id = fills.get(style);
+
+		if ( (id==null) && !(style instanceof Gradient) )
+			id = fillClasses.get(fillDeclaration(style));
+
+		return (id!=null)? id: "f";
+	}
+
+	private String styleClass (Map<String,String> classes, String prefix, String declaration)
+	{
+		String id = classes.get(declaration);
+
+		if (id==null) {
+			id = prefix + classes.size();
+			classes.put(declaration, id);
+			css.append('.').append(id).append('{').append(declaration).append("}\n");
+		}
+
+		return id;
+	}
+
+	private String fillDeclaration (Style style)
+	{
+		return "fill:"+rgbColor(style.getColor())+";fill-opacity:"+opacity(style.getColor());
+	}
+
+	private String strokeDeclaration (Style style)
+	{
+		return "stroke:"+rgbColor(style.getColor())+";stroke-opacity:"+opacity(style.getColor())
+		      +";stroke-width:"+style.getWidth();
+	}
+
+	/**
+	 * Gradient definition.
+	 * @return Gradient ID
+	 */
+	private String gradient (Gradient gradient)
+	{
+		StringBuilder definition = new StringBuilder();
+		String        element;
+
+		if (gradient instanceof RadialGradient) {
+
+			RadialGradient radial = (RadialGradient) gradient;
+
+			element = "radialGradient";
+			definition.append(" cx=\"").append(percentage(radial.getCenterX())).append('"');
+			definition.append(" cy=\"").append(percentage(radial.getCenterY())).append('"');
+			definition.append(" r=\"").append(percentage(radial.getRadius())).append('"');
+			definition.append(" fx=\"").append(percentage(radial.getCenterX())).append('"');
+			definition.append(" fy=\"").append(percentage(radial.getCenterY())).append('"');
+
+		} else {
+
+			LinearGradient linear = (LinearGradient) gradient;
+
+			element = "linearGradient";
+			definition.append(" x1=\"").append(percentage(linear.getStartX())).append('"');
+			definition.append(" y1=\"").append(percentage(linear.getStartY())).append('"');
+			definition.append(" x2=\"").append(percentage(linear.getEndX())).append('"');
+			definition.append(" y2=\"").append(percentage(linear.getEndY())).append('"');
+		}
+
+		definition.append('>');
+		stops(definition, gradient);
+
+		String key = element + definition;
+		String id = gradients.get(key);
+
+		if (id==null) {
+			id = "g"+gradients.size();
+			gradients.put(key, id);
+			definitions.append('<').append(element).append(" id=\"").append(id).append('"');
+			definitions.append(definition);
+			definitions.append("</").append(element).append(">\n");
+		}
+
+		return id;
+	}
+
+	private void stops (StringBuilder definition, Gradient gradient)
+	{
+		for (int i=0; i<gradient.getKeyframeCount(); i++) {
+
+			GradientKeyframe keyframe = gradient.getKeyframe(i);
+
+			definition.append("<stop offset=\"").append(percentage(keyframe.getValue())).append('"');
+			definition.append(" style=\"stop-color:").append(rgbColor(keyframe.getColor()));
+			definition.append(";stop-opacity:").append(opacity(keyframe.getColor())).append("\"/>");
+		}
+	}
+
+
+	// Utilities
+
+	private String percentage (float value)
+	{
+		return Math.round(100*value)+"%";
+	}
+
+	private String rgbColor (Color color)
+	{
+		return String.format("#%06x", color.getRGB() & 0x00ffffff);
+	}
+
+	private String opacity (Color color)
+	{
+		return String.format(Locale.ENGLISH, "%.3f", (color.getRGB() >>> 24) / 255.0);
+	}
+}
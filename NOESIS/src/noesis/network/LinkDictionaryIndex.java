@@ -6,9 +6,8 @@ package noesis.network;
 // Author:      Fernando Berzal
 // E-mail:      berzal@acm.org
 
-import ikor.collection.CollectionFactory;
-import ikor.collection.Dictionary;
-import ikor.collection.util.Pair;
+import ikor.collection.primitive.IntList;
+import ikor.collection.primitive.LongIntMap;
 import noesis.Network;
 
 /**
@@ -18,6 +17,9 @@ import noesis.Network;
  * - Access to link index: O(1).
  * - Access to link information given its index: O(1).
  * 
+ * Links are hashed as 64-bit (source,destination) keys and their endpoints
+ * are stored in flat arrays, so no objects are created per link.
+ * 
  * Allows link and node addition, but not their removal.
  * 
  * @author Fernando Berzal (berzal@acm.org)
@@ -27,8 +29,9 @@ public class LinkDictionaryIndex implements LinkIndexer
 {
 	private Network net;	
 	
-	private Dictionary<Pair<Integer,Integer>, Integer> index;
-	private Dictionary<Integer, Pair<Integer,Integer>> reverse;
+	private LongIntMap index;
+	private IntList    sources;
+	private IntList    destinations;
 	
 
 	/**
@@ -38,8 +41,9 @@ public class LinkDictionaryIndex implements LinkIndexer
 	public LinkDictionaryIndex (Network net)
 	{
 		this.net = net;
-		this.index = CollectionFactory.createDictionary();
-		this.reverse = CollectionFactory.createDictionary();
+		this.index = new LongIntMap();
+		this.sources = new IntList();
+		this.destinations = new IntList();
 	}
 
 	/**
@@ -81,10 +85,21 @@ public class LinkDictionaryIndex implements LinkIndexer
 	public void add (int source, int destination)
 	{
 		int position = links();
-		Pair<Integer,Integer> edge = new Pair<Integer,Integer>(source,destination);
 		
-		index.set( edge, position);
-		reverse.set (position, edge);
+		index.set( key(source,destination), position);
+		
+		while (sources.size()<=position) {
+			sources.add(-1);
+			destinations.add(-1);
+		}
+		
+		sources.set(position, source);
+		destinations.set(position, destination);
+	}
+	
+	private static long key (int source, int destination)
+	{
+		return ((long)source<<32) | (destination & 0xFFFFFFFFL);
 	}
 	
 	/**
@@ -97,13 +112,7 @@ public class LinkDictionaryIndex implements LinkIndexer
 	@Override
 	public int index (int source, int destination)
 	{
-		Pair<Integer,Integer> key = new Pair<Integer,Integer>(source,destination);
-		Integer pos = index.get(key);
-		
-		if (pos!=null)
-			return pos;
-		else
-			return -1;
+		return index.get( key(source,destination) );
 	}
 	
 	
@@ -116,10 +125,8 @@ public class LinkDictionaryIndex implements LinkIndexer
 	@Override
 	public int source (int link)
 	{
-		Pair<Integer,Integer> value = reverse.get(link);
-
-		if (value!=null)
-			return value.first();
+		if ((link>=0) && (link<sources.size()))
+			return sources.get(link);
 		else 
 			return -1;
 	}
@@ -134,10 +141,8 @@ public class LinkDictionaryIndex implements LinkIndexer
 	@Override
 	public int destination (int link)
 	{
-		Pair<Integer,Integer> value = reverse.get(link);
-
-		if (value!=null)
-			return value.second();
+		if ((link>=0) && (link<destinations.size()))
+			return destinations.get(link);
 		else 
 			return -1;
 	}
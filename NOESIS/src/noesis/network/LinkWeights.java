@@ -0,0 +1,250 @@
+package noesis.network;
+
+// Title:       Link weights
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal
+// E-mail:      berzal@acm.org
+
+import java.util.Arrays;
+
+import noesis.LinkEvaluator;
+import noesis.Network;
+
+/**
+ * Link weights: primitive double[] column aligned with link indices.
+ *
+ * Links are indexed as in LinkIndex, i.e. the j-th out-link of node i has index offset(i)+j,
+ * so that algorithms traversing adjacency arrays can access link weights in O(1)
+ * without boxing link contents (e.g. Decimal values).
+ *
+ * - Access to the weight of the j-th out-link of a node: O(1).
+ * - Access to the weight of a link given its source & destination: O(d).
+ *
+ * NOTE: Link weights must be rebuilt after changes to the underlying network.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class LinkWeights implements LinkEvaluator
+{
+	public static final double DEFAULT_WEIGHT = 1.0;
+
+	private Network  net;
+	private int[]    offset;
+	private double[] weight;
+
+	/**
+	 * Constructor, O(n+m): all links get the default weight.
+	 * @param net Underlying network.
+	 */
+	public LinkWeights (Network net)
+	{
+		this.net = net;
+		this.offset = new int[net.size()+1];
+
+		for (int node=0; node<net.size(); node++)
+			offset[node+1] = offset[node] + net.outDegree(node);
+
+		this.weight = new double[offset[net.size()]];
+
+		Arrays.fill(weight, DEFAULT_WEIGHT);
+	}
+
+	/**
+	 * Constructor, O(n+m): link weights are obtained from a link evaluator.
+	 * @param net Underlying network.
+	 * @param evaluator Link evaluator.
+	 */
+	public LinkWeights (Network net, LinkEvaluator evaluator)
+	{
+		this(net);
+
+		for (int node=0; node<net.size(); node++) {
+			int degree = net.outDegree(node);
+
+			for (int j=0; j<degree; j++)
+				weight[offset[node]+j] = evaluator.evaluate(node, net.outLink(node,j));
+		}
+	}
+
+	/**
+	 * Underlying network, O(1).
+	 * @return The network the weights are associated to.
+	 */
+	public final Network network ()
+	{
+		return net;
+	}
+
+	/**
+	 * Number of links, O(1).
+	 * @return Number of links in the network when the weights were created.
+	 */
+	public final int links ()
+	{
+		return weight.length;
+	}
+
+	/**
+	 * Index of the first out-link of a given node, O(1).
+	 * @param node Node index
+	 * @return Link index
+	 */
+	public final int offset (int node)
+	{
+		return offset[node];
+	}
+
+	/**
+	 * Index of a given link, O(d).
+	 * @param source Source node index.
+	 * @param destination Destination node index.
+	 * @return Link index (0..m-1), -1 if link does not exist.
+	 */
+	public final int index (int source, int destination)
+	{
+		int degree = offset[source+1]-offset[source];
+
+		for (int j=0; j<degree; j++)
+			if (net.outLink(source,j)==destination)
+				return offset[source]+j;
+
+		return -1;
+	}
+
+
+	// Link weights
+
+	/**
+	 * Link weight, O(1).
+	 * @param link Link index
+	 * @return Link weight
+	 */
+	public final double get (int link)
+	{
+		return weight[link];
+	}
+
+	/**
+	 * Weight of the j-th out-link of a node, O(1).
+	 * @param node Source node index
+	 * @param j Out-link position
+	 * @return Link weight
+	 */
+	public final double get (int node, int j)
+	{
+		return weight[offset[node]+j];
+	}
+
+	/**
+	 * Set link weight, O(1).
+	 * @param link Link index
+	 * @param value Link weight
+	 */
+	public final void set (int link, double value)
+	{
+		weight[link] = value;
+	}
+
+	/**
+	 * Set link weight, O(d).
+	 * @param source Source node index
+	 * @param destination Destination node index
+	 * @param value Link weight
+	 * @return true if the link exists
+	 */
+	public final boolean set (int source, int destination, double value)
+	{
+		int link = index(source,destination);
+
+		if (link!=-1)
+			weight[link] = value;
+
+		return link!=-1;
+	}
+
+	/**
+	 * Set a batch of link weights, O(n+m).
+	 * Weights of nonexistent links are ignored (later values prevail for duplicate links).
+	 * @param sources Source node indices
+	 * @param destinations Destination node indices
+	 * @param values Link weights
+	 * @param count Number of links in the batch
+	 */
+	public void set (int[] sources, int[] destinations, double[] values, int count)
+	{
+		int   size = net.size();
+		int[] start = new int[size+1];
+		int[] order = new int[count];
+		int[] position = new int[size];
+
+		// Batch links sorted by source node (counting sort)
+
+		for (int i=0; i<count; i++)
+			if ( (sources[i]>=0) && (sources[i]<size) )
+				start[sources[i]+1]++;
+
+		for (int node=0; node<size; node++)
+			start[node+1] += start[node];
+
+		int[] next = Arrays.copyOf(start, size);
+
+		for (int i=0; i<count; i++)
+			if ( (sources[i]>=0) && (sources[i]<size) )
+				order[next[sources[i]]++] = i;
+
+		// Destination positions within each adjacency array
+
+		Arrays.fill(position, -1);
+
+		for (int node=0; node<size; node++) {
+
+			if (start[node]<start[node+1]) {
+
+				int degree = offset[node+1]-offset[node];
+
+				for (int j=0; j<degree; j++)
+					position[net.outLink(node,j)] = offset[node]+j;
+
+				for (int k=start[node]; k<start[node+1]; k++) {
+					int i = order[k];
+					int destination = destinations[i];
+
+					if ( (destination>=0) && (destination<size) && (position[destination]!=-1) )
+						weight[position[destination]] = values[i];
+				}
+
+				for (int j=0; j<degree; j++)
+					position[net.outLink(node,j)] = -1;
+			}
+		}
+	}
+
+	/**
+	 * Link weights, O(1).
+	 * @return Underlying array (indexed by link index)
+	 */
+	public final double[] weights ()
+	{
+		return weight;
+	}
+
+
+	// Link evaluator
+
+	/**
+	 * Link weight, O(d).
+	 * @see noesis.LinkEvaluator#evaluate(int, int)
+	 */
+	@Override
+	public double evaluate (int source, int destination)
+	{
+		int link = index(source,destination);
+
+		if (link!=-1)
+			return weight[link];
+		else
+			return Double.NaN;
+	}
+}
@@ -0,0 +1,145 @@
+package noesis.network.attribute;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+import ikor.model.data.DataModel;
+import ikor.model.data.IntegerModel;
+import ikor.model.data.RealModel;
+
+/**
+ * Attribute column: primitive storage for attribute values.
+ *
+ * Values are stored in primitive arrays (see IntegerColumn & RealColumn) and null values
+ * are tracked by a bit set. Values can be parsed directly from character buffers
+ * (e.g. XML parser buffers), without creating intermediate strings nor boxed values.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public abstract class AttributeColumn<T> implements Serializable
+{
+	public static final int INITIAL_CAPACITY = 16;
+
+	private BitSet defined = new BitSet();
+	private int    size = 0;
+
+
+	/**
+	 * Column factory.
+	 * @param model Data model
+	 * @return Column for the given data model, null if no primitive column is available.
+	 */
+	public static AttributeColumn create (DataModel model)
+	{
+		if (model instanceof IntegerModel)
+			return new IntegerColumn();
+		else if (model instanceof RealModel)
+			return new RealColumn();
+		else
+			return null;
+	}
+
+
+	// Column size
+
+	public final int size ()
+	{
+		return size;
+	}
+
+	public final boolean isNull (int index)
+	{
+		return (index<0) || (index>=size) || !defined.get(index);
+	}
+
+	public void clear ()
+	{
+		defined.clear();
+		size = 0;
+	}
+
+	/**
+	 * Remove a value, shifting subsequent values one position to the left.
+	 * @param index Value index
+	 */
+	public void remove (int index)
+	{
+		if ( (index>=0) && (index<size) ) {
+
+			shift(index, size);
+
+			for (int i=index; i<size-1; i++)
+				defined.set(i, defined.get(i+1));
+
+			defined.clear(size-1);
+			size--;
+		}
+	}
+
+	/**
+	 * Set a null value.
+	 * @param index Value index
+	 */
+	public final void setNull (int index)
+	{
+		define(index, false);
+	}
+
+	/**
+	 * Mark a value as defined (or null), extending the column if needed.
+	 * @param index Value index
+	 * @param value true for defined values, false for null values
+	 */
+	protected final void define (int index, boolean value)
+	{
+		if (index>=size) {
+			ensureCapacity(index+1);
+			size = index+1;
+		}
+
+		defined.set(index, value);
+	}
+
+
+	// Primitive storage
+
+	protected abstract void ensureCapacity (int capacity);
+
+	protected abstract void shift (int index, int size);
+
+
+	// Boxed values
+
+	public abstract T get (int index);
+
+	public abstract void set (int index, T value);
+
+
+	// Parsing
+
+	/**
+	 * Parse a value from a string.
+	 * @param index Value index
+	 * @param text Text (null values are allowed)
+	 * @return true if the text was parsed (malformed values are stored as null values)
+	 */
+	public abstract boolean parse (int index, String text);
+
+	/**
+	 * Parse a value from a character buffer (leading and trailing whitespace is ignored).
+	 * @param index Value index
+	 * @param text Character buffer
+	 * @param start Start of the value
+	 * @param length Length of the value
+	 * @return true if the text was parsed (malformed values are stored as null values)
+	 */
+	public abstract boolean parse (int index, char[] text, int start, int length);
+
+
+	// Ancillary routines
+
+	protected static final boolean isWhitespace (char c)
+	{
+		return (c==' ') || (c=='\t') || (c=='\n') || (c=='\r');
+	}
+}
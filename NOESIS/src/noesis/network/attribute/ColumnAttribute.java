@@ -0,0 +1,126 @@
+package noesis.network.attribute;
+
+import ikor.model.data.DataModel;
+
+import noesis.Attribute;
+
+/**
+ * Node attribute stored in a primitive attribute column (see AttributeColumn).
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class ColumnAttribute<T> extends Attribute<T>
+{
+	private AttributeColumn<T> column;
+
+	public ColumnAttribute (String id, DataModel type)
+	{
+		super(id,type);
+
+		this.column = AttributeColumn.create(type);
+
+		if (column==null)
+			throw new IllegalArgumentException("No attribute column for "+type);
+	}
+
+	public final AttributeColumn<T> getColumn ()
+	{
+		return column;
+	}
+
+	// Parsing
+
+	@Override
+	public void set (int index, String value)
+	{
+		if (value!=null)
+			column.parse(index, value);
+		else
+			column.setNull(index);
+	}
+
+	public final boolean parse (int index, char[] text, int start, int length)
+	{
+		return column.parse(index, text, start, length);
+	}
+
+	// List interface
+
+	@Override
+	public int size ()
+	{
+		return column.size();
+	}
+
+	@Override
+	public T get (int index)
+	{
+		return column.get(index);
+	}
+
+	@Override
+	public T set (int index, T object)
+	{
+		T previous = column.get(index);
+
+		column.set(index, object);
+
+		return previous;
+	}
+
+	@Override
+	public int add (T object)
+	{
+		int index = column.size();
+
+		column.set(index, object);
+
+		return index;
+	}
+
+	@Override
+	public T remove (int index)
+	{
+		T previous = column.get(index);
+
+		column.remove(index);
+
+		return previous;
+	}
+
+	@Override
+	public boolean remove (T object)
+	{
+		int index = index(object);
+
+		if (index!=-1)
+			column.remove(index);
+
+		return (index!=-1);
+	}
+
+	@Override
+	public void clear ()
+	{
+		column.clear();
+	}
+
+	@Override
+	public boolean contains (T object)
+	{
+		return index(object)!=-1;
+	}
+
+	@Override
+	public int index (T object)
+	{
+		for (int i=0; i<column.size(); i++) {
+			T value = column.get(i);
+
+			if ( (object==null)? (value==null) : object.equals(value) )
+				return i;
+		}
+
+		return -1;
+	}
+}
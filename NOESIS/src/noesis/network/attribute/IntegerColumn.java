@@ -0,0 +1,117 @@
+package noesis.network.attribute;
+
+import java.util.Arrays;
+
+/**
+ * Integer attribute column, backed by an int[] array.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class IntegerColumn extends AttributeColumn<Integer>
+{
+	private int[] values = new int[INITIAL_CAPACITY];
+
+	// Primitive values
+
+	public final int getInt (int index)
+	{
+		return values[index];
+	}
+
+	public final void setInt (int index, int value)
+	{
+		define(index, true);
+		values[index] = value;
+	}
+
+	@Override
+	protected void ensureCapacity (int capacity)
+	{
+		if (capacity>values.length)
+			values = Arrays.copyOf(values, Math.max(capacity, 2*values.length));
+	}
+
+	@Override
+	protected void shift (int index, int size)
+	{
+		System.arraycopy(values, index+1, values, index, size-index-1);
+	}
+
+	// Boxed values
+
+	@Override
+	public Integer get (int index)
+	{
+		if (isNull(index))
+			return null;
+		else
+			return values[index];
+	}
+
+	@Override
+	public void set (int index, Integer value)
+	{
+		if (value!=null)
+			setInt(index, value);
+		else
+			setNull(index);
+	}
+
+	// Parsing
+
+	@Override
+	public boolean parse (int index, String text)
+	{
+		try {
+			setInt(index, Integer.parseInt(text.trim()));
+			return true;
+		} catch (Exception error) {  // NullPointerException, NumberFormatException
+			setNull(index);
+			return false;
+		}
+	}
+
+	@Override
+	public boolean parse (int index, char[] text, int start, int length)
+	{
+		int end = start+length;
+
+		while ( (start<end) && isWhitespace(text[start]) )
+			start++;
+
+		while ( (end>start) && isWhitespace(text[end-1]) )
+			end--;
+
+		boolean negative = false;
+
+		if ( (start<end) && ((text[start]=='-') || (text[start]=='+')) ) {
+			negative = (text[start]=='-');
+			start++;
+		}
+
+		long value = 0;
+
+		for (int i=start; i<end; i++) {
+
+			char c = text[i];
+
+			if ( (c<'0') || (c>'9') || (i-start>10) ) {
+				setNull(index);
+				return false;
+			}
+
+			value = 10*value + (c-'0');
+		}
+
+		if (negative)
+			value = -value;
+
+		if ( (start==end) || (value<Integer.MIN_VALUE) || (value>Integer.MAX_VALUE) ) {
+			setNull(index);
+			return false;
+		}
+
+		setInt(index, (int) value);
+		return true;
+	}
+}
@@ -0,0 +1,134 @@
+package noesis.network.attribute;
+
+import java.util.Arrays;
+
+/**
+ * Real attribute column, backed by a double[] array.
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+public class RealColumn extends AttributeColumn<Double>
+{
+	private static final int MAX_DIGITS = 15;  // Exact mantissa (< 2^53)
+
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+	                                                1e11, 1e12, 1e13, 1e14, 1e15 };
+
+	private double[] values = new double[INITIAL_CAPACITY];
+
+	// Primitive values
+
+	public final double getDouble (int index)
+	{
+		return values[index];
+	}
+
+	public final void setDouble (int index, double value)
+	{
+		define(index, true);
+		values[index] = value;
+	}
+
+	@Override
+	protected void ensureCapacity (int capacity)
+	{
+		if (capacity>values.length)
+			values = Arrays.copyOf(values, Math.max(capacity, 2*values.length));
+	}
+
+	@Override
+	protected void shift (int index, int size)
+	{
+		System.arraycopy(values, index+1, values, index, size-index-1);
+	}
+
+	// Boxed values
+
+	@Override
+	public Double get (int index)
+	{
+		if (isNull(index))
+			return null;
+		else
+			return values[index];
+	}
+
+	@Override
+	public void set (int index, Double value)
+	{
+		if (value!=null)
+			setDouble(index, value);
+		else
+			setNull(index);
+	}
+
+	// Parsing
+
+	@Override
+	public boolean parse (int index, String text)
+	{
+		try {
+			setDouble(index, Double.parseDouble(text));
+			return true;
+		} catch (Exception error) {  // NullPointerException, NumberFormatException
+			setNull(index);
+			return false;
+		}
+	}
+
+	/**
+	 * Plain decimal numbers are parsed without creating intermediate strings,
+	 * numbers with exponents (or too many digits) are parsed by Double.parseDouble.
+	 */
+	@Override
+	public boolean parse (int index, char[] text, int start, int length)
+	{
+		int end = start+length;
+
+		while ( (start<end) && isWhitespace(text[start]) )
+			start++;
+
+		while ( (end>start) && isWhitespace(text[end-1]) )
+			end--;
+
+		int     pos = start;
+		boolean negative = false;
+		long    mantissa = 0;
+		int     digits = 0;
+		int     decimals = -1;
+
+		if ( (pos<end) && ((text[pos]=='-') || (text[pos]=='+')) ) {
+			negative = (text[pos]=='-');
+			pos++;
+		}
+
+		while (pos<end) {
+
+			char c = text[pos];
+
+			if ( (c>='0') && (c<='9') ) {
+				mantissa = 10*mantissa + (c-'0');
+				digits++;
+
+				if (decimals>=0)
+					decimals++;
+			} else if ( (c=='.') && (decimals<0) ) {
+				decimals = 0;
+			} else {
+				break;
+			}
+
+			pos++;
+		}
+
+		if ( (pos==end) && (digits>0) && (digits<=MAX_DIGITS) ) {
+
+			double value = (decimals>0)? mantissa/POWERS_OF_TEN[decimals]: mantissa;
+
+			setDouble(index, negative? -value: value);
+			return true;
+		}
+
+		return parse(index, new String(text, start, end-start));
+	}
+}
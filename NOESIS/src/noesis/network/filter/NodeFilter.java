@@ -1,18 +1,17 @@
 package noesis.network.filter;
 
 import noesis.Network;
-import ikor.collection.CollectionFactory;
-import ikor.collection.Set;
+import ikor.collection.primitive.IntSet;
 
 public class NodeFilter implements NetworkFilter 
 {
 	private Network      net;
-	private Set<Integer> nodeset;
+	private IntSet       nodeset;
 
 	public NodeFilter (Network net)
 	{
 		this.net = net;
-		this.nodeset = CollectionFactory.createSet();
+		this.nodeset = new IntSet();
 	}
 	
 	public NodeFilter (Network net, int index)
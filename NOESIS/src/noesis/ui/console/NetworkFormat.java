@@ -35,7 +35,9 @@ public class NetworkFormat {
 			
 			System.err.println("NOESIS Network format conversion utility:");
 			System.err.println();
-			System.err.println("  java noesis.ui.console.NetworkFormat <input-file> <output-file>");
+			System.err.println("  java noesis.ui.console.NetworkFormat <input-file> <output-file> [-parallel]");
+			System.err.println();
+			System.err.println("  -parallel: Parallel parsing of the input network links (Pajek, ASCII & SNAP files)");
 			
 		} else {
 			
@@ -47,20 +49,9 @@ public class NetworkFormat {
 			
 			System.err.println("Reading network from "+args[0]);
 			
-			if (args[0].endsWith(".net"))
-				reader = new PajekNetworkReader(new FileReader(args[0]));
-			else if (args[0].endsWith(".txt"))
-				reader = new SNAPNetworkReader(new FileReader(args[0]));
-			else if (args[0].endsWith(".gz"))
-				reader = new SNAPGZNetworkReader(new FileInputStream(args[0]));
-			else if (args[0].endsWith(".gml"))
-				reader = new GMLNetworkReader(new FileReader(args[0]));
-			else if (args[0].endsWith(".graphml"))
-				reader = new GraphMLNetworkReader(new FileInputStream(args[0]));
-			else if (args[0].endsWith(".gdf"))
-				reader = new GDFNetworkReader(new FileReader(args[0]));
-			else
-				throw new IOException("Unknown input network file format.");
+			reader = NetworkReaderFactory.createReader(args[0]);
+			
+			reader.setParallel( (args.length>2) && args[2].equals("-parallel") );
 			
 			Network net = reader.read();
 			
@@ -87,13 +78,25 @@ public class NetworkFormat {
 			else if (args[1].endsWith(".gml"))
 				writer = new GMLNetworkWriter(new FileWriter(args[1]));
 			else if (args[1].endsWith(".graphml"))
-				writer = new GraphMLNetworkWriter(new FileWriter(args[1]));
+				writer = new GraphMLNetworkWriter(new FileOutputStream(args[1]));
 			else if (args[1].endsWith(".net"))
 				writer = new PajekNetworkWriter(new FileWriter(args[1]));
+			else if (args[1].endsWith(".noesis"))
+				writer = new BinaryNetworkWriter(new FileOutputStream(args[1]));
+			else if (args[1].endsWith(".nlog"))
+				writer = new NetworkLogWriter(args[1], false);
+			else if (args[1].endsWith(".txt"))
+				writer = new SNAPNetworkWriter(new FileOutputStream(args[1]));
+			else if (args[1].endsWith(".gz"))
+				writer = new SNAPGZNetworkWriter(new FileOutputStream(args[1]));
 			else
 				throw new IOException("Unknown output network file format.");
+			
+			if (writer instanceof TextNetworkWriter)
+				((TextNetworkWriter)writer).setParallel(true);
 		
 			writer.write(net);
+			writer.close();
 
 			// End
 			
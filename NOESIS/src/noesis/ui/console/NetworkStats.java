@@ -45,6 +45,26 @@ public class NetworkStats {
 			System.err.println("NOESIS Network Statistics:");
 			System.err.println();
 			System.err.println("  java noesis.ui.console.NetworkStats <file>");
+			System.err.println("  java noesis.ui.console.NetworkStats -inspect <file>...");
+			
+		} else if (args[0].equals("-inspect")) {
+			
+			// Network file triage: headers or a single streaming pass per file
+			
+			for (int i=1; i<args.length; i++) {
+				
+				try {
+					NetworkReader reader = NetworkReaderFactory.createReader(args[i]);
+					
+					System.out.println(args[i]+": "+reader.inspect());
+					
+					reader.close();
+					
+				} catch (Exception error) {
+					
+					System.out.println(args[i]+": "+error.getMessage());
+				}
+			}
 			
 		} else {
 			
@@ -56,22 +76,7 @@ public class NetworkStats {
 			
 			System.err.println("Reading network from "+args[0]);
 			
-			if (args[0].endsWith(".net"))
-				reader = new PajekNetworkReader(new FileReader(args[0]));
-			else if (args[0].endsWith(".dat"))
-				reader = new ASCIINetworkReader(new FileReader(args[0]));
-			else if (args[0].endsWith(".txt"))
-				reader = new SNAPNetworkReader(new FileReader(args[0]));
-			else if (args[0].endsWith(".gz"))
-				reader = new SNAPGZNetworkReader(new FileInputStream(args[0]));
-			else if (args[0].endsWith(".gml"))
-				reader = new GMLNetworkReader(new FileReader(args[0]));
-			else if (args[0].endsWith(".graphml"))
-				reader = new GraphMLNetworkReader(new FileInputStream(args[0]));
-			else if (args[0].endsWith(".gdf"))
-				reader = new GDFNetworkReader(new FileReader(args[0]));
-			else
-				throw new IOException("Unknown network file format.");
+			reader = NetworkReaderFactory.createReader(args[0]);
 			
 			reader.setType(noesis.ArrayNetwork.class);     // NDwww.net 5.2s
 			//reader.setType(noesis.GraphNetwork.class);  // NDwww.net 9.6s
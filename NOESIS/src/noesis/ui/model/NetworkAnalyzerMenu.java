@@ -149,6 +149,10 @@ public class NetworkAnalyzerMenu extends Menu
 		saveGDF.setIcon( app.url("icons/save.png") );
 		save.add(saveGDF);
 
+		Option saveBinary =new Option("NOESIS binary network", new AnalyzerSaveAction(ui, "noesis") );
+		saveBinary.setIcon( app.url("icons/save.png") );
+		save.add(saveBinary);
+
 		//Option savePajek =new Option("Pajek network", new ViewerSaveAction(ui, "pajek") );
 		//savePajek.setIcon( app.url("icons/save.png") );
 		//save.add(savePajek);
@@ -571,6 +575,10 @@ public class NetworkAnalyzerMenu extends Menu
 		normalizedBetweenness.setIcon( app.url("icons/microscope.png") );
 		betweenness.add(normalizedBetweenness);		
 
+		Option approximateBetweenness = new Option("Approximate betweenness", new NodeScoreAction(app, model, ApproximateBetweenness.class) );
+		approximateBetweenness.setIcon( app.url("icons/microscope.png") );
+		betweenness.add(approximateBetweenness);		
+
 		// Node influence
 		
 		Menu influence = new Menu("Influence" );
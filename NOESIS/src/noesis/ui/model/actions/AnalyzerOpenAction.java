@@ -12,15 +12,18 @@ import noesis.algorithms.visualization.NetworkLayout;
 import noesis.algorithms.visualization.NormalizedLayout;
 import noesis.algorithms.visualization.RandomLayout;
 import noesis.io.ASCIINetworkReader;
+import noesis.io.BinaryNetworkReader;
 import noesis.io.GDFNetworkReader;
+import noesis.io.GEXFNetworkReader;
 import noesis.io.GMLNetworkReader;
 import noesis.io.GraphMLNetworkReader;
+import noesis.io.MappedNetwork;
+import noesis.io.NetworkLogReader;
 import noesis.io.NetworkReader;
 import noesis.io.PajekNetworkReader;
 import noesis.io.SNAPGZNetworkReader;
 import noesis.io.SNAPNetworkReader;
 import noesis.ui.model.NetworkAnalyzerUIModel;
-import ikor.math.Decimal;
 import ikor.model.data.RealModel;
 import ikor.model.ui.Action;
 import ikor.model.ui.File;
@@ -115,7 +118,7 @@ public class AnalyzerOpenAction extends Action
 		
 		private AttributeNetwork read (String url)
 		{
-			NetworkReader<String,Decimal> reader; 
+			NetworkReader reader; 
 			Network net = null;
 			
 			try {
@@ -125,15 +128,21 @@ public class AnalyzerOpenAction extends Action
 				else if (url.endsWith(".dat"))
 					reader = new ASCIINetworkReader(new FileReader(url));
 				else if (url.endsWith(".txt"))
-					reader = new SNAPNetworkReader(new FileReader(url));
+					reader = new SNAPNetworkReader(new FileInputStream(url));
 				else if (url.endsWith(".gz"))
 					reader = new SNAPGZNetworkReader(new FileInputStream(url));
 				else if (url.endsWith(".gml"))
 					reader = new GMLNetworkReader(new FileReader(url));
 				else if (url.endsWith(".graphml"))
 					reader = new GraphMLNetworkReader(new FileInputStream(url));
+				else if (url.endsWith(".gexf"))
+					reader = new GEXFNetworkReader(new FileInputStream(url));
 				else if (url.endsWith(".gdf"))
 					reader = new GDFNetworkReader(new FileReader(url));
+				else if (url.endsWith(".noesis"))
+					reader = new BinaryNetworkReader(url);
+				else if (url.endsWith(".nlog"))
+					reader = new NetworkLogReader(url);
 				else
 					throw new IOException("Unknown network file format.");
 
@@ -160,7 +169,9 @@ public class AnalyzerOpenAction extends Action
 				else
 					ui.message("Network loaded with "+net.size()+" nodes and "+net.links()+" links.");
 
-				if (!(net instanceof AttributeNetwork))
+				if (net instanceof MappedNetwork)
+					net = ((MappedNetwork)net).toAttributeNetwork();
+				else if (!(net instanceof AttributeNetwork))
 					net = new AttributeNetwork(net);
 				
 			} else {
@@ -6,11 +6,13 @@ import java.io.IOException;
 
 import noesis.AttributeNetwork;
 
+import noesis.io.BinaryNetworkWriter;
 import noesis.io.GDFNetworkWriter;
 import noesis.io.GMLNetworkWriter;
 import noesis.io.GraphMLNetworkWriter;
 import noesis.io.NetworkWriter;
 import noesis.io.PajekNetworkWriter;
+import noesis.io.TextNetworkWriter;
 import noesis.io.graphics.NetworkImageWriter;
 
 import noesis.ui.model.NetworkAnalyzerUIModel;
@@ -64,7 +66,9 @@ public class AnalyzerSaveAction extends Action
 					else if (format.equals("gml"))
 						writer = new GMLNetworkWriter(new FileWriter(filename));
 					else if (format.equals("graphml"))
-						writer = new GraphMLNetworkWriter(new FileWriter(filename));
+						writer = new GraphMLNetworkWriter(new FileOutputStream(filename));
+					else if (format.equals("noesis"))
+						writer = new BinaryNetworkWriter(new FileOutputStream(filename));
 					else if (format.equals("pajek"))
 						writer = new PajekNetworkWriter(new FileWriter(filename));
 					else if (format.equals("png"))
@@ -76,6 +80,9 @@ public class AnalyzerSaveAction extends Action
 					else
 						throw new IOException("Unknown output network file format.");
 
+					if (writer instanceof TextNetworkWriter)
+						((TextNetworkWriter)writer).setParallel(true);
+
 					if (writer!=null) {
 						writer.write(net);
 						writer.close();
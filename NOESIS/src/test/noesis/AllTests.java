@@ -7,6 +7,8 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses( { test.noesis.DynamicNetworkTest.class,
 	                   test.noesis.SampleNetworkTests.class,
 	                   test.noesis.ParameterTest.class,
+	                   test.noesis.BasicNetworkTest.class,
+	                   test.noesis.CompactNetworkTest.class,
 	                   test.noesis.algorithms.AllTests.class,
 					   test.noesis.analysis.AllTests.class,
 					   test.noesis.io.AllTests.class,
@@ -0,0 +1,136 @@
+package test.noesis;
+
+import static org.junit.Assert.*;
+
+import noesis.BasicNetwork;
+
+import org.junit.Test;
+
+public class BasicNetworkTest
+{
+	private BasicNetwork create (boolean sorted)
+	{
+		BasicNetwork net = new BasicNetwork(sorted);
+
+		net.setSize(5);
+
+		net.add(0,3);
+		net.add(0,1);
+		net.add(0,4);
+		net.add(2,0);
+		net.add(3,0);
+		net.add(1,0);
+
+		return net;
+	}
+
+	@Test
+	public void testUnsortedLinks()
+	{
+		BasicNetwork net = create(false);
+
+		assertFalse(net.isSorted());
+		assertEquals(6, net.links());
+
+		assertEquals(3, net.outLink(0,0));
+		assertEquals(1, net.outLink(0,1));
+		assertEquals(4, net.outLink(0,2));
+
+		assertEquals(0, net.getLinkIndex(0,3));
+		assertEquals(1, net.getLinkIndex(0,1));
+		assertEquals(2, net.getLinkIndex(0,4));
+		assertEquals(-1, net.getLinkIndex(0,2));
+	}
+
+	@Test
+	public void testSortedLinks()
+	{
+		BasicNetwork net = create(true);
+
+		assertTrue(net.isSorted());
+		assertEquals(6, net.links());
+
+		assertEquals(1, net.outLink(0,0));
+		assertEquals(3, net.outLink(0,1));
+		assertEquals(4, net.outLink(0,2));
+
+		assertEquals(1, net.inLink(0,0));
+		assertEquals(2, net.inLink(0,1));
+		assertEquals(3, net.inLink(0,2));
+
+		assertEquals(0, net.getLinkIndex(0,1));
+		assertEquals(1, net.getLinkIndex(0,3));
+		assertEquals(2, net.getLinkIndex(0,4));
+		assertEquals(-1, net.getLinkIndex(0,2));
+
+		assertTrue(net.contains(0,4));
+		assertFalse(net.contains(4,0));
+		assertEquals(4, (int) net.get(0,4));
+		assertNull(net.get(0,0));
+
+		assertFalse(net.add(0,3));
+		assertEquals(6, net.links());
+	}
+
+	@Test
+	public void testSetSorted()
+	{
+		BasicNetwork net = create(false);
+
+		net.setSorted(true);
+
+		assertEquals(1, net.outLink(0,0));
+		assertEquals(3, net.outLink(0,1));
+		assertEquals(4, net.outLink(0,2));
+
+		for (int i=0; i<net.size(); i++)
+			for (int j=0; j<net.size(); j++)
+				assertEquals(create(false).contains(i,j), net.contains(i,j));
+	}
+
+	@Test
+	public void testAddLinks()
+	{
+		BasicNetwork net = create(false);
+
+		int[] sources = { 0, 4, 4, 0, 2, 9 };
+		int[] targets = { 2, 1, 1, 3, 3, 0 };
+
+		assertEquals(3, net.addLinks(sources, targets));
+		assertEquals(9, net.links());
+
+		// Relative order preserved, duplicates removed
+
+		assertEquals(4, net.outDegree(0));
+		assertEquals(3, net.outLink(0,0));
+		assertEquals(1, net.outLink(0,1));
+		assertEquals(4, net.outLink(0,2));
+		assertEquals(2, net.outLink(0,3));
+
+		assertEquals(1, net.outDegree(4));
+		assertEquals(2, net.inDegree(1));
+		assertEquals(2, net.inDegree(3));
+		assertEquals(2, net.outDegree(2));
+	}
+
+	@Test
+	public void testAddSortedLinks()
+	{
+		BasicNetwork net = create(true);
+
+		int[] sources = { 0, 4, 4, 0, 2 };
+		int[] targets = { 2, 1, 1, 3, 3 };
+
+		assertEquals(3, net.addLinks(sources, targets));
+		assertEquals(9, net.links());
+
+		assertEquals(4, net.outDegree(0));
+
+		for (int i=0; i<net.outDegree(0); i++)
+			assertEquals(i+1, net.outLink(0,i));
+
+		assertEquals(0, net.inLink(3,0));
+		assertEquals(2, net.inLink(3,1));
+		assertTrue(net.contains(2,3));
+	}
+}
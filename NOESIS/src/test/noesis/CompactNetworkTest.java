@@ -0,0 +1,128 @@
+package test.noesis;
+
+import static org.junit.Assert.*;
+
+import noesis.BasicNetwork;
+import noesis.CompactNetwork;
+import noesis.analysis.NodeScore;
+import noesis.analysis.structure.Betweenness;
+import noesis.analysis.structure.PageRank;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompactNetworkTest
+{
+	public final double EPSILON = 1e-9;
+
+	BasicNetwork   base;
+	CompactNetwork compact;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		base = new BasicNetwork();
+		base.setSize(5);
+
+		base.add(0,3);
+		base.add(0,1);
+		base.add(0,2);
+		base.add(1,2);
+		base.add(2,0);
+		base.add(3,4);
+		base.add(4,1);
+
+		compact = new CompactNetwork(base);
+	}
+
+	@Test
+	public void testSize()
+	{
+		assertEquals(5, compact.size());
+		assertEquals(7, compact.links());
+	}
+
+	@Test
+	public void testDegrees()
+	{
+		for (int i=0; i<base.size(); i++) {
+			assertEquals(base.outDegree(i), compact.outDegree(i));
+			assertEquals(base.inDegree(i), compact.inDegree(i));
+		}
+	}
+
+	@Test
+	public void testLinks()
+	{
+		// Sorted adjacency
+
+		assertEquals(1, compact.outLink(0,0));
+		assertEquals(2, compact.outLink(0,1));
+		assertEquals(3, compact.outLink(0,2));
+
+		assertEquals(0, compact.inLink(1,0));
+		assertEquals(4, compact.inLink(1,1));
+
+		for (int i=0; i<base.size(); i++)
+			for (int j=0; j<base.size(); j++)
+				assertEquals(base.contains(i,j), compact.contains(i,j));
+	}
+
+	@Test
+	public void testLinkIndex()
+	{
+		assertEquals(0, compact.index(0,1));
+		assertEquals(1, compact.index(0,2));
+		assertEquals(2, compact.index(0,3));
+		assertEquals(3, compact.index(1,2));
+		assertEquals(4, compact.index(2,0));
+		assertEquals(5, compact.index(3,4));
+		assertEquals(6, compact.index(4,1));
+		assertEquals(-1, compact.index(1,0));
+
+		for (int link=0; link<compact.links(); link++)
+			assertEquals(link, compact.index(compact.source(link), compact.destination(link)));
+
+		assertEquals(-1, compact.source(7));
+		assertEquals(-1, compact.destination(7));
+	}
+
+	@Test
+	public void testLinkList()
+	{
+		int[] sources = { 2, 0, 0, 2, 1 };
+		int[] targets = { 1, 1, 2, 1, 0 };
+
+		CompactNetwork net = new CompactNetwork(4, sources, targets);
+
+		assertEquals(4, net.size());
+		assertEquals(4, net.links());  // Duplicate link removed
+		assertEquals(2, net.outDegree(0));
+		assertEquals(2, net.inDegree(1));
+		assertEquals(0, net.outDegree(3));
+		assertEquals(0, net.inDegree(3));
+		assertTrue(net.contains(2,1));
+		assertFalse(net.contains(1,2));
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testImmutable ()
+	{
+		compact.add(1,0);
+	}
+
+	@Test
+	public void testScores()
+	{
+		NodeScore baseBetweenness = (new Betweenness(base)).call();
+		NodeScore compactBetweenness = (new Betweenness(compact)).call();
+
+		NodeScore baseRank = (new PageRank(base)).call();
+		NodeScore compactRank = (new PageRank(compact)).call();
+
+		for (int i=0; i<base.size(); i++) {
+			assertEquals(baseBetweenness.get(i), compactBetweenness.get(i), EPSILON);
+			assertEquals(baseRank.get(i), compactRank.get(i), EPSILON);
+		}
+	}
+}
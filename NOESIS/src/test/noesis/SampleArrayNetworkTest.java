@@ -1,5 +1,7 @@
 package test.noesis;
 
+import static org.junit.Assert.*;
+
 import org.junit.Test;
 
 import noesis.ArrayNetwork;
@@ -40,5 +42,30 @@ public class SampleArrayNetworkTest extends SampleNetworkTest
 	{
 		super.testWebgraphClear();
 	}
+	
+	@Test
+	public void testLinkValues ()
+	{
+		ArrayNetwork<String,String> net = new ArrayNetwork<String,String>();
+		
+		net.add("a");
+		net.add("b");
+		net.add("c");
+		
+		net.add(0, 1);
+		net.add(0, 2, "ac");
+		net.addLinks(new int[]{1,1}, new int[]{0,2});
+		assertFalse(net.add(1, 0, "duplicate"));
+		net.add(2, 0, "ca");
+		net.addLinks(new int[]{2}, new int[]{1});
+		
+		assertEquals(6, net.links());
+		assertNull(net.get(0,1));
+		assertEquals("ac", net.get(0,2));
+		assertNull(net.get(1,0));
+		assertNull(net.get(1,2));
+		assertEquals("ca", net.get(2,0));
+		assertNull(net.get(2,1));
+	}
 
 }
@@ -9,15 +9,18 @@ import org.junit.runners.Suite;
 					   test.noesis.algorithms.paths.BFSPathFinderTest.class,
 					   test.noesis.algorithms.paths.DFSPathFinderTest.class,
 					   test.noesis.algorithms.paths.DijkstraTest.class,
+					   test.noesis.algorithms.paths.DijkstraLinkWeightsTest.class,
 					   test.noesis.algorithms.paths.BellmanFordTest.class,
 					   test.noesis.algorithms.paths.AllPairsDijkstraTest.class,
 					   test.noesis.algorithms.paths.AllPairsBellmanFordTest.class,
 					   test.noesis.algorithms.paths.AllPairsFloydWarshallTest.class,
 					   test.noesis.algorithms.paths.AllPairsJohnsonTest.class,
+					   test.noesis.algorithms.paths.TiledDistanceStoreTest.class,
 					   test.noesis.algorithms.traversal.NetworkTraversalTest.class,
+					   test.noesis.algorithms.traversal.MultiSourceBFSTest.class,
 					   test.noesis.algorithms.traversal.TopologicalSortTest.class,
 					   test.noesis.algorithms.traversal.ConnectedComponentsTest.class,
 					   test.noesis.algorithms.traversal.StronglyConnectedComponentsTest.class})
 public class AllTests {
 
-}
\ No newline at end of file
+}
@@ -8,8 +8,12 @@ import test.noesis.SampleNetworks;
 
 import ikor.collection.Evaluator;
 
+import noesis.ArrayNetwork;
 import noesis.Network;
 import noesis.algorithms.mst.*;
+import noesis.network.LinkWeights;
+
+import test.noesis.algorithms.DirectLinkEvaluator;
 
 public class MinimumSpanningTreeTest
 {
@@ -41,6 +45,49 @@ public class MinimumSpanningTreeTest
 		assertEquals( 1+1+2+20+55+70+94, kruskal.weight(), 0.001 );
 	}
 
+	@Test
+	public void testKruskalLinkWeights() 
+	{
+		LinkWeights weights = new LinkWeights(roadmap, new DirectLinkEvaluator(roadmap));
+		KruskalMinimumSpanningTree kruskal = new KruskalMinimumSpanningTree(roadmap,weights);
+		
+		kruskal.run();
+		
+		Network<String,Integer> mst = kruskal.MST();
+		
+		assertEquals( roadmap.size(), mst.size());
+		assertEquals( roadmap.size()-1, mst.links());
+		assertEquals( 1+1+2+20+55+70+94, kruskal.weight(), 0.001 );
+		assertEquals( 70, (int) mst.get(roadmap.index("Granada"), roadmap.index("Motril")) );
+	}
+
+	@Test
+	public void testKruskalOtherLinkWeights() 
+	{
+		// Weights for a copy of the network, with links in reverse order,
+		// i.e. different link indices
+		
+		Network<String,Integer> copy = new ArrayNetwork<String,Integer>();
+		
+		for (int i=0; i<roadmap.size(); i++)
+			copy.add(roadmap.get(i));
+		
+		for (int i=0; i<roadmap.size(); i++)
+			for (int j=roadmap.outDegree(i)-1; j>=0; j--)
+				copy.add(i, roadmap.outLink(i,j), roadmap.get(i,roadmap.outLink(i,j)));
+		
+		LinkWeights weights = new LinkWeights(copy, new DirectLinkEvaluator(copy));
+		KruskalMinimumSpanningTree kruskal = new KruskalMinimumSpanningTree(roadmap,weights);
+		
+		kruskal.run();
+		
+		Network<String,Integer> mst = kruskal.MST();
+		
+		assertEquals( roadmap.size()-1, mst.links());
+		assertEquals( 1+1+2+20+55+70+94, kruskal.weight(), 0.001 );
+		assertEquals( 70, (int) mst.get(roadmap.index("Granada"), roadmap.index("Motril")) );
+	}
+
 	@Test
 	public void testPrim() 
 	{
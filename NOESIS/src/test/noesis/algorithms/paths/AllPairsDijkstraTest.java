@@ -35,6 +35,12 @@ public class AllPairsDijkstraTest extends AllPairsShortestPathFinderTest
 	public void testDisconnected() 
 	{
 		checkDisconnected();
+	}
+
+	@Test
+	public void testStreaming() 
+	{
+		checkStreaming();
 	}		
 
 }
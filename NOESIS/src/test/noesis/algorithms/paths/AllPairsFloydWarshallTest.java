@@ -72,5 +72,11 @@ public class AllPairsFloydWarshallTest extends AllPairsShortestPathFinderTest
 
 		assertTrue( finder.negativeCycleDetected() );
 	}
-	
+
+	@Test
+	public void testStreaming() 
+	{
+		checkStreaming();
+	}		
+
 }
@@ -72,5 +72,11 @@ public class AllPairsJohnsonTest extends AllPairsShortestPathFinderTest
 
 		assertTrue( finder.negativeCycleDetected() );
 	}
-	
+
+	@Test
+	public void testStreaming() 
+	{
+		checkStreaming();
+	}		
+
 }
@@ -82,6 +82,29 @@ public abstract class AllPairsShortestPathFinderTest
 		for (int i=0; i<network.size(); i++)
 			for (int j=0; j<network.size(); j++)
 				checkDistance(i,j, SampleNetworks.DISCONNECTED_DISTANCE[i][j]);
+	}
+
+	
+	public void checkStreaming() 
+	{
+		network = SampleNetworks.weightedUnreachableGraph();
+		
+		LinkEvaluator linkEvaluator = new DirectLinkEvaluator(network);
+
+		finder = pathFinder(network,linkEvaluator);
+		
+		final double[][] streamed = new double[network.size()][];
+		
+		finder.run( new DistanceConsumer() {
+			@Override
+			public void consume (int source, double[] distance) {
+				streamed[source] = distance.clone();
+			}
+		});
+		
+		for (int i=0; i<network.size(); i++)
+			for (int j=0; j<network.size(); j++)
+				assertEquals( SampleNetworks.UNREACHABLE_DISTANCE[i][j], streamed[i][j], EPSILON);
 	}	
 
 }
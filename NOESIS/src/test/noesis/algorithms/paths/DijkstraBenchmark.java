@@ -0,0 +1,188 @@
+package test.noesis.algorithms.paths;
+
+import ikor.collection.Evaluator;
+import ikor.collection.IndexedPriorityQueue;
+import ikor.collection.Indexer;
+import ikor.collection.PriorityQueue;
+import ikor.util.Benchmark;
+
+import noesis.LinkEvaluator;
+import noesis.Network;
+import noesis.algorithms.paths.DijkstraShortestPathFinder;
+import noesis.model.random.BarabasiAlbertNetwork;
+import noesis.model.random.ErdosRenyiNetwork;
+import noesis.network.LinkWeights;
+
+/**
+ * Dijkstra benchmark: boxed indexed priority queue (all nodes inserted up front, 
+ * remove+add per relaxation) vs. primitive d-ary heap (lazy insertion, decreaseKey),
+ * with link weights obtained from a link evaluator or read from a primitive link weight column.
+ *
+ * Usage: DijkstraBenchmark [nodes] [links per node] [sources]
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class DijkstraBenchmark
+{
+	public static final int NODES = 100000;
+	public static final int LINKS = 5;
+	public static final int SOURCES = 50;
+	public static final int WARMUP = 10;
+	
+
+	// Pseudo-random link weights in [1,10]
+	
+	static class RandomLinkEvaluator implements LinkEvaluator
+	{
+		@Override
+		public double evaluate (int source, int destination)
+		{
+			int h = (31*source + destination) * 0x9E3779B9;
+			
+			return 1 + ((h>>>16) % 10);
+		}
+	}
+	
+	
+	// Original implementation, using IndexedPriorityQueue<Integer>
+	
+	public static double[] legacyDijkstra (Network net, int origin, LinkEvaluator linkEvaluator)
+	{
+		int size = net.size();
+		final double[] distance = new double[size];
+		int[] predecessor = new int[size];
+		
+		PriorityQueue<Integer> queue = new IndexedPriorityQueue<Integer>(size,
+				new Evaluator<Integer>() {
+					public double evaluate(Integer object) { return distance[object]; }
+				},
+				new Indexer<Integer>() {
+					public int index(Integer object) { return object; }
+				});
+
+		for (int i=0; i<size; i++) {
+			predecessor[i] = -1;
+			distance[i] = Double.POSITIVE_INFINITY;
+			queue.add(i);
+		}
+		
+		queue.remove(origin);
+		distance[origin] = 0;
+		queue.add(origin);
+		
+		while (queue.size()>0) {
+			
+			int vertex = queue.get();
+			int degree = net.outDegree(vertex);
+			
+			for (int j=0; j<degree; j++) {
+				
+				int    target = net.outLink(vertex,j);
+				double linkValue = linkEvaluator.evaluate(vertex,target);
+				
+				if (distance[target] > distance[vertex] + linkValue) {
+					predecessor[target] = vertex;
+					queue.remove(target);
+					distance[target] = distance[vertex] + linkValue;
+					queue.add(target);
+				}
+			}
+		}
+		
+		return distance;
+	}
+	
+	public static double[] dijkstra (Network net, int origin, LinkEvaluator linkEvaluator)
+	{
+		DijkstraShortestPathFinder finder = new DijkstraShortestPathFinder(net, origin, linkEvaluator);
+		
+		finder.run();
+		
+		return finder.distance();
+	}
+	
+	
+	// Benchmark
+	
+	public static void benchmark (Network net, int sources)
+	{
+		LinkEvaluator evaluator = new RandomLinkEvaluator();
+		LinkWeights weights = new LinkWeights(net, evaluator);
+		double checksum;
+		
+		System.out.println(net.getClass().getSimpleName()+": "+net.size()+" nodes, "+net.links()+" links");
+
+		// Warm-up
+		
+		for (int i=0; i<WARMUP; i++) {
+			legacyDijkstra(net, i, evaluator);
+			dijkstra(net, i, evaluator);
+			dijkstra(net, i, weights);
+		}
+		
+		// Before: boxed indexed priority queue
+		
+		Benchmark before = new Benchmark("- IndexedPriorityQueue<Integer>:");
+		
+		checksum = 0;
+		before.start();
+		
+		for (int i=0; i<sources; i++)
+			checksum += sum(legacyDijkstra(net, i, evaluator));
+		
+		before.stop();
+		
+		System.out.println(before+" [checksum "+checksum+"]");
+		
+		// After: primitive d-ary heap
+		
+		Benchmark after = new Benchmark("- IndexedIntHeap (4-ary, lazy): ");
+		
+		checksum = 0;
+		after.start();
+		
+		for (int i=0; i<sources; i++)
+			checksum += sum(dijkstra(net, i, evaluator));
+		
+		after.stop();
+		
+		System.out.println(after+" [checksum "+checksum+"]");
+		
+		// Primitive link weight column
+		
+		Benchmark column = new Benchmark("- IndexedIntHeap + LinkWeights:  ");
+		
+		checksum = 0;
+		column.start();
+		
+		for (int i=0; i<sources; i++)
+			checksum += sum(dijkstra(net, i, weights));
+		
+		column.stop();
+		
+		System.out.println(column+" [checksum "+checksum+"]");
+	}
+	
+	private static double sum (double[] distance)
+	{
+		double sum = 0;
+		
+		for (int i=0; i<distance.length; i++)
+			if (distance[i]<Double.POSITIVE_INFINITY)
+				sum += distance[i];
+		
+		return sum;
+	}
+	
+	
+	public static void main (String[] args)
+	{
+		int nodes = (args.length>0)? Integer.parseInt(args[0]): NODES;
+		int links = (args.length>1)? Integer.parseInt(args[1]): LINKS;
+		int sources = (args.length>2)? Integer.parseInt(args[2]): SOURCES;
+
+		benchmark( new ErdosRenyiNetwork(nodes, nodes*links), sources);
+		benchmark( new BarabasiAlbertNetwork(nodes, links), sources);
+	}
+}
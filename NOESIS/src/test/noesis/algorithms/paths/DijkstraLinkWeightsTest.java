@@ -0,0 +1,41 @@
+package test.noesis.algorithms.paths;
+
+import org.junit.Test;
+
+import noesis.Network;
+import noesis.LinkEvaluator;
+import noesis.algorithms.paths.*;
+import noesis.network.LinkWeights;
+
+public class DijkstraLinkWeightsTest extends SingleSourceShortestPathFinderTest
+{
+	// Path finder: link weights read from a primitive link weight column
+	
+	@Override
+	public SingleSourceShortestPathFinder pathFinder (Network net, int source, LinkEvaluator linkEvaluator)
+	{		
+		return new DijkstraShortestPathFinder(net,source,new LinkWeights(net,linkEvaluator));
+	}
+	
+	
+	// Unit tests
+	
+	@Test
+	public void testConnected() 
+	{
+		checkConnected();
+	}	
+
+	@Test
+	public void testUnreachable() 
+	{
+		checkUnreachable();
+	}	
+	
+	@Test
+	public void testDisconnected() 
+	{
+		checkDisconnected();
+	}		
+
+}
@@ -0,0 +1,91 @@
+package test.noesis.algorithms.paths;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import noesis.Network;
+import noesis.algorithms.paths.AllPairsBreadthFirst;
+import noesis.algorithms.paths.TiledDistanceStore;
+import noesis.model.regular.RingNetwork;
+
+public class TiledDistanceStoreTest 
+{
+	protected final double EPSILON = 0.000001;
+	
+	
+	@Test
+	public void testRandomAccess () 
+		throws IOException
+	{
+		File file = File.createTempFile("noesis", ".dist");
+		
+		try (TiledDistanceStore store = new TiledDistanceStore(file, 100, 16)) {
+			
+			assertEquals(100, store.size());
+			assertEquals(16, store.tileSize());
+			
+			double[] row = new double[100];
+			
+			for (int i=0; i<100; i++) {
+				for (int j=0; j<100; j++)
+					row[j] = 1000*i + j;
+				store.consume(i, row);
+			}
+			
+			for (int i=0; i<100; i++)
+				for (int j=0; j<100; j++)
+					assertEquals(1000*i+j, store.get(i,j), EPSILON);
+			
+			store.get(37, row);
+			
+			for (int j=0; j<100; j++)
+				assertEquals(37000+j, row[j], EPSILON);
+			
+		} finally {
+			file.delete();
+		}
+	}
+	
+	@Test
+	public void testAllPairs () 
+		throws IOException
+	{
+		Network ring = new RingNetwork(50);
+		File    file = File.createTempFile("noesis", ".dist");
+		
+		try (TiledDistanceStore store = new TiledDistanceStore(file, ring.size(), 8)) {
+			
+			(new AllPairsBreadthFirst(ring)).run(store);
+			
+			for (int i=0; i<ring.size(); i++)
+				for (int j=0; j<ring.size(); j++) {
+					int hops = Math.abs(i-j);
+					assertEquals( Math.min(hops, ring.size()-hops), store.get(i,j), EPSILON);
+				}
+			
+		} finally {
+			file.delete();
+		}
+	}
+	
+	@Test
+	public void testUnreachable () 
+	{
+		Network<String,Integer> network = test.noesis.SampleNetworks.weightedUnreachableGraph();
+		
+		AllPairsBreadthFirst finder = new AllPairsBreadthFirst(network);
+		
+		finder.run();
+		
+		for (int i=0; i<network.size(); i++)
+			for (int j=0; j<network.size(); j++)
+				if (test.noesis.SampleNetworks.UNREACHABLE_DISTANCE[i][j]==Double.POSITIVE_INFINITY)
+					assertEquals(Double.POSITIVE_INFINITY, finder.distance(i,j), 0.0);
+				else
+					assertTrue(finder.distance(i,j)<network.size());
+	}
+}
@@ -0,0 +1,110 @@
+package test.noesis.algorithms.traversal;
+
+import static org.junit.Assert.*;
+
+import noesis.BasicNetwork;
+import noesis.Network;
+import noesis.algorithms.paths.AllPairsBreadthFirst;
+import noesis.algorithms.traversal.MultiSourceBFS;
+import noesis.model.random.ErdosRenyiNetwork;
+
+import org.junit.Test;
+
+public class MultiSourceBFSTest 
+{
+	private void checkBatch (Network net, MultiSourceBFS bfs, int first)
+	{
+		double[] expected = new double[net.size()];
+		int[]    queue = new int[net.size()];
+		
+		bfs.run(first, bfs.batchSize());
+		
+		assertEquals( Math.min(bfs.batchSize(), net.size()-first), bfs.sources());
+		
+		for (int i=0; i<bfs.sources(); i++) {
+			
+			int source = bfs.source(i);
+			
+			AllPairsBreadthFirst.distances(net, source, expected, queue);
+			
+			// Distances
+			
+			double[] distance = bfs.distance(i);
+			
+			for (int j=0; j<net.size(); j++)
+				assertEquals(expected[j], distance[j], 0.0);
+			
+			// Path length histogram
+			
+			int[] paths = bfs.paths(i);
+			int[] count = new int[paths.length];
+			
+			for (int j=0; j<net.size(); j++)
+				if (expected[j]<Double.POSITIVE_INFINITY)
+					count[(int)expected[j]]++;
+			
+			assertArrayEquals(count, paths);
+			
+			for (int d=bfs.levels(); d<paths.length; d++)
+				assertEquals(0, paths[d]);
+		}
+	}
+	
+	@Test
+	public void testSingleWord ()
+	{
+		Network net = new ErdosRenyiNetwork(150, 300);
+		MultiSourceBFS bfs = new MultiSourceBFS(net, 1, true);
+		
+		assertEquals(64, bfs.batchSize());
+		
+		for (int first=0; first<net.size(); first+=bfs.batchSize())
+			checkBatch(net, bfs, first);
+	}
+
+	@Test
+	public void testMultipleWords ()
+	{
+		Network net = new ErdosRenyiNetwork(300, 600);
+		MultiSourceBFS bfs = new MultiSourceBFS(net, 4, true);
+		
+		assertEquals(256, bfs.batchSize());
+		
+		for (int first=0; first<net.size(); first+=bfs.batchSize())
+			checkBatch(net, bfs, first);
+	}
+	
+	@Test
+	public void testLongRing ()
+	{
+		// Small frontiers, many levels
+		
+		Network net = new BasicNetwork();
+		
+		net.setSize(500);
+		
+		for (int i=0; i<net.size(); i++)
+			net.add2(i, (i+1)%net.size());
+		
+		MultiSourceBFS bfs = new MultiSourceBFS(net, 2, true);
+		
+		for (int first=0; first<net.size(); first+=bfs.batchSize())
+			checkBatch(net, bfs, first);
+		
+		assertEquals(net.size()/2+1, bfs.levels());
+	}
+	
+	@Test
+	public void testHistogramOnly ()
+	{
+		Network net = new ErdosRenyiNetwork(100, 200);
+		MultiSourceBFS bfs = new MultiSourceBFS(net);
+		
+		bfs.run(10, 5);
+		
+		assertEquals(5, bfs.sources());
+		assertEquals(10, bfs.source(0));
+		assertNull(bfs.distance(0));
+		assertEquals(1, bfs.paths(0)[0]);
+	}
+}
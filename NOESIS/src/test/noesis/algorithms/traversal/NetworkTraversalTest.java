@@ -1,12 +1,17 @@
 package test.noesis.algorithms.traversal;
 
+import static org.junit.Assert.*;
+
 import org.junit.Test;
 import org.junit.Before;
 
 import test.noesis.MockVisitor;
 import test.noesis.SampleNetworks;
 
+import noesis.BasicNetwork;
 import noesis.Network;
+import noesis.algorithms.LinkVisitor;
+import noesis.algorithms.NodeVisitor;
 import noesis.algorithms.traversal.*;
 
 public class NetworkTraversalTest
@@ -133,5 +138,108 @@ public class NetworkTraversalTest
 		webSearch.traverse();
 		linkVisitor.checkFinished();
 	}		
-}
 
+	// Long paths (no recursion)
+
+	@Test
+	public void testDFSlongChain() {
+
+		final int   size = 100000;
+		final int[] post = new int[size];
+		Network     chain = new BasicNetwork();
+
+		chain.setSize(size);
+
+		for (int i=0; i<size-1; i++)
+			chain.add(i, i+1);
+
+		NetworkDFS dfs = new NetworkDFS(chain);
+
+		dfs.setNodePostVisitor(new NodeVisitor() {
+			int current = 0;
+
+			@Override
+			public void visit (int node) {
+				post[current++] = node;
+			}
+		});
+
+		dfs.traverse();
+
+		for (int i=0; i<size; i++) {
+			assertEquals(size-1-i, post[i]);
+			assertEquals(NetworkTraversal.State.EXPLORED, dfs.status(i));
+		}
+	}
+
+	@Test
+	public void testDFSreverse() {
+
+		final StringBuilder links = new StringBuilder();
+		Network net = new BasicNetwork();
+
+		net.setSize(4);
+		net.add(0, 1);
+		net.add(1, 2);
+		net.add(3, 2);
+
+		NetworkDFS dfs = new NetworkDFS(net);
+
+		dfs.setReverse(true);
+		dfs.setLinkVisitor(new LinkVisitor() {
+			@Override
+			public void visit (int source, int destination) {
+				links.append(source+"->"+destination+" ");
+			}
+		});
+
+		dfs.traverse(2);
+
+		assertEquals("1->2 0->1 3->2 ", links.toString());
+		assertEquals(NetworkTraversal.State.EXPLORED, dfs.status(0));
+		assertEquals(NetworkTraversal.State.EXPLORED, dfs.status(3));
+	}
+
+	@Test
+	public void testDFSgrowingNetwork() {
+
+		final int     size = 1000;
+		final int[]   post = new int[size];
+		final Network chain = new BasicNetwork();
+
+		chain.setSize(2);
+		chain.add(0, 1);
+
+		NetworkDFS dfs = new NetworkDFS(chain);
+
+		// Nodes (and links to them) added while the chain is traversed
+
+		dfs.setNodeVisitor(new NodeVisitor() {
+			@Override
+			public void visit (int node) {
+				if ( (node==chain.size()-1) && (chain.size()<size) ) {
+					chain.setSize(node+2);
+					chain.add(node, node+1);
+				}
+			}
+		});
+
+		dfs.setNodePostVisitor(new NodeVisitor() {
+			int current = 0;
+
+			@Override
+			public void visit (int node) {
+				post[current++] = node;
+			}
+		});
+
+		dfs.traverse(0);
+
+		assertEquals(size, chain.size());
+
+		for (int i=0; i<size; i++) {
+			assertEquals(size-1-i, post[i]);
+			assertEquals(NetworkTraversal.State.EXPLORED, dfs.status(i));
+		}
+	}
+}
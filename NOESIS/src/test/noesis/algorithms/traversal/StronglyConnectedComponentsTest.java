@@ -2,7 +2,10 @@ package test.noesis.algorithms.traversal;
 
 import static org.junit.Assert.*;
 
+import java.util.Random;
+
 import noesis.ArrayNetwork;
+import noesis.BasicNetwork;
 import noesis.Network;
 
 import noesis.algorithms.traversal.StronglyConnectedComponents;
@@ -269,4 +272,118 @@ public class StronglyConnectedComponentsTest
 			assertEquals(expected[i], index[i]);
 	}	
 	
+
+	// Alternative algorithms
+	
+	private void checkPartition (int[] expected, int[] observed)
+	{
+		int[] map = new int[expected.length+1];
+		int[] inverse = new int[expected.length+1];
+		
+		assertEquals(expected.length, observed.length);
+		
+		for (int i=0; i<expected.length; i++) {
+			
+			if (map[expected[i]]==0)
+				map[expected[i]] = observed[i];
+			
+			if (inverse[observed[i]]==0)
+				inverse[observed[i]] = expected[i];
+			
+			assertEquals(map[expected[i]], observed[i]);
+			assertEquals(inverse[observed[i]], expected[i]);
+		}
+	}
+	
+	private void checkMethods (Network net)
+	{
+		StronglyConnectedComponents kosaraju = new StronglyConnectedComponents(net);
+		
+		kosaraju.compute();
+		
+		for (StronglyConnectedComponents.Method method: StronglyConnectedComponents.Method.values()) {
+			
+			StronglyConnectedComponents scc = new StronglyConnectedComponents(net, method);
+			
+			scc.compute();
+			
+			assertEquals(kosaraju.components(), scc.components());
+			checkPartition(kosaraju.componentIndex(), scc.componentIndex());
+		}
+	}
+	
+	@Test
+	public void testMethods ()
+	{
+		Network net = new ArrayNetwork<String,Object>();
+		
+		for (int i=1; i<10; i++)
+			net.add(""+i);
+
+		net.add("1","7"); net.add("7","4"); net.add("4","1");
+		net.add("7","9");
+		net.add("9","6"); net.add("6","3"); net.add("3","9");
+		net.add("6","8");
+		net.add("8","5"); net.add("5","2"); net.add("2","8");
+		
+		checkMethods(net);
+	}
+	
+	@Test
+	public void testTrimmedNodes ()
+	{
+		Network net = new BasicNetwork();
+		
+		net.setSize(3);
+		net.add(0,1);
+		net.add(1,0);
+		net.add(1,2);
+		
+		checkMethods(net);
+		
+		StronglyConnectedComponents scc = new StronglyConnectedComponents(net, StronglyConnectedComponents.Method.FORWARD_BACKWARD);
+		
+		scc.compute();
+		
+		assertEquals(2, scc.components());
+		assertEquals(2, scc.componentSize(0));
+		assertEquals(1, scc.componentSize(2));
+	}
+	
+	@Test
+	public void testLargeNetwork ()
+	{
+		Random  random = new Random(7);
+		int     size = 5*StronglyConnectedComponents.SEQUENTIAL_THRESHOLD;
+		Network net = new BasicNetwork();
+		
+		net.setSize(size);
+		
+		for (int i=0; i<2*size; i++)
+			net.add(random.nextInt(size), random.nextInt(size));
+		
+		checkMethods(net);
+	}
+	
+	@Test
+	public void testLongRing ()
+	{
+		int     size = 100000;
+		Network net = new BasicNetwork();
+		
+		net.setSize(size);
+		
+		for (int i=0; i<size; i++)
+			net.add(i, (i+1)%size);
+		
+		for (StronglyConnectedComponents.Method method: StronglyConnectedComponents.Method.values()) {
+			
+			StronglyConnectedComponents scc = new StronglyConnectedComponents(net, method);
+			
+			scc.compute();
+			
+			assertEquals(1, scc.components());
+			assertEquals(size, scc.componentSize(0));
+		}
+	}
 }
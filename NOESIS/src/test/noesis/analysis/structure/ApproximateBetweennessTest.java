@@ -0,0 +1,131 @@
+package test.noesis.analysis.structure;
+
+import static org.junit.Assert.*;
+
+import ikor.math.statistics.fit.ConfidenceInterval;
+import noesis.Network;
+import noesis.analysis.LinkScore;
+import noesis.analysis.NodeScore;
+import noesis.analysis.Score;
+import noesis.analysis.structure.ApproximateBetweenness;
+import noesis.analysis.structure.ApproximateLinkBetweenness;
+import noesis.analysis.structure.Betweenness;
+import noesis.analysis.structure.BetweennessSampler;
+import noesis.analysis.structure.LinkBetweenness;
+import noesis.model.regular.CompleteNetwork;
+import noesis.model.regular.StarNetwork;
+
+import org.junit.Test;
+
+public class ApproximateBetweennessTest
+{
+	public final double EPSILON = 1e-9;
+
+	@Test
+	public void testSampleSize ()
+	{
+		int k = BetweennessSampler.samples(1000, 0.05, 0.1);
+
+		assertEquals( Math.ceil(Math.log(2*1000/0.1)/(2*0.05*0.05)), k, EPSILON);
+		assertTrue( BetweennessSampler.error(1000, k, 0.1) <= 0.05 );
+		assertTrue( BetweennessSampler.error(1000, k-1, 0.1) > 0.05 );
+	}
+
+	@Test
+	public void testTop ()
+	{
+		double[] scores = { 3, 9, 1, 9, 7, 0 };
+
+		int[] top = Score.top(scores, 3);
+
+		assertEquals(3, top.length);
+		assertEquals(1, top[0]);
+		assertEquals(3, top[1]);
+		assertEquals(4, top[2]);
+
+		assertEquals(6, Score.top(scores, 10).length);
+	}
+
+	@Test
+	public void testExact ()
+	{
+		Network net = new StarNetwork(10);
+
+		NodeScore exact = (new Betweenness(net)).call();
+
+		ApproximateBetweenness task = new ApproximateBetweenness(net, net.size());
+		NodeScore approx = task.call();
+
+		assertEquals(net.size(), task.getSamples());
+		assertEquals(0.0, task.getError(), EPSILON);
+
+		for (int i=0; i<net.size(); i++)
+			assertEquals(exact.get(i), approx.get(i), EPSILON);
+	}
+
+	@Test
+	public void testExactLinks ()
+	{
+		Network net = new StarNetwork(10);
+
+		LinkScore exact = (new LinkBetweenness(net)).call();
+		LinkScore approx = (new ApproximateLinkBetweenness(net, net.size())).call();
+
+		for (int i=0; i<net.links(); i++)
+			assertEquals(exact.get(i), approx.get(i), EPSILON);
+	}
+
+	@Test
+	public void testConfidenceInterval ()
+	{
+		// Confidence intervals
+
+		Network net = new CompleteNetwork(50);
+
+		NodeScore exact = (new Betweenness(net)).call();
+
+		ApproximateBetweenness task = new ApproximateBetweenness(net, 10);
+		NodeScore approx = task.call();
+
+		assertEquals(10, task.getSamples());
+
+		for (int i=0; i<net.size(); i++) {
+			ConfidenceInterval interval = task.getConfidenceInterval(i);
+
+			assertTrue( interval.min() <= exact.get(i) );
+			assertTrue( interval.max() >= exact.get(i) );
+			assertEquals( ApproximateBetweenness.DEFAULT_DELTA, interval.alpha(), EPSILON);
+		}
+	}
+
+	@Test
+	public void testErrorBound ()
+	{
+		Network net = new StarNetwork(200);
+
+		NodeScore exact = (new Betweenness(net)).call();
+
+		ApproximateBetweenness task = new ApproximateBetweenness(net, 100);
+		NodeScore approx = task.call();
+
+		for (int i=0; i<net.size(); i++)
+			assertEquals(exact.get(i), approx.get(i), task.getError());
+	}
+
+	@Test
+	public void testAdaptiveSampling ()
+	{
+		Network net = new StarNetwork(1000);
+
+		ApproximateBetweenness task = new ApproximateBetweenness(net, 900, 0.1, 0.1, 1);
+		NodeScore approx = task.call();
+
+		// Star hub: always at the top of the ranking
+
+		for (int i=1; i<net.size(); i++)
+			assertTrue(approx.get(0) > approx.get(i));
+
+		assertTrue(task.getSamples() < 900);
+		assertEquals((BetweennessSampler.STABLE_BATCHES+1)*BetweennessSampler.BATCH_SIZE, task.getSamples());
+	}
+}
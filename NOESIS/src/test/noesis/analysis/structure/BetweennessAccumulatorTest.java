@@ -0,0 +1,149 @@
+package test.noesis.analysis.structure;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import noesis.BasicNetwork;
+import noesis.Network;
+import noesis.analysis.LinkScore;
+import noesis.analysis.NodeScore;
+import noesis.analysis.structure.BetweennessAccumulator;
+import noesis.analysis.structure.BetweennessScore;
+import noesis.analysis.structure.LinkBetweennessScore;
+import noesis.network.LinkIndex;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class BetweennessAccumulatorTest
+{
+	public final double EPSILON = 1e-9;
+
+	public final int NODES = 200;
+	public final int LINKS = 4*NODES;
+
+	Network   net;
+	LinkIndex index;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		Random random = new Random(11);
+
+		net = new BasicNetwork();
+		net.setSize(NODES);
+
+		// Ring (i.e. no nodes without out-links) plus random links
+
+		for (int i=0; i<NODES; i++)
+			net.add(i, (i+1)%NODES);
+
+		for (int i=0; i<LINKS; i++) {
+			int source = random.nextInt(NODES);
+			int destination = random.nextInt(NODES);
+
+			if ( (source!=destination) && !net.contains(source,destination) )
+				net.add(source,destination);
+		}
+
+		index = new LinkIndex(net);
+	}
+
+	// Sequential Brandes' algorithm: one BFS per source node
+
+	private double[] nodeBetweenness (int[] sources)
+	{
+		double[] result = new double[NODES];
+
+		for (int s=0; s<sources.length; s++) {
+
+			NodeScore score = new BetweennessScore(net, sources[s]).call();
+
+			for (int i=0; i<NODES; i++)
+				result[i] += score.get(i);
+		}
+
+		return result;
+	}
+
+	private double[] linkBetweenness (int[] sources)
+	{
+		double[] result = new double[index.links()];
+
+		for (int s=0; s<sources.length; s++) {
+
+			LinkScore score = new LinkBetweennessScore(net, index, sources[s]).call();
+
+			for (int i=0; i<index.links(); i++)
+				result[i] += score.get(index.source(i), index.destination(i));
+		}
+
+		return result;
+	}
+
+	private int[] range (int start, int end)
+	{
+		int[] nodes = new int[end-start];
+
+		for (int i=0; i<nodes.length; i++)
+			nodes[i] = start+i;
+
+		return nodes;
+	}
+
+	private void check (double[] expected, double[] observed)
+	{
+		assertEquals(expected.length, observed.length);
+
+		for (int i=0; i<expected.length; i++)
+			assertEquals(expected[i], observed[i], EPSILON);
+	}
+
+
+	@Test
+	public void testNodeBetweenness()
+	{
+		BetweennessAccumulator accumulator = new BetweennessAccumulator(net);
+
+		accumulator.accumulate();
+
+		assertEquals(NODES, accumulator.sources());
+		check(nodeBetweenness(range(0,NODES)), accumulator.getNodeBetweenness());
+	}
+
+	@Test
+	public void testLinkBetweenness()
+	{
+		BetweennessAccumulator accumulator = new BetweennessAccumulator(net, index);
+
+		accumulator.accumulate();
+
+		check(nodeBetweenness(range(0,NODES)), accumulator.getNodeBetweenness());
+		check(linkBetweenness(range(0,NODES)), accumulator.getLinkBetweenness());
+	}
+
+	@Test
+	public void testIncremental()
+	{
+		BetweennessAccumulator accumulator = new BetweennessAccumulator(net, index);
+		int[] sources = new int[] { 3, 14, 15, 92, 65, 35, 89, 79 };
+
+		// Contributions from successive batches of source nodes (reused workers)
+
+		accumulator.accumulate(sources, 0, 3);
+		accumulator.accumulate(sources, 4, sources.length-1);
+
+		assertEquals(sources.length, accumulator.sources());
+		check(nodeBetweenness(sources), accumulator.getNodeBetweenness());
+		check(linkBetweenness(sources), accumulator.getLinkBetweenness());
+
+		// Reset
+
+		accumulator.reset();
+		accumulator.accumulate(range(0,10));
+
+		assertEquals(10, accumulator.sources());
+		check(nodeBetweenness(range(0,10)), accumulator.getNodeBetweenness());
+	}
+}
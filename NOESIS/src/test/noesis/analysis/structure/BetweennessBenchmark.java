@@ -0,0 +1,132 @@
+package test.noesis.analysis.structure;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+import ikor.math.Vector;
+import ikor.parallel.Kernel;
+import ikor.parallel.Parallel;
+import ikor.parallel.Scheduler;
+import ikor.parallel.combiner.VectorAccumulator;
+import ikor.util.Benchmark;
+
+import noesis.Network;
+import noesis.analysis.NodeScore;
+import noesis.analysis.structure.Betweenness;
+import noesis.analysis.structure.BetweennessScore;
+import noesis.model.random.BarabasiAlbertNetwork;
+
+/**
+ * Betweenness benchmark: per-source score vectors vs. per-thread accumulators.
+ *
+ * Usage: BetweennessBenchmark [nodes] [links per node]
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class BetweennessBenchmark
+{
+	public static final int NODES = 20000;
+	public static final int LINKS = 4;
+
+
+	// Original implementation: one BetweennessScore & one vector per source node
+
+	static class BetweennessKernel implements Kernel<Vector>
+	{
+		private Network net;
+
+		public BetweennessKernel (Network net)
+		{
+			this.net = net;
+		}
+
+		@Override
+		public Vector call (int index)
+		{
+			BetweennessScore score = new BetweennessScore(net, index);
+
+			return score.call();
+		}
+	}
+
+	public static Vector legacyBetweenness (Network net)
+	{
+		return (Vector) Parallel.reduce( new BetweennessKernel(net), new VectorAccumulator(net.size()), 0, net.size()-1);
+	}
+
+
+	// GC statistics
+
+	public static long gcTime ()
+	{
+		long time = 0;
+
+		for (GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans())
+			time += Math.max(0, gc.getCollectionTime());
+
+		return time;
+	}
+
+	public static long gcCount ()
+	{
+		long count = 0;
+
+		for (GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans())
+			count += Math.max(0, gc.getCollectionCount());
+
+		return count;
+	}
+
+
+	// Benchmark
+
+	public static void main (String[] args)
+	{
+		int nodes = (args.length>0)? Integer.parseInt(args[0]): NODES;
+		int links = (args.length>1)? Integer.parseInt(args[1]): LINKS;
+
+		Network net = new BarabasiAlbertNetwork(nodes, links);
+
+		System.out.println(net);
+
+		// Before: per-source vectors
+
+		Benchmark before = new Benchmark("Per-source vectors:     ");
+		long gcTimeBefore = gcTime();
+		long gcCountBefore = gcCount();
+
+		before.start();
+		Vector expected = legacyBetweenness(net);
+		before.stop();
+
+		gcTimeBefore = gcTime() - gcTimeBefore;
+		gcCountBefore = gcCount() - gcCountBefore;
+
+		// After: per-thread accumulators
+
+		Benchmark after = new Benchmark("Per-thread accumulators:");
+		long gcTimeAfter = gcTime();
+		long gcCountAfter = gcCount();
+
+		after.start();
+		NodeScore result = (new Betweenness(net)).call();
+		after.stop();
+
+		gcTimeAfter = gcTime() - gcTimeAfter;
+		gcCountAfter = gcCount() - gcCountAfter;
+
+		// Results
+
+		double error = 0;
+
+		for (int i=0; i<nodes; i++)
+			error = Math.max(error, Math.abs(expected.get(i)-result.get(i))/Math.max(1,expected.get(i)));
+
+		System.out.println(before+" (GC: "+gcTimeBefore+" ms, "+gcCountBefore+" collections)");
+		System.out.println(after+" (GC: "+gcTimeAfter+" ms, "+gcCountAfter+" collections)");
+		System.out.println("Maximum relative difference: "+error);
+
+		Scheduler.get().shutdown();
+	}
+}
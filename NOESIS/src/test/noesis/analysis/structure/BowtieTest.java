@@ -247,9 +247,9 @@ public class BowtieTest
 
 	// HITS
 
-	private static final double HITS_CORNER = 0.125;
-	private static final double HITS_GATEWAY = 0.1875;
-	private static final double HITS_BRIDGE = 0.125;
+	private static final double HITS_CORNER = 0.127677759442487;   // i.e. eigenvector centrality / sum (0.1276778570474803)
+	private static final double HITS_GATEWAY = 0.17146191018486698; // 0.17146154138858508
+	private static final double HITS_BRIDGE = 0.1463651418603182;   // 0.14636548903290858
 	private static final double hits[] = new double[] { HITS_CORNER, HITS_CORNER, HITS_GATEWAY, HITS_BRIDGE, HITS_GATEWAY, HITS_CORNER, HITS_CORNER };
 
 	@Test
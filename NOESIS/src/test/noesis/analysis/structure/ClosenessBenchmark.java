@@ -0,0 +1,75 @@
+package test.noesis.analysis.structure;
+
+import ikor.util.Benchmark;
+
+import noesis.Network;
+import noesis.analysis.NodeScore;
+import noesis.analysis.structure.Closeness;
+import noesis.analysis.structure.PathLength;
+import noesis.model.random.BarabasiAlbertNetwork;
+
+/**
+ * Closeness benchmark: one BFS per node (NetworkBFS) vs. bit-parallel multi-source BFS.
+ *
+ * Usage: ClosenessBenchmark [nodes] [links per node]
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class ClosenessBenchmark
+{
+	public static final int NODES = 20000;
+	public static final int LINKS = 4;
+	
+	
+	// Original implementation: one PathLength task per node
+	
+	public static double[] legacyCloseness (Network net)
+	{
+		double[] closeness = new double[net.size()];
+		
+		for (int i=0; i<net.size(); i++) {
+			PathLength paths = new PathLength(net, i);
+			paths.compute();
+			closeness[i] = paths.closeness();
+		}
+		
+		return closeness;
+	}
+	
+	
+	public static void main (String[] args)
+	{
+		int nodes = (args.length>0)? Integer.parseInt(args[0]): NODES;
+		int links = (args.length>1)? Integer.parseInt(args[1]): LINKS;
+
+		Network net = new BarabasiAlbertNetwork(nodes, links);
+
+		System.out.println(net.size()+" nodes, "+net.links()+" links");
+		
+		Benchmark before = new Benchmark("One BFS per node:  ");
+		
+		before.start();
+		double[] expected = legacyCloseness(net);
+		before.stop();
+		
+		System.out.println(before);
+		
+		Benchmark after = new Benchmark("Multi-source BFS:  ");
+		
+		after.start();
+		NodeScore result = (new Closeness(net)).call();
+		after.stop();
+		
+		System.out.println(after);
+		
+		double error = 0;
+		
+		for (int i=0; i<net.size(); i++)
+			error = Math.max(error, Math.abs(expected[i]-result.get(i)));
+		
+		System.out.println("Maximum difference: "+error);
+		
+		System.exit(0);
+	}
+}
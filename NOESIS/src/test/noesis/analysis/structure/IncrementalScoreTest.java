@@ -0,0 +1,218 @@
+package test.noesis.analysis.structure;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import noesis.DynamicNetwork;
+import noesis.Network;
+import noesis.analysis.NodeScore;
+import noesis.analysis.structure.IncrementalKatzCentrality;
+import noesis.analysis.structure.IncrementalPageRank;
+import noesis.analysis.structure.PageRank;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class IncrementalScoreTest
+{
+	public final double EPSILON = 1e-8;
+
+	public final int NODES = 500;
+	public final int LINKS = 5*NODES;
+
+	Random  random;
+	Network net;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		random = new Random(7);
+
+		net = new DynamicNetwork();
+		net.setSize(NODES);
+
+		for (int i=0; i<LINKS; i++)
+			net.add(random.nextInt(NODES), random.nextInt(NODES));
+	}
+
+	private NodeScore pagerank (Network network)
+	{
+		PageRank task = new PageRank(network);
+
+		task.getPowerIteration().setTolerance(1e-14);
+
+		return task.call();
+	}
+
+	private void check (NodeScore expected, NodeScore observed)
+	{
+		assertEquals(expected.size(), observed.size());
+
+		for (int i=0; i<expected.size(); i++)
+			assertEquals(expected.get(i), observed.get(i), EPSILON);
+	}
+
+
+	@Test
+	public void testPageRank()
+	{
+		IncrementalPageRank task = new IncrementalPageRank(net);
+
+		task.setTolerance(1e-12);
+
+		check(pagerank(net), task.call());
+		assertEquals(1.0, task.getResult().sum(), EPSILON);
+	}
+
+	@Test
+	public void testLinkChanges()
+	{
+		IncrementalPageRank task = new IncrementalPageRank(net);
+
+		task.setTolerance(1e-12);
+		task.call();
+
+		long initial = task.getPushes();
+
+		// Added links
+
+		for (int i=0; i<10; i++)
+			assertTrue(task.add(random.nextInt(NODES), random.nextInt(NODES)));
+
+		// Removed links
+
+		for (int i=0; i<10; i++) {
+			int node = random.nextInt(NODES);
+
+			if (net.outDegree(node)>0)
+				assertTrue(task.remove(node, net.outLink(node,0)));
+		}
+
+		// Missing link
+
+		int missing = 0;
+
+		while (net.contains(0, missing))
+			missing++;
+
+		assertFalse(task.remove(0, missing));
+
+		check(pagerank(net), task.call());
+		assertTrue(task.getPushes()-initial < initial);
+	}
+
+	@Test
+	public void testDanglingNodes()
+	{
+		IncrementalPageRank task = new IncrementalPageRank(net);
+
+		task.setTolerance(1e-12);
+		task.call();
+
+		// Remove all the links from a node, then link it again
+
+		int node = random.nextInt(NODES);
+
+		while (net.outDegree(node)>0)
+			task.remove(node, net.outLink(node,0));
+
+		check(pagerank(net), task.call());
+
+		task.add(node, node);
+		task.add(node, (node+1)%NODES);
+
+		check(pagerank(net), task.call());
+	}
+
+	@Test
+	public void testNewNodes()
+	{
+		IncrementalPageRank task = new IncrementalPageRank(net);
+
+		task.setTolerance(1e-12);
+		task.call();
+
+		for (int i=0; i<5; i++) {
+			int node = task.add();
+
+			assertEquals(NODES+i, node);
+
+			task.add(node, random.nextInt(node));
+			task.add(random.nextInt(node), node);
+		}
+
+		// Nodes added directly to the network
+
+		net.setSize(NODES+10);
+
+		check(pagerank(net), task.call());
+	}
+
+	@Test
+	public void testKatz()
+	{
+		double alpha = 0.1;
+		IncrementalKatzCentrality task = new IncrementalKatzCentrality(net, alpha);
+
+		task.setTolerance(1e-12);
+		task.call();
+
+		for (int i=0; i<20; i++)
+			task.add(random.nextInt(NODES), random.nextInt(NODES));
+
+		NodeScore observed = task.call();
+
+		// Reference: Jacobi iteration for the linear system
+
+		double[] katz = new double[NODES];
+		double[] next = new double[NODES];
+
+		for (int iteration=0; iteration<1000; iteration++) {
+
+			for (int v=0; v<NODES; v++) {
+
+				next[v] = IncrementalKatzCentrality.DEFAULT_BETA;
+
+				for (int i=0; i<net.inDegree(v); i++)
+					next[v] += alpha*katz[net.inLink(v,i)];
+			}
+
+			double[] tmp = katz;
+			katz = next;
+			next = tmp;
+		}
+
+		double norm = 0;
+
+		for (int v=0; v<NODES; v++)
+			norm += katz[v]*katz[v];
+
+		for (int v=0; v<NODES; v++)
+			assertEquals(katz[v]/Math.sqrt(norm), observed.get(v), EPSILON);
+	}
+
+	@Test
+	public void testWarmStart()
+	{
+		PageRank cold = new PageRank(net);
+
+		cold.getPowerIteration().setTolerance(1e-10);
+
+		NodeScore previous = cold.call();
+
+		for (int i=0; i<10; i++)
+			net.add(random.nextInt(NODES), random.nextInt(NODES));
+
+		PageRank warm = new PageRank(net);
+		PageRank reference = new PageRank(net);
+
+		warm.getPowerIteration().setTolerance(1e-10);
+		warm.setInitialScore(previous);
+		reference.getPowerIteration().setTolerance(1e-10);
+
+		check(reference.call(), warm.call());
+		assertTrue(warm.getPowerIteration().getIterations() < reference.getPowerIteration().getIterations());
+	}
+}
@@ -0,0 +1,105 @@
+package test.noesis.analysis.structure;
+
+import static org.junit.Assert.*;
+
+import noesis.Network;
+import noesis.analysis.NodeScore;
+import noesis.analysis.structure.*;
+import noesis.model.random.ErdosRenyiNetwork;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PathScoreTest 
+{
+	public final double EPSILON = 1e-9;
+	
+	private Network net;
+	
+	@Before
+	public void setUp ()
+	{
+		// Sparse random network, with unreachable nodes
+		
+		net = new ErdosRenyiNetwork(200, 250);
+	}
+	
+	private PathLength paths (int node)
+	{
+		PathLength paths = new PathLength(net, node);
+		
+		paths.compute();
+		
+		return paths;
+	}
+	
+	private void checkScore (PathScoreTask task)
+	{
+		NodeScore score = task.call();
+		
+		for (int i=0; i<net.size(); i++)
+			assertEquals( task.compute(i), score.get(i), EPSILON);
+	}
+	
+	
+	@Test
+	public void testCloseness ()
+	{
+		Closeness task = new Closeness(net);
+		
+		checkScore(task);
+		
+		for (int i=0; i<net.size(); i++)
+			assertEquals( paths(i).closeness(), task.getResult(i), EPSILON);
+	}
+	
+	@Test
+	public void testAdjustedCloseness ()
+	{
+		AdjustedCloseness task = new AdjustedCloseness(net);
+		
+		checkScore(task);
+		
+		for (int i=0; i<net.size(); i++)
+			assertEquals( paths(i).closeness()*paths(i).reachable(), task.getResult(i), EPSILON);
+	}
+	
+	@Test
+	public void testEccentricity ()
+	{
+		Eccentricity task = new Eccentricity(net);
+		
+		checkScore(task);
+		
+		for (int i=0; i<net.size(); i++)
+			assertEquals( paths(i).getResult().max(), task.getResult(i), EPSILON);
+	}
+
+	@Test
+	public void testAveragePathLength ()
+	{
+		AveragePathLength task = new AveragePathLength(net);
+		
+		checkScore(task);
+		
+		int diameter = 0;
+		
+		for (int i=0; i<net.size(); i++) {
+			assertEquals( paths(i).averagePathLength(), task.getResult(i), EPSILON);
+			diameter = Math.max(diameter, (int) paths(i).getResult().max());
+		}
+		
+		assertEquals( diameter, task.diameter());
+	}
+	
+	@Test
+	public void testDecay ()
+	{
+		Decay task = new Decay(net, 0.3);
+		
+		checkScore(task);
+		
+		for (int i=0; i<net.size(); i++)
+			assertEquals( paths(i).decay(0.3), task.getResult(i), EPSILON);
+	}
+}
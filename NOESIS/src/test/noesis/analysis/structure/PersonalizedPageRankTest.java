@@ -0,0 +1,221 @@
+package test.noesis.analysis.structure;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import noesis.BasicNetwork;
+import noesis.Network;
+import noesis.analysis.NodeScore;
+import noesis.analysis.structure.PageRank;
+import noesis.analysis.structure.PersonalizedPageRank;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class PersonalizedPageRankTest
+{
+	public final double EPSILON = 1e-8;
+	public final double THETA = PageRank.DEFAULT_THETA;
+
+	public final int NODES = 300;
+
+	Network net;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		// Random directed network, with some dangling nodes
+
+		Random random = new Random(7);
+
+		net = new BasicNetwork();
+		net.setSize(NODES);
+
+		for (int i=0; i<4*NODES; i++) {
+
+			int source = random.nextInt(NODES);
+			int destination = random.nextInt(NODES);
+
+			if ( (source!=destination) && (source%10!=0) )
+				net.add(source, destination);
+		}
+	}
+
+	// Reference implementation: power iteration (random walks stop at dangling nodes)
+
+	private double[] reference (Network network, int... seeds)
+	{
+		int      size = network.size();
+		double[] walk = new double[size];
+		double[] score = new double[size];
+
+		for (int i=0; i<seeds.length; i++)
+			walk[seeds[i]] += 1.0/seeds.length;
+
+		for (int step=0; step<1000; step++) {
+
+			double[] next = new double[size];
+
+			for (int u=0; u<size; u++) {
+
+				int degree = network.outDegree(u);
+
+				if (degree==0) {
+					score[u] += walk[u];
+				} else {
+					score[u] += (1-THETA)*walk[u];
+
+					for (int i=0; i<degree; i++)
+						next[network.outLink(u,i)] += THETA*walk[u]/degree;
+				}
+			}
+
+			walk = next;
+		}
+
+		return score;
+	}
+
+
+	@Test
+	public void testForwardPush()
+	{
+		PersonalizedPageRank task = new PersonalizedPageRank(net, 1, 2, 3);
+
+		task.setTolerance(1e-12);
+
+		NodeScore score = task.call();
+		double[]  expected = reference(net, 1, 2, 3);
+
+		for (int i=0; i<NODES; i++)
+			assertEquals(expected[i], score.get(i), EPSILON);
+
+		assertEquals(1.0, score.sum(), EPSILON);
+	}
+
+	@Test
+	public void testBackwardPush()
+	{
+		PersonalizedPageRank task = new PersonalizedPageRank(net);
+		int target = 5;
+
+		task.setTolerance(1e-12);
+
+		PersonalizedPageRank.Ranking ranking = task.backward(target, 0);
+
+		for (int i=0; i<ranking.size(); i++)
+			assertEquals(reference(net, ranking.node(i))[target], ranking.score(i), EPSILON);
+
+		// Nodes not in the ranking
+
+		boolean[] ranked = new boolean[NODES];
+
+		for (int i=0; i<ranking.size(); i++)
+			ranked[ranking.node(i)] = true;
+
+		for (int node=0; node<NODES; node++)
+			if (!ranked[node])
+				assertEquals(0.0, reference(net, node)[target], EPSILON);
+	}
+
+	@Test
+	public void testTopK()
+	{
+		PersonalizedPageRank task = new PersonalizedPageRank(net, 1);
+
+		task.setTolerance(1e-12);
+
+		PersonalizedPageRank.Ranking top = task.top(10);
+		double[] expected = reference(net, 1);
+
+		assertEquals(10, top.size());
+
+		for (int i=0; i<top.size(); i++) {
+
+			assertEquals(expected[top.node(i)], top.score(i), EPSILON);
+
+			if (i>0)
+				assertTrue(top.score(i-1)>=top.score(i));
+		}
+
+		// No node outside the ranking has a higher score
+
+		for (int node=0; node<NODES; node++) {
+
+			boolean ranked = false;
+
+			for (int i=0; i<top.size(); i++)
+				ranked |= (top.node(i)==node);
+
+			if (!ranked)
+				assertTrue(expected[node]<=top.score(top.size()-1)+EPSILON);
+		}
+	}
+
+	@Test
+	public void testDanglingSeed()
+	{
+		PersonalizedPageRank task = new PersonalizedPageRank(net, 0);
+
+		PersonalizedPageRank.Ranking top = task.top(5);
+
+		assertEquals(1, top.size());
+		assertEquals(0, top.node(0));
+		assertEquals(1.0, top.score(0), EPSILON);
+	}
+
+	@Test
+	public void testBatch()
+	{
+		PersonalizedPageRank task = new PersonalizedPageRank(net);
+		int[][] seeds = new int[100][];
+		int[]   targets = new int[100];
+
+		for (int i=0; i<seeds.length; i++) {
+			seeds[i] = new int[] { i, (7*i)%NODES };
+			targets[i] = (3*i)%NODES;
+		}
+
+		PersonalizedPageRank.Ranking[] forward = task.forward(seeds, 20);
+		PersonalizedPageRank.Ranking[] backward = task.backward(targets, 20);
+
+		for (int i=0; i<seeds.length; i++) {
+
+			PersonalizedPageRank.Ranking single = task.forward(seeds[i], 20);
+
+			assertEquals(single.toString(), forward[i].toString());
+			assertEquals(task.backward(targets[i], 20).toString(), backward[i].toString());
+		}
+	}
+
+	@Test
+	public void testPageRank()
+	{
+		// Without dangling nodes, personalized PageRank from every node is PageRank
+
+		Network ring = new BasicNetwork();
+		int[]   all = new int[NODES];
+
+		ring.setSize(NODES);
+
+		for (int i=0; i<NODES; i++) {
+			all[i] = i;
+			ring.add(i, (i+1)%NODES);
+			ring.add(i, (i*i+1)%NODES);
+		}
+
+		PageRank pagerank = new PageRank(ring);
+		PersonalizedPageRank personalized = new PersonalizedPageRank(ring, all);
+
+		pagerank.getPowerIteration().setTolerance(1e-14);
+		personalized.setTolerance(1e-14);
+
+		NodeScore expected = pagerank.call();
+		NodeScore observed = personalized.call();
+
+		for (int i=0; i<NODES; i++)
+			assertEquals(expected.get(i), observed.get(i), EPSILON);
+	}
+}
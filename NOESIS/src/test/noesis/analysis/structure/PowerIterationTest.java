@@ -0,0 +1,221 @@
+package test.noesis.analysis.structure;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import noesis.BasicNetwork;
+import noesis.Network;
+import noesis.analysis.NodeScore;
+import noesis.analysis.structure.EigenvectorCentrality;
+import noesis.analysis.structure.HITS;
+import noesis.analysis.structure.PageRank;
+import noesis.analysis.structure.PowerIteration;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class PowerIterationTest
+{
+	public final double EPSILON = 1e-8;
+
+	Network net;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		// Random directed network, spanning several blocks
+
+		Random random = new Random(7);
+
+		net = new BasicNetwork();
+		net.setSize(3*PowerIteration.BLOCK_SIZE+17);
+
+		for (int i=0; i<5*net.size(); i++) {
+
+			int source = random.nextInt(net.size());
+			int destination = random.nextInt(net.size());
+
+			if (source!=destination)
+				net.add(source, destination);
+		}
+	}
+
+	// Reference implementation: sequential power iteration (in-links, L2 normalization, MAX norm)
+
+	private double[] eigenvector (Network network, int maxIterations, double tolerance)
+	{
+		int      size = network.size();
+		double[] centrality = new double[size];
+		double[] old = new double[size];
+		double   change = Double.MAX_VALUE;
+
+		for (int i=0; i<size; i++)
+			centrality[i] = 1.0/size;
+
+		for (int iteration=0; (iteration<maxIterations) && (change>tolerance); iteration++) {
+
+			double[] tmp = old;
+			double   sum2 = 0;
+
+			old = centrality;
+			centrality = tmp;
+
+			for (int v=0; v<size; v++) {
+
+				centrality[v] = 0;
+
+				for (int i=0; i<network.inDegree(v); i++)
+					centrality[v] += old[network.inLink(v,i)];
+
+				sum2 += centrality[v]*centrality[v];
+			}
+
+			change = 0;
+
+			for (int v=0; v<size; v++) {
+				centrality[v] /= Math.sqrt(sum2);
+				change = Math.max(change, Math.abs(centrality[v]-old[v]));
+			}
+		}
+
+		return centrality;
+	}
+
+
+	@Test
+	public void testEigenvector()
+	{
+		EigenvectorCentrality task = new EigenvectorCentrality(net);
+		NodeScore score = task.call();
+		double[] expected = eigenvector(net, EigenvectorCentrality.MAX_ITERATIONS, EigenvectorCentrality.EPSILON);
+
+		for (int i=0; i<net.size(); i++)
+			assertEquals(expected[i], score.get(i), 1e-12);
+
+		assertTrue(task.getPowerIteration().getIterations()<=EigenvectorCentrality.MAX_ITERATIONS);
+	}
+
+	@Test
+	public void testConvergenceNorm()
+	{
+		PageRank max = new PageRank(net);
+		PageRank l1 = new PageRank(net);
+
+		l1.getPowerIteration().setNorm(PowerIteration.Norm.L1);
+
+		max.call();
+		l1.call();
+
+		assertTrue(l1.getPowerIteration().getResidual()<=PageRank.EPSILON);
+		assertTrue(l1.getPowerIteration().getIterations()>max.getPowerIteration().getIterations());
+	}
+
+	@Test
+	public void testGaussSeidel()
+	{
+		PageRank jacobi = new PageRank(net);
+		PageRank gaussSeidel = new PageRank(net);
+
+		jacobi.getPowerIteration().setNorm(PowerIteration.Norm.L1);
+		jacobi.getPowerIteration().setTolerance(1e-12);
+
+		gaussSeidel.getPowerIteration().setNorm(PowerIteration.Norm.L1);
+		gaussSeidel.getPowerIteration().setTolerance(1e-12);
+		gaussSeidel.getPowerIteration().setMethod(PowerIteration.Method.GAUSS_SEIDEL);
+
+		NodeScore expected = jacobi.call();
+		NodeScore observed = gaussSeidel.call();
+
+		for (int i=0; i<net.size(); i++)
+			assertEquals(expected.get(i), observed.get(i), EPSILON);
+
+		assertEquals(1.0, observed.sum(), EPSILON);
+		assertTrue(gaussSeidel.getPowerIteration().getIterations()<=jacobi.getPowerIteration().getIterations());
+	}
+
+	@Test
+	public void testExtrapolation()
+	{
+		// Two random clusters joined by a few links: slow convergence
+
+		Random  random = new Random(7);
+		int     half = 400;
+		Network clusters = new BasicNetwork();
+
+		clusters.setSize(2*half);
+
+		for (int i=0; i<10*half; i++) {
+
+			int source = random.nextInt(clusters.size());
+			int destination = random.nextInt(clusters.size());
+
+			if ( (source!=destination) && ((source<half)==(destination<half)) )
+				clusters.add2(source, destination);
+		}
+
+		for (int i=0; i<10; i++)
+			clusters.add2(random.nextInt(half), half+random.nextInt(half));
+
+		EigenvectorCentrality power = new EigenvectorCentrality(clusters);
+		EigenvectorCentrality aitken = new EigenvectorCentrality(clusters);
+
+		power.getPowerIteration().setMaxIterations(10000);
+		power.getPowerIteration().setTolerance(1e-12);
+
+		aitken.getPowerIteration().setMaxIterations(10000);
+		aitken.getPowerIteration().setTolerance(1e-12);
+		aitken.getPowerIteration().setExtrapolation(10);
+
+		NodeScore expected = power.call();
+		NodeScore observed = aitken.call();
+
+		for (int i=0; i<clusters.size(); i++)
+			assertEquals(expected.get(i), observed.get(i), EPSILON);
+
+		assertTrue(aitken.getPowerIteration().getIterations()<power.getPowerIteration().getIterations());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testExtrapolationPeriod()
+	{
+		new PageRank(net).getPowerIteration().setExtrapolation(2);
+	}
+
+	@Test
+	public void testSegments()
+	{
+		HITS hits = new HITS(net);
+
+		hits.getPowerIteration().setMaxIterations(10000);
+		hits.getPowerIteration().setTolerance(1e-12);
+		hits.call();
+
+		assertEquals(1.0, hits.getResult().get(HITS.HUB).sum(), EPSILON);
+		assertEquals(1.0, hits.getResult().get(HITS.AUTHORITY).sum(), EPSILON);
+
+		// Hub: sum of the authorities it points to (up to normalization)
+
+		double ratio = hits.getResult().get(HITS.HUB).get(0) / hits.getResult().get(HITS.HUB).get(1);
+		double hub0 = 0;
+		double hub1 = 0;
+
+		for (int i=0; i<net.outDegree(0); i++)
+			hub0 += hits.getResult().get(HITS.AUTHORITY).get(net.outLink(0,i));
+
+		for (int i=0; i<net.outDegree(1); i++)
+			hub1 += hits.getResult().get(HITS.AUTHORITY).get(net.outLink(1,i));
+
+		assertEquals(hub0/hub1, ratio, EPSILON);
+	}
+
+	@Test
+	public void testEmptyNetwork()
+	{
+		Network empty = new BasicNetwork();
+
+		assertEquals(0, new PageRank(empty).call().size());
+		assertEquals(0, new EigenvectorCentrality(empty).call().size());
+	}
+}
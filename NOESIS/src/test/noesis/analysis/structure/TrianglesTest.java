@@ -0,0 +1,248 @@
+package test.noesis.analysis.structure;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import noesis.BasicNetwork;
+import noesis.Network;
+import noesis.analysis.LinkScore;
+import noesis.analysis.NodeScore;
+import noesis.analysis.structure.ClusteringCoefficient;
+import noesis.analysis.structure.LinkEmbeddedness;
+import noesis.analysis.structure.LinkNeighborhoodOverlap;
+import noesis.analysis.structure.LinkNeighborhoodSize;
+import noesis.analysis.structure.Triangles;
+import noesis.analysis.structure.communities.LinkClusteringCoefficient;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TrianglesTest
+{
+	public final double EPSILON = 1e-8;
+
+	Network net;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		//     0
+		//   / | \
+		// 1 - 2 - 3
+		// | /   / |
+		// 4 - 5 - 6
+
+		net = new BasicNetwork();
+
+		net.setSize(7);
+
+		net.add2(0,1);
+		net.add2(0,2);
+		net.add2(0,3);
+		net.add2(1,2);
+		net.add2(2,3);
+		net.add2(1,4);
+		net.add2(2,4);
+		net.add2(3,5);
+		net.add2(4,5);
+		net.add2(3,6);
+		net.add2(5,6);
+	}
+
+	private Network randomNetwork (int size, int links, boolean undirected, long seed)
+	{
+		Network random = new BasicNetwork();
+		Random  rnd = new Random(seed);
+
+		random.setSize(size);
+
+		for (int i=0; i<links; i++) {
+
+			int source = rnd.nextInt(size);
+			int destination = rnd.nextInt(size);
+
+			if (source!=destination) {
+				if (undirected)
+					random.add2(source, destination);
+				else
+					random.add(source, destination);
+			}
+		}
+
+		return random;
+	}
+
+	// Reference implementation: O(d^3) clustering coefficient
+
+	private double clusteringCoefficient (Network network, int node)
+	{
+		int degree = network.outDegree(node);
+		int triangles = 0;
+
+		for (int i=0; i<degree; i++)
+			for (int j=0; j<degree; j++)
+				if (network.contains(network.outLink(node,i), network.outLink(node,j)))
+					triangles++;
+
+		return (degree>1)? ((double)triangles)/(degree*(degree-1)): 0;
+	}
+
+
+	@Test
+	public void testTriangles()
+	{
+		Triangles triangles = new Triangles(net);
+
+		assertEquals(4, triangles.triangles());
+
+		assertEquals(2, triangles.triangles(0));
+		assertEquals(2, triangles.triangles(1));
+		assertEquals(3, triangles.triangles(2));
+		assertEquals(2, triangles.triangles(3));
+		assertEquals(1, triangles.triangles(4));
+		assertEquals(1, triangles.triangles(5));
+		assertEquals(1, triangles.triangles(6));
+
+		assertEquals(3, triangles.degree(0));
+		assertEquals(4, triangles.degree(3));
+
+		// Undirected network: closed pairs = 2 * triangles
+
+		for (int node=0; node<net.size(); node++)
+			assertEquals(2*triangles.triangles(node), triangles.closedPairs(node));
+	}
+
+	@Test
+	public void testDirectedTriangles()
+	{
+		// 0 -> 1 -> 2 -> 0 (cycle) & 0 -> 2 (shortcut)
+
+		Network directed = new BasicNetwork();
+
+		directed.setSize(3);
+		directed.add(0,1);
+		directed.add(1,2);
+		directed.add(2,0);
+		directed.add(0,2);
+
+		Triangles triangles = new Triangles(directed);
+
+		assertEquals(1, triangles.triangles());
+		assertEquals(1, triangles.closedPairs(0));   // 1->2
+		assertEquals(0, triangles.closedPairs(1));
+		assertEquals(0, triangles.closedPairs(2));
+
+		LinkScore shared = new LinkEmbeddedness(directed, triangles).call();
+		LinkScore lcc = new LinkClusteringCoefficient(directed, triangles).call();
+		LinkClusteringCoefficient local = new LinkClusteringCoefficient(directed);
+
+		assertEquals(1, shared.get(0,1), EPSILON);
+		assertEquals(1, shared.get(2,0), EPSILON);
+
+		for (int node=0; node<directed.size(); node++) {
+			for (int i=0; i<directed.outDegree(node); i++) {
+				int other = directed.outLink(node,i);
+				assertEquals(local.compute(node,other), lcc.get(node,other), EPSILON);
+			}
+		}
+	}
+
+	@Test
+	public void testSharedTriangles()
+	{
+		Triangles triangles = new Triangles(net);
+
+		ClusteringCoefficient cc = new ClusteringCoefficient(net, triangles);
+		LinkNeighborhoodOverlap overlap = new LinkNeighborhoodOverlap(net, triangles);
+
+		assertSame(triangles, cc.getTriangles());
+		assertSame(triangles, overlap.getTriangles());
+
+		NodeScore coefficients = cc.call();
+		LinkScore neighborhood = overlap.call();
+
+		assertEquals(2/3.0, coefficients.get(0), EPSILON);
+		assertEquals(3/6.0, coefficients.get(2), EPSILON);
+		assertEquals(1,     coefficients.get(6), EPSILON);
+
+		assertEquals(2/3.0, neighborhood.get(0,2), EPSILON);
+		assertEquals(0,     neighborhood.get(4,5), EPSILON);
+	}
+
+	@Test
+	public void testHub()
+	{
+		// Hub connected to every node in a ring
+
+		int    size = 200;
+		Network hub = new BasicNetwork();
+
+		hub.setSize(size+1);
+
+		for (int i=0; i<size; i++) {
+			hub.add2(size, i);
+			hub.add2(i, (i+1)%size);
+		}
+
+		Triangles triangles = new Triangles(hub);
+
+		assertEquals(size, triangles.triangles());
+		assertEquals(size, triangles.triangles(size));
+		assertEquals(2, triangles.triangles(0));
+
+		NodeScore cc = new ClusteringCoefficient(hub).call();
+
+		assertEquals(2*size/(double)(size*(size-1)), cc.get(size), EPSILON);
+		assertEquals(4/6.0, cc.get(0), EPSILON);
+	}
+
+	@Test
+	public void testClusteringCoefficient()
+	{
+		for (int seed=0; seed<4; seed++) {
+
+			Network network = randomNetwork(100, 800, (seed%2)==0, seed);
+			ClusteringCoefficient cc = new ClusteringCoefficient(network);
+			NodeScore score = cc.call();
+
+			for (int node=0; node<network.size(); node++) {
+				assertEquals(clusteringCoefficient(network,node), score.get(node), EPSILON);
+				assertEquals(clusteringCoefficient(network,node), cc.compute(node), EPSILON);
+			}
+		}
+	}
+
+	@Test
+	public void testLinkScores()
+	{
+		for (int seed=0; seed<4; seed++) {
+
+			Network network = randomNetwork(100, 800, (seed%2)==0, seed);
+			Triangles triangles = new Triangles(network);
+
+			LinkEmbeddedness embeddedness = new LinkEmbeddedness(network, triangles);
+			LinkNeighborhoodOverlap overlap = new LinkNeighborhoodOverlap(network, triangles);
+			LinkNeighborhoodSize size = new LinkNeighborhoodSize(network, triangles);
+			LinkClusteringCoefficient lcc = new LinkClusteringCoefficient(network, triangles);
+
+			LinkScore embeddednessScore = embeddedness.call();
+			LinkScore overlapScore = overlap.call();
+			LinkScore sizeScore = size.call();
+			LinkScore lccScore = lcc.call();
+
+			for (int node=0; node<network.size(); node++) {
+				for (int i=0; i<network.outDegree(node); i++) {
+
+					int other = network.outLink(node,i);
+
+					assertEquals(embeddedness.compute(node,other), embeddednessScore.get(node,other), EPSILON);
+					assertEquals(overlap.compute(node,other), overlapScore.get(node,other), EPSILON);
+					assertEquals(size.compute(node,other), sizeScore.get(node,other), EPSILON);
+					assertEquals(lcc.compute(node,other), lccScore.get(node,other), EPSILON);
+				}
+			}
+		}
+	}
+}
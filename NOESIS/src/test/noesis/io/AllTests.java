@@ -6,9 +6,18 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses( { test.noesis.io.GMLNetworkReaderTest.class,
 					   test.noesis.io.GraphMLNetworkReaderTest.class,
+					   test.noesis.io.GEXFNetworkReaderTest.class,
 					   test.noesis.io.GDFNetworkReaderTest.class,
 					   test.noesis.io.PajekNetworkReaderTest.class,
-					   test.noesis.io.PajekNetworkWriterTest.class})
+					   test.noesis.io.PajekNetworkWriterTest.class,
+					   test.noesis.io.SNAPNetworkReaderTest.class,
+					   test.noesis.io.EdgeListParserTest.class,
+					   test.noesis.io.BinaryNetworkTest.class,
+					   test.noesis.io.NetworkLogTest.class,
+					   test.noesis.io.NetworkWriterTest.class,
+					   test.noesis.io.NetworkInspectionTest.class,
+					   test.noesis.io.NetworkRasterizerTest.class,
+					   test.noesis.io.SVGNetworkWriterTest.class})
 public class AllTests {
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package test.noesis.io;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import ikor.util.Benchmark;
+
+import noesis.Network;
+import noesis.io.BinaryNetworkReader;
+import noesis.io.BinaryNetworkWriter;
+import noesis.io.NetworkReader;
+import noesis.io.SNAPNetworkReader;
+import noesis.model.random.ErdosRenyiNetwork;
+
+/**
+ * Network loading benchmark: SNAP edge list parsing (sequential & parallel) vs. memory-mapped NOESIS binary file.
+ *
+ * Usage: BinaryNetworkBenchmark [nodes] [links per node]
+ *
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class BinaryNetworkBenchmark
+{
+	public static final int NODES = 200000;
+	public static final int LINKS = 10;
+	public static final int RUNS = 5;
+
+
+	private static void writeSNAP (Network net, File file)
+		throws IOException
+	{
+		BufferedWriter writer = new BufferedWriter(new FileWriter(file));
+
+		writer.write("# Directed graph: "+file.getName());
+		writer.newLine();
+		writer.write("# Random network");
+		writer.newLine();
+		writer.write("# Nodes: "+net.size()+" Edges: "+net.links());
+		writer.newLine();
+		writer.write("# FromNodeId\tToNodeId");
+		writer.newLine();
+
+		for (int i=0; i<net.size(); i++)
+			for (int j=0; j<net.outDegree(i); j++) {
+				writer.write(i+"\t"+net.outLink(i,j));
+				writer.newLine();
+			}
+
+		writer.close();
+	}
+
+	// Full scan: touches every link (checksum independent of node numbering)
+
+	private static long scan (Network net)
+	{
+		long checksum = 0;
+
+		for (int i=0; i<net.size(); i++) {
+			int degree = net.outDegree(i);
+
+			for (int j=0; j<degree; j++)
+				checksum += degree*net.outDegree(net.outLink(i,j));
+		}
+
+		return checksum;
+	}
+
+
+	public static void main (String[] args)
+		throws IOException
+	{
+		int nodes = (args.length>0)? Integer.parseInt(args[0]): NODES;
+		int links = (args.length>1)? Integer.parseInt(args[1]): LINKS;
+
+		Network net = new ErdosRenyiNetwork(nodes, nodes*links);
+
+		System.out.println("Network: "+net.size()+" nodes, "+net.links()+" links");
+
+		File snap = File.createTempFile("noesis", ".txt");
+		File binary = File.createTempFile("noesis", ".noesis");
+
+		try {
+			writeSNAP(net, snap);
+
+			BinaryNetworkWriter writer = new BinaryNetworkWriter(new FileOutputStream(binary));
+			writer.write(net);
+			writer.close();
+
+			System.out.println("- SNAP file:   "+snap.length()+" bytes");
+			System.out.println("- Binary file: "+binary.length()+" bytes");
+
+			for (int run=0; run<RUNS; run++) {
+
+				Benchmark text = new Benchmark("- SNAP read + scan:   ");
+
+				text.start();
+				NetworkReader reader = new SNAPNetworkReader(new FileInputStream(snap));
+				reader.setType(noesis.ArrayNetwork.class);
+				long checksum = scan(reader.read());
+				reader.close();
+				text.stop();
+
+				System.out.println(text+" [checksum "+checksum+"]");
+
+				Benchmark parallel = new Benchmark("- SNAP parallel read + scan: ");
+
+				parallel.start();
+				reader = new SNAPNetworkReader(new FileInputStream(snap));
+				reader.setType(noesis.ArrayNetwork.class);
+				reader.setParallel(true);
+				checksum = scan(reader.read());
+				reader.close();
+				parallel.stop();
+
+				System.out.println(parallel+" [checksum "+checksum+"]");
+
+				Benchmark open = new Benchmark("- Binary open:        ");
+				Benchmark mapped = new Benchmark("- Binary open + scan: ");
+
+				open.start();
+				mapped.start();
+				Network loaded = new BinaryNetworkReader(binary).read();
+				open.stop();
+				checksum = scan(loaded);
+				mapped.stop();
+
+				System.out.println(open);
+				System.out.println(mapped+" [checksum "+checksum+"]");
+			}
+
+		} finally {
+			snap.delete();
+			binary.delete();
+		}
+	}
+}
@@ -0,0 +1,332 @@
+package test.noesis.io;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import ikor.math.Decimal;
+import ikor.model.data.BooleanModel;
+import ikor.model.data.DecimalModel;
+import ikor.model.data.IntegerModel;
+import ikor.model.data.RealModel;
+
+import noesis.Attribute;
+import noesis.AttributeNetwork;
+import noesis.CompactNetwork;
+import noesis.LinkAttribute;
+import noesis.Network;
+import noesis.io.BinaryNetworkReader;
+import noesis.io.BinaryNetworkWriter;
+import noesis.io.MappedNetwork;
+import noesis.model.random.ErdosRenyiNetwork;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BinaryNetworkTest
+{
+	private File file;
+
+	@Before
+	public void setUp () throws IOException
+	{
+		file = File.createTempFile("noesis", ".noesis");
+	}
+
+	@After
+	public void tearDown ()
+	{
+		file.delete();
+	}
+
+
+	private MappedNetwork roundTrip (Network net)
+		throws IOException
+	{
+		BinaryNetworkWriter writer = new BinaryNetworkWriter(new FileOutputStream(file));
+		writer.write(net);
+		writer.close();
+
+		BinaryNetworkReader reader = new BinaryNetworkReader(file);
+		MappedNetwork mapped = reader.read();
+		reader.close();
+
+		return mapped;
+	}
+
+	private AttributeNetwork createNetwork ()
+	{
+		AttributeNetwork net = new AttributeNetwork();
+
+		net.setID("test");
+		net.setDirected(true);
+		net.setSize(5);
+
+		net.add(0,1);
+		net.add(0,4);
+		net.add(3,4);
+		net.add(1,2);
+		net.add(2,0);
+		net.add(2,3);
+		net.add(4,0);
+
+		Attribute id = new Attribute("id");
+		Attribute size = new Attribute("size", new IntegerModel());
+		Attribute score = new Attribute("score", new RealModel());
+		Attribute flag = new Attribute("flag", new BooleanModel());
+
+		net.addNodeAttribute(id);
+		net.addNodeAttribute(size);
+		net.addNodeAttribute(score);
+		net.addNodeAttribute(flag);
+
+		String[] labels = { "a", "b", "\u00f1and\u00fa", null, "e" };
+
+		for (int i=0; i<net.size(); i++) {
+			net.setNodeAttribute("id", i, labels[i]);
+			net.setNodeAttribute("size", i, ""+(10*i));
+			net.setNodeAttribute("score", i, ""+(i/4.0));
+			net.setNodeAttribute("flag", i, ""+(i%2==0));
+		}
+
+		size.set(1, (Object)null);
+
+		LinkAttribute value = new LinkAttribute(net, "value", new DecimalModel());
+		LinkAttribute label = new LinkAttribute(net, "label");
+
+		net.addLinkAttribute(value);
+		net.addLinkAttribute(label);
+
+		for (int i=0; i<net.size(); i++)
+			for (int j=0; j<net.outDegree(i); j++) {
+				int k = net.outLink(i,j);
+				value.set(i, k, "0."+(i+1)+""+(k+1));
+				label.set(i, k, i+"->"+k);
+			}
+
+		return net;
+	}
+
+
+	@Test
+	public void testTopology ()
+		throws IOException
+	{
+		AttributeNetwork net = createNetwork();
+		MappedNetwork mapped = roundTrip(net);
+
+		assertEquals("test", mapped.getID());
+		assertTrue(mapped.isDirected());
+		assertEquals(net.size(), mapped.size());
+		assertEquals(net.links(), mapped.links());
+
+		for (int i=0; i<net.size(); i++) {
+			assertEquals(net.outDegree(i), mapped.outDegree(i));
+			assertEquals(net.inDegree(i), mapped.inDegree(i));
+
+			for (int j=0; j<net.size(); j++)
+				assertEquals(net.contains(i,j), mapped.contains(i,j));
+		}
+
+		// Sorted CSR
+
+		assertEquals(1, mapped.outLink(0,0));
+		assertEquals(4, mapped.outLink(0,1));
+		assertEquals(2, mapped.inLink(0,0));
+		assertEquals(4, mapped.inLink(0,1));
+
+		// Link index
+
+		for (int link=0; link<mapped.links(); link++)
+			assertEquals(link, mapped.index(mapped.source(link), mapped.destination(link)));
+
+		assertEquals(-1, mapped.index(1,0));
+	}
+
+	@Test
+	public void testNodeAttributes ()
+		throws IOException
+	{
+		MappedNetwork mapped = roundTrip(createNetwork());
+
+		assertEquals(4, mapped.getNodeColumnCount());
+
+		MappedNetwork.Column id = mapped.getNodeColumn("id");
+
+		assertEquals("a", id.get(0));
+		assertEquals("\u00f1and\u00fa", id.getText(2));
+		assertTrue(id.isNull(3));
+		assertNull(id.get(3));
+
+		MappedNetwork.Column size = mapped.getNodeColumn("size");
+
+		assertTrue(size.getModel() instanceof IntegerModel);
+		assertEquals(40, size.getInt(4));
+		assertEquals(Integer.valueOf(20), size.get(2));
+		assertNull(size.get(1));
+
+		MappedNetwork.Column score = mapped.getNodeColumn("score");
+
+		assertEquals(0.75, score.getDouble(3), 0.0);
+		assertEquals(Double.valueOf(0.5), score.get(2));
+
+		MappedNetwork.Column flag = mapped.getNodeColumn("flag");
+
+		assertTrue(flag.getBoolean(0));
+		assertEquals(Boolean.FALSE, flag.get(1));
+
+		assertNull(mapped.getNodeColumn("unknown"));
+	}
+
+	@Test
+	public void testLinkAttributes ()
+		throws IOException
+	{
+		AttributeNetwork net = createNetwork();
+		MappedNetwork mapped = roundTrip(net);
+
+		assertEquals(2, mapped.getLinkColumnCount());
+
+		MappedNetwork.Column value = mapped.getLinkColumn("value");
+		MappedNetwork.Column label = mapped.getLinkColumn("label");
+
+		for (int i=0; i<net.size(); i++)
+			for (int j=0; j<net.outDegree(i); j++) {
+				int k = net.outLink(i,j);
+				int link = mapped.index(i,k);
+
+				assertEquals(net.getLinkAttribute("value").get(i,k), value.get(link));
+				assertEquals(i+"->"+k, label.get(link));
+			}
+
+		assertEquals(new Decimal("0.45"), value.get(mapped.index(3,4)));
+	}
+
+	@Test
+	public void testAttributeNetwork ()
+		throws IOException
+	{
+		AttributeNetwork net = createNetwork();
+		AttributeNetwork copy = roundTrip(net).toAttributeNetwork();
+
+		assertEquals(net.getID(), copy.getID());
+		assertEquals(net.size(), copy.size());
+		assertEquals(net.links(), copy.links());
+		assertEquals(net.getNodeAttributeCount(), copy.getNodeAttributeCount());
+		assertEquals(net.getLinkAttributeCount(), copy.getLinkAttributeCount());
+
+		for (int a=0; a<net.getNodeAttributeCount(); a++)
+			for (int i=0; i<net.size(); i++)
+				assertEquals(net.getNodeAttribute(a).get(i), copy.getNodeAttribute(a).get(i));
+
+		for (int a=0; a<net.getLinkAttributeCount(); a++)
+			for (int i=0; i<net.size(); i++)
+				for (int j=0; j<net.outDegree(i); j++) {
+					int k = net.outLink(i,j);
+					assertEquals(net.getLinkAttribute(a).get(i,k), copy.getLinkAttribute(a).get(i,k));
+				}
+
+		// Rewrite
+
+		AttributeNetwork again = roundTrip(copy).toAttributeNetwork();
+
+		assertEquals(net.getNodeAttribute("id").get(2), again.getNodeAttribute("id").get(2));
+	}
+
+	@Test
+	public void testPlainNetwork ()
+		throws IOException
+	{
+		Network net = new CompactNetwork(new ErdosRenyiNetwork(500, 2000));
+		MappedNetwork mapped = roundTrip(net);
+
+		assertEquals(net.size(), mapped.size());
+		assertEquals(net.links(), mapped.links());
+		assertEquals(0, mapped.getNodeColumnCount());
+		assertEquals(0, mapped.getLinkColumnCount());
+
+		for (int i=0; i<net.size(); i++) {
+			assertEquals(net.outDegree(i), mapped.outDegree(i));
+
+			for (int j=0; j<net.outDegree(i); j++)
+				assertEquals(net.outLink(i,j), mapped.outLink(i,j));
+		}
+	}
+
+	@Test
+	public void testEmptyNetwork ()
+		throws IOException
+	{
+		MappedNetwork mapped = roundTrip(new AttributeNetwork());
+
+		assertNull(mapped.getID());
+		assertEquals(0, mapped.size());
+		assertEquals(0, mapped.links());
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testReadOnly ()
+		throws IOException
+	{
+		MappedNetwork mapped = roundTrip(createNetwork());
+
+		mapped.add(1,0);
+	}
+
+	@Test(expected=IOException.class)
+	public void testInvalidFile ()
+		throws IOException
+	{
+		FileOutputStream output = new FileOutputStream(file);
+		output.write("*vertices 5 - not a binary network file".getBytes());
+		output.close();
+
+		new BinaryNetworkReader(file).read();
+	}
+
+	private void corrupt (long position, int value)
+		throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.seek(position);
+		raf.write(new byte[] { (byte) value, (byte) (value>>8), (byte) (value>>16), (byte) (value>>24) });  // Little endian
+		raf.close();
+	}
+
+	@Test(expected=IOException.class)
+	public void testCorruptNodes ()
+		throws IOException
+	{
+		roundTrip(createNetwork());
+
+		corrupt(16, 1000);   // Node count, beyond the CSR sections and node columns
+
+		new BinaryNetworkReader(file).read();
+	}
+
+	@Test(expected=IOException.class)
+	public void testCorruptLinks ()
+		throws IOException
+	{
+		roundTrip(createNetwork());
+
+		corrupt(20, 3);      // Link count, below the actual number of links
+
+		new BinaryNetworkReader(file).read();
+	}
+
+	@Test(expected=IOException.class)
+	public void testCorruptID ()
+		throws IOException
+	{
+		roundTrip(createNetwork());
+
+		corrupt(32, 0x7FFFFFFF);   // Network ID length, beyond the header
+
+		new BinaryNetworkReader(file).read();
+	}
+}
@@ -0,0 +1,182 @@
+package test.noesis.io;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import ikor.math.Decimal;
+
+import noesis.io.EdgeListParser;
+
+import org.junit.Test;
+
+public class EdgeListParserTest
+{
+	private byte[] bytes (String data)
+		throws IOException
+	{
+		return data.getBytes("UTF-8");
+	}
+
+	private String edgeList (int edges)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (int i=0; i<edges; i++)
+			builder.append(i).append('\t').append((7*i+1)%edges).append('\t').append(i%3).append('\n');
+
+		return builder.toString();
+	}
+
+	@Test
+	public void testPairs ()
+		throws IOException
+	{
+		byte[] data = bytes("1 2\n% comment\n\n3,4\r\n# comment\n 5\t6 7\n");
+		EdgeListParser parser = new EdgeListParser(data, false, false);
+
+		parser.parse(0, data.length, 1);
+
+		assertEquals(3, parser.size());
+		assertArrayEquals(new int[]{0,2,4}, parser.sources(1));
+		assertArrayEquals(new int[]{1,3,5}, parser.destinations(1));
+	}
+
+	@Test
+	public void testLists ()
+		throws IOException
+	{
+		byte[] data = bytes("1 2 3 4\n2\n3 1");
+		EdgeListParser parser = new EdgeListParser(data, true, false);
+
+		parser.parse(0, data.length, 1);
+
+		assertEquals(4, parser.size());
+		assertArrayEquals(new int[]{1,1,1,3}, parser.sources(0));
+		assertArrayEquals(new int[]{2,3,4,1}, parser.destinations(0));
+	}
+
+	@Test
+	public void testValues ()
+		throws IOException
+	{
+		byte[] data = bytes("1 2 0.5\n2 3\n3 1 1\n");
+		EdgeListParser parser = new EdgeListParser(data, false, true);
+
+		parser.setDefaultValue(new Decimal(9));
+		parser.parse(0, data.length, 1);
+
+		EdgeListParser.Chunk chunk = parser.chunk(0);
+
+		assertEquals(3, chunk.size());
+		assertEquals(new Decimal("0.5"), chunk.value(0));
+		assertEquals(new Decimal(9), chunk.value(1));
+		assertEquals(new Decimal(1), chunk.value(2));
+	}
+
+	@Test
+	public void testChunks ()
+		throws IOException
+	{
+		int    edges = 1000;
+		byte[] data = bytes(edgeList(edges));
+
+		EdgeListParser sequential = new EdgeListParser(data, false, true);
+		EdgeListParser parallel = new EdgeListParser(data, false, true);
+
+		sequential.setChunkSize(data.length);
+		sequential.parse(0, data.length, 1);
+
+		parallel.setChunkSize(37);   // Chunk boundaries within lines
+		parallel.parse(0, data.length, 1);
+
+		assertEquals(1, sequential.chunks());
+		assertTrue(parallel.chunks()>1);
+
+		assertEquals(edges, sequential.size());
+		assertEquals(edges, parallel.size());
+
+		assertArrayEquals(sequential.sources(0), parallel.sources(0));
+		assertArrayEquals(sequential.destinations(0), parallel.destinations(0));
+
+		int edge = 0;
+
+		for (int c=0; c<parallel.chunks(); c++)
+			for (int i=0; i<parallel.chunk(c).size(); i++) {
+				assertEquals(new Decimal(edge%3), parallel.chunk(c).value(i));
+				edge++;
+			}
+	}
+
+	@Test
+	public void testSection ()
+		throws IOException
+	{
+		String header = "*Arcs\n";
+		byte[] data = bytes(header+"1 2\n2 3\n*Edges\n");
+		EdgeListParser parser = new EdgeListParser(data, false, false);
+
+		parser.parse(header.length(), data.length-"*Edges\n".length(), 2);
+
+		assertEquals(2, parser.size());
+	}
+
+	@Test
+	public void testErrorLine ()
+	{
+		byte[] data = edgeList(100).concat("1 x\n").getBytes();
+		EdgeListParser parser = new EdgeListParser(data, false, false);
+
+		parser.setChunkSize(64);
+
+		try {
+			parser.parse(0, data.length, 1);
+			fail("Invalid node id");
+		} catch (IOException error) {
+			assertTrue(error.getMessage().endsWith("line 101"));
+		}
+	}
+
+	@Test(expected=IOException.class)
+	public void testMissingDestination ()
+		throws IOException
+	{
+		byte[] data = bytes("1 2\n3\n");
+
+		new EdgeListParser(data, false, false).parse(0, data.length, 1);
+	}
+
+	@Test
+	public void testWeights ()
+		throws IOException
+	{
+		byte[] data = bytes("1 2 0.5\n2 3\n3 1 -1.25e2\n");
+		EdgeListParser parser = new EdgeListParser(data, false, true);
+
+		parser.setWeighted(true);
+		parser.setDefaultWeight(9);
+		parser.parse(0, data.length, 1);
+
+		EdgeListParser.Chunk chunk = parser.chunk(0);
+
+		assertEquals(3, chunk.size());
+		assertEquals(0.5, chunk.weight(0), 0.0);
+		assertEquals(9, chunk.weight(1), 0.0);
+		assertEquals(-125, chunk.weight(2), 0.0);
+	}
+
+	@Test
+	public void testParseDouble ()
+		throws IOException
+	{
+		String[] numbers = { "0", "1", "-7", "+3", "0.1", "3.14159", "123456789.123456", "1234567890123456789", "6.02e23", "1.", ".5" };
+
+		for (int i=0; i<numbers.length; i++) {
+			byte[] data = bytes(numbers[i]);
+			assertEquals(Double.parseDouble(numbers[i]), EdgeListParser.parseDouble(data, 0, data.length), 0.0);
+		}
+
+		assertTrue(Double.isNaN(EdgeListParser.parseDouble(bytes("1.2.3"), 0, 5)));
+		assertTrue(Double.isNaN(EdgeListParser.parseDouble(bytes("-"), 0, 1)));
+	}
+}
@@ -0,0 +1,215 @@
+package test.noesis.io;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import noesis.Attribute;
+import noesis.AttributeNetwork;
+import noesis.LinkAttribute;
+import noesis.io.GEXFNetworkReader;
+import noesis.network.LinkWeights;
+import noesis.network.attribute.ColumnAttribute;
+import noesis.network.attribute.ColumnLinkAttribute;
+
+import org.junit.Test;
+
+public class GEXFNetworkReaderTest
+{
+	// Sample GEXF network
+
+	private String[] gexf = new String[] {
+			"<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+			"<gexf xmlns=\"http://www.gexf.net/1.2draft\" xmlns:viz=\"http://www.gexf.net/1.2draft/viz\" version=\"1.2\">",
+			"  <graph mode=\"static\" defaultedgetype=\"directed\">",
+			"    <attributes class=\"node\">",
+			"      <attribute id=\"0\" title=\"url\" type=\"string\"/>",
+			"      <attribute id=\"1\" title=\"indegree\" type=\"integer\"/>",
+			"      <attribute id=\"2\" title=\"score\" type=\"double\"/>",
+			"    </attributes>",
+			"    <attributes class=\"edge\">",
+			"      <attribute id=\"0\" title=\"cost\" type=\"float\"/>",
+			"    </attributes>",
+			"    <nodes>",
+			"      <node id=\"a\" label=\"Gephi\">",
+			"        <attvalues>",
+			"          <attvalue for=\"0\" value=\"http://gephi.org\"/>",
+			"          <attvalue for=\"1\" value=\"1\"/>",
+			"          <attvalue for=\"2\" value=\"0.25\"/>",
+			"        </attvalues>",
+			"        <viz:position x=\"15.5\" y=\"-40.25\" z=\"0.0\"/>",
+			"      </node>",
+			"      <node id=\"b\" label=\"Webatlas\">",
+			"        <attvalues>",
+			"          <attvalue for=\"1\" value=\"2\"/>",
+			"        </attvalues>",
+			"        <viz:position x=\"1\" y=\"2\"/>",
+			"      </node>",
+			"      <node id=\"c\" label=\"RTGI\"/>",
+			"    </nodes>",
+			"    <edges>",
+			"      <edge id=\"0\" source=\"a\" target=\"b\" weight=\"2.5\">",
+			"        <attvalues><attvalue for=\"0\" value=\"10\"/></attvalues>",
+			"      </edge>",
+			"      <edge id=\"1\" source=\"b\" target=\"c\"/>",
+			"      <edge id=\"2\" source=\"c\" target=\"a\" type=\"undirected\" weight=\"4\"/>",
+			"    </edges>",
+			"  </graph>",
+			"</gexf>"
+		};
+
+	private String networkString (String[] lines)
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (int i=0; i<lines.length; i++)
+			builder.append(lines[i]).append('\n');
+
+		return builder.toString();
+	}
+
+	private AttributeNetwork read (String data, boolean weighted)
+		throws IOException
+	{
+		InputStream is = new ByteArrayInputStream(data.getBytes("UTF-8"));
+		GEXFNetworkReader reader = new GEXFNetworkReader(is);
+
+		reader.setWeighted(weighted);
+
+		AttributeNetwork net = (AttributeNetwork) reader.read();
+
+		reader.close();
+
+		if (weighted) {
+			LinkWeights weights = reader.getLinkWeights();
+
+			assertNotNull(weights);
+			assertEquals(net.links(), weights.links());
+			assertEquals(2.5, weights.evaluate(0,1), 0.0);
+			assertEquals(LinkWeights.DEFAULT_WEIGHT, weights.evaluate(1,2), 0.0);
+			assertEquals(4.0, weights.evaluate(2,0), 0.0);
+			assertEquals(4.0, weights.evaluate(0,2), 0.0);
+		} else {
+			assertNull(reader.getLinkWeights());
+		}
+
+		return net;
+	}
+
+	@Test
+	public void testNodes ()
+		throws IOException
+	{
+		AttributeNetwork net = read(networkString(gexf), false);
+
+		assertEquals(3, net.size());
+		assertTrue(net.isDirected());
+
+		Attribute id = net.getNodeAttribute("id");
+		Attribute label = net.getNodeAttribute("label");
+
+		assertEquals("a", id.get(0));
+		assertEquals("b", id.get(1));
+		assertEquals("c", id.get(2));
+
+		assertEquals("Gephi", label.get(0));
+		assertEquals("Webatlas", label.get(1));
+		assertEquals("RTGI", label.get(2));
+	}
+
+	@Test
+	public void testNodeAttributes ()
+		throws IOException
+	{
+		AttributeNetwork net = read(networkString(gexf), false);
+
+		Attribute url = net.getNodeAttribute("url");
+		Attribute indegree = net.getNodeAttribute("indegree");
+		Attribute score = net.getNodeAttribute("score");
+
+		assertFalse(url instanceof ColumnAttribute);
+		assertTrue(indegree instanceof ColumnAttribute);
+		assertTrue(score instanceof ColumnAttribute);
+
+		assertEquals("http://gephi.org", url.get(0));
+		assertNull(url.get(1));
+
+		assertEquals(1, indegree.get(0));
+		assertEquals(2, indegree.get(1));
+		assertNull(indegree.get(2));
+
+		assertEquals(0.25, score.get(0));
+		assertNull(score.get(1));
+	}
+
+	@Test
+	public void testPositions ()
+		throws IOException
+	{
+		AttributeNetwork net = read(networkString(gexf), false);
+
+		Attribute x = net.getNodeAttribute("x");
+		Attribute y = net.getNodeAttribute("y");
+
+		assertTrue(x instanceof ColumnAttribute);
+		assertTrue(y instanceof ColumnAttribute);
+
+		assertEquals(15.5, x.get(0));
+		assertEquals(-40.25, y.get(0));
+		assertEquals(1.0, x.get(1));
+		assertEquals(2.0, y.get(1));
+		assertNull(x.get(2));
+	}
+
+	@Test
+	public void testLinks ()
+		throws IOException
+	{
+		AttributeNetwork net = read(networkString(gexf), false);
+
+		assertEquals(4, net.links());
+
+		assertNotNull(net.get(0,1));
+		assertNotNull(net.get(1,2));
+		assertNotNull(net.get(2,0));
+		assertNotNull(net.get(0,2));   // Undirected edge
+		assertNull(net.get(1,0));
+		assertNull(net.get(2,1));
+
+		LinkAttribute weight = net.getLinkAttribute("weight");
+		LinkAttribute cost = net.getLinkAttribute("cost");
+
+		assertTrue(weight instanceof ColumnLinkAttribute);
+		assertTrue(cost instanceof ColumnLinkAttribute);
+
+		assertEquals(2.5, weight.get(0,1));
+		assertNull(weight.get(1,2));
+		assertEquals(4.0, weight.get(2,0));
+		assertEquals(4.0, weight.get(0,2));
+
+		assertEquals(10.0, cost.get(0,1));
+		assertNull(cost.get(2,0));
+	}
+
+	@Test
+	public void testLinkWeights ()
+		throws IOException
+	{
+		read(networkString(gexf), true);
+	}
+
+	@Test
+	public void testUndirectedDefault ()
+		throws IOException
+	{
+		String data = networkString(gexf).replace(" defaultedgetype=\"directed\"", "");
+		AttributeNetwork net = read(data, true);
+
+		assertFalse(net.isDirected());
+		assertEquals(6, net.links());
+		assertEquals(2.5, net.getLinkAttribute("weight").get(1,0));
+		assertEquals(10.0, net.getLinkAttribute("cost").get(1,0));
+	}
+}
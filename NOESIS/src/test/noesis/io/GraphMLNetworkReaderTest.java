@@ -10,6 +10,8 @@ import noesis.LinkAttribute;
 
 import noesis.io.AttributeNetworkReader;
 import noesis.io.GraphMLNetworkReader;
+import noesis.network.attribute.ColumnAttribute;
+import noesis.network.attribute.ColumnLinkAttribute;
 
 import static org.junit.Assert.*;
 
@@ -78,6 +80,23 @@ public class GraphMLNetworkReaderTest {
 			"</graphml>"
 		};
 	
+	private String[] graphmlTyped = new String[] {
+			"<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+			"<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">",
+			"  <key id=\"d0\" for=\"node\" attr.name=\"size\" attr.type=\"double\"/>",
+			"  <key id=\"d1\" for=\"node\" attr.name=\"group\" attr.type=\"int\"/>",
+			"  <key id=\"d2\" for=\"node\" attr.name=\"name\" attr.type=\"string\"/>",
+			"  <key id=\"d3\" for=\"edge\" attr.name=\"weight\" attr.type=\"float\"/>",
+			"  <graph id=\"G\" edgedefault=\"undirected\">",
+			"    <node id=\"n1\"><data key=\"d0\">1.5</data><data key=\"d1\">1</data><data key=\"d2\">A &amp; B</data></node>",
+			"    <node id=\"n2\"><data key=\"d0\"> 2.25 </data><data key=\"d1\"><![CDATA[2]]></data></node>",
+			"    <node id=\"n3\"><data key=\"d0\">-3e2</data><data key=\"d1\">x</data><data key=\"label\">Node 3</data></node>",
+			"    <edge source=\"n1\" target=\"n2\"><data key=\"d3\">0.5</data></edge>",
+			"    <edge source=\"n2\" target=\"n3\"/>",
+			"  </graph>",
+			"</graphml>"
+		};
+
 	private String networkString (String[] lines)
 	{
 		String newLine = System.getProperty("line.separator");		
@@ -226,5 +245,65 @@ public class GraphMLNetworkReaderTest {
 		checkUndirectedLinkLabels(net);
 	}
 
-}
+	@Test
+	public void testGraphMLTypedKeys() throws IOException
+	{
+		InputStream is = new ByteArrayInputStream(networkString(graphmlTyped).getBytes());
+		AttributeNetworkReader reader = new GraphMLNetworkReader(is);
+	
+		AttributeNetwork net = (AttributeNetwork) reader.read();
+		
+		assertEquals(3, net.size());
+		assertEquals(4, net.links());
+		checkNodeIDs(net);
 
+		// Numerical keys: primitive columns named after attr.name
+		
+		Attribute size = net.getNodeAttribute("size");
+		Attribute group = net.getNodeAttribute("group");
+		
+		assertTrue(size instanceof ColumnAttribute);
+		assertTrue(group instanceof ColumnAttribute);
+		assertNull(net.getNodeAttribute("d0"));
+		
+		assertEquals(1.5, size.get(0));
+		assertEquals(2.25, size.get(1));
+		assertEquals(-300.0, size.get(2));
+		
+		assertEquals(1, group.get(0));
+		assertEquals(2, group.get(1));
+		assertNull(group.get(2));
+		
+		// Text keys
+		
+		Attribute name = net.getNodeAttribute("name");
+		
+		assertFalse(name instanceof ColumnAttribute);
+		assertEquals("A & B", name.get(0));
+		assertNull(name.get(1));
+		
+		// Undeclared keys
+		
+		assertEquals("Node 3", net.getNodeAttribute("label").get(2));
+		
+		// Link keys
+		
+		LinkAttribute weight = net.getLinkAttribute("weight");
+		
+		assertTrue(weight instanceof ColumnLinkAttribute);
+		assertEquals(0.5, weight.get(0,1));
+		assertEquals(0.5, weight.get(1,0));
+		assertNull(weight.get(1,2));
+		assertNull(weight.get(2,1));
+	}
+
+	@Test(expected=IOException.class)
+	public void testGraphMLMalformed() throws IOException
+	{
+		InputStream is = new ByteArrayInputStream("<graphml><graph><node id=\"n1\"></graph>".getBytes());
+		AttributeNetworkReader reader = new GraphMLNetworkReader(is);
+	
+		reader.read();
+	}
+
+}
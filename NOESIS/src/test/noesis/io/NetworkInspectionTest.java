@@ -0,0 +1,373 @@
+package test.noesis.io;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.util.zip.GZIPOutputStream;
+
+import ikor.model.data.IntegerModel;
+import ikor.model.data.RealModel;
+import ikor.model.data.TextModel;
+
+import noesis.AttributeNetwork;
+import noesis.io.ASCIINetworkReader;
+import noesis.io.BinaryNetworkReader;
+import noesis.io.BinaryNetworkWriter;
+import noesis.io.GDFNetworkReader;
+import noesis.io.GEXFNetworkReader;
+import noesis.io.GMLNetworkReader;
+import noesis.io.GraphMLNetworkReader;
+import noesis.io.NetworkInfo;
+import noesis.io.NetworkReader;
+import noesis.io.NetworkReaderFactory;
+import noesis.io.PajekNetworkReader;
+import noesis.io.SNAPGZNetworkReader;
+import noesis.io.SNAPNetworkReader;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class NetworkInspectionTest
+{
+	// Sample networks
+
+	private static final String PAJEK = "*network sample\n"
+	                                  + "*vertices 4\n"
+	                                  + "1 \"a\"\n2 \"b\"\n3 \"c\"\n4 \"d\"\n"
+	                                  + "*arcs\n1 2\n2 3\n"
+	                                  + "*edges\n3 4\n"
+	                                  + "*arcslist\n4 1 2\n";
+
+	private static final String SNAP = "# Directed graph: sample\n"
+	                                 + "# sample\n"
+	                                 + "# Nodes: 5 Edges: 4\n"
+	                                 + "# FromNodeId\tToNodeId\n"
+	                                 + "0\t1\n1\t2\n2\t3\n3\t4\n";
+
+	private static final String EDGES = "10 20\n20 30\n30 10\n30 40\n";
+
+	private static final String ASCII = "4 3\n1 2 1.0\n2 3 1.0\n3 4 2.0\n";
+
+	private static final String GDF = "nodedef>name VARCHAR,label VARCHAR,size DOUBLE\n"
+	                                + "a,Node A,1.0\nb,Node B,2.0\nc,Node C,3.0\n"
+	                                + "edgedef>node1 VARCHAR,node2 VARCHAR,weight DOUBLE\n"
+	                                + "a,b,0.5\nb,c,0.25\n";
+
+	private static final String GML = "graph\n[\n  directed 0\n"
+	                                + "  node\n  [\n   id 1\n   label \"a\"\n  ]\n"
+	                                + "  node\n  [\n   id 2\n   label \"b\"\n  ]\n"
+	                                + "  node\n  [\n   id 3\n   label \"c\"\n  ]\n"
+	                                + "  edge\n  [\n   source 1\n   target 2\n   value 2\n  ]\n"
+	                                + "]\n";
+
+	private static final String GRAPHML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+	                                    + "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n"
+	                                    + "<key id=\"d0\" for=\"node\" attr.name=\"color\" attr.type=\"string\"/>\n"
+	                                    + "<key id=\"d1\" for=\"edge\" attr.name=\"weight\" attr.type=\"double\"/>\n"
+	                                    + "<graph id=\"G\" edgedefault=\"undirected\">\n"
+	                                    + "<node id=\"n0\"><data key=\"d0\">green</data></node>\n"
+	                                    + "<node id=\"n1\"/>\n<node id=\"n2\"/>\n"
+	                                    + "<edge source=\"n0\" target=\"n1\"><data key=\"d1\">1.0</data></edge>\n"
+	                                    + "<edge source=\"n1\" target=\"n2\"/>\n"
+	                                    + "</graph>\n</graphml>\n";
+
+	private static final String GEXF = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+	                                 + "<gexf xmlns=\"http://www.gexf.net/1.2draft\" version=\"1.2\">\n"
+	                                 + "<graph mode=\"static\" defaultedgetype=\"directed\">\n"
+	                                 + "<attributes class=\"node\"><attribute id=\"0\" title=\"indegree\" type=\"integer\"/></attributes>\n"
+	                                 + "<nodes>\n<node id=\"a\" label=\"A\"/>\n<node id=\"b\" label=\"B\"/>\n</nodes>\n"
+	                                 + "<edges>\n<edge id=\"0\" source=\"a\" target=\"b\" weight=\"2.0\"/>\n</edges>\n"
+	                                 + "</graph>\n</gexf>\n";
+
+
+	// Temporary files
+
+	private File file;
+
+	@After
+	public void tearDown ()
+	{
+		if (file!=null)
+			file.delete();
+	}
+
+	private File createFile (String extension, byte[] contents, boolean gzip)
+		throws IOException
+	{
+		file = File.createTempFile("noesis", extension);
+
+		OutputStream output = new FileOutputStream(file);
+
+		if (gzip)
+			output = new GZIPOutputStream(output);
+
+		output.write(contents);
+		output.close();
+
+		return file;
+	}
+
+	private File createFile (String extension, String contents)
+		throws IOException
+	{
+		return createFile(extension, contents.getBytes("UTF-8"), false);
+	}
+
+	private String detect (String extension, String contents)
+		throws IOException
+	{
+		NetworkReaderFactory.Format format = NetworkReaderFactory.detect(createFile(extension, contents));
+
+		file.delete();
+
+		return (format!=null)? format.getName(): null;
+	}
+
+
+	// Format detection
+
+	@Test
+	public void testDetection ()
+		throws IOException
+	{
+		// Contents take precedence over file extensions
+
+		assertEquals("Pajek", detect(".txt", PAJEK));
+		assertEquals("SNAP", detect(".dat", SNAP));
+		assertEquals("SNAP", detect(".net", EDGES));
+		assertEquals("ASCII", detect(".txt", ASCII));
+		assertEquals("GDF", detect(".txt", GDF));
+		assertEquals("GML", detect(".txt", GML));
+		assertEquals("GraphML", detect(".xml", GRAPHML));
+		assertEquals("GEXF", detect(".xml", GEXF));
+	}
+
+	@Test
+	public void testDetectionWithComments ()
+		throws IOException
+	{
+		assertEquals("Pajek", detect(".txt", "% Pajek comment\n\n"+PAJEK));
+		assertEquals("GDF", detect(".txt", "# GDF comment\n"+GDF));
+		assertEquals("GraphML", detect(".xml", "\uFEFF"+GRAPHML));
+	}
+
+	@Test
+	public void testDetectionFromExtension ()
+		throws IOException
+	{
+		assertEquals("Pajek", detect(".net", ""));
+		assertEquals("GML", detect(".gml", ""));
+		assertEquals("GraphML", detect(".graphml", ""));
+		assertNull(detect(".unknown", ""));
+		assertNull(detect(".unknown", "unrecognized contents"));
+	}
+
+	@Test
+	public void testGZipDetection ()
+		throws IOException
+	{
+		createFile(".gz", SNAP.getBytes("UTF-8"), true);
+		assertEquals("SNAP", NetworkReaderFactory.detect(file).getName());
+
+		NetworkReader reader = NetworkReaderFactory.createReader(file);
+		assertTrue(reader instanceof SNAPGZNetworkReader);
+		assertEquals(5, reader.read().size());
+		reader.close();
+
+		createFile(".gz", GML.getBytes("UTF-8"), true);
+		assertEquals("GML", NetworkReaderFactory.detect(file).getName());
+
+		reader = NetworkReaderFactory.createReader(file);
+		assertTrue(reader instanceof GMLNetworkReader);
+		assertEquals(3, reader.read().size());
+		reader.close();
+	}
+
+	@Test(expected=IOException.class)
+	public void testUnknownFormat ()
+		throws IOException
+	{
+		NetworkReaderFactory.createReader(createFile(".unknown", "unrecognized contents"));
+	}
+
+	@Test
+	public void testBinaryDetection ()
+		throws IOException
+	{
+		file = File.createTempFile("noesis", ".bin");
+
+		writeBinary(file);
+
+		assertEquals("Binary", NetworkReaderFactory.detect(file).getName());
+
+		NetworkReader reader = NetworkReaderFactory.createReader(file);
+		assertTrue(reader instanceof BinaryNetworkReader);
+		reader.close();
+	}
+
+	private void writeBinary (File file)
+		throws IOException
+	{
+		AttributeNetwork net = new AttributeNetwork();
+
+		net.setID("binary");
+		net.setSize(3);
+		net.add(0,1);
+		net.add(1,2);
+
+		BinaryNetworkWriter writer = new BinaryNetworkWriter(new FileOutputStream(file));
+		writer.write(net);
+		writer.close();
+	}
+
+
+	// Inspection
+
+	@Test
+	public void testPajekInspection ()
+		throws IOException
+	{
+		NetworkInfo info = new PajekNetworkReader(new StringReader(PAJEK)).inspect();
+
+		assertEquals("Pajek", info.getFormat());
+		assertEquals("sample", info.getID());
+		assertEquals(4, info.size());
+		assertEquals(5, info.links());
+		assertEquals(1, info.getNodeAttributeCount());
+		assertEquals("id", info.getNodeAttribute(0));
+		assertEquals(1, info.getLinkAttributeCount());
+		assertEquals("value", info.getLinkAttribute(0));
+	}
+
+	@Test
+	public void testSNAPInspection ()
+		throws IOException
+	{
+		// Header
+
+		NetworkInfo info = new SNAPNetworkReader(new StringReader(SNAP)).inspect();
+
+		assertEquals("SNAP", info.getFormat());
+		assertEquals("sample", info.getID());
+		assertEquals(5, info.size());
+		assertEquals(4, info.links());
+
+		// No header: counting pass
+
+		info = new SNAPNetworkReader(new StringReader(EDGES)).inspect();
+
+		assertNull(info.getID());
+		assertEquals(4, info.size());
+		assertEquals(4, info.links());
+	}
+
+	@Test
+	public void testASCIIInspection ()
+		throws IOException
+	{
+		NetworkInfo info = new ASCIINetworkReader(new StringReader(ASCII)).inspect();
+
+		assertEquals(4, info.size());
+		assertEquals(3, info.links());
+	}
+
+	@Test
+	public void testGDFInspection ()
+		throws IOException
+	{
+		NetworkInfo info = new GDFNetworkReader(new StringReader(GDF)).inspect();
+
+		assertEquals("GDF", info.getFormat());
+		assertEquals(3, info.size());
+		assertEquals(2, info.links());
+		assertTrue(info.getNodeAttributeCount()>=2);
+		assertTrue(info.getLinkAttributeCount()>=1);
+	}
+
+	@Test
+	public void testGMLInspection ()
+		throws IOException
+	{
+		NetworkInfo info = new GMLNetworkReader(new StringReader(GML)).inspect();
+
+		assertEquals("GML", info.getFormat());
+		assertFalse(info.isDirected());
+		assertEquals(3, info.size());
+		assertEquals(1, info.links());
+		assertEquals("label", info.getNodeAttribute(info.getNodeAttributeCount()-1));
+		assertEquals("value", info.getLinkAttribute(0));
+	}
+
+	@Test
+	public void testGraphMLInspection ()
+		throws IOException
+	{
+		NetworkInfo info = new GraphMLNetworkReader(new ByteArrayInputStream(GRAPHML.getBytes("UTF-8"))).inspect();
+
+		assertEquals("GraphML", info.getFormat());
+		assertEquals("G", info.getID());
+		assertFalse(info.isDirected());
+		assertEquals(3, info.size());
+		assertEquals(2, info.links());
+		assertEquals("color", info.getNodeAttribute(info.getNodeAttributeCount()-1));
+		assertTrue(info.getNodeAttributeModel(info.getNodeAttributeCount()-1) instanceof TextModel);
+		assertEquals("weight", info.getLinkAttribute(0));
+		assertTrue(info.getLinkAttributeModel(0) instanceof RealModel);
+	}
+
+	@Test
+	public void testGEXFInspection ()
+		throws IOException
+	{
+		NetworkInfo info = new GEXFNetworkReader(new ByteArrayInputStream(GEXF.getBytes("UTF-8"))).inspect();
+
+		assertEquals("GEXF", info.getFormat());
+		assertTrue(info.isDirected());
+		assertEquals(2, info.size());
+		assertEquals(1, info.links());
+
+		boolean indegree = false;
+
+		for (int i=0; i<info.getNodeAttributeCount(); i++)
+			if (info.getNodeAttribute(i).equals("indegree"))
+				indegree = info.getNodeAttributeModel(i) instanceof IntegerModel;
+
+		assertTrue(indegree);
+		assertEquals("weight", info.getLinkAttribute(0));
+	}
+
+	@Test
+	public void testBinaryInspection ()
+		throws IOException
+	{
+		file = File.createTempFile("noesis", ".noesis");
+
+		writeBinary(file);
+
+		BinaryNetworkReader reader = new BinaryNetworkReader(file);
+		NetworkInfo info = reader.inspect();
+		reader.close();
+
+		assertEquals("Binary", info.getFormat());
+		assertEquals("binary", info.getID());
+		assertEquals(3, info.size());
+		assertEquals(2, info.links());
+	}
+
+	@Test
+	public void testFactoryInspection ()
+		throws IOException
+	{
+		NetworkReader reader = NetworkReaderFactory.createReader(createFile(".txt", PAJEK));
+		NetworkInfo info = reader.inspect();
+		reader.close();
+
+		assertEquals("Pajek", info.getFormat());
+		assertEquals(4, info.size());
+	}
+}
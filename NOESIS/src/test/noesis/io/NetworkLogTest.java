@@ -0,0 +1,373 @@
+package test.noesis.io;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import noesis.DynamicNetwork;
+import noesis.Network;
+import noesis.io.NetworkLogReader;
+import noesis.io.NetworkLogWriter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NetworkLogTest
+{
+	private File file;
+
+	@Before
+	public void setUp () throws IOException
+	{
+		file = File.createTempFile("noesis", ".nlog");
+		file.delete();
+	}
+
+	@After
+	public void tearDown ()
+	{
+		file.delete();
+		new File(file.getPath()+".tmp").delete();
+	}
+
+
+	private void writeTriangle ()
+		throws IOException
+	{
+		NetworkLogWriter writer = new NetworkLogWriter(file);
+
+		writer.addNode("a");
+		writer.addNode("b");
+		writer.addNode("c");
+		writer.addLink(0,1);
+		writer.addLink(1,2);
+		writer.addLink(2,0);
+		writer.close();
+	}
+
+	private Network<String,Object> read ()
+		throws IOException
+	{
+		NetworkLogReader reader = new NetworkLogReader(file);
+		Network<String,Object> net = reader.read();
+
+		reader.close();
+
+		return net;
+	}
+
+	private void checkTriangle (Network<String,Object> net)
+	{
+		assertEquals(3, net.size());
+		assertEquals(3, net.links());
+
+		assertEquals("a", net.get(0));
+		assertEquals("b", net.get(1));
+		assertEquals("c", net.get(2));
+
+		assertTrue(net.contains(0,1));
+		assertTrue(net.contains(1,2));
+		assertTrue(net.contains(2,0));
+		assertFalse(net.contains(1,0));
+	}
+
+
+	@Test
+	public void testReplay ()
+		throws IOException
+	{
+		writeTriangle();
+
+		Network<String,Object> net = read();
+
+		assertTrue(net instanceof DynamicNetwork);
+		checkTriangle(net);
+	}
+
+	@Test
+	public void testRemoveLinks ()
+		throws IOException
+	{
+		writeTriangle();
+
+		NetworkLogWriter writer = new NetworkLogWriter(file);
+
+		writer.removeLink(1,2);
+		writer.removeLink(1,2);  // Nonexistent link
+		writer.addLink(0,1);     // Duplicate link
+		writer.addLink(0,2);
+		writer.close();
+
+		Network<String,Object> net = read();
+
+		assertEquals(3, net.size());
+		assertEquals(3, net.links());
+		assertTrue(net.contains(0,1));
+		assertFalse(net.contains(1,2));
+		assertTrue(net.contains(2,0));
+		assertTrue(net.contains(0,2));
+	}
+
+	@Test
+	public void testTail ()
+		throws IOException
+	{
+		writeTriangle();
+
+		NetworkLogReader reader = new NetworkLogReader(file);
+		Network<String,Object> net = reader.read();
+		long offset = reader.getOffset();
+
+		assertEquals(file.length(), offset);
+		assertEquals(0, reader.update(net));
+
+		// Buffered changes are not visible until flushed
+
+		NetworkLogWriter writer = new NetworkLogWriter(file);
+
+		assertEquals(offset, writer.position());
+
+		writer.addNode("d");
+		writer.addLink(3,0);
+
+		assertEquals(0, reader.update(net));
+
+		writer.flush();
+
+		assertEquals(2, reader.update(net));
+		assertEquals(writer.position(), reader.getOffset());
+		assertEquals(4, net.size());
+		assertEquals(4, net.links());
+		assertEquals("d", net.get(3));
+		assertTrue(net.contains(3,0));
+
+		writer.removeLink(2,0);
+		writer.close();
+
+		assertEquals(1, reader.update(net));
+		assertEquals(3, net.links());
+		assertFalse(net.contains(2,0));
+
+		reader.close();
+
+		// Resume from a saved offset
+
+		DynamicNetwork<String,Object> copy = new DynamicNetwork<String,Object>();
+
+		reader = new NetworkLogReader(file);
+		reader.setOffset(offset);
+
+		copy.add("a");
+		copy.add("b");
+		copy.add("c");
+		copy.add(2,0);
+
+		assertEquals(3, reader.update(copy));
+		assertEquals(4, copy.size());
+		assertEquals(1, copy.links());
+		assertTrue(copy.contains(3,0));
+
+		reader.close();
+	}
+
+	@Test
+	public void testIncompleteFrame ()
+		throws IOException
+	{
+		writeTriangle();
+
+		long length = file.length();
+
+		NetworkLogWriter writer = new NetworkLogWriter(file);
+		writer.addLink(1,0);
+		writer.close();
+
+		// Interrupted write
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.setLength(file.length()-3);
+		raf.close();
+
+		checkTriangle(read());
+
+		// Writers discard incomplete frames
+
+		writer = new NetworkLogWriter(file);
+		assertEquals(length, writer.position());
+		writer.addLink(0,2);
+		writer.close();
+
+		Network<String,Object> net = read();
+
+		assertEquals(4, net.links());
+		assertTrue(net.contains(0,2));
+		assertFalse(net.contains(1,0));
+	}
+
+	@Test
+	public void testCorruptFrame ()
+		throws IOException
+	{
+		writeTriangle();
+
+		long length = file.length();
+
+		NetworkLogWriter writer = new NetworkLogWriter(file);
+		writer.addLink(1,0);
+		writer.close();
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.seek(file.length()-1);
+		raf.write(7);
+		raf.close();
+
+		checkTriangle(read());
+
+		writer = new NetworkLogWriter(file);
+		assertEquals(length, writer.position());
+		writer.close();
+	}
+
+	@Test
+	public void testLongNodeIDs ()
+		throws IOException
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (int i=0; i<NetworkLogWriter.BUFFER_SIZE; i++)
+			builder.append((char)('a'+i%26));
+
+		String id = builder.toString();
+
+		NetworkLogWriter writer = new NetworkLogWriter(file);
+		writer.addNode(id);
+		writer.addNode(null);
+		writer.addNode("\u00f1\u00e9");
+		writer.addLink(0,2);
+		writer.close();
+
+		Network<String,Object> net = read();
+
+		assertEquals(3, net.size());
+		assertEquals(id, net.get(0));
+		assertNull(net.get(1));
+		assertEquals("\u00f1\u00e9", net.get(2));
+		assertTrue(net.contains(0,2));
+	}
+
+	@Test
+	public void testCompaction ()
+		throws IOException
+	{
+		NetworkLogWriter writer = new NetworkLogWriter(file);
+
+		for (int i=0; i<100; i++)
+			writer.addNode("n"+i);
+
+		for (int k=0; k<10; k++) {
+
+			for (int i=0; i<100; i++)
+				writer.addLink(i, (i+1)%100);
+
+			if (k<9)
+				for (int i=0; i<100; i++)
+					writer.removeLink(i, (i+1)%100);
+
+			writer.flush();
+		}
+
+		writer.close();
+
+		long length = file.length();
+
+		NetworkLogWriter.compact(file);
+
+		assertTrue(file.length()<length);
+		assertFalse(new File(file.getPath()+".tmp").exists());
+
+		Network<String,Object> net = read();
+
+		assertEquals(100, net.size());
+		assertEquals(100, net.links());
+
+		for (int i=0; i<100; i++) {
+			assertEquals("n"+i, net.get(i));
+			assertTrue(net.contains(i, (i+1)%100));
+		}
+	}
+
+	@Test
+	public void testNewLog ()
+		throws IOException
+	{
+		writeTriangle();
+
+		NetworkLogWriter writer = new NetworkLogWriter(file, false);
+		writer.addNode("x");
+		writer.close();
+
+		Network<String,Object> net = read();
+
+		assertEquals(1, net.size());
+		assertEquals("x", net.get(0));
+	}
+
+	@Test(expected=IOException.class)
+	public void testInvalidNode ()
+		throws IOException
+	{
+		NetworkLogWriter writer = new NetworkLogWriter(file);
+		writer.addNode("a");
+		writer.addLink(0,1);
+		writer.close();
+
+		read();
+	}
+
+	@Test
+	public void testInvalidFrame ()
+		throws IOException
+	{
+		writeTriangle();
+
+		NetworkLogReader reader = new NetworkLogReader(file);
+		Network<String,Object> net = reader.read();
+		long offset = reader.getOffset();
+
+		// Valid records before an invalid one, in the same frame
+
+		NetworkLogWriter writer = new NetworkLogWriter(file);
+		writer.addNode("d");
+		writer.addLink(3,0);
+		writer.removeLink(0,1);
+		writer.addLink(0,9);
+		writer.close();
+
+		try {
+			reader.update(net);
+			fail("Invalid node index");
+		} catch (IOException error) {
+			// Frame not applied
+		}
+
+		checkTriangle(net);
+		assertEquals(offset, reader.getOffset());
+
+		reader.close();
+	}
+
+	@Test(expected=IOException.class)
+	public void testNotALog ()
+		throws IOException
+	{
+		FileOutputStream output = new FileOutputStream(file);
+		output.write("*Vertices 3\n".getBytes());
+		output.close();
+
+		new NetworkLogReader(file);
+	}
+}
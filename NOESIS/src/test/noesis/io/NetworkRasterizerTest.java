@@ -0,0 +1,165 @@
+package test.noesis.io;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import ikor.model.data.RealModel;
+
+import noesis.Attribute;
+import noesis.AttributeNetwork;
+import noesis.io.graphics.ColorNodeRenderer;
+import noesis.io.graphics.DefaultNodeRenderer;
+import noesis.io.graphics.NetworkImageWriter;
+import noesis.io.graphics.NetworkRasterizer;
+import noesis.io.graphics.NetworkRenderer;
+
+import org.junit.Test;
+
+public class NetworkRasterizerTest
+{
+	public static final int WIDTH = 300;
+	public static final int HEIGHT = 200;
+
+	private AttributeNetwork createNetwork (double[] xs, double[] ys)
+	{
+		AttributeNetwork net = new AttributeNetwork();
+		Attribute<Double> x = new Attribute<Double>("x", new RealModel());
+		Attribute<Double> y = new Attribute<Double>("y", new RealModel());
+
+		net.addNodeAttribute(x);
+		net.addNodeAttribute(y);
+		net.setSize(xs.length);
+
+		for (int i=0; i<xs.length; i++) {
+			x.set(i, xs[i]);
+			y.set(i, ys[i]);
+		}
+
+		return net;
+	}
+
+	private AttributeNetwork createRandomNetwork (int nodes, int links)
+	{
+		Random   random = new Random(2014);
+		double[] xs = new double[nodes];
+		double[] ys = new double[nodes];
+
+		for (int i=0; i<nodes; i++) {
+			xs[i] = random.nextDouble();
+			ys[i] = random.nextDouble();
+		}
+
+		AttributeNetwork net = createNetwork(xs, ys);
+
+		for (int k=0; k<links; k++)
+			net.add(random.nextInt(nodes), random.nextInt(nodes));
+
+		return net;
+	}
+
+	private void assertSameImage (BufferedImage expected, BufferedImage image)
+	{
+		assertEquals(expected.getWidth(), image.getWidth());
+		assertEquals(expected.getHeight(), image.getHeight());
+
+		for (int y=0; y<image.getHeight(); y++)
+			for (int x=0; x<image.getWidth(); x++)
+				assertEquals("Pixel ("+x+","+y+")", expected.getRGB(x,y), image.getRGB(x,y));
+	}
+
+
+	@Test
+	public void testTiles ()
+	{
+		NetworkRenderer renderer = new NetworkRenderer(createRandomNetwork(100,500), WIDTH, HEIGHT);
+
+		renderer.setNodeRenderer(new ColorNodeRenderer());
+
+		NetworkRasterizer single = new NetworkRasterizer(renderer);
+		single.setTileSize(Math.max(WIDTH,HEIGHT));
+		single.setParallel(false);
+
+		NetworkRasterizer tiled = new NetworkRasterizer(renderer);
+		tiled.setTileSize(37);
+
+		assertSameImage(single.render(), tiled.render());
+
+		// Java2D links
+
+		single.setAntialiased(false);
+		tiled.setAntialiased(false);
+
+		assertSameImage(single.render(), tiled.render());
+	}
+
+	@Test
+	public void testNodes ()
+	{
+		AttributeNetwork net = createNetwork(new double[]{0.25, 0.75}, new double[]{0.5, 0.5});
+
+		net.add(0,1);
+
+		NetworkRasterizer rasterizer = new NetworkRasterizer(new NetworkRenderer(net, WIDTH, HEIGHT));
+		rasterizer.setTileSize(16);
+
+		BufferedImage image = rasterizer.render();
+
+		int node = DefaultNodeRenderer.DEFAULT_NODE_STYLE.getColor().getRGB();
+		int background = NetworkRasterizer.DEFAULT_BACKGROUND.getRGB();
+
+		assertEquals(node, image.getRGB(75,100));
+		assertEquals(node, image.getRGB(225,100));
+		assertEquals(background, image.getRGB(150,20));
+		assertFalse(background==image.getRGB(150,100));  // Link
+		assertEquals(0, rasterizer.getCulledLinks());
+	}
+
+	@Test
+	public void testLevelOfDetail ()
+	{
+		// Link 0-1: below one pixel, link 2-3: outside the canvas, link 0-2: partially visible
+
+		AttributeNetwork net = createNetwork(new double[]{0.5, 0.5, 1.2, 1.5}, new double[]{0.5, 0.5, 0.5, 0.5});
+
+		net.add(0,1);
+		net.add(2,3);
+		net.add(0,2);
+
+		NetworkRasterizer rasterizer = new NetworkRasterizer(new NetworkRenderer(net, WIDTH, HEIGHT));
+
+		rasterizer.render();
+		assertEquals(2, rasterizer.getCulledLinks());
+
+		rasterizer.setMinimumLinkLength(0);
+		rasterizer.render();
+		assertEquals(1, rasterizer.getCulledLinks());
+
+		rasterizer.setMinimumLinkLength(1000);
+		rasterizer.render();
+		assertEquals(3, rasterizer.getCulledLinks());
+	}
+
+	@Test
+	public void testImageWriter ()
+		throws IOException
+	{
+		AttributeNetwork      net = createRandomNetwork(20,40);
+		NetworkRenderer       renderer = new NetworkRenderer(net, WIDTH, HEIGHT);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		NetworkImageWriter writer = new NetworkImageWriter(output, renderer, "png");
+		writer.write(net);
+		writer.close();
+
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(output.toByteArray()));
+
+		assertSameImage(new NetworkRasterizer(renderer).render(), image);
+	}
+}
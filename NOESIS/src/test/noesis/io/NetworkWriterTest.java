@@ -0,0 +1,300 @@
+package test.noesis.io;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.zip.GZIPInputStream;
+
+import ikor.model.data.RealModel;
+
+import noesis.ArrayNetwork;
+import noesis.Attribute;
+import noesis.AttributeNetwork;
+import noesis.LinkAttribute;
+import noesis.Network;
+import noesis.io.GDFNetworkReader;
+import noesis.io.GDFNetworkWriter;
+import noesis.io.GMLNetworkReader;
+import noesis.io.GMLNetworkWriter;
+import noesis.io.GraphMLNetworkReader;
+import noesis.io.GraphMLNetworkWriter;
+import noesis.io.PajekNetworkWriter;
+import noesis.io.SNAPGZNetworkReader;
+import noesis.io.SNAPGZNetworkWriter;
+import noesis.io.SNAPNetworkReader;
+import noesis.io.SNAPNetworkWriter;
+import noesis.io.TextNetworkWriter;
+
+import org.junit.Test;
+
+public class NetworkWriterTest
+{
+	public static final int NODES = 100;
+
+	/**
+	 * Test network: ring plus chords, with node ids 1000..1099, a real node attribute
+	 * and a text link attribute.
+	 */
+	private AttributeNetwork createNetwork ()
+	{
+		AttributeNetwork net = new AttributeNetwork();
+		Attribute id = new Attribute<String>("id");
+		Attribute<Double> size = new Attribute<Double>("size", new RealModel());
+
+		net.setID("test");
+		net.addNodeAttribute(id);
+		net.addNodeAttribute(size);
+
+		for (int i=0; i<NODES; i++) {
+			net.add(i);
+			id.set(i, ""+(1000+i));
+			size.set(i, i/4.0);
+		}
+
+		for (int i=0; i<NODES; i++) {
+			net.add(i, (i+1)%NODES);
+
+			if (i%3==0)
+				net.add(i, (i*7)%NODES);
+		}
+
+		LinkAttribute label = new LinkAttribute<String>(net, "label");
+
+		net.addLinkAttribute(label);
+
+		for (int i=0; i<NODES; i++)
+			label.set(i, (i+1)%NODES, "link "+i);
+
+		return net;
+	}
+
+	private String write (TextNetworkWriter writer, StringWriter output, Network net, boolean parallel)
+		throws IOException
+	{
+		writer.setParallel(parallel);
+		writer.setBlockSize(7);
+		writer.write(net);
+		writer.close();
+
+		return output.toString();
+	}
+
+	private void checkParallel (Class type)
+		throws Exception
+	{
+		AttributeNetwork net = createNetwork();
+		StringWriter     sequential = new StringWriter();
+		StringWriter     parallel = new StringWriter();
+
+		String expected = write((TextNetworkWriter) type.getConstructor(java.io.Writer.class).newInstance(sequential), sequential, net, false);
+		String output = write((TextNetworkWriter) type.getConstructor(java.io.Writer.class).newInstance(parallel), parallel, net, true);
+
+		assertTrue(expected.length()>0);
+		assertEquals(expected, output);
+	}
+
+	@Test
+	public void testParallelOutput ()
+		throws Exception
+	{
+		checkParallel(PajekNetworkWriter.class);
+		checkParallel(GDFNetworkWriter.class);
+		checkParallel(GMLNetworkWriter.class);
+		checkParallel(GraphMLNetworkWriter.class);
+		checkParallel(SNAPNetworkWriter.class);
+	}
+
+
+	private void checkNetwork (Network net, int links)
+	{
+		assertEquals(NODES, net.size());
+		assertEquals(links, net.links());
+	}
+
+	@Test
+	public void testSNAP ()
+		throws IOException
+	{
+		AttributeNetwork net = createNetwork();
+		StringWriter     output = new StringWriter();
+		SNAPNetworkWriter writer = new SNAPNetworkWriter(output);
+
+		writer.write(net);
+		writer.close();
+
+		assertTrue(output.toString().startsWith("# Directed graph: test\n# test\n# Nodes: 100 Edges: "+net.links()+"\n"));
+
+		SNAPNetworkReader reader = new SNAPNetworkReader(new StringReader(output.toString()));
+		reader.setType(ArrayNetwork.class);
+		Network copy = reader.read();
+
+		assertEquals("test", copy.getID());
+		checkNetwork(copy, net.links());
+
+		// Nodes labeled by their ids, in order of appearance
+
+		assertEquals("1000", copy.get(0));
+		assertEquals("1001", copy.get(1));
+		assertEquals(1, copy.outLink(0,0));
+	}
+
+	@Test
+	public void testSNAPUndirected ()
+		throws IOException
+	{
+		AttributeNetwork net = new AttributeNetwork();
+
+		net.setSize(3);
+		net.add2(0,1);
+		net.add2(1,2);
+		net.add(2,2);
+		net.setDirected(false);
+
+		StringWriter      output = new StringWriter();
+		SNAPNetworkWriter writer = new SNAPNetworkWriter(output);
+
+		writer.write(net);
+		writer.close();
+
+		assertEquals("# Undirected graph (each unordered pair of nodes is saved once)\n"
+		            +"# Nodes: 3 Edges: 3\n"
+		            +"# FromNodeId\tToNodeId\n"
+		            +"0\t1\n"
+		            +"1\t2\n"
+		            +"2\t2\n", output.toString());
+	}
+
+	@Test
+	public void testGZip ()
+		throws IOException
+	{
+		AttributeNetwork    net = createNetwork();
+		ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+		ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+
+		SNAPGZNetworkWriter writer = new SNAPGZNetworkWriter(sequential);
+		assertTrue(writer.isCompressed());
+		writer.write(net);
+		writer.close();
+
+		writer = new SNAPGZNetworkWriter(parallel);
+		writer.setParallel(true);
+		writer.setBlockSize(10);
+		writer.write(net);
+		writer.close();
+
+		// Multiple gzip members
+
+		assertTrue(parallel.size()>sequential.size());
+
+		assertEquals(unzip(sequential.toByteArray()), unzip(parallel.toByteArray()));
+
+		Network copy = new SNAPGZNetworkReader(new ByteArrayInputStream(parallel.toByteArray())).read();
+
+		checkNetwork(copy, net.links());
+		assertEquals("test", copy.getID());
+	}
+
+	@Test
+	public void testEmptyGZip ()
+		throws IOException
+	{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		new SNAPGZNetworkWriter(output).close();
+
+		assertTrue(output.size()>0);
+		assertEquals("", unzip(output.toByteArray()));
+	}
+
+	private String unzip (byte[] data)
+		throws IOException
+	{
+		GZIPInputStream       input = new GZIPInputStream(new ByteArrayInputStream(data));
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[]                buffer = new byte[1024];
+		int                   count;
+
+		while ((count=input.read(buffer))>0)
+			output.write(buffer, 0, count);
+
+		input.close();
+
+		return new String(output.toByteArray(), "UTF-8");
+	}
+
+
+	@Test
+	public void testGraphML ()
+		throws IOException
+	{
+		AttributeNetwork net = createNetwork();
+
+		net.getNodeAttribute("id").set(0, "<a & \"b\">");
+		net.getLinkAttribute("label").set(0, 1, "\u00e1 > \u00f1");
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		GraphMLNetworkWriter  writer = new GraphMLNetworkWriter(output, true);
+
+		writer.setParallel(true);
+		writer.setBlockSize(10);
+		writer.write(net);
+		writer.close();
+
+		AttributeNetwork copy = (AttributeNetwork) new GraphMLNetworkReader(new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))).read();
+
+		checkNetwork(copy, net.links());
+		assertEquals("test", copy.getID());
+		assertEquals("<a & \"b\">", copy.getNodeAttribute("id").get(0));
+		assertEquals("1099", copy.getNodeAttribute("id").get(99));
+		assertEquals(2.5, copy.getNodeAttribute("size").get(10));
+		assertEquals("\u00e1 > \u00f1", copy.getLinkAttribute("label").get(0,1));
+		assertEquals("link 50", copy.getLinkAttribute("label").get(50,51));
+	}
+
+	@Test
+	public void testGML ()
+		throws IOException
+	{
+		AttributeNetwork net = createNetwork();
+		StringWriter     output = new StringWriter();
+		GMLNetworkWriter writer = new GMLNetworkWriter(output);
+
+		writer.setParallel(true);
+		writer.setBlockSize(10);
+		writer.write(net);
+		writer.close();
+
+		AttributeNetwork copy = (AttributeNetwork) new GMLNetworkReader(new StringReader(output.toString())).read();
+
+		checkNetwork(copy, net.links());
+		assertTrue(copy.contains(99,0));
+		assertEquals("link 99", copy.getLinkAttribute("label").get(99,0));
+	}
+
+	@Test
+	public void testGDF ()
+		throws IOException
+	{
+		AttributeNetwork net = createNetwork();
+		StringWriter     output = new StringWriter();
+		GDFNetworkWriter writer = new GDFNetworkWriter(output);
+
+		writer.setParallel(true);
+		writer.setBlockSize(10);
+		writer.write(net);
+		writer.close();
+
+		assertTrue(output.toString().startsWith("nodedef>name,size DOUBLE"));
+
+		AttributeNetwork copy = (AttributeNetwork) new GDFNetworkReader(new StringReader(output.toString())).read();
+
+		checkNetwork(copy, net.links());
+		assertTrue(copy.contains(99,0));
+		assertEquals("link 99", copy.getLinkAttribute("label").get(99,0));
+	}
+}
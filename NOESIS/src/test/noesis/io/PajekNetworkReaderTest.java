@@ -3,9 +3,14 @@ package test.noesis.io;
 import java.io.StringReader;
 import java.io.IOException;
 
+import ikor.math.Decimal;
+
 import noesis.Attribute;
 import noesis.AttributeNetwork;
+import noesis.LinkAttribute;
+import noesis.io.BlockInput;
 import noesis.io.PajekNetworkReader;
+import noesis.network.LinkWeights;
 
 import static org.junit.Assert.*;
 
@@ -236,4 +241,166 @@ public class PajekNetworkReaderTest
 		checkPajekLinks(net);
 	}
 
+
+	// Parallel parsing
+
+	private AttributeNetwork readParallel (String[] lines) throws IOException
+	{
+		StringReader sr = new StringReader( networkString(lines));
+		PajekNetworkReader reader = new PajekNetworkReader(sr);
+		
+		reader.setParallel(true);
+		
+		AttributeNetwork net = (AttributeNetwork) reader.read();
+		
+		reader.close();
+		
+		return net;
+	}
+	
+	@Test
+	public void testPajekListsParallel() throws IOException
+	{
+		AttributeNetwork net = readParallel(pajekLists);
+		
+		checkPajekNodes(net);
+		checkPajekLinks(net);
+	}
+
+	@Test
+	public void testPajekPairsParallel() throws IOException
+	{
+		AttributeNetwork net = readParallel(pajekPairs);
+		LinkAttribute value = net.getLinkAttribute("value");
+	
+		checkPajekNodes(net);	
+		checkPajekLinks(net);
+		
+		assertEquals(new Decimal(1), value.get(0,1));
+		assertEquals(new Decimal(2), value.get(1,2));
+		assertEquals(new Decimal(2), value.get(2,3));
+		assertEquals(new Decimal(1), value.get(3,4));
+		assertEquals(new Decimal(1), value.get(4,0));
+	}
+
+	@Test
+	public void testPajekMatrixParallel() throws IOException
+	{
+		AttributeNetwork net = readParallel(pajekMatrix);
+		
+		checkPajekNodes(net);	
+		checkPajekLinks(net);
+	}
+
+	@Test
+	public void testPajekNoVerticesParallel() throws IOException
+	{
+		AttributeNetwork net = readParallel(pajekNoVertices);
+		
+		checkPajekUnlabeledNodes(net);
+		checkPajekLinks(net);
+	}
+
+	@Test(expected=IOException.class)
+	public void testPajekInvalidParallel() throws IOException
+	{
+		readParallel( new String[] { "*Vertices 2", "*Arcs", "1 2", "1 x" } );
+	}
+
+	@Test
+	public void testPajekSmallBlocksParallel() throws IOException
+	{
+		int blockSize = BlockInput.BLOCK_SIZE;
+		
+		BlockInput.BLOCK_SIZE = 8;  // Sections & lines across blocks
+		
+		try {
+			AttributeNetwork net = readParallel(pajekLists);
+			
+			checkPajekNodes(net);
+			checkPajekLinks(net);
+			
+			net = readParallel(pajekPairs);
+			
+			checkPajekNodes(net);
+			checkPajekLinks(net);
+			assertEquals(new Decimal(2), net.getLinkAttribute("value").get(1,2));
+			assertEquals(new Decimal(2), net.getLinkAttribute("value").get(2,3));
+			
+			net = readParallel(pajekNoVertices);
+			
+			checkPajekUnlabeledNodes(net);
+			checkPajekLinks(net);
+			
+		} finally {
+			BlockInput.BLOCK_SIZE = blockSize;
+		}
+	}
+
+	// Weighted mode
+
+	private PajekNetworkReader weightedReader (String[] lines, boolean parallel) throws IOException
+	{
+		PajekNetworkReader reader = new PajekNetworkReader(new StringReader(networkString(lines)));
+		
+		reader.setWeighted(true);
+		reader.setParallel(parallel);
+		
+		return reader;
+	}
+	
+	private void checkPajekWeights (AttributeNetwork net, LinkWeights weights)
+	{
+		assertNotNull(weights);
+		assertEquals(net.links(), weights.links());
+		
+		assertEquals(1, weights.evaluate(0,1), 0.0);
+		assertEquals(2, weights.evaluate(1,2), 0.0);
+		assertEquals(1, weights.evaluate(2,0), 0.0);
+		assertEquals(2, weights.evaluate(2,3), 0.0);
+		assertEquals(1, weights.evaluate(3,4), 0.0);
+		assertEquals(1, weights.evaluate(0,4), 0.0);
+		assertEquals(1, weights.evaluate(4,0), 0.0);
+	}
+	
+	@Test
+	public void testPajekPairsWeighted() throws IOException
+	{
+		for (boolean parallel: new boolean[]{ false, true }) {
+			
+			PajekNetworkReader reader = weightedReader(pajekPairs, parallel);
+			AttributeNetwork net = (AttributeNetwork) reader.read();
+	
+			checkPajekNodes(net);	
+			checkPajekLinks(net);
+			checkPajekWeights(net, reader.getLinkWeights());
+			
+			assertNull(net.getLinkAttribute("value").get(1,2));  // No Decimal values
+		}
+	}
+
+	@Test
+	public void testPajekMatrixWeighted() throws IOException
+	{
+		PajekNetworkReader reader = weightedReader(pajekMatrix, false);
+		AttributeNetwork net = (AttributeNetwork) reader.read();
+		
+		checkPajekNodes(net);	
+		checkPajekLinks(net);
+		checkPajekWeights(net, reader.getLinkWeights());
+	}
+
+	@Test
+	public void testPajekListsWeighted() throws IOException
+	{
+		PajekNetworkReader reader = weightedReader(pajekLists, true);
+		AttributeNetwork net = (AttributeNetwork) reader.read();
+		LinkWeights weights = reader.getLinkWeights();
+		
+		checkPajekLinks(net);
+		
+		for (int i=0; i<weights.links(); i++)
+			assertEquals(1, weights.get(i), 0.0);
+	}
+
 }
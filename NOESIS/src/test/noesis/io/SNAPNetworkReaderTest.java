@@ -0,0 +1,359 @@
+package test.noesis.io;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.zip.GZIPOutputStream;
+
+import ikor.math.Decimal;
+
+import noesis.ArrayNetwork;
+import noesis.Network;
+import noesis.io.BlockInput;
+import noesis.io.SNAPGZNetworkReader;
+import noesis.io.SNAPNetworkReader;
+import noesis.network.LinkWeights;
+
+import org.junit.Test;
+
+public class SNAPNetworkReaderTest
+{
+	private String[] snapNetwork = new String[] {
+			"# Directed graph (each unordered pair of nodes is saved once): test.txt",
+			"# SNAP test network",
+			"# Nodes: 5 Edges: 7",
+			"# FromNodeId\tToNodeId",
+			"10\t20",
+			"10\t40",
+			"20\t30",
+			"30\t10",
+			"30\t40",
+			"40\t5",
+			"5\t10"
+		};
+
+	private String networkString (String[] lines, String newLine)
+	{
+		StringBuilder net = new StringBuilder();
+
+		for (int i=0; i<lines.length; i++)
+			net.append(lines[i]).append(newLine);
+
+		return net.toString();
+	}
+
+	private Network<String,Decimal> read (SNAPNetworkReader reader)
+		throws IOException
+	{
+		reader.setType(ArrayNetwork.class);
+
+		Network<String,Decimal> net = reader.read();
+
+		reader.close();
+
+		return net;
+	}
+
+	private Network<String,Decimal> readString (String data)
+		throws IOException
+	{
+		return read( new SNAPNetworkReader(new ByteArrayInputStream(data.getBytes("UTF-8"))) );
+	}
+
+	private boolean link (Network<String,Decimal> net, String source, String destination)
+	{
+		int from = net.index(source);
+		int to = net.index(destination);
+
+		for (int i=0; i<net.outDegree(from); i++)
+			if (net.outLink(from,i)==to)
+				return true;
+
+		return false;
+	}
+
+	private void checkNetwork (Network<String,Decimal> net)
+	{
+		assertEquals("SNAP test network", net.getID());
+		assertEquals(5, net.size());
+		assertEquals(7, net.links());
+
+		// Nodes, in order of appearance
+
+		assertEquals("10", net.get(0));
+		assertEquals("20", net.get(1));
+		assertEquals("40", net.get(2));
+		assertEquals("30", net.get(3));
+		assertEquals("5", net.get(4));
+
+		assertTrue(link(net,"10","20"));
+		assertTrue(link(net,"10","40"));
+		assertTrue(link(net,"20","30"));
+		assertTrue(link(net,"30","10"));
+		assertTrue(link(net,"30","40"));
+		assertTrue(link(net,"40","5"));
+		assertTrue(link(net,"5","10"));
+
+		assertFalse(link(net,"20","10"));
+
+		assertEquals(2, net.outDegree(net.index("10")));
+		assertEquals(2, net.inDegree(net.index("10")));
+	}
+
+	@Test
+	public void testInputStream ()
+		throws IOException
+	{
+		checkNetwork( readString(networkString(snapNetwork, "\n")) );
+	}
+
+	@Test
+	public void testGraphNetwork ()
+		throws IOException
+	{
+		String data = networkString(snapNetwork, "\n");
+		SNAPNetworkReader reader = new SNAPNetworkReader(new ByteArrayInputStream(data.getBytes("UTF-8")));
+
+		checkNetwork( reader.read() );  // Default network type
+	}
+
+	@Test
+	public void testReader ()
+		throws IOException
+	{
+		String data = networkString(snapNetwork, "\n");
+
+		checkNetwork( read(new SNAPNetworkReader(new StringReader(data))) );
+	}
+
+	@Test
+	public void testWindowsLineBreaks ()
+		throws IOException
+	{
+		checkNetwork( readString(networkString(snapNetwork, "\r\n")) );
+	}
+
+	@Test
+	public void testGZIP ()
+		throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+
+		gzip.write(networkString(snapNetwork, "\n").getBytes("UTF-8"));
+		gzip.close();
+
+		checkNetwork( read(new SNAPGZNetworkReader(new ByteArrayInputStream(bytes.toByteArray()))) );
+	}
+
+	@Test
+	public void testWithoutHeader ()
+		throws IOException
+	{
+		Network<String,Decimal> net = readString("1 2\n\n2  3\t0.5\n 3 1\n1 2");
+
+		assertEquals(3, net.size());
+		assertEquals(3, net.links());  // Duplicate link ignored
+		assertEquals("1", net.get(0));
+		assertTrue(link(net,"2","3"));
+		assertTrue(link(net,"3","1"));
+	}
+
+	@Test
+	public void testLargeIds ()
+		throws IOException
+	{
+		Network<String,Decimal> net = readString("9000000000\t1\n1\t9000000000\n");
+
+		assertEquals(2, net.size());
+		assertEquals(2, net.links());
+		assertEquals("9000000000", net.get(0));
+	}
+
+	@Test(expected=IOException.class)
+	public void testInvalidId ()
+		throws IOException
+	{
+		readString("1\t2\na\tb\n");
+	}
+
+	@Test
+	public void testLateHeader ()
+		throws IOException
+	{
+		Network<String,Decimal> net = readString("# Directed\n# id\n1\t2\n2\t3\n# Nodes: 3 Edges: 10000\n3\t1\n");
+
+		assertEquals(3, net.size());
+		assertEquals(3, net.links());
+		assertTrue(link(net, "1", "2"));
+		assertTrue(link(net, "2", "3"));
+		assertTrue(link(net, "3", "1"));
+	}
+
+	@Test
+	public void testHugeHeader ()
+		throws IOException
+	{
+		Network<String,Decimal> net = readString("# Nodes: 1 Edges: 2000000000\n");
+
+		assertEquals(1, net.size());
+		assertEquals(0, net.links());
+	}
+
+	@Test(expected=IOException.class)
+	public void testIdOverflow ()
+		throws IOException
+	{
+		readString("1\t2\n1\t92233720368547758080\n");
+	}
+
+	@Test(expected=IOException.class)
+	public void testMissingDestination ()
+		throws IOException
+	{
+		readString("1\t2\n3\n");
+	}
+
+	// Parallel parsing
+
+	private Network<String,Decimal> readParallel (String data)
+		throws IOException
+	{
+		SNAPNetworkReader reader = new SNAPNetworkReader(new ByteArrayInputStream(data.getBytes("UTF-8")));
+
+		reader.setParallel(true);
+
+		return read(reader);
+	}
+
+	@Test
+	public void testParallel ()
+		throws IOException
+	{
+		checkNetwork( readParallel(networkString(snapNetwork, "\n")) );
+		checkNetwork( readParallel(networkString(snapNetwork, "\r\n")) );
+	}
+
+	@Test
+	public void testParallelReader ()
+		throws IOException
+	{
+		SNAPNetworkReader reader = new SNAPNetworkReader(new StringReader(networkString(snapNetwork, "\n")));
+
+		reader.setParallel(true);
+
+		checkNetwork( read(reader) );
+	}
+
+	@Test
+	public void testParallelWithoutHeader ()
+		throws IOException
+	{
+		Network<String,Decimal> net = readParallel("1 2\n\n2  3\t0.5\n 3 1\n1 2");
+
+		assertEquals(3, net.size());
+		assertEquals(3, net.links());
+		assertEquals("1", net.get(0));
+		assertTrue(link(net,"2","3"));
+		assertTrue(link(net,"3","1"));
+	}
+
+	@Test
+	public void testParallelSmallBlocks ()
+		throws IOException
+	{
+		int blockSize = BlockInput.BLOCK_SIZE;
+
+		BlockInput.BLOCK_SIZE = 8;  // Header comments & links across blocks
+
+		try {
+			checkNetwork( readParallel(networkString(snapNetwork, "\n")) );
+			checkNetwork( readParallel(networkString(snapNetwork, "\r\n")) );
+
+			SNAPNetworkReader reader = new SNAPNetworkReader(new StringReader(networkString(snapNetwork, "\n")));
+
+			reader.setParallel(true);
+
+			checkNetwork( read(reader) );
+
+		} finally {
+			BlockInput.BLOCK_SIZE = blockSize;
+		}
+	}
+
+	@Test(expected=IOException.class)
+	public void testParallelInvalidId ()
+		throws IOException
+	{
+		readParallel("1\t2\na\tb\n");
+	}
+
+	@Test(expected=IOException.class)
+	public void testParallelIdOverflow ()
+		throws IOException
+	{
+		readParallel("1\t2\n1\t92233720368547758080\n");
+	}
+
+	@Test(expected=IOException.class)
+	public void testParallelMissingDestination ()
+		throws IOException
+	{
+		readParallel("1\t2\n3\n");
+	}
+
+	// Weighted mode
+
+	@Test
+	public void testWeighted ()
+		throws IOException
+	{
+		String data = "# Weighted\n1 2 0.5\n2 3\t-2\n3 1 1e3 7\n1,3,2.25\n";
+
+		for (boolean parallel: new boolean[]{ false, true }) {
+
+			SNAPNetworkReader reader = new SNAPNetworkReader(new ByteArrayInputStream(data.getBytes("UTF-8")));
+
+			reader.setWeighted(true);
+			reader.setParallel(parallel);
+
+			Network<String,Decimal> net = read(reader);
+			LinkWeights weights = reader.getLinkWeights();
+
+			assertEquals(3, net.size());
+			assertEquals(4, weights.links());
+
+			assertEquals(0.5,  weights.evaluate(net.index("1"), net.index("2")), 0.0);
+			assertEquals(-2,   weights.evaluate(net.index("2"), net.index("3")), 0.0);
+			assertEquals(1000, weights.evaluate(net.index("3"), net.index("1")), 0.0);
+			assertEquals(2.25, weights.evaluate(net.index("1"), net.index("3")), 0.0);
+		}
+	}
+
+	@Test
+	public void testUnweightedLinks ()
+		throws IOException
+	{
+		SNAPNetworkReader reader = new SNAPNetworkReader(new ByteArrayInputStream(networkString(snapNetwork, "\n").getBytes("UTF-8")));
+
+		reader.setWeighted(true);
+
+		checkNetwork( read(reader) );
+
+		for (int i=0; i<reader.getLinkWeights().links(); i++)
+			assertEquals(1, reader.getLinkWeights().get(i), 0.0);
+	}
+
+	@Test(expected=IOException.class)
+	public void testInvalidWeight ()
+		throws IOException
+	{
+		SNAPNetworkReader reader = new SNAPNetworkReader(new ByteArrayInputStream("1 2 x\n".getBytes("UTF-8")));
+
+		reader.setWeighted(true);
+		reader.read();
+	}
+}
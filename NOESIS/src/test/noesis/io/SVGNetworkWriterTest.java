@@ -0,0 +1,211 @@
+package test.noesis.io;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import ikor.model.data.RealModel;
+import ikor.model.graphics.Style;
+
+import noesis.Attribute;
+import noesis.AttributeNetwork;
+import noesis.io.graphics.ColorNodeRenderer;
+import noesis.io.graphics.DefaultLinkRenderer;
+import noesis.io.graphics.GradientNodeRenderer;
+import noesis.io.graphics.NetworkImageWriter;
+import noesis.io.graphics.NetworkRenderer;
+import noesis.io.graphics.SVGNetworkWriter;
+
+import org.junit.Test;
+
+public class SVGNetworkWriterTest
+{
+	public static final int NODES = 50;
+	public static final int LINKS = 200;
+
+	private NetworkRenderer createRenderer ()
+	{
+		Random           random = new Random(2014);
+		AttributeNetwork net = new AttributeNetwork();
+		Attribute<Double> x = new Attribute<Double>("x", new RealModel());
+		Attribute<Double> y = new Attribute<Double>("y", new RealModel());
+
+		net.addNodeAttribute(x);
+		net.addNodeAttribute(y);
+		net.setSize(NODES);
+
+		for (int i=0; i<NODES; i++) {
+			x.set(i, random.nextDouble());
+			y.set(i, random.nextDouble());
+		}
+
+		for (int k=0; k<LINKS; k++)
+			net.add(random.nextInt(NODES), random.nextInt(NODES));
+
+		return new NetworkRenderer(net, 400, 300);
+	}
+
+	private byte[] write (NetworkRenderer renderer)
+		throws Exception
+	{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		renderer.renderSVG(output);
+
+		return output.toByteArray();
+	}
+
+	private Document parse (byte[] svg)
+		throws Exception
+	{
+		return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(svg));
+	}
+
+	private String css (Document document)
+	{
+		return document.getElementsByTagName("style").item(0).getTextContent();
+	}
+
+	private int count (String text, String pattern)
+	{
+		int count = 0;
+		int index = text.indexOf(pattern);
+
+		while (index>=0) {
+			count++;
+			index = text.indexOf(pattern, index+1);
+		}
+
+		return count;
+	}
+
+
+	@Test
+	public void testElements ()
+		throws Exception
+	{
+		NetworkRenderer renderer = createRenderer();
+		Document        svg = parse(write(renderer));
+
+		assertEquals("400", svg.getDocumentElement().getAttribute("width"));
+		assertEquals("300", svg.getDocumentElement().getAttribute("height"));
+		assertEquals(NODES, svg.getElementsByTagName("circle").getLength());
+		assertEquals(renderer.getNetwork().links(), svg.getElementsByTagName("line").getLength());
+
+		Element node = (Element) svg.getElementsByTagName("circle").item(3);
+
+		assertEquals(renderer.getNodeId(3), node.getAttribute("id"));
+		assertEquals(""+renderer.getX(3), node.getAttribute("cx"));
+		assertEquals(""+renderer.getY(3), node.getAttribute("cy"));
+	}
+
+	@Test
+	public void testStyleClasses ()
+		throws Exception
+	{
+		NetworkRenderer renderer = createRenderer();
+
+		renderer.setNodeRenderer(new ColorNodeRenderer());
+
+		Document svg = parse(write(renderer));
+		String   css = css(svg);
+
+		// 3 fill classes + "f"; 3 border classes + 1 link class
+
+		assertEquals(4, count(css, ".f"));
+		assertEquals(4, count(css, ".s"));
+
+		NodeList nodes = svg.getElementsByTagName("circle");
+
+		for (int i=0; i<nodes.getLength(); i++) {
+			String[] classes = ((Element)nodes.item(i)).getAttribute("class").split(" ");
+
+			assertEquals(2, classes.length);
+			assertTrue(css.contains("."+classes[0]+"{fill:"));
+			assertTrue(css.contains("."+classes[1]+"{stroke:"));
+		}
+	}
+
+	@Test
+	public void testStyleValues ()
+		throws Exception
+	{
+		// Equivalent styles, created on demand, share their CSS class
+
+		NetworkRenderer renderer = createRenderer();
+
+		renderer.setLinkRenderer( new DefaultLinkRenderer() {
+			@Override
+			public Style getStyle (int source, int target)
+			{
+				return new Style(Color.RED, 2);
+			}
+		});
+
+		Document svg = parse(write(renderer));
+		NodeList links = svg.getElementsByTagName("line");
+
+		String linkClass = ((Element)links.item(0)).getAttribute("class");
+
+		for (int i=0; i<links.getLength(); i++)
+			assertEquals(linkClass, ((Element)links.item(i)).getAttribute("class"));
+
+		assertTrue(css(svg).contains("."+linkClass+"{stroke:#ff0000;stroke-opacity:1.000;stroke-width:2}"));
+	}
+
+	@Test
+	public void testGradients ()
+		throws Exception
+	{
+		NetworkRenderer renderer = createRenderer();
+
+		renderer.setNodeRenderer(new GradientNodeRenderer(true));
+
+		Document svg = parse(write(renderer));
+
+		assertEquals(1, svg.getElementsByTagName("radialGradient").getLength());
+		assertEquals("g0", ((Element)svg.getElementsByTagName("radialGradient").item(0)).getAttribute("id"));
+		assertTrue(css(svg).contains("{fill:url(#g0)}"));
+	}
+
+	@Test
+	public void testIDs ()
+		throws Exception
+	{
+		NetworkRenderer       renderer = createRenderer();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		SVGNetworkWriter      writer = new SVGNetworkWriter(output, renderer);
+
+		writer.setIDs(false);
+		writer.write();
+		writer.close();
+
+		Document svg = parse(output.toByteArray());
+
+		assertEquals("", ((Element)svg.getElementsByTagName("circle").item(0)).getAttribute("id"));
+		assertTrue(output.size()<write(renderer).length);
+	}
+
+	@Test
+	public void testImageWriter ()
+		throws Exception
+	{
+		NetworkRenderer       renderer = createRenderer();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		NetworkImageWriter    writer = new NetworkImageWriter(output, renderer, "svg");
+
+		writer.write(renderer.getNetwork());
+		writer.close();
+
+		assertEquals(new String(write(renderer),"UTF-8"), output.toString("UTF-8"));
+	}
+}
@@ -6,8 +6,10 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses( { test.noesis.network.AdjacencyMatrixTest.class,
 	                   test.noesis.network.AugmentedNetworkTest.class,
+	                   test.noesis.network.ColumnAttributeTest.class,
                        test.noesis.network.FilteredNetworkTest.class,
-	                   test.noesis.network.LinkIndexTest.class})
+	                   test.noesis.network.LinkIndexTest.class,
+	                   test.noesis.network.LinkWeightsTest.class})
 public class AllTests {
 
 }
@@ -0,0 +1,144 @@
+package test.noesis.network;
+
+import static org.junit.Assert.*;
+
+import ikor.model.data.IntegerModel;
+import ikor.model.data.RealModel;
+import ikor.model.data.TextModel;
+
+import noesis.AttributeNetwork;
+import noesis.LinkAttribute;
+import noesis.network.attribute.AttributeColumn;
+import noesis.network.attribute.ColumnAttribute;
+import noesis.network.attribute.ColumnLinkAttribute;
+import noesis.network.attribute.IntegerColumn;
+import noesis.network.attribute.RealColumn;
+
+import org.junit.Test;
+
+public class ColumnAttributeTest
+{
+	@Test
+	public void testFactory ()
+	{
+		assertTrue(AttributeColumn.create(new IntegerModel()) instanceof IntegerColumn);
+		assertTrue(AttributeColumn.create(new RealModel()) instanceof RealColumn);
+		assertNull(AttributeColumn.create(new TextModel()));
+	}
+
+	@Test
+	public void testIntegerParsing ()
+	{
+		IntegerColumn column = new IntegerColumn();
+		char[] text = " 42 |-7|+3|2147483647|-2147483648|2147483648|12x||".toCharArray();
+		int[]  expected = { 42, -7, 3, Integer.MAX_VALUE, Integer.MIN_VALUE };
+		int    start = 0;
+		int    index = 0;
+
+		for (int i=0; i<text.length; i++) {
+			if (text[i]=='|') {
+				column.parse(index++, text, start, i-start);
+				start = i+1;
+			}
+		}
+
+		assertEquals(8, column.size());
+
+		for (int i=0; i<expected.length; i++) {
+			assertFalse(column.isNull(i));
+			assertEquals(expected[i], column.getInt(i));
+			assertEquals(Integer.valueOf(expected[i]), column.get(i));
+		}
+
+		assertTrue(column.isNull(5));   // Overflow
+		assertTrue(column.isNull(6));   // Invalid
+		assertTrue(column.isNull(7));   // Empty
+		assertNull(column.get(7));
+		assertNull(column.get(100));
+	}
+
+	@Test
+	public void testRealParsing ()
+	{
+		RealColumn column = new RealColumn();
+		String[]   numbers = { "0", "-1", "3.25", " 0.1 ", "-123456.789", "6.02e23", "1234567890123456789", "NaN" };
+
+		for (int i=0; i<numbers.length; i++) {
+			char[] text = ("<"+numbers[i]+">").toCharArray();
+
+			assertTrue(column.parse(i, text, 1, numbers[i].length()));
+			assertEquals(Double.parseDouble(numbers[i]), column.getDouble(i), 0.0);
+		}
+
+		assertFalse(column.parse(numbers.length, "1.2.3".toCharArray(), 0, 5));
+		assertTrue(column.isNull(numbers.length));
+		assertFalse(column.parse(numbers.length+1, (String) null));
+		assertTrue(column.isNull(numbers.length+1));
+	}
+
+	@Test
+	public void testAttribute ()
+	{
+		ColumnAttribute<Double> attribute = new ColumnAttribute<Double>("x", new RealModel());
+
+		attribute.set(2, "1.5");
+		attribute.set(0, 0.5);
+		attribute.parse(1, "[-2]".toCharArray(), 1, 2);
+
+		assertEquals(3, attribute.size());
+		assertEquals(0.5, attribute.get(0), 0.0);
+		assertEquals(-2.0, attribute.get(1), 0.0);
+		assertEquals(1.5, attribute.get(2), 0.0);
+
+		assertEquals(2, attribute.index(1.5));
+		assertTrue(attribute.contains(-2.0));
+		assertFalse(attribute.contains(3.0));
+
+		assertEquals(3, attribute.add(3.0));
+		assertEquals(-2.0, attribute.remove(1), 0.0);
+		assertEquals(3, attribute.size());
+		assertEquals(1.5, attribute.get(1), 0.0);
+		assertEquals(3.0, attribute.get(2), 0.0);
+
+		attribute.set(1, (String) null);
+		assertNull(attribute.get(1));
+
+		double sum = 0;
+
+		for (Double value: attribute)
+			if (value!=null)
+				sum += value;
+
+		assertEquals(3.5, sum, 0.0);
+
+		attribute.clear();
+		assertEquals(0, attribute.size());
+	}
+
+	@Test
+	public void testLinkAttribute ()
+	{
+		AttributeNetwork net = new AttributeNetwork();
+
+		net.setSize(3);
+		net.add(0,1);
+		net.add(1,2);
+
+		ColumnLinkAttribute<Integer> weight = new ColumnLinkAttribute<Integer>(net, "weight", new IntegerModel());
+		net.addLinkAttribute(weight);
+
+		weight.set(0, 1, "7");
+		weight.parse(1, 2, " 9 ".toCharArray(), 0, 3);
+
+		assertEquals(Integer.valueOf(7), weight.get(0,1));
+		assertEquals(Integer.valueOf(9), weight.get(1,2));
+		assertNull(weight.get(2,0));
+		assertFalse(weight.parse(2, 0, "1".toCharArray(), 0, 1));
+
+		net.setLinkAttribute("weight", 1, 2, "10");
+		assertEquals(Integer.valueOf(10), weight.get(1,2));
+
+		LinkAttribute attribute = net.getLinkAttribute("weight");
+		assertEquals(10, ((IntegerColumn) ((ColumnLinkAttribute) attribute).getColumn()).getInt(net.index(1,2)));
+	}
+}
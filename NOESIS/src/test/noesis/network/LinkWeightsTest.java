@@ -0,0 +1,121 @@
+package test.noesis.network;
+
+import static org.junit.Assert.*;
+
+import noesis.BasicNetwork;
+import noesis.LinkEvaluator;
+import noesis.network.LinkWeights;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LinkWeightsTest 
+{
+	BasicNetwork base;
+	
+	@Before
+	public void setUp() throws Exception 
+	{
+		base = new BasicNetwork();
+		
+		base.add(0);
+		base.add(1);
+		base.add(2);
+		base.add(3);
+		
+		base.add(0,1);
+		base.add(0,2);
+		base.add(0,3);
+		base.add(1,2);
+		base.add(1,3);
+		base.add(2,3);
+	}
+	
+
+	@Test
+	public void testDefaultWeights() 
+	{
+		LinkWeights weights = new LinkWeights(base);
+		
+		assertEquals(base, weights.network());
+		assertEquals(6, weights.links());
+		
+		assertEquals(0, weights.offset(0));
+		assertEquals(3, weights.offset(1));
+		assertEquals(5, weights.offset(2));
+		assertEquals(6, weights.offset(3));
+		
+		for (int i=0; i<weights.links(); i++)
+			assertEquals(LinkWeights.DEFAULT_WEIGHT, weights.get(i), 0.0);
+	}
+
+	@Test
+	public void testIndex() 
+	{
+		LinkWeights weights = new LinkWeights(base);
+		
+		assertEquals(0, weights.index(0,1));
+		assertEquals(1, weights.index(0,2));
+		assertEquals(2, weights.index(0,3));
+		assertEquals(3, weights.index(1,2));
+		assertEquals(4, weights.index(1,3));
+		assertEquals(5, weights.index(2,3));
+
+		assertEquals(-1, weights.index(1,0));
+		assertEquals(-1, weights.index(3,0));
+	}
+	
+	@Test
+	public void testEvaluator() 
+	{
+		LinkWeights weights = new LinkWeights(base, new LinkEvaluator() {
+			@Override
+			public double evaluate (int source, int destination) 
+			{
+				return 10*source + destination;
+			}
+		});
+		
+		assertEquals( 1, weights.get(0,0), 0.0);
+		assertEquals( 3, weights.get(0,2), 0.0);
+		assertEquals(12, weights.get(1,0), 0.0);
+		assertEquals(23, weights.get(2,0), 0.0);
+		
+		assertEquals(13, weights.evaluate(1,3), 0.0);
+		assertTrue(Double.isNaN(weights.evaluate(3,1)));
+	}
+
+	@Test
+	public void testSet() 
+	{
+		LinkWeights weights = new LinkWeights(base);
+		
+		weights.set(2, 0.5);
+		
+		assertTrue(weights.set(2,3,4.0));
+		assertFalse(weights.set(3,2,4.0));
+		
+		assertEquals(0.5, weights.evaluate(0,3), 0.0);
+		assertEquals(4.0, weights.evaluate(2,3), 0.0);
+		assertEquals(4.0, weights.weights()[5], 0.0);
+	}
+
+	@Test
+	public void testBatch() 
+	{
+		LinkWeights weights = new LinkWeights(base);
+		
+		int[]    sources =      { 2, 0, 1, 3, 0, 7 };
+		int[]    destinations = { 3, 2, 3, 0, 1, 0 };
+		double[] values =       { 9, 8, 7, 6, 5, 4 };
+		
+		weights.set(sources, destinations, values, values.length);
+		
+		assertEquals(5, weights.evaluate(0,1), 0.0);
+		assertEquals(8, weights.evaluate(0,2), 0.0);
+		assertEquals(1, weights.evaluate(0,3), 0.0);
+		assertEquals(1, weights.evaluate(1,2), 0.0);
+		assertEquals(7, weights.evaluate(1,3), 0.0);
+		assertEquals(9, weights.evaluate(2,3), 0.0);
+	}
+}
@@ -0,0 +1,157 @@
+package ikor.collection.primitive;
+
+// Title:       iKor Collection Framework
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal Galiano
+// E-mail:      berzal@acm.org
+
+import java.util.Arrays;
+
+/**
+ * Dynamic list of double values, stored in a flat array (i.e. without boxing).
+ * 
+ * CPU requirements:
+ * - Insertion at the end: Amortized O(1)
+ * - Deletion: O(n)
+ * - Access by index: O(1)
+ * 
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class DoubleList
+{
+	private static final int INITIAL_CAPACITY = 8;
+	
+	private double[] values;
+	private int      size;
+
+	// Constructors
+	
+	public DoubleList ()
+	{
+		this(INITIAL_CAPACITY);
+	}
+	
+	public DoubleList (int capacity)
+	{
+		this.values = new double[Math.max(capacity,1)];
+		this.size = 0;
+	}
+	
+	public DoubleList (double[] array)
+	{
+		this.values = Arrays.copyOf(array, Math.max(array.length,1));
+		this.size = array.length;
+	}
+	
+	// Dynamic size
+	
+	/**
+	 * Make sure the list can hold a given number of values without resizing.
+	 * @param capacity Minimum capacity
+	 */
+	public final void ensureCapacity (int capacity)
+	{
+		if (capacity>values.length)
+			values = Arrays.copyOf(values, Math.max(capacity, 2*values.length));
+	}
+	
+	/**
+	 * Set the list size, filling new positions with a default value.
+	 * @param size New size
+	 * @param value Value for new positions
+	 */
+	public final void setSize (int size, double value)
+	{
+		ensureCapacity(size);
+		
+		if (size>this.size)
+			Arrays.fill(values, this.size, size, value);
+		
+		this.size = size;
+	}
+	
+	public final int size ()
+	{
+		return size;
+	}
+	
+	public final boolean isEmpty ()
+	{
+		return size==0;
+	}
+	
+	public final void clear ()
+	{
+		size = 0;
+	}
+
+	// Accessors & mutators (no range checking, as in plain arrays)
+	
+	public final double get (int index)
+	{
+		return values[index];
+	}
+	
+	public final void set (int index, double value)
+	{
+		values[index] = value;
+	}
+
+	/**
+	 * Add a value at the end of the list.
+	 * @param value Value to be added
+	 * @return Position of the new value
+	 */
+	public final int add (double value)
+	{
+		if (size==values.length)
+			values = Arrays.copyOf(values, 2*values.length);
+		
+		values[size] = value;
+		
+		return size++;
+	}
+	
+	/**
+	 * Remove the value at a given position.
+	 * @param index Position
+	 * @return Removed value
+	 */
+	public final double remove (int index)
+	{
+		if ((index<0) || (index>=size))
+			throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+		
+		double value = values[index];
+		
+		System.arraycopy(values, index+1, values, index, size-1-index);
+		size--;
+		
+		return value;
+	}
+
+	/**
+	 * Copy of the list values.
+	 * @return Array of values
+	 */
+	public final double[] toArray ()
+	{
+		return Arrays.copyOf(values, size);
+	}
+	
+	
+	public String toString ()
+	{
+		StringBuilder builder = new StringBuilder("[");
+		
+		for (int i=0; i<size; i++) {
+			if (i>0)
+				builder.append(", ");
+			builder.append(values[i]);
+		}
+		
+		return builder.append("]").toString();
+	}
+}
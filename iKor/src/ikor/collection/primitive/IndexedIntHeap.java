@@ -0,0 +1,302 @@
+package ikor.collection.primitive;
+
+// Title:       iKor Collection Framework
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal Galiano
+// E-mail:      berzal@acm.org
+
+import java.util.Arrays;
+
+/**
+ * Indexed d-ary min-heap of int items (0..capacity-1) with double priorities,
+ * stored in flat arrays (i.e. no boxing nor per-entry objects).
+ * 
+ * Unlike IndexedPriorityQueue, the priority of an item in the heap can be updated in place,
+ * which is what label-setting algorithms (e.g. Dijkstra or Prim) need.
+ * 
+ * A d-ary heap is shallower than a binary heap, so decreaseKey() (i.e. sift up) is cheaper,
+ * at the cost of more comparisons per level in poll() (i.e. sift down).
+ * 
+ * CPU requirements:
+ * - add(), decreaseKey(): O(log_d n)
+ * - update(), poll() & remove(): O(d log_d n)
+ * - peek(), contains() & priority(): O(1)
+ * 
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class IndexedIntHeap
+{
+	public static final int DEFAULT_ARITY = 4;
+	
+	private int[]    heap;       // heap[i]: item at heap position i
+	private int[]    position;   // position[item]: heap position of item (-1 if not in heap)
+	private double[] priority;   // priority[item]
+	private int      size;
+	private int      arity;
+
+	/**
+	 * Constructor (4-ary heap).
+	 * @param capacity Number of items (i.e. items range from 0 to capacity-1)
+	 */
+	public IndexedIntHeap (int capacity)
+	{
+		this(capacity, DEFAULT_ARITY);
+	}
+	
+	/**
+	 * Constructor.
+	 * @param capacity Number of items (i.e. items range from 0 to capacity-1)
+	 * @param arity Number of children per heap node (2 for a binary heap)
+	 */
+	public IndexedIntHeap (int capacity, int arity)
+	{
+		if (arity<2)
+			throw new IllegalArgumentException("Heap arity must be at least 2.");
+		
+		this.arity = arity;
+		this.heap = new int[capacity];
+		this.position = new int[capacity];
+		this.priority = new double[capacity];
+		this.size = 0;
+		
+		Arrays.fill(position, -1);
+	}
+	
+	// Heap size
+	
+	public final int capacity ()
+	{
+		return position.length;
+	}
+	
+	public final int arity ()
+	{
+		return arity;
+	}
+	
+	public final int size ()
+	{
+		return size;
+	}
+	
+	public final boolean isEmpty ()
+	{
+		return size==0;
+	}
+	
+	/**
+	 * Remove all the items in the heap, O(size).
+	 */
+	public final void clear ()
+	{
+		for (int i=0; i<size; i++)
+			position[heap[i]] = -1;
+		
+		size = 0;
+	}
+	
+	// Accessors
+	
+	public final boolean contains (int item)
+	{
+		return position[item]!=-1;
+	}
+	
+	/**
+	 * Current priority of an item in the heap.
+	 * @param item Item
+	 * @return Item priority
+	 */
+	public final double priority (int item)
+	{
+		return priority[item];
+	}
+	
+	/**
+	 * Item with the minimum priority, O(1).
+	 * @return Item at the top of the heap, -1 if the heap is empty
+	 */
+	public final int peek ()
+	{
+		return (size>0)? heap[0]: -1;
+	}
+	
+	
+	// Mutators
+	
+	/**
+	 * Add an item to the heap.
+	 * @param item Item
+	 * @param key Item priority
+	 * @return false if the item was already in the heap (its priority is not changed)
+	 */
+	public final boolean add (int item, double key)
+	{
+		if (position[item]!=-1)
+			return false;
+		
+		heap[size] = item;
+		position[item] = size;
+		priority[item] = key;
+		size++;
+		
+		siftUp(size-1);
+		
+		return true;
+	}
+	
+	/**
+	 * Add an item to the heap or, if it is already in the heap, change its priority.
+	 * @param item Item
+	 * @param key New priority
+	 */
+	public final void update (int item, double key)
+	{
+		int pos = position[item];
+		
+		if (pos==-1) {
+			
+			add(item, key);
+			
+		} else {
+			
+			double old = priority[item];
+			
+			priority[item] = key;
+			
+			if (key<old)
+				siftUp(pos);
+			else if (key>old)
+				siftDown(pos);
+		}
+	}
+	
+	/**
+	 * Decrease the priority of an item, adding it to the heap if necessary.
+	 * @param item Item
+	 * @param key New priority
+	 * @return true if the heap changed (i.e. the item was not in the heap or its priority was higher)
+	 */
+	public final boolean decreaseKey (int item, double key)
+	{
+		int pos = position[item];
+		
+		if (pos==-1) {
+			add(item, key);
+			return true;
+		} else if (key<priority[item]) {
+			priority[item] = key;
+			siftUp(pos);
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	/**
+	 * Remove the item with the minimum priority.
+	 * @return Item at the top of the heap, -1 if the heap is empty
+	 */
+	public final int poll ()
+	{
+		if (size==0)
+			return -1;
+		
+		int top = heap[0];
+		
+		removeAt(0);
+		
+		return top;
+	}
+	
+	/**
+	 * Remove an item from the heap.
+	 * @param item Item
+	 * @return true if the item was in the heap
+	 */
+	public final boolean remove (int item)
+	{
+		int pos = position[item];
+		
+		if (pos==-1)
+			return false;
+		
+		removeAt(pos);
+		
+		return true;
+	}
+	
+	
+	// Ancillary routines
+	
+	private void removeAt (int pos)
+	{
+		int item = heap[pos];
+		
+		size--;
+		position[item] = -1;
+		
+		if (pos<size) {
+			
+			int last = heap[size];
+			
+			heap[pos] = last;
+			position[last] = pos;
+			
+			if ( (pos>0) && (priority[last]<priority[heap[(pos-1)/arity]]) )
+				siftUp(pos);
+			else
+				siftDown(pos);
+		}
+	}
+	
+	private void siftUp (int pos)
+	{
+		int    item = heap[pos];
+		double key = priority[item];
+		
+		while (pos>0) {
+			
+			int parent = (pos-1)/arity;
+			
+			if (priority[heap[parent]]<=key)
+				break;
+			
+			heap[pos] = heap[parent];
+			position[heap[pos]] = pos;
+			pos = parent;
+		}
+		
+		heap[pos] = item;
+		position[item] = pos;
+	}
+	
+	private void siftDown (int pos)
+	{
+		int    item = heap[pos];
+		double key = priority[item];
+		
+		while (arity*pos+1<size) {
+			
+			int first = arity*pos+1;
+			int last  = Math.min(first+arity, size);
+			int child = first;
+			
+			for (int i=first+1; i<last; i++)
+				if (priority[heap[i]]<priority[heap[child]])
+					child = i;
+			
+			if (key<=priority[heap[child]])
+				break;
+			
+			heap[pos] = heap[child];
+			position[heap[pos]] = pos;
+			pos = child;
+		}
+		
+		heap[pos] = item;
+		position[item] = pos;
+	}
+}
@@ -0,0 +1,262 @@
+package ikor.collection.primitive;
+
+// Title:       iKor Collection Framework
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal Galiano
+// E-mail:      berzal@acm.org
+
+import java.util.Arrays;
+
+/**
+ * Hash map from int keys to int values, 
+ * using open addressing (linear probing) over flat arrays.
+ * 
+ * CPU requirements:
+ * - Insertion, deletion & lookup: Expected O(1)
+ * 
+ * Memory requirements:
+ * - Two int arrays & a boolean array, no per-entry objects.
+ * 
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class IntIntMap
+{
+	private static final int    INITIAL_CAPACITY = 16;
+	private static final double LOAD_FACTOR = 0.75;
+	
+	private int[]     keys;
+	private int[]     values;
+	private boolean[] used;
+	private int       size;
+	private int       mask;
+	private int       threshold;
+	private int       missing;
+
+	// Constructors
+	
+	/**
+	 * Default constructor: get() returns -1 for missing keys.
+	 */
+	public IntIntMap ()
+	{
+		this(INITIAL_CAPACITY);
+	}
+	
+	/**
+	 * Constructor.
+	 * @param capacity Expected number of entries
+	 */
+	public IntIntMap (int capacity)
+	{
+		this(capacity, -1);
+	}
+	
+	/**
+	 * Constructor.
+	 * @param capacity Expected number of entries
+	 * @param missing Value returned by get() for missing keys
+	 */
+	public IntIntMap (int capacity, int missing)
+	{
+		this.missing = missing;
+		allocate( tableSize(capacity) );
+	}
+	
+	private static int tableSize (int capacity)
+	{
+		int size = 2;
+		
+		while (size*LOAD_FACTOR < capacity)
+			size *= 2;
+		
+		return size;
+	}
+	
+	private void allocate (int capacity)
+	{
+		keys = new int[capacity];
+		values = new int[capacity];
+		used = new boolean[capacity];
+		mask = capacity-1;
+		threshold = (int) (capacity*LOAD_FACTOR);
+		size = 0;
+	}
+	
+	private static int hash (int key)
+	{
+		int h = key * 0x9E3779B9;   // Fibonacci hashing
+		
+		return h ^ (h>>>16);
+	}
+	
+	// Position of a key in the table (or the free slot where it should be inserted)
+	
+	private int slot (int key)
+	{
+		int pos = hash(key) & mask;
+		
+		while (used[pos] && (keys[pos]!=key))
+			pos = (pos+1) & mask;
+		
+		return pos;
+	}
+
+	
+	// Map size
+	
+	public final int size ()
+	{
+		return size;
+	}
+	
+	public final boolean isEmpty ()
+	{
+		return size==0;
+	}
+	
+	public final void clear ()
+	{
+		Arrays.fill(used, false);
+		size = 0;
+	}
+	
+	
+	// Accessors
+	
+	/**
+	 * Value associated to a key.
+	 * @param key Key
+	 * @return Value associated to the key, the missing value if the key is not in the map
+	 */
+	public final int get (int key)
+	{
+		int pos = slot(key);
+		
+		return used[pos]? values[pos]: missing;
+	}
+	
+	public final boolean contains (int key)
+	{
+		return used[slot(key)];
+	}
+	
+	/**
+	 * Associate a value to a key.
+	 * @param key Key
+	 * @param value Value
+	 */
+	public final void set (int key, int value)
+	{
+		int pos = slot(key);
+		
+		if (!used[pos]) {
+			
+			if (size>=threshold) {
+				rehash(2*keys.length);
+				pos = slot(key);
+			}
+			
+			used[pos] = true;
+			keys[pos] = key;
+			size++;
+		}
+		
+		values[pos] = value;
+	}
+	
+	/**
+	 * Add a delta to the value associated to a key (0 if the key was not in the map).
+	 * @param key Key
+	 * @param delta Increment
+	 * @return Updated value
+	 */
+	public final int add (int key, int delta)
+	{
+		int pos = slot(key);
+		
+		if (used[pos]) {
+			values[pos] += delta;
+			return values[pos];
+		} else {
+			set(key, delta);
+			return delta;
+		}
+	}
+	
+	/**
+	 * Remove a key from the map.
+	 * @param key Key
+	 * @return true if the key was in the map
+	 */
+	public final boolean remove (int key)
+	{
+		int pos = slot(key);
+		
+		if (!used[pos])
+			return false;
+		
+		// Backward shift deletion (no tombstones)
+		
+		int next = (pos+1) & mask;
+		
+		while (used[next]) {
+			
+			int home = hash(keys[next]) & mask;
+			
+			// Move the entry back when its home slot is not within (pos,next]
+			
+			if ( ((next-home) & mask) >= ((next-pos) & mask) ) {
+				keys[pos] = keys[next];
+				values[pos] = values[next];
+				pos = next;
+			}
+			
+			next = (next+1) & mask;
+		}
+		
+		used[pos] = false;
+		size--;
+		
+		return true;
+	}
+	
+	/**
+	 * Keys in the map (in no particular order).
+	 * @return Array of keys
+	 */
+	public final int[] keys ()
+	{
+		int[] result = new int[size];
+		int   count = 0;
+		
+		for (int i=0; i<keys.length; i++)
+			if (used[i])
+				result[count++] = keys[i];
+		
+		return result;
+	}
+	
+	
+	// Dynamic size
+	
+	private void rehash (int capacity)
+	{
+		int[]     oldKeys = keys;
+		int[]     oldValues = values;
+		boolean[] oldUsed = used;
+		
+		allocate(capacity);
+		
+		for (int i=0; i<oldKeys.length; i++) {
+			if (oldUsed[i]) {
+				int pos = slot(oldKeys[i]);
+				used[pos] = true;
+				keys[pos] = oldKeys[i];
+				values[pos] = oldValues[i];
+				size++;
+			}
+		}
+	}
+}
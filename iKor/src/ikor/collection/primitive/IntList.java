@@ -0,0 +1,187 @@
+package ikor.collection.primitive;
+
+// Title:       iKor Collection Framework
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal Galiano
+// E-mail:      berzal@acm.org
+
+import java.util.Arrays;
+
+/**
+ * Dynamic list of int values, stored in a flat array (i.e. without boxing).
+ * 
+ * CPU requirements:
+ * - Insertion at the end: Amortized O(1)
+ * - Deletion: O(n)
+ * - Access by index: O(1)
+ * - Access by content: O(n)
+ * 
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class IntList
+{
+	private static final int INITIAL_CAPACITY = 8;
+	
+	private int[] values;
+	private int   size;
+
+	// Constructors
+	
+	public IntList ()
+	{
+		this(INITIAL_CAPACITY);
+	}
+	
+	public IntList (int capacity)
+	{
+		this.values = new int[Math.max(capacity,1)];
+		this.size = 0;
+	}
+	
+	public IntList (int[] array)
+	{
+		this.values = Arrays.copyOf(array, Math.max(array.length,1));
+		this.size = array.length;
+	}
+	
+	// Dynamic size
+	
+	/**
+	 * Make sure the list can hold a given number of values without resizing.
+	 * @param capacity Minimum capacity
+	 */
+	public final void ensureCapacity (int capacity)
+	{
+		if (capacity>values.length)
+			values = Arrays.copyOf(values, Math.max(capacity, 2*values.length));
+	}
+	
+	public final int size ()
+	{
+		return size;
+	}
+	
+	public final boolean isEmpty ()
+	{
+		return size==0;
+	}
+	
+	public final void clear ()
+	{
+		size = 0;
+	}
+
+	// Accessors & mutators (no range checking, as in plain arrays)
+	
+	public final int get (int index)
+	{
+		return values[index];
+	}
+	
+	public final void set (int index, int value)
+	{
+		values[index] = value;
+	}
+
+	/**
+	 * Add a value at the end of the list.
+	 * @param value Value to be added
+	 * @return Position of the new value
+	 */
+	public final int add (int value)
+	{
+		if (size==values.length)
+			values = Arrays.copyOf(values, 2*values.length);
+		
+		values[size] = value;
+		
+		return size++;
+	}
+	
+	/**
+	 * Remove the value at a given position.
+	 * @param index Position
+	 * @return Removed value
+	 */
+	public final int remove (int index)
+	{
+		if ((index<0) || (index>=size))
+			throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+		
+		int value = values[index];
+		
+		System.arraycopy(values, index+1, values, index, size-1-index);
+		size--;
+		
+		return value;
+	}
+	
+	/**
+	 * Remove the first occurrence of a value.
+	 * @param value Value to be removed
+	 * @return true if the value was in the list
+	 */
+	public final boolean removeValue (int value)
+	{
+		int index = index(value);
+		
+		if (index!=-1) {
+			remove(index);
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	/**
+	 * Position of a value in the list, O(n).
+	 * @param value Value
+	 * @return Position of its first occurrence, -1 if not found
+	 */
+	public final int index (int value)
+	{
+		for (int i=0; i<size; i++)
+			if (values[i]==value)
+				return i;
+		
+		return -1;
+	}
+	
+	public final boolean contains (int value)
+	{
+		return index(value)!=-1;
+	}
+
+	/**
+	 * Sort the list values (in ascending order).
+	 */
+	public final void sort ()
+	{
+		Arrays.sort(values, 0, size);
+	}
+
+	/**
+	 * Copy of the list values.
+	 * @return Array of values
+	 */
+	public final int[] toArray ()
+	{
+		return Arrays.copyOf(values, size);
+	}
+	
+	
+	public String toString ()
+	{
+		StringBuilder builder = new StringBuilder("[");
+		
+		for (int i=0; i<size; i++) {
+			if (i>0)
+				builder.append(", ");
+			builder.append(values[i]);
+		}
+		
+		return builder.append("]").toString();
+	}
+}
@@ -0,0 +1,217 @@
+package ikor.collection.primitive;
+
+// Title:       iKor Collection Framework
+// Version:     1.0
+// Copyright:   2014
+// Author:      Fernando Berzal Galiano
+// E-mail:      berzal@acm.org
+
+import java.util.Arrays;
+
+/**
+ * Set of int values, using open addressing (linear probing) over flat arrays.
+ * 
+ * CPU requirements:
+ * - Insertion, deletion & lookup: Expected O(1)
+ * 
+ * @author Fernando Berzal (berzal@acm.org)
+ */
+
+public class IntSet
+{
+	private static final int    INITIAL_CAPACITY = 16;
+	private static final double LOAD_FACTOR = 0.75;
+	
+	private int[]     keys;
+	private boolean[] used;
+	private int       size;
+	private int       mask;
+	private int       threshold;
+
+	// Constructors
+	
+	public IntSet ()
+	{
+		this(INITIAL_CAPACITY);
+	}
+	
+	/**
+	 * Constructor.
+	 * @param capacity Expected number of elements
+	 */
+	public IntSet (int capacity)
+	{
+		int size = 2;
+		
+		while (size*LOAD_FACTOR < capacity)
+			size *= 2;
+		
+		allocate(size);
+	}
+	
+	private void allocate (int capacity)
+	{
+		keys = new int[capacity];
+		used = new boolean[capacity];
+		mask = capacity-1;
+		threshold = (int) (capacity*LOAD_FACTOR);
+		size = 0;
+	}
+	
+	private static int hash (int key)
+	{
+		int h = key * 0x9E3779B9;   // Fibonacci hashing
+		
+		return h ^ (h>>>16);
+	}
+	
+	private int slot (int key)
+	{
+		int pos = hash(key) & mask;
+		
+		while (used[pos] && (keys[pos]!=key))
+			pos = (pos+1) & mask;
+		
+		return pos;
+	}
+
+	
+	// Set size
+	
+	public final int size ()
+	{
+		return size;
+	}
+	
+	public final boolean isEmpty ()
+	{
+		return size==0;
+	}
+	
+	public final void clear ()
+	{
+		Arrays.fill(used, false);
+		size = 0;
+	}
+	
+	
+	// Set operations
+	
+	public final boolean contains (int value)
+	{
+		return used[slot(value)];
+	}
+	
+	/**
+	 * Add a value to the set.
+	 * @param value Value
+	 * @return true if the value was not already in the set
+	 */
+	public final boolean add (int value)
+	{
+		int pos = slot(value);
+		
+		if (used[pos])
+			return false;
+		
+		if (size>=threshold) {
+			rehash(2*keys.length);
+			pos = slot(value);
+		}
+		
+		used[pos] = true;
+		keys[pos] = value;
+		size++;
+		
+		return true;
+	}
+	
+	/**
+	 * Remove a value from the set.
+	 * @param value Value
+	 * @return true if the value was in the set
+	 */
+	public final boolean remove (int value)
+	{
+		int pos = slot(value);
+		
+		if (!used[pos])
+			return false;
+		
+		// Backward shift deletion (no tombstones)
+		
+		int next = (pos+1) & mask;
+		
+		while (used[next]) {
+			
+			int home = hash(keys[next]) & mask;
+			
+			if ( ((next-home) & mask) >= ((next-pos) & mask) ) {
+				keys[pos] = keys[next];
+				pos = next;
+			}
+			
+			next = (next+1) & mask;
+		}
+		
+		used[pos] = false;
+		size--;
+		
+		return true;
+	}
+	
+	/**
+	 * Number of values shared with another set, O(min(n,m)).
+	 * @param other Set
+	 * @return Intersection size
+	 */
+	public final int intersectionSize (IntSet other)
+	{
+		if (other.size()<size)
+			return other.intersectionSize(this);
+		
+		int count = 0;
+		
+		for (int i=0; i<keys.length; i++)
+			if (used[i] && other.contains(keys[i]))
+				count++;
+		
+		return count;
+	}
+	
+	/**
+	 * Values in the set (in no particular order).
+	 * @return Array of values
+	 */
+	public final int[] toArray ()
+	{
+		int[] result = new int[size];
+		int   count = 0;
+		
+		for (int i=0; i<keys.length; i++)
+			if (used[i])
+				result[count++] = keys[i];
+		
+		return result;
+	}
+	
+	
+	// Dynamic size
+	
+	private void rehash (int capacity)
+	{
+		int[]     oldKeys = keys;
+		boolean[] oldUsed = used;
+		
+		allocate(capacity);
+		
+		for (int i=0; i<oldKeys.length; i++) {
+			if (oldUsed[i]) {
+				int pos = slot(oldKeys[i]);
+				used[pos] = true;
+				keys[pos] = oldKeys[i];
+				size++;
+			}
+		}
+	}
+}
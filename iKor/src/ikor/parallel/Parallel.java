@@ -1,8 +1,22 @@
 package ikor.parallel;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import ikor.parallel.threading.WorkStealingTask;
+
 /**
  * Algorithm skeletons for parallel programming
  * 
+ * Skeletons run on the fork/join pool provided by the current scheduler (see Scheduler.getPool).
+ * Work is decomposed adaptively ("lazy binary splitting"): a range is split in halves only while
+ * it is wider than the tile width and the current worker has few queued tasks that other 
+ * workers could steal (see ForkJoinTask.getSurplusQueuedTaskCount). 
+ * Joining threads execute pending subtasks instead of blocking.
+ * 
  * @author Fernando Berzal (berzal@acm.org)
  *
  */
@@ -11,10 +25,12 @@ public class Parallel
 	// Parameters
 
 	public static final int DEFAULT_TILE_WIDTH = 16;
-	public static final int DEFAULT_DECOMPOSITION_DEPTH = 4; // i.e. 2^4 parallel tasks
+	public static final int DEFAULT_DECOMPOSITION_DEPTH = 4; // i.e. 2^4 parallel tasks (Scan)
+	public static final int DEFAULT_SURPLUS = 3;             // Queued tasks before sequential execution
 	
 	private static int tileWidth = DEFAULT_TILE_WIDTH;
 	private static int decompositionDepth = DEFAULT_DECOMPOSITION_DEPTH;
+	private static int surplus = DEFAULT_SURPLUS;
 	
 	public static int getTileWidth ()
 	{
@@ -36,79 +52,88 @@ public class Parallel
 		decompositionDepth = depth;
 	}
 	
+	public static int getSurplus ()
+	{
+		return surplus;
+	}
+	
+	public static void setSurplus (int tasks)
+	{
+		surplus = tasks;
+	}
+
+	// Adaptive decomposition
+	
+	private static boolean split (int start, int end)
+	{
+		return (end-start>=tileWidth) 
+		    && (ForkJoinTask.getSurplusQueuedTaskCount()<=surplus);
+	}
+	
+	// Task execution within the current fork/join pool (callers help instead of waiting)
+	
+	private static <T> T invoke (ForkJoinTask<T> task)
+	{
+		ForkJoinPool pool = Scheduler.get().getPool();
+		Thread current = Thread.currentThread();
+		
+		if ( (current instanceof ForkJoinWorkerThread) 
+		   && (((ForkJoinWorkerThread)current).getPool()==pool) ) {
+			return task.invoke();
+		} else if (pool==ForkJoinPool.commonPool()) {
+			return task.invoke();
+		} else {
+			return pool.invoke(task);
+		}
+	}
+	
+	private static boolean sequential ()
+	{
+		return Scheduler.get().getPool()==null;
+	}
+	
+	
 	// Fork-join pattern
 	
 	public static void forkjoin (Task a, Task b)
 	{
-		Scheduler scheduler = Scheduler.get();
-		
-		scheduler.schedule(a);
-		scheduler.invoke(b);
-		
-		a.getResult();
+		forkjoin( new Task[]{a, b} );
 	}
 
 	public static void forkjoin (Task tasks[])
 	{
-		Fork task = new Parallel.Fork(tasks,0,tasks.length-1,decompositionDepth);
-		
-		task.call();
-		
-		/* 
-		// Alternative [linear-time] implementation
-		  
-		int n = tasks.length;
-		
-		for (int i=0; i<n-1; i++)
-			scheduler.schedule(tasks[i]);
-		
-		scheduler.invoke(tasks[n-1]);
+		if (sequential()) {
+			
+			for (int i=0; i<tasks.length; i++)
+				tasks[i].setResult( tasks[i].call() );
+			
+		} else {
 		
-		for (int i=0; i<n-1; i++)
-			tasks[i].getResult();
-		/**/
+			invoke( new Fork(tasks) );
+		}
 	}
 	
-	static class Fork extends Task
+	static class Fork extends RecursiveAction
 	{
 		Task[] tasks;
-		int    start;
-		int    end;
-		int    depth;
 		
-		public Fork (Task tasks[], int start, int end, int depth)
+		public Fork (Task tasks[])
 		{
 			this.tasks  = tasks;
-			this.start  = start;
-			this.end    = end;
-			this.depth  = depth;
 		}
 
-		public Object call ()
+		@Override
+		protected void compute ()
 		{
-			if ( (end-start>=tileWidth) && (depth>0)) {
-				
-				int middle = (start+end)/2;
-				
-				Fork fork1 = new Fork (tasks, start, middle, depth-1);
-				Fork fork2 = new Fork (tasks, middle+1, end, depth-1);
-				
-				Parallel.forkjoin(fork1, fork2);
-
-			} else {
-				
-				Scheduler scheduler = Scheduler.get();
-
-				for (int i=start; i<end; i++)
-					scheduler.schedule(tasks[i]);
-
-				scheduler.invoke(tasks[end]);
-
-				for (int i=start; i<end; i++)
-					tasks[i].getResult();				
-			}
+			WorkStealingTask[] forks = new WorkStealingTask[tasks.length];
+			
+			for (int i=0; i<tasks.length; i++)
+				forks[i] = new WorkStealingTask(tasks[i]);
+			
+			ForkJoinTask.invokeAll(forks);
 			
-			return null;
+			for (int i=0; i<tasks.length; i++)
+				tasks[i].setResult( forks[i].getResult() );
 		}
 	}
 	
@@ -118,46 +143,70 @@ public class Parallel
 	
 	public static void map (Kernel kernel, int start, int end)
 	{
-		For task = new Parallel.For(kernel,start,end,decompositionDepth);
-		
-		task.call();
+		if (sequential()) {
+			
+			for (int i=start; i<=end; i++)
+				kernel.call(i);
+			
+		} else if (end>=start) {
+
+			invoke( new Parallel.For(kernel,start,end) );
+		}
 	}
 	
 	
-	static class For extends Task
+	static class For extends RecursiveAction
 	{
 		Kernel kernel;
 		int    start;
 		int    end;
-		int    depth;
+		For    next;    // Forked subtasks (linked list)
 		
-		public For (Kernel kernel, int start, int end, int depth)
+		public For (Kernel kernel, int start, int end, For next)
 		{
 			this.start  = start;
 			this.end    = end;
 			this.kernel = kernel;
-			this.depth  = depth;
+			this.next   = next;
 		}
 
+		public For (Kernel kernel, int start, int end)
+		{
+			this(kernel, start, end, null);
+		}
+		
 		@Override
-		public Object call() 
+		protected void compute() 
 		{
-			if ( (end-start>=tileWidth) && (depth>0) ) {
+			int first = start;
+			int last  = end;
+			For forked = null;
 
-				int middle = (start+end)/2;
+			// Lazy binary splitting
+			
+			while (split(first,last)) {
 				
-				For task1 = new For (kernel, start, middle, depth-1);
-				For task2 = new For (kernel, middle+1, end, depth-1);
+				int middle = (first+last)>>>1;
 				
-				Parallel.forkjoin(task1, task2);
+				forked = new For (kernel, middle+1, last, forked);
+				forked.fork();
+				last = middle;
+			}
 			
-			} else {
+			for (int i=first; i<=last; i++)
+				kernel.call(i);
+			
+			// Join (run pending subtasks locally)
+			
+			while (forked!=null) {
+				
+				if (forked.tryUnfork())
+					forked.compute();
+				else
+					forked.join();
 				
-				for (int i=start; i<=end; i++)
-					kernel.call(i);
+				forked = forked.next;
 			}
-
-			return null;
 		}
 	}
 
@@ -167,54 +216,86 @@ public class Parallel
 	
 	public static Object reduce (Kernel kernel, Combiner combiner, int start, int end)
 	{
-		Reduce task = new Parallel.Reduce(kernel,combiner,start,end,decompositionDepth);
-		
-		return task.call();
+		if (sequential()) {
+			
+			Object result = combiner.identity();
+			
+			for (int i=start; i<=end; i++)
+				result = combiner.combine(result, kernel.call(i));
+			
+			return result;
+			
+		} else if (end>=start) {
+			
+			return invoke( new Parallel.Reduce(kernel,combiner,start,end) );
+			
+		} else {
+			
+			return combiner.identity();
+		}
 	}
 	
 	
-	static class Reduce<T> extends Task<T>
+	static class Reduce<T> extends RecursiveTask<T>
 	{
 		Kernel<T>   kernel;
 		Combiner<T> combiner;
 		
-		int    start;
-		int    end;
-		int    depth;
+		int       start;
+		int       end;
+		Reduce<T> next;    // Forked subtasks (linked list)
 		
-		public Reduce (Kernel<T> kernel, Combiner<T> combiner, int start, int end, int depth)
+		public Reduce (Kernel<T> kernel, Combiner<T> combiner, int start, int end, Reduce<T> next)
 		{
 			this.kernel   = kernel;
 			this.combiner = combiner;
 			
 			this.start  = start;
 			this.end    = end;
-			this.depth  = depth;
+			this.next   = next;
 		}
 
+		public Reduce (Kernel<T> kernel, Combiner<T> combiner, int start, int end)
+		{
+			this(kernel, combiner, start, end, null);
+		}
+		
 		@Override
-		public T call() 
+		protected T compute() 
 		{
-			if ( (end-start>=tileWidth) && (depth>0) ) {
+			int first = start;
+			int last  = end;
+			Reduce<T> forked = null;
 
-				int middle = (start+end)/2;
-				
-				Reduce<T> task1 = new Reduce (kernel, combiner, start, middle, depth-1);
-				Reduce<T> task2 = new Reduce (kernel, combiner, middle+1, end, depth-1);
+			// Lazy binary splitting
+			
+			while (split(first,last)) {
 				
-				Parallel.forkjoin(task1, task2);
+				int middle = (first+last)>>>1;
 				
-				return combiner.combine(task1.getResult(), task2.getResult());
+				forked = new Reduce<T> (kernel, combiner, middle+1, last, forked);
+				forked.fork();
+				last = middle;
+			}
 			
-			} else {
-				
-				T result = combiner.identity();
+			T result = combiner.identity();
+			
+			for (int i=first; i<=last; i++)
+				result = combiner.combine(result, kernel.call(i));
+			
+			// Join, left to right (combiners need not be commutative)
+			
+			while (forked!=null) {
 				
-				for (int i=start; i<=end; i++)
-					result = combiner.combine(result, kernel.call(i));
+				if (forked.tryUnfork())
+					result = combiner.combine(result, forked.compute());
+				else
+					result = combiner.combine(result, forked.join());
 				
-				return result;
+				forked = forked.next;
 			}
+			
+			return result;
 		}
 	}	
 }
@@ -1,5 +1,7 @@
 package ikor.parallel;
 
+import java.util.concurrent.ForkJoinPool;
+
 import ikor.parallel.scheduler.ThreadPoolScheduler;
 
 
@@ -32,4 +34,14 @@ public abstract class Scheduler
 		task.setResult (task.call());
 	}
 	
-}
\ No newline at end of file
+	
+	/**
+	 * Fork/join pool for algorithm skeletons (see Parallel).
+	 * @return Fork/join pool (null for sequential execution)
+	 */
+	public ForkJoinPool getPool ()
+	{
+		return ForkJoinPool.commonPool();
+	}
+	
+}
\ No newline at end of file
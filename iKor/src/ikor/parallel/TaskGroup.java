@@ -0,0 +1,302 @@
+package ikor.parallel;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import ikor.collection.CollectionFactory;
+import ikor.collection.List;
+
+/**
+ * Structured concurrency for groups of tasks.
+ *
+ * Tasks are forked through a scheduler and joined as a whole:
+ * - join() waits until all the tasks in the group have finished.
+ * - When a task fails, the remaining tasks are cancelled and join() throws an ExecutionException.
+ * - When the group deadline expires, the remaining tasks are cancelled and join() throws a TimeoutException.
+ *
+ * e.g.
+ *
+ * try (TaskGroup group = new TaskGroup(new VirtualThreadScheduler(), 30, TimeUnit.SECONDS)) {
+ *     for (...)
+ *         group.fork(task);
+ *     group.join();
+ * }
+ *
+ * @author Fernando Berzal
+ */
+
+public class TaskGroup implements AutoCloseable
+{
+	private Scheduler       scheduler;
+	private long            deadline;    // System.nanoTime() deadline, Long.MAX_VALUE if none
+
+	private List<Member>    tasks;
+	private CountDownLatch  finished;
+	private int             pending;
+
+	private volatile Throwable failure;
+	private volatile boolean   cancelled;
+
+
+	// Constructors
+
+	/**
+	 * Task group without deadline, using the current scheduler.
+	 */
+	public TaskGroup ()
+	{
+		this(Scheduler.get());
+	}
+
+	/**
+	 * Task group without deadline.
+	 * @param scheduler Scheduler
+	 */
+	public TaskGroup (Scheduler scheduler)
+	{
+		this.scheduler = scheduler;
+		this.deadline = Long.MAX_VALUE;
+		this.tasks = CollectionFactory.createList();
+	}
+
+	/**
+	 * Task group with a deadline.
+	 * @param scheduler Scheduler
+	 * @param timeout Maximum time for completing the group tasks (from now)
+	 * @param unit Time unit
+	 */
+	public TaskGroup (Scheduler scheduler, long timeout, TimeUnit unit)
+	{
+		this(scheduler);
+		this.deadline = System.nanoTime() + unit.toNanos(timeout);
+	}
+
+
+	// Fork
+
+	/**
+	 * Fork a task within the group.
+	 * @param task Task to be executed
+	 * @throws IllegalStateException if the group has already been joined or cancelled
+	 */
+	public synchronized <T> void fork (ITask<T> task)
+	{
+		if ( (finished!=null) || cancelled )
+			throw new IllegalStateException("Task group already joined or cancelled.");
+
+		Member<T> member = new Member<T>(task);
+
+		tasks.add(member);
+		pending++;
+
+		scheduler.schedule(member);
+	}
+
+	/**
+	 * Number of tasks in the group.
+	 */
+	public synchronized int size ()
+	{
+		return tasks.size();
+	}
+
+
+	// Join
+
+	/**
+	 * Wait for all the tasks in the group.
+	 * @throws ExecutionException if any task failed (the remaining tasks are cancelled)
+	 * @throws TimeoutException if the group deadline expired (the remaining tasks are cancelled)
+	 * @throws InterruptedException if the current thread was interrupted (the remaining tasks are cancelled)
+	 */
+	public void join ()
+		throws InterruptedException, ExecutionException, TimeoutException
+	{
+		CountDownLatch latch = latch();
+
+		try {
+
+			if (deadline==Long.MAX_VALUE) {
+
+				latch.await();
+
+			} else if (!latch.await(deadline-System.nanoTime(), TimeUnit.NANOSECONDS)) {
+
+				cancel();
+				throw new TimeoutException("Task group deadline expired.");
+			}
+
+		} catch (InterruptedException interruption) {
+
+			cancel();
+			throw interruption;
+		}
+
+		if (failure!=null)
+			throw new ExecutionException(failure);
+	}
+
+	private synchronized CountDownLatch latch ()
+	{
+		if (finished==null) {
+
+			if (cancelled)
+				finished = new CountDownLatch(0);
+			else
+				finished = new CountDownLatch(pending);
+
+			// Tasks that finished before join()
+
+			for (int i=0; i<tasks.size(); i++)
+				if (tasks.get(i).done)
+					finished.countDown();
+		}
+
+		return finished;
+	}
+
+
+	// Cancellation
+
+	/**
+	 * Cancel the remaining tasks in the group.
+	 */
+	public void cancel ()
+	{
+		cancelled = true;
+
+		List<Member> members;
+
+		synchronized (this) {
+			members = CollectionFactory.createList();
+
+			for (int i=0; i<tasks.size(); i++)
+				members.add(tasks.get(i));
+		}
+
+		for (int i=0; i<members.size(); i++) {
+
+			Future future = members.get(i).getFuture();
+
+			if (future!=null)
+				future.cancel(true);
+		}
+
+		// Cancelled tasks might never run: release join()
+
+		synchronized (this) {
+			if (finished!=null)
+				while (finished.getCount()>0)
+					finished.countDown();
+		}
+	}
+
+	/**
+	 * Is the task group cancelled?
+	 */
+	public boolean isCancelled ()
+	{
+		return cancelled;
+	}
+
+	/**
+	 * Close the task group, cancelling the tasks that have not finished yet.
+	 */
+	@Override
+	public void close ()
+	{
+		cancel();
+	}
+
+
+	// Task completion
+
+	private synchronized void done (Member member, Throwable error)
+	{
+		member.done = true;
+
+		if ( (error!=null) && (failure==null) && !cancelled )
+			failure = error;
+
+		if (finished!=null)
+			finished.countDown();
+	}
+
+
+	// Group member: task wrapper
+
+	private class Member<T> implements ITask<T>
+	{
+		private ITask<T>  task;
+		private Future<T> future;
+		private boolean   done;
+
+		public Member (ITask<T> task)
+		{
+			this.task = task;
+		}
+
+		@Override
+		public T call ()
+		{
+			T        result = null;
+			Throwable error = null;
+
+			try {
+
+				if (!cancelled) {
+					result = task.call();
+					task.setResult(result);
+				}
+
+			} catch (RuntimeException exception) {
+				error = exception;
+				throw exception;
+			} catch (Error exception) {
+				error = exception;
+				throw exception;
+			} finally {
+				done(this, error);
+
+				if (error!=null)
+					cancel();
+			}
+
+			return result;
+		}
+
+		@Override
+		public T getResult ()
+		{
+			return task.getResult();
+		}
+
+		@Override
+		public void setResult (T result)
+		{
+			task.setResult(result);
+		}
+
+		@Override
+		public Future<T> getFuture ()
+		{
+			return future;
+		}
+
+		/**
+		 * The wrapped task shares the member future, so that its result is obtained
+		 * from the group execution (e.g. null for cancelled tasks) instead of being
+		 * scheduled again outside the group.
+		 */
+		@Override
+		public void setFuture (Future<T> future)
+		{
+			this.future = future;
+
+			task.setFuture(future);
+		}
+	}
+}
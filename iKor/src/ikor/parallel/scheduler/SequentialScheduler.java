@@ -1,5 +1,7 @@
 package ikor.parallel.scheduler;
 
+import java.util.concurrent.ForkJoinPool;
+
 import ikor.parallel.Scheduler;
 import ikor.parallel.ITask;
 
@@ -32,6 +34,16 @@ public class SequentialScheduler extends Scheduler
 		// Nothing to do 
 	}
 
+    
+    /**
+     * Sequential execution of algorithm skeletons. 
+     */
+    @Override
+    public ForkJoinPool getPool ()
+    {
+    	return null;
+    }
+
  
 }
 
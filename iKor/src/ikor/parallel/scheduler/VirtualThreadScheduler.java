@@ -0,0 +1,86 @@
+package ikor.parallel.scheduler;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+
+import ikor.parallel.Scheduler;
+import ikor.parallel.ITask;
+
+/**
+ * Thread-per-task scheduler for I/O-bound tasks (e.g. network readers or JDBC queries).
+ *
+ * Each scheduled task runs on its own virtual thread, so thousands of tasks can be
+ * waiting for I/O without exhausting a platform thread pool.
+ * On Java runtimes without virtual threads (i.e. before Java 21), the scheduler falls back
+ * to a cached pool of platform threads (i.e. the same behavior as ThreadPoolScheduler).
+ *
+ * NOTE: CPU-bound algorithm skeletons (see Parallel) still run on the common fork/join pool.
+ *
+ * @author Fernando Berzal
+ */
+
+public class VirtualThreadScheduler extends Scheduler
+{
+	private ExecutorService executor;
+	private boolean         virtual;
+
+
+	public VirtualThreadScheduler ()
+	{
+		this.executor = createVirtualThreadExecutor();
+
+		if (executor!=null) {
+			this.virtual = true;
+		} else {
+			this.executor = Executors.newCachedThreadPool();
+			this.virtual = false;
+		}
+	}
+
+	// Executors.newVirtualThreadPerTaskExecutor() [Java 21+]
+
+	private static ExecutorService createVirtualThreadExecutor ()
+	{
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+
+			return (ExecutorService) factory.invoke(null);
+
+		} catch (Exception unsupported) {
+			return null;
+		}
+	}
+
+	/**
+	 * Are tasks executed by virtual threads?
+	 * @return false when the Java runtime does not support virtual threads
+	 */
+	public boolean isVirtual ()
+	{
+		return virtual;
+	}
+
+
+	/* (non-Javadoc)
+	 * @see ikor.parallel.Scheduler#schedule(ikor.parallel.ITask)
+	 */
+	@Override
+	public void schedule (ITask task)
+	{
+		Future future = executor.submit(task);
+
+		task.setFuture(future);
+	}
+
+
+	/* (non-Javadoc)
+	 * @see ikor.parallel.Scheduler#shutdown()
+	 */
+	@Override
+	public void shutdown()
+	{
+		if (executor!=null)
+			executor.shutdown();
+	}
+
+}
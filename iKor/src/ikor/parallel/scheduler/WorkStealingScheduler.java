@@ -4,6 +4,7 @@ import java.util.concurrent.*;
 
 import ikor.parallel.Scheduler;
 import ikor.parallel.ITask;
+import ikor.parallel.threading.WorkStealingTask;
 
 /**
  * Work-stealing scheduler based on the Java Fork/Join framework.
@@ -18,6 +19,11 @@ public class WorkStealingScheduler extends Scheduler
 	private ForkJoinPool pool;
 
 	
+	public WorkStealingScheduler ()
+	{
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
 	public WorkStealingScheduler (int parallelism)
 	{
 		this.pool = new ForkJoinPool(parallelism);
@@ -30,21 +36,53 @@ public class WorkStealingScheduler extends Scheduler
 	@Override
 	public void schedule (ITask task)
 	{
-        Future future = pool.submit(task);
+		if (inPool()) {
+			
+			// Fork within the current worker (joins will help instead of blocking)
+			
+			WorkStealingTask wt = new WorkStealingTask(task);
+			
+			wt.fork();
+			task.setFuture(wt);
+			
+		} else {
+			
+			Future future = pool.submit(task);
         
-        task.setFuture(future);
-        
-        // TODO WorkStealingTask.fork() vs. ForkJoinPool.submit()
-        // 
-        // e.g.
-        //
-        // if (current task is a ForkJoinTask) 
-		//    WorkStealingTask.fork();
-        // else
-        // 	  ForkJoinTask wt = new WorkStealingTask(task);
-		//	  pool.submit(wt);
+			task.setFuture(future);
+		}
 	}
 
+	/* (non-Javadoc)
+	 * @see ikor.parallel.Scheduler#invoke(ikor.parallel.ITask)
+	 */
+	@Override
+	public void invoke (ITask task)
+	{		
+		if (inPool()) {
+			task.setResult(task.call());
+		} else {
+			WorkStealingTask wt = new WorkStealingTask(task);
+			task.setResult(pool.invoke(wt));
+		}
+	}
+	
+	private boolean inPool ()
+	{
+		Thread current = Thread.currentThread();
+		
+		return (current instanceof ForkJoinWorkerThread) 
+			&& (((ForkJoinWorkerThread)current).getPool()==pool);
+	}
+	
+	/* (non-Javadoc)
+	 * @see ikor.parallel.Scheduler#getPool()
+	 */
+	@Override
+	public ForkJoinPool getPool ()
+	{
+		return pool;
+	}
 
 	/* (non-Javadoc)
 	 * @see sandbox.parallel.Scheduler#shutdown()
@@ -55,18 +93,4 @@ public class WorkStealingScheduler extends Scheduler
 		if (pool!=null)
 			pool.shutdown(); 
 	}
-		
-	// TODO Direct task invocation
-	// 
-	// @Override
-	// public void invoke (ITask task)
-	// {		
-    // 	  if (current task is a ForkJoinTask) 
-	//    	 WorkStealingTask.invoke();
-    //    else
-    // 	     ForkJoinTask wt = new WorkStealingTask(task);
-	//	     pool.invoke(wt);
-	// }
-
 }
-
@@ -8,7 +8,8 @@ import org.junit.runners.Suite;
 					   PriorityQueueTest.class,
 					   IndexedPriorityQueueTest.class,
 					   test.ikor.collection.index.AllTests.class,
+					   test.ikor.collection.primitive.AllTests.class,
 	                   test.ikor.collection.graph.AllTests.class })
 public class AllTests {
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package test.ikor.collection.primitive;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses( { IntListTest.class,
+					   IntIntMapTest.class,
+					   IntSetTest.class,
+					   IndexedIntHeapTest.class })
+public class AllTests {
+
+}
@@ -0,0 +1,109 @@
+package test.ikor.collection.primitive;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import ikor.collection.primitive.IndexedIntHeap;
+
+import org.junit.Test;
+
+public class IndexedIntHeapTest 
+{
+	@Test
+	public void testPoll () 
+	{
+		IndexedIntHeap heap = new IndexedIntHeap(10);
+		
+		double[] keys = { 5, 3, 8, 1, 9, 2, 7, 4, 6, 0 };
+		
+		for (int i=0; i<keys.length; i++)
+			assertTrue(heap.add(i, keys[i]));
+		
+		assertFalse(heap.add(0, -1));
+		assertEquals(10, heap.size());
+		assertEquals(9, heap.peek());
+		
+		double last = Double.NEGATIVE_INFINITY;
+		
+		while (!heap.isEmpty()) {
+			int item = heap.poll();
+			assertTrue(keys[item]>=last);
+			last = keys[item];
+		}
+		
+		assertEquals(-1, heap.poll());
+	}
+	
+	@Test
+	public void testUpdate () 
+	{
+		IndexedIntHeap heap = new IndexedIntHeap(5);
+		
+		for (int i=0; i<5; i++)
+			heap.add(i, 10+i);
+		
+		assertTrue(heap.decreaseKey(4, 1));
+		assertFalse(heap.decreaseKey(3, 20));
+		assertEquals(4, heap.peek());
+		assertEquals(1.0, heap.priority(4), 0.0);
+		
+		heap.update(4, 100);
+		assertEquals(0, heap.peek());
+		
+		assertTrue(heap.remove(0));
+		assertFalse(heap.contains(0));
+		assertFalse(heap.remove(0));
+		
+		assertEquals(1, heap.poll());
+		assertEquals(2, heap.poll());
+		assertEquals(3, heap.poll());
+		assertEquals(4, heap.poll());
+	}
+	
+	@Test
+	public void testClear () 
+	{
+		IndexedIntHeap heap = new IndexedIntHeap(3);
+		
+		heap.add(0, 1);
+		heap.add(2, 2);
+		heap.clear();
+		
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(2));
+		assertTrue(heap.add(2, 3));
+		assertEquals(2, heap.peek());
+	}
+	
+	@Test
+	public void testArity () 
+	{
+		java.util.Random random = new java.util.Random(1);
+		
+		for (int arity=2; arity<=8; arity++) {
+			
+			IndexedIntHeap heap = new IndexedIntHeap(200, arity);
+			double[] keys = new double[200];
+			
+			for (int i=0; i<200; i++) {
+				keys[i] = random.nextDouble();
+				heap.add(i, keys[i]);
+			}
+			
+			// Decrease half of the keys
+			
+			for (int i=0; i<200; i+=2) {
+				keys[i] /= 2;
+				assertTrue(heap.decreaseKey(i, keys[i]));
+			}
+			
+			double[] sorted = keys.clone();
+			
+			Arrays.sort(sorted);
+			
+			for (int i=0; i<200; i++)
+				assertEquals(sorted[i], keys[heap.poll()], 0.0);
+		}
+	}
+}
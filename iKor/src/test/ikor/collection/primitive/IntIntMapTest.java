@@ -0,0 +1,90 @@
+package test.ikor.collection.primitive;
+
+import static org.junit.Assert.*;
+
+import ikor.collection.primitive.IntIntMap;
+import ikor.collection.primitive.LongIntMap;
+
+import org.junit.Test;
+
+public class IntIntMapTest 
+{
+	@Test
+	public void testSetGet () 
+	{
+		IntIntMap map = new IntIntMap();
+		
+		for (int i=-500; i<500; i++)
+			map.set(7*i, i);
+		
+		assertEquals(1000, map.size());
+		
+		for (int i=-500; i<500; i++) {
+			assertTrue(map.contains(7*i));
+			assertEquals(i, map.get(7*i));
+		}
+		
+		assertFalse(map.contains(1));
+		assertEquals(-1, map.get(1));
+	}
+	
+	@Test
+	public void testMissingValue () 
+	{
+		IntIntMap map = new IntIntMap(10, 0);
+		
+		assertEquals(0, map.get(42));
+		assertEquals(2, map.add(42, 2));
+		assertEquals(5, map.add(42, 3));
+		assertEquals(5, map.get(42));
+		assertEquals(1, map.size());
+	}
+	
+	@Test
+	public void testRemove () 
+	{
+		IntIntMap map = new IntIntMap(4);
+		
+		// Colliding keys (same low bits)
+		
+		for (int i=0; i<64; i++)
+			map.set(i<<16, i);
+		
+		for (int i=0; i<64; i+=2)
+			assertTrue(map.remove(i<<16));
+		
+		assertFalse(map.remove(0));
+		assertEquals(32, map.size());
+		
+		for (int i=0; i<64; i++)
+			assertEquals( (i%2==0)? -1: i, map.get(i<<16));
+		
+		assertEquals(32, map.keys().length);
+		
+		map.clear();
+		
+		assertEquals(0, map.size());
+		assertFalse(map.contains(1<<16));
+	}
+	
+	@Test
+	public void testLongKeys () 
+	{
+		LongIntMap map = new LongIntMap();
+		
+		for (int i=0; i<100; i++)
+			for (int j=0; j<10; j++)
+				map.set(((long)i<<32)|j, 10*i+j);
+		
+		assertEquals(1000, map.size());
+		
+		for (int i=0; i<100; i++)
+			for (int j=0; j<10; j++)
+				assertEquals(10*i+j, map.get(((long)i<<32)|j));
+		
+		assertEquals(-1, map.get(((long)100<<32)));
+		assertTrue(map.remove(((long)5<<32)|5));
+		assertFalse(map.contains(((long)5<<32)|5));
+		assertEquals(56, map.get(((long)5<<32)|6));
+	}
+}
@@ -0,0 +1,85 @@
+package test.ikor.collection.primitive;
+
+import static org.junit.Assert.*;
+
+import ikor.collection.primitive.DoubleList;
+import ikor.collection.primitive.IntList;
+
+import org.junit.Test;
+
+public class IntListTest 
+{
+	@Test
+	public void testAdd () 
+	{
+		IntList list = new IntList(2);
+		
+		for (int i=0; i<100; i++)
+			assertEquals(i, list.add(3*i));
+		
+		assertEquals(100, list.size());
+		
+		for (int i=0; i<100; i++)
+			assertEquals(3*i, list.get(i));
+	}
+	
+	@Test
+	public void testIndex () 
+	{
+		IntList list = new IntList(new int[]{ 5, 7, 9, 7 });
+		
+		assertEquals(0, list.index(5));
+		assertEquals(1, list.index(7));
+		assertEquals(-1, list.index(8));
+		assertTrue(list.contains(9));
+		assertFalse(list.contains(0));
+	}
+	
+	@Test
+	public void testRemove () 
+	{
+		IntList list = new IntList(new int[]{ 5, 7, 9, 7 });
+		
+		assertEquals(9, list.remove(2));
+		assertTrue(list.removeValue(7));
+		assertFalse(list.removeValue(8));
+		
+		assertArrayEquals(new int[]{ 5, 7 }, list.toArray());
+		
+		try {
+			list.remove(2);
+			fail("list.remove() should have thrown an exception!");
+		} catch (IndexOutOfBoundsException error) {
+		}
+	}
+	
+	@Test
+	public void testSort () 
+	{
+		IntList list = new IntList(new int[]{ 5, 1, 9, 3 });
+		
+		list.sort();
+		
+		assertArrayEquals(new int[]{ 1, 3, 5, 9 }, list.toArray());
+		assertEquals("[1, 3, 5, 9]", list.toString());
+	}
+	
+	@Test
+	public void testDoubleList () 
+	{
+		DoubleList list = new DoubleList();
+		
+		for (int i=0; i<20; i++)
+			list.add(0.5*i);
+		
+		assertEquals(20, list.size());
+		assertEquals(4.5, list.get(9), 0.0);
+		assertEquals(4.5, list.remove(9), 0.0);
+		assertEquals(5.0, list.get(9), 0.0);
+		
+		list.setSize(25, -1.0);
+		
+		assertEquals(25, list.size());
+		assertEquals(-1.0, list.get(24), 0.0);
+	}
+}
@@ -0,0 +1,65 @@
+package test.ikor.collection.primitive;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import ikor.collection.primitive.IntSet;
+
+import org.junit.Test;
+
+public class IntSetTest 
+{
+	@Test
+	public void testAdd () 
+	{
+		IntSet set = new IntSet();
+		
+		assertTrue(set.add(3));
+		assertTrue(set.add(-3));
+		assertFalse(set.add(3));
+		
+		assertEquals(2, set.size());
+		assertTrue(set.contains(3));
+		assertTrue(set.contains(-3));
+		assertFalse(set.contains(0));
+	}
+	
+	@Test
+	public void testRemove () 
+	{
+		IntSet set = new IntSet(2);
+		
+		for (int i=0; i<1000; i++)
+			set.add(i);
+		
+		for (int i=0; i<1000; i+=3)
+			assertTrue(set.remove(i));
+		
+		for (int i=0; i<1000; i++)
+			assertEquals(i%3!=0, set.contains(i));
+		
+		assertEquals(666, set.size());
+	}
+	
+	@Test
+	public void testIntersection () 
+	{
+		IntSet a = new IntSet();
+		IntSet b = new IntSet();
+		
+		for (int i=0; i<10; i++) {
+			a.add(i);
+			b.add(2*i);
+		}
+		
+		assertEquals(5, a.intersectionSize(b));
+		assertEquals(5, b.intersectionSize(a));
+		
+		int[] values = a.toArray();
+		
+		Arrays.sort(values);
+		
+		assertArrayEquals(new int[]{ 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 }, values);
+	}
+}
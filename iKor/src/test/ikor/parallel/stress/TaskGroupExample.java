@@ -0,0 +1,67 @@
+package test.ikor.parallel.stress;
+
+import java.util.concurrent.TimeUnit;
+
+import ikor.parallel.Task;
+import ikor.parallel.TaskGroup;
+
+import ikor.parallel.scheduler.*;
+
+import ikor.util.Benchmark;
+
+// I/O-bound tasks (simulated by Thread.sleep) within a task group
+
+public class TaskGroupExample extends Task<Integer>
+{
+	private static final int TASKS = 10000;
+	private static final int TIMEOUT = 60; // seconds
+
+	public Integer call ()
+	{
+		int value = (int)(1000*Math.random());
+
+		try {
+			Thread.sleep(100+value);
+		} catch (Exception error) {
+		}
+
+		return 100+value;
+	}
+
+
+	public static void main (String[] args) throws Exception
+	{
+		Benchmark chrono = new Benchmark();
+
+		chrono.start();
+
+		VirtualThreadScheduler scheduler = new VirtualThreadScheduler();
+
+		System.out.println("Virtual threads: "+scheduler.isVirtual());
+
+		Task<Integer> task[] = new Task[TASKS];
+
+		long total = 0;
+
+		try (TaskGroup group = new TaskGroup(scheduler, TIMEOUT, TimeUnit.SECONDS)) {
+
+			for (int i=0; i<TASKS; i++) {
+				task[i] = new TaskGroupExample();
+				group.fork(task[i]);
+			}
+
+			group.join();
+		}
+
+		for (int i=0; i<TASKS; i++)
+			total += task[i].getResult();
+
+		scheduler.shutdown();
+
+		chrono.stop();
+
+		System.out.println("Tasks: "+TASKS);
+		System.out.println("Total: "+total);
+		System.out.println("Time: "+chrono);
+	}
+}